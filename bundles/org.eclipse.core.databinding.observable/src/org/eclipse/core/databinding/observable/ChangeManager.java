@@ -109,6 +109,20 @@ import org.eclipse.core.runtime.ListenerList;
 	}
 
 	protected void fireEvent(ObservableEvent event) {
+		RealmTransaction transaction = realm.getTransaction();
+		if (transaction != null && transaction.defer(this, event)) {
+			return;
+		}
+		dispatchEvent(event);
+	}
+
+	/**
+	 * Notifies the listeners of the given event, even if a transaction is in
+	 * progress.
+	 *
+	 * @param event
+	 */
+	void dispatchEvent(ObservableEvent event) {
 		Object listenerType = event.getListenerType();
 		int listenerTypeIndex = findListenerTypeIndex(listenerType);
 		if (listenerTypeIndex != -1) {
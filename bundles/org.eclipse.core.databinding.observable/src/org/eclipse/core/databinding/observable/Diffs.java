@@ -24,10 +24,14 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
+import org.eclipse.core.databinding.observable.list.DoubleListDiffEntry;
+import org.eclipse.core.databinding.observable.list.IntListDiffEntry;
 import org.eclipse.core.databinding.observable.list.ListDiff;
 import org.eclipse.core.databinding.observable.list.ListDiffEntry;
 import org.eclipse.core.databinding.observable.map.MapDiff;
 import org.eclipse.core.databinding.observable.set.SetDiff;
+import org.eclipse.core.databinding.observable.value.DoubleValueDiff;
+import org.eclipse.core.databinding.observable.value.IntValueDiff;
 import org.eclipse.core.databinding.observable.value.ValueDiff;
 import org.eclipse.core.internal.databinding.observable.Util;
 
@@ -213,9 +217,22 @@ public class Diffs {
 		return new UnmodifiableValueDiff<V>(diff);
 	}
 
+	/**
+	 * The maximum combined size of the old and new list for which list diffs
+	 * are computed with the original, quadratic algorithm. Its results are
+	 * kept for small lists because clients may depend on the exact entries
+	 * it produces.
+	 */
+	private static final int MAX_QUADRATIC_LIST_DIFF_SIZE = 100;
+
 	/**
 	 * Returns a {@link ListDiff} describing the change between the specified
 	 * old and new list states.
+	 * <p>
+	 * For large lists, the diff is computed in O(n log n) time from an index
+	 * of the old elements, and the {@link ListDiffEntry} objects are only
+	 * created when the differences are first requested.
+	 * </p>
 	 *
 	 * @param <E>
 	 *            the list element type
@@ -228,6 +245,9 @@ public class Diffs {
 	 * @since 1.6
 	 */
 	public static <E> ListDiff<E> computeListDiff(List<? extends E> oldList, List<? extends E> newList) {
+		if (oldList.size() + newList.size() > MAX_QUADRATIC_LIST_DIFF_SIZE) {
+			return IndexedListDiff.compute(oldList, newList);
+		}
 		List<ListDiffEntry<E>> diffEntries = new ArrayList<>();
 		createListDiffs(new ArrayList<E>(oldList), newList, diffEntries);
 		ListDiff<E> listDiff = createListDiff(diffEntries);
@@ -588,6 +608,52 @@ public class Diffs {
 		};
 	}
 
+	/**
+	 * Creates a diff between two <code>int</code> values
+	 *
+	 * @param oldValue
+	 * @param newValue
+	 * @return a value diff
+	 * @since 1.6
+	 */
+	public static IntValueDiff createIntValueDiff(final int oldValue, final int newValue) {
+		return new IntValueDiff() {
+
+			@Override
+			public int getOldIntValue() {
+				return oldValue;
+			}
+
+			@Override
+			public int getNewIntValue() {
+				return newValue;
+			}
+		};
+	}
+
+	/**
+	 * Creates a diff between two <code>double</code> values
+	 *
+	 * @param oldValue
+	 * @param newValue
+	 * @return a value diff
+	 * @since 1.6
+	 */
+	public static DoubleValueDiff createDoubleValueDiff(final double oldValue, final double newValue) {
+		return new DoubleValueDiff() {
+
+			@Override
+			public double getOldDoubleValue() {
+				return oldValue;
+			}
+
+			@Override
+			public double getNewDoubleValue() {
+				return newValue;
+			}
+		};
+	}
+
 	/**
 	 * @param <E>
 	 *            the set element type
@@ -710,6 +776,62 @@ public class Diffs {
 		};
 	}
 
+	/**
+	 * @param position
+	 * @param isAddition
+	 * @param element
+	 * @return a list diff entry
+	 * @since 1.6
+	 */
+	public static IntListDiffEntry createIntListDiffEntry(final int position, final boolean isAddition,
+			final int element) {
+		return new IntListDiffEntry() {
+
+			@Override
+			public int getPosition() {
+				return position;
+			}
+
+			@Override
+			public boolean isAddition() {
+				return isAddition;
+			}
+
+			@Override
+			public int getIntElement() {
+				return element;
+			}
+		};
+	}
+
+	/**
+	 * @param position
+	 * @param isAddition
+	 * @param element
+	 * @return a list diff entry
+	 * @since 1.6
+	 */
+	public static DoubleListDiffEntry createDoubleListDiffEntry(final int position, final boolean isAddition,
+			final double element) {
+		return new DoubleListDiffEntry() {
+
+			@Override
+			public int getPosition() {
+				return position;
+			}
+
+			@Override
+			public boolean isAddition() {
+				return isAddition;
+			}
+
+			@Override
+			public double getDoubleElement() {
+				return element;
+			}
+		};
+	}
+
 	/**
 	 * Creates a MapDiff representing the addition of a single added key
 	 *
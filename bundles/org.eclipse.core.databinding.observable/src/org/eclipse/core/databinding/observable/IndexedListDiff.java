@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.databinding.observable.list.ListDiff;
+import org.eclipse.core.databinding.observable.list.ListDiffEntry;
+import org.eclipse.core.internal.databinding.observable.Util;
+
+/**
+ * A {@link ListDiff} computed in O(n log n) time for lists of any size.
+ * <p>
+ * After skipping the common prefix and suffix, the elements of the new list
+ * are matched with equal elements of the old list through a hash index (the
+ * k-th occurrence of an element in the new list with its k-th occurrence in
+ * the old list). The longest run of matches that is increasing in both lists
+ * is kept; all other old elements are removed and all other new elements are
+ * added, in a single pass over both lists.
+ * </p>
+ * <p>
+ * The differences are recorded in flat arrays. {@link ListDiffEntry} objects
+ * are only created when {@link #getDifferences()} is first called.
+ * </p>
+ *
+ * @param <E>
+ *            the list element type
+ * @since 1.6
+ */
+/* package */final class IndexedListDiff<E> extends ListDiff<E> {
+
+	private final int size;
+
+	private final int[] positions;
+
+	private final boolean[] additions;
+
+	private final Object[] elements;
+
+	private ListDiffEntry<E>[] differences;
+
+	private IndexedListDiff(int size, int[] positions, boolean[] additions, Object[] elements) {
+		this.size = size;
+		this.positions = positions;
+		this.additions = additions;
+		this.elements = elements;
+	}
+
+	/**
+	 * Computes the differences between the given list states.
+	 *
+	 * @param oldList
+	 *            the old list state
+	 * @param newList
+	 *            the new list state
+	 * @return the differences between oldList and newList
+	 */
+	static <E> IndexedListDiff<E> compute(List<? extends E> oldList, List<? extends E> newList) {
+		Object[] oldElements = oldList.toArray();
+		Object[] newElements = newList.toArray();
+		int oldEnd = oldElements.length;
+		int newEnd = newElements.length;
+		int start = 0;
+		while (start < oldEnd && start < newEnd && Util.equals(oldElements[start], newElements[start])) {
+			start++;
+		}
+		while (oldEnd > start && newEnd > start
+				&& Util.equals(oldElements[oldEnd - 1], newElements[newEnd - 1])) {
+			oldEnd--;
+			newEnd--;
+		}
+
+		// nextEqual[i] is the index of the next old element equal to old
+		// element i, firstEqual maps each old element to its first index
+		int[] nextEqual = new int[oldEnd];
+		Map<Object, Integer> firstEqual = new HashMap<>();
+		for (int i = oldEnd; --i >= start;) {
+			Integer next = firstEqual.put(oldElements[i], Integer.valueOf(i));
+			nextEqual[i] = next == null ? -1 : next.intValue();
+		}
+		int[] matches = new int[newEnd];
+		for (int j = start; j < newEnd; j++) {
+			Integer first = firstEqual.get(newElements[j]);
+			if (first == null || first.intValue() < 0) {
+				matches[j] = -1;
+			} else {
+				matches[j] = first.intValue();
+				firstEqual.put(newElements[j], Integer.valueOf(nextEqual[matches[j]]));
+			}
+		}
+		boolean[] keptOld = new boolean[oldEnd];
+		boolean[] keptNew = keepLongestIncreasingRun(matches, start, newEnd);
+		int keptCount = 0;
+		for (int j = start; j < newEnd; j++) {
+			if (keptNew[j]) {
+				keptOld[matches[j]] = true;
+				keptCount++;
+			}
+		}
+
+		int size = (oldEnd - start) + (newEnd - start) - 2 * keptCount;
+		int[] positions = new int[size];
+		boolean[] additions = new boolean[size];
+		Object[] elements = new Object[size];
+		int entry = 0;
+		int position = start;
+		int i = start;
+		int j = start;
+		while (i < oldEnd || j < newEnd) {
+			while (i < oldEnd && !keptOld[i]) {
+				positions[entry] = position;
+				elements[entry++] = oldElements[i++];
+			}
+			while (j < newEnd && !keptNew[j]) {
+				positions[entry] = position++;
+				additions[entry] = true;
+				elements[entry++] = newElements[j++];
+			}
+			if (i < oldEnd && j < newEnd) {
+				// both are kept, and kept elements are matched in order
+				i++;
+				j++;
+				position++;
+			}
+		}
+		return new IndexedListDiff<>(size, positions, additions, elements);
+	}
+
+	/**
+	 * Returns which of the given matches form a longest strictly increasing
+	 * subsequence, ignoring negative matches.
+	 */
+	private static boolean[] keepLongestIncreasingRun(int[] matches, int start, int end) {
+		// tails[k] is the index of the smallest match ending an increasing
+		// run of length k + 1, predecessors link each index to the previous
+		// index of its run
+		int[] tails = new int[end - start];
+		int[] predecessors = new int[end];
+		int length = 0;
+		for (int j = start; j < end; j++) {
+			int match = matches[j];
+			if (match < 0) {
+				continue;
+			}
+			int low = 0;
+			int high = length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (matches[tails[mid]] < match) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			predecessors[j] = low > 0 ? tails[low - 1] : -1;
+			tails[low] = j;
+			if (low == length) {
+				length++;
+			}
+		}
+		boolean[] kept = new boolean[end];
+		for (int j = length > 0 ? tails[length - 1] : -1; j >= 0; j = predecessors[j]) {
+			kept[j] = true;
+		}
+		return kept;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public ListDiffEntry<E>[] getDifferences() {
+		if (differences == null) {
+			ListDiffEntry<E>[] entries = new ListDiffEntry[size];
+			for (int i = 0; i < size; i++) {
+				entries[i] = Diffs.createListDiffEntry(positions[i], additions[i], (E) elements[i]);
+			}
+			differences = entries;
+		}
+		return differences;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+}
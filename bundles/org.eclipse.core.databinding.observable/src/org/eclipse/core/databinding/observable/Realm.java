@@ -121,6 +121,8 @@ public abstract class Realm {
 
 	Queue workQueue = new Queue();
 
+	private RealmTransaction transaction;
+
 	/**
 	 * Runs the given runnable. If an exception occurs within the runnable, it
 	 * is logged and not re-thrown. If the runnable implements
@@ -338,4 +340,75 @@ public abstract class Realm {
 			defaultRealm.set(oldRealm);
 		}
 	}
+
+	/**
+	 * Begins a transaction in this realm. Until the transaction is committed,
+	 * the change, value change, list change, set change and map change events
+	 * of observables in this realm are not fired. Instead, the events of each
+	 * observable are merged, and a single event per observable and event type
+	 * is fired when the transaction is committed. Other events, such as value
+	 * changing events and stale events, are still fired immediately.
+	 * <p>
+	 * Transactions can be nested; the events are fired when the outermost
+	 * transaction is committed. Every call to this method must be matched by
+	 * a call to {@link #commitTransaction()}, typically in a
+	 * <code>finally</code> block. This method must be called from within this
+	 * realm.
+	 * </p>
+	 * <p>
+	 * Listeners, including observables derived from the changed observables,
+	 * are not notified until the transaction is committed, so they may not
+	 * reflect the changes made within the transaction.
+	 * </p>
+	 *
+	 * @see #commitTransaction()
+	 * @since 1.6
+	 */
+	public void beginTransaction() {
+		if (transaction == null) {
+			transaction = new RealmTransaction();
+		}
+		transaction.depth++;
+	}
+
+	/**
+	 * Commits the transaction begun by the matching call to
+	 * {@link #beginTransaction()}. If this commits the outermost transaction,
+	 * the merged events collected since it was begun are fired. This method
+	 * must be called from within this realm.
+	 *
+	 * @throws IllegalStateException
+	 *             if no transaction is in progress
+	 * @see #beginTransaction()
+	 * @since 1.6
+	 */
+	public void commitTransaction() {
+		if (transaction == null) {
+			throw new IllegalStateException("No transaction is in progress"); //$NON-NLS-1$
+		}
+		if (--transaction.depth == 0) {
+			RealmTransaction committed = transaction;
+			transaction = null;
+			committed.fireEvents();
+		}
+	}
+
+	/**
+	 * Returns whether a transaction is in progress in this realm.
+	 *
+	 * @return <code>true</code> if a transaction has been begun and not yet
+	 *         committed, <code>false</code> otherwise
+	 * @see #beginTransaction()
+	 * @since 1.6
+	 */
+	public boolean isInTransaction() {
+		return transaction != null;
+	}
+
+	/**
+	 * @return the transaction in progress, or <code>null</code>
+	 */
+	RealmTransaction getTransaction() {
+		return transaction;
+	}
 }
@@ -0,0 +1,364 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.databinding.observable.list.IObservableList;
+import org.eclipse.core.databinding.observable.list.ListChangeEvent;
+import org.eclipse.core.databinding.observable.list.ListDiffEntry;
+import org.eclipse.core.databinding.observable.map.IObservableMap;
+import org.eclipse.core.databinding.observable.map.MapChangeEvent;
+import org.eclipse.core.databinding.observable.map.MapDiff;
+import org.eclipse.core.databinding.observable.set.IObservableSet;
+import org.eclipse.core.databinding.observable.set.SetChangeEvent;
+import org.eclipse.core.databinding.observable.set.SetDiff;
+import org.eclipse.core.databinding.observable.value.DoubleValueDiff;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.IntValueDiff;
+import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
+import org.eclipse.core.databinding.observable.value.ValueDiff;
+
+/**
+ * Collects the change events fired within a {@link Realm} transaction and
+ * fires them, merged into one event per observable and event type, when the
+ * transaction is committed.
+ * <p>
+ * Only {@link ChangeEvent}s, {@link ValueChangeEvent}s,
+ * {@link ListChangeEvent}s, {@link SetChangeEvent}s and
+ * {@link MapChangeEvent}s are collected. All other events, in particular
+ * vetoable and stale events, are fired immediately.
+ * </p>
+ *
+ * @see Realm#beginTransaction()
+ * @since 1.6
+ */
+/* package */final class RealmTransaction {
+
+	/**
+	 * The merged events of each change manager, by listener type. Change
+	 * managers are compared by identity since observable collections compare
+	 * by content.
+	 */
+	private final Map<ChangeManager, Map<Object, PendingEvent>> pendingEvents = new IdentityHashMap<>();
+
+	/**
+	 * The change managers with pending events, in the order in which their
+	 * first event was fired.
+	 */
+	private final List<ChangeManager> managers = new ArrayList<>();
+
+	/**
+	 * The number of times the transaction has been begun but not committed.
+	 */
+	int depth;
+
+	/**
+	 * Collects the given event if it is of a type that can be merged.
+	 *
+	 * @param manager
+	 *            the change manager firing the event
+	 * @param event
+	 *            the event
+	 * @return <code>true</code> if the event has been collected,
+	 *         <code>false</code> if it has to be fired immediately
+	 */
+	boolean defer(ChangeManager manager, ObservableEvent event) {
+		Object listenerType = event.getListenerType();
+		if (!isMergeable(event)) {
+			return false;
+		}
+		Map<Object, PendingEvent> events = pendingEvents.get(manager);
+		if (events == null) {
+			events = new LinkedHashMap<>();
+			pendingEvents.put(manager, events);
+			managers.add(manager);
+		}
+		PendingEvent pending = events.get(listenerType);
+		if (pending == null) {
+			events.put(listenerType, createPendingEvent(event));
+		} else {
+			pending.merge(event);
+		}
+		return true;
+	}
+
+	/**
+	 * Fires the merged events. Events fired by listeners while this is done
+	 * are not collected by this transaction.
+	 */
+	void fireEvents() {
+		for (ChangeManager manager : managers) {
+			for (PendingEvent pending : pendingEvents.get(manager).values()) {
+				ObservableEvent event = pending.toEvent();
+				if (event != null) {
+					manager.dispatchEvent(event);
+				}
+			}
+		}
+		pendingEvents.clear();
+		managers.clear();
+	}
+
+	private static boolean isMergeable(ObservableEvent event) {
+		Class<?> eventClass = event.getClass();
+		return eventClass == ChangeEvent.class || eventClass == ValueChangeEvent.class
+				|| eventClass == ListChangeEvent.class || eventClass == SetChangeEvent.class
+				|| eventClass == MapChangeEvent.class;
+	}
+
+	private static PendingEvent createPendingEvent(ObservableEvent event) {
+		PendingEvent pending;
+		if (event instanceof ValueChangeEvent) {
+			pending = new PendingValueChange();
+		} else if (event instanceof ListChangeEvent) {
+			pending = new PendingListChange();
+		} else if (event instanceof SetChangeEvent) {
+			pending = new PendingSetChange();
+		} else if (event instanceof MapChangeEvent) {
+			pending = new PendingMapChange();
+		} else {
+			pending = new PendingChange();
+		}
+		pending.merge(event);
+		return pending;
+	}
+
+	/**
+	 * Accumulates the events of one type fired by one observable.
+	 */
+	private static abstract class PendingEvent {
+		/**
+		 * Merges the given event into the accumulated changes. Events are
+		 * merged in the order in which they were fired.
+		 */
+		abstract void merge(ObservableEvent event);
+
+		/**
+		 * @return the merged event, or <code>null</code> if the changes
+		 *         cancel each other out
+		 */
+		abstract ObservableEvent toEvent();
+	}
+
+	private static class PendingChange extends PendingEvent {
+		private ObservableEvent first;
+
+		@Override
+		void merge(ObservableEvent event) {
+			if (first == null) {
+				first = event;
+			}
+		}
+
+		@Override
+		ObservableEvent toEvent() {
+			return first;
+		}
+	}
+
+	private static class PendingValueChange extends PendingEvent {
+		private IObservableValue<Object> source;
+		private ValueDiff<?> firstDiff;
+		private ValueDiff<?> lastDiff;
+
+		@SuppressWarnings("unchecked")
+		@Override
+		void merge(ObservableEvent event) {
+			ValueChangeEvent<Object> valueEvent = (ValueChangeEvent<Object>) event;
+			if (source == null) {
+				source = valueEvent.getObservableValue();
+				firstDiff = valueEvent.diff;
+			}
+			lastDiff = valueEvent.diff;
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		@Override
+		ObservableEvent toEvent() {
+			// keep the primitive diff types that primitive observables promise
+			// to their listeners, and drop changes that were set back
+			ValueDiff<?> diff;
+			if (firstDiff instanceof IntValueDiff && lastDiff instanceof IntValueDiff) {
+				int oldValue = ((IntValueDiff) firstDiff).getOldIntValue();
+				int newValue = ((IntValueDiff) lastDiff).getNewIntValue();
+				if (oldValue == newValue) {
+					return null;
+				}
+				diff = Diffs.createIntValueDiff(oldValue, newValue);
+			} else if (firstDiff instanceof DoubleValueDiff && lastDiff instanceof DoubleValueDiff) {
+				double oldValue = ((DoubleValueDiff) firstDiff).getOldDoubleValue();
+				double newValue = ((DoubleValueDiff) lastDiff).getNewDoubleValue();
+				if (Double.doubleToLongBits(oldValue) == Double.doubleToLongBits(newValue)) {
+					return null;
+				}
+				diff = Diffs.createDoubleValueDiff(oldValue, newValue);
+			} else {
+				Object oldValue = firstDiff.getOldValue();
+				Object newValue = lastDiff.getNewValue();
+				if (Diffs.equals(oldValue, newValue)) {
+					return null;
+				}
+				diff = Diffs.createValueDiff(oldValue, newValue);
+			}
+			return new ValueChangeEvent(source, diff);
+		}
+	}
+
+	private static class PendingListChange extends PendingEvent {
+		private IObservableList<Object> source;
+		private final List<ListDiffEntry<Object>> differences = new ArrayList<>();
+
+		@SuppressWarnings("unchecked")
+		@Override
+		void merge(ObservableEvent event) {
+			ListChangeEvent<Object> listEvent = (ListChangeEvent<Object>) event;
+			source = listEvent.getObservableList();
+			// applying the entries of all diffs in order is equivalent to
+			// applying the diffs one after the other
+			differences.addAll(Arrays.asList(listEvent.diff.getDifferences()));
+		}
+
+		@Override
+		ObservableEvent toEvent() {
+			if (differences.isEmpty()) {
+				return null;
+			}
+			return new ListChangeEvent<>(source, Diffs.createListDiff(differences));
+		}
+	}
+
+	private static class PendingSetChange extends PendingEvent {
+		private IObservableSet<Object> source;
+		private final Set<Object> additions = new HashSet<>();
+		private final Set<Object> removals = new HashSet<>();
+
+		@SuppressWarnings("unchecked")
+		@Override
+		void merge(ObservableEvent event) {
+			SetChangeEvent<Object> setEvent = (SetChangeEvent<Object>) event;
+			source = setEvent.getObservableSet();
+			SetDiff<Object> diff = setEvent.diff;
+			for (Object removed : diff.getRemovals()) {
+				if (!additions.remove(removed)) {
+					removals.add(removed);
+				}
+			}
+			for (Object added : diff.getAdditions()) {
+				if (!removals.remove(added)) {
+					additions.add(added);
+				}
+			}
+		}
+
+		@Override
+		ObservableEvent toEvent() {
+			if (additions.isEmpty() && removals.isEmpty()) {
+				return null;
+			}
+			return new SetChangeEvent<>(source, Diffs.createSetDiff(additions, removals));
+		}
+	}
+
+	private static class PendingMapChange extends PendingEvent {
+		private IObservableMap<Object, Object> source;
+
+		/**
+		 * The state of each changed key before the first and after the last
+		 * event.
+		 */
+		private final Map<Object, KeyChange> changes = new LinkedHashMap<>();
+
+		private static class KeyChange {
+			boolean oldPresent;
+			Object oldValue;
+			boolean newPresent;
+			Object newValue;
+
+			void set(boolean present, Object value) {
+				newPresent = present;
+				newValue = value;
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		void merge(ObservableEvent event) {
+			MapChangeEvent<Object, Object> mapEvent = (MapChangeEvent<Object, Object>) event;
+			source = mapEvent.getObservableMap();
+			MapDiff<Object, Object> diff = mapEvent.diff;
+			for (Object key : diff.getAddedKeys()) {
+				change(key, false, null).set(true, diff.getNewValue(key));
+			}
+			for (Object key : diff.getChangedKeys()) {
+				change(key, true, diff.getOldValue(key)).set(true, diff.getNewValue(key));
+			}
+			for (Object key : diff.getRemovedKeys()) {
+				change(key, true, diff.getOldValue(key)).set(false, null);
+			}
+		}
+
+		private KeyChange change(Object key, boolean oldPresent, Object oldValue) {
+			KeyChange change = changes.get(key);
+			if (change == null) {
+				change = new KeyChange();
+				change.oldPresent = oldPresent;
+				change.oldValue = oldValue;
+				changes.put(key, change);
+			}
+			return change;
+		}
+
+		@Override
+		ObservableEvent toEvent() {
+			Set<Object> addedKeys = new HashSet<>();
+			Set<Object> removedKeys = new HashSet<>();
+			Set<Object> changedKeys = new HashSet<>();
+			Map<Object, Object> oldValues = new HashMap<>();
+			Map<Object, Object> newValues = new HashMap<>();
+			for (Map.Entry<Object, KeyChange> entry : changes.entrySet()) {
+				Object key = entry.getKey();
+				KeyChange change = entry.getValue();
+				if (change.oldPresent) {
+					if (!change.newPresent) {
+						removedKeys.add(key);
+					} else if (!Diffs.equals(change.oldValue, change.newValue)) {
+						changedKeys.add(key);
+					} else {
+						continue;
+					}
+					oldValues.put(key, change.oldValue);
+				} else if (change.newPresent) {
+					addedKeys.add(key);
+				} else {
+					continue;
+				}
+				if (change.newPresent) {
+					newValues.put(key, change.newValue);
+				}
+			}
+			if (addedKeys.isEmpty() && removedKeys.isEmpty() && changedKeys.isEmpty()) {
+				return null;
+			}
+			return new MapChangeEvent<>(source,
+					Diffs.createMapDiff(addedKeys, removedKeys, changedKeys, oldValues, newValues));
+		}
+	}
+}
@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.list;
+
+import org.eclipse.core.databinding.observable.Diffs;
+
+/**
+ * A single addition of a <code>double</code> to a list or removal of a
+ * <code>double</code> from a list. The element is only boxed when
+ * {@link #getElement()} is called.
+ *
+ * @see Diffs#createDoubleListDiffEntry(int, boolean, double)
+ * @see IObservableDoubleList
+ * @since 1.6
+ */
+public abstract class DoubleListDiffEntry extends ListDiffEntry<Double> {
+
+	/**
+	 * @return the element that was added or removed
+	 */
+	public abstract double getDoubleElement();
+
+	@Override
+	public final Double getElement() {
+		return Double.valueOf(getDoubleElement());
+	}
+}
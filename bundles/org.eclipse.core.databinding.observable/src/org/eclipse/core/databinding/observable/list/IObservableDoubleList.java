@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.list;
+
+/**
+ * An observable list of <code>double</code>s whose elements can be read and
+ * written without boxing. The element type is {@link Double#TYPE} and the list
+ * never contains <code>null</code>.
+ * <p>
+ * The entries of list change events fired by implementations are
+ * {@link DoubleListDiffEntry DoubleListDiffEntries}.
+ * </p>
+ *
+ * @noimplement This interface is not intended to be implemented by clients.
+ *              Clients should instead subclass one of the classes that
+ *              implement this interface.
+ *
+ * @see WritableDoubleList
+ * @since 1.6
+ */
+public interface IObservableDoubleList extends IObservableList<Double> {
+
+	/**
+	 * @param index
+	 * @return the element at the given index
+	 * @TrackedGetter
+	 */
+	public double getDouble(int index);
+
+	/**
+	 * @param index
+	 * @param element
+	 * @return the element previously at the given index
+	 */
+	public double setDouble(int index, double element);
+
+	/**
+	 * Appends the given element to the list.
+	 *
+	 * @param element
+	 */
+	public void addDouble(double element);
+
+	/**
+	 * Inserts the given element at the given index.
+	 *
+	 * @param index
+	 * @param element
+	 */
+	public void addDouble(int index, double element);
+
+	/**
+	 * Removes the element at the given index.
+	 *
+	 * @param index
+	 * @return the removed element
+	 */
+	public double removeDoubleAt(int index);
+
+	/**
+	 * Elements are compared like {@link Double#equals(Object)} does.
+	 *
+	 * @param element
+	 * @return the index of the first occurrence of the given element, or -1
+	 *         if the list does not contain it
+	 * @TrackedGetter
+	 */
+	public int indexOfDouble(double element);
+
+	/**
+	 * @return a new array containing the elements of the list
+	 * @TrackedGetter
+	 */
+	public double[] toDoubleArray();
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.list;
+
+/**
+ * An observable list of <code>int</code>s whose elements can be read and
+ * written without boxing. The element type is {@link Integer#TYPE} and the
+ * list never contains <code>null</code>.
+ * <p>
+ * The entries of list change events fired by implementations are
+ * {@link IntListDiffEntry IntListDiffEntries}.
+ * </p>
+ *
+ * @noimplement This interface is not intended to be implemented by clients.
+ *              Clients should instead subclass one of the classes that
+ *              implement this interface.
+ *
+ * @see WritableIntList
+ * @since 1.6
+ */
+public interface IObservableIntList extends IObservableList<Integer> {
+
+	/**
+	 * @param index
+	 * @return the element at the given index
+	 * @TrackedGetter
+	 */
+	public int getInt(int index);
+
+	/**
+	 * @param index
+	 * @param element
+	 * @return the element previously at the given index
+	 */
+	public int setInt(int index, int element);
+
+	/**
+	 * Appends the given element to the list.
+	 *
+	 * @param element
+	 */
+	public void addInt(int element);
+
+	/**
+	 * Inserts the given element at the given index.
+	 *
+	 * @param index
+	 * @param element
+	 */
+	public void addInt(int index, int element);
+
+	/**
+	 * Removes the element at the given index.
+	 *
+	 * @param index
+	 * @return the removed element
+	 */
+	public int removeIntAt(int index);
+
+	/**
+	 * @param element
+	 * @return the index of the first occurrence of the given element, or -1
+	 *         if the list does not contain it
+	 * @TrackedGetter
+	 */
+	public int indexOfInt(int element);
+
+	/**
+	 * @return a new array containing the elements of the list
+	 * @TrackedGetter
+	 */
+	public int[] toIntArray();
+}
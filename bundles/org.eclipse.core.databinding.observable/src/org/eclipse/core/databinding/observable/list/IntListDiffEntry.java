@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.list;
+
+import org.eclipse.core.databinding.observable.Diffs;
+
+/**
+ * A single addition of an <code>int</code> to a list or removal of an
+ * <code>int</code> from a list. The element is only boxed when
+ * {@link #getElement()} is called.
+ *
+ * @see Diffs#createIntListDiffEntry(int, boolean, int)
+ * @see IObservableIntList
+ * @since 1.6
+ */
+public abstract class IntListDiffEntry extends ListDiffEntry<Integer> {
+
+	/**
+	 * @return the element that was added or removed
+	 */
+	public abstract int getIntElement();
+
+	@Override
+	public final Integer getElement() {
+		return Integer.valueOf(getIntElement());
+	}
+}
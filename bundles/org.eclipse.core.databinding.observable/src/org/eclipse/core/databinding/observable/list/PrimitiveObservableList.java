@@ -0,0 +1,257 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.list;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * The implementation shared by {@link WritableIntList} and
+ * {@link WritableDoubleList}: a mutable observable list backed by an array of
+ * primitives. The elements are moved with {@link System#arraycopy}, which
+ * works on any array type; subclasses read, write and box single elements and
+ * create the diff entries for them.
+ * <p>
+ * Helper methods that take an index expect the index to have been checked.
+ * </p>
+ *
+ * @param <E>
+ *            the boxed type of the elements
+ * @param <A>
+ *            the primitive array type, like <code>int[]</code>
+ */
+/* package */abstract class PrimitiveObservableList<E, A> extends AbstractObservableList<E> {
+
+	A elements;
+
+	int size;
+
+	PrimitiveObservableList(Realm realm, A elements, int size) {
+		super(realm);
+		this.elements = elements;
+		this.size = size;
+	}
+
+	/**
+	 * @return the length of the backing array
+	 */
+	abstract int capacity();
+
+	/**
+	 * @return a copy of the backing array with the given length
+	 */
+	abstract A copyOf(int length);
+
+	/**
+	 * @return the element at the given index, boxed
+	 */
+	abstract E box(int index);
+
+	/**
+	 * Stores the given element at the given index, unboxed. The element has
+	 * been checked not to be <code>null</code>.
+	 */
+	abstract void store(int index, E element);
+
+	/**
+	 * @return a diff entry for the element currently at the given index
+	 */
+	abstract ListDiffEntry<E> createDiffEntry(int position, boolean isAddition, int index);
+
+	@Override
+	protected int doGetSize() {
+		return size;
+	}
+
+	@Override
+	public E get(int index) {
+		ObservableTracker.getterCalled(this);
+		checkIndex(index, false);
+		return box(index);
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends E> c) {
+		return addAll(size, c);
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends E> c) {
+		checkRealm();
+		checkIndex(index, true);
+		int count = c.size();
+		if (count == 0) {
+			return false;
+		}
+		for (E element : c) {
+			checkElement(element);
+		}
+		openGap(index, count);
+		int i = index;
+		for (E element : c) {
+			store(i++, element);
+		}
+		fireAdded(index, count);
+		return true;
+	}
+
+	@Override
+	public E move(int oldIndex, int newIndex) {
+		checkRealm();
+		if (oldIndex < 0 || oldIndex >= size)
+			throw new IndexOutOfBoundsException(
+					"oldIndex: " + oldIndex + ", size:" + size); //$NON-NLS-1$ //$NON-NLS-2$
+		if (newIndex < 0 || newIndex >= size)
+			throw new IndexOutOfBoundsException(
+					"newIndex: " + newIndex + ", size:" + size); //$NON-NLS-1$ //$NON-NLS-2$
+		if (oldIndex == newIndex) {
+			return box(newIndex);
+		}
+		ListDiffEntry<E> removal = hasListeners() ? createDiffEntry(oldIndex, false, oldIndex) : null;
+		// park the element behind the last one while the others are shifted
+		ensureCapacity(size + 1);
+		System.arraycopy(elements, oldIndex, elements, size, 1);
+		if (oldIndex < newIndex) {
+			System.arraycopy(elements, oldIndex + 1, elements, oldIndex, newIndex - oldIndex);
+		} else {
+			System.arraycopy(elements, newIndex, elements, newIndex + 1, oldIndex - newIndex);
+		}
+		System.arraycopy(elements, size, elements, newIndex, 1);
+		if (removal != null) {
+			fireListChange(Diffs.createListDiff(removal, createDiffEntry(newIndex, true, newIndex)));
+		}
+		return box(newIndex);
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		return removeContained(c, true);
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		return removeContained(c, false);
+	}
+
+	/**
+	 * Removes the elements that are (or are not) contained in the given
+	 * collection, firing a single event.
+	 */
+	private boolean removeContained(Collection<?> c, boolean contained) {
+		checkRealm();
+		ListDiffEntry<E>[] entries = hasListeners() ? newEntries(size) : null;
+		int removed = 0;
+		int kept = 0;
+		for (int i = 0; i < size; i++) {
+			if (c.contains(box(i)) == contained) {
+				if (entries != null) {
+					// positions are relative to the list with the previous
+					// elements already removed
+					entries[removed] = createDiffEntry(kept, false, i);
+				}
+				removed++;
+			} else {
+				if (kept != i) {
+					System.arraycopy(elements, i, elements, kept, 1);
+				}
+				kept++;
+			}
+		}
+		size = kept;
+		if (removed == 0) {
+			return false;
+		}
+		if (entries != null) {
+			fireListChange(Diffs.createListDiff(Arrays.copyOf(entries, removed)));
+		}
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		checkRealm();
+		int oldSize = size;
+		size = 0;
+		if (oldSize > 0 && hasListeners()) {
+			// remove from back to front, like WritableList does
+			ListDiffEntry<E>[] entries = newEntries(oldSize);
+			for (int i = 0; i < oldSize; i++) {
+				int index = oldSize - 1 - i;
+				entries[i] = createDiffEntry(index, false, index);
+			}
+			fireListChange(Diffs.createListDiff(entries));
+		}
+	}
+
+	/**
+	 * Makes room for the given number of elements at the given index.
+	 */
+	void openGap(int index, int count) {
+		ensureCapacity(size + count);
+		System.arraycopy(elements, index, elements, index + count, size - index);
+		size += count;
+	}
+
+	/**
+	 * Removes the element at the given index.
+	 */
+	void closeGap(int index) {
+		System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+		size--;
+	}
+
+	/**
+	 * Fires the addition of the given number of elements at the given index,
+	 * if there are listeners.
+	 */
+	void fireAdded(int index, int count) {
+		if (!hasListeners()) {
+			return;
+		}
+		if (count == 1) {
+			fireListChange(Diffs.createListDiff(createDiffEntry(index, true, index)));
+			return;
+		}
+		ListDiffEntry<E>[] entries = newEntries(count);
+		for (int i = 0; i < count; i++) {
+			entries[i] = createDiffEntry(index + i, true, index + i);
+		}
+		fireListChange(Diffs.createListDiff(entries));
+	}
+
+	void checkIndex(int index, boolean allowSize) {
+		if (index < 0 || index > size || (index == size && !allowSize))
+			throw new IndexOutOfBoundsException(
+					"index: " + index + ", size:" + size); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	static void checkElement(Object element) {
+		Assert.isNotNull(element, "Element cannot be null"); //$NON-NLS-1$
+	}
+
+	private void ensureCapacity(int capacity) {
+		int length = capacity();
+		if (capacity > length) {
+			elements = copyOf(Math.max(capacity, length + (length >> 1) + 1));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <E> ListDiffEntry<E>[] newEntries(int length) {
+		return new ListDiffEntry[length];
+	}
+}
@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.list;
+
+import java.util.Arrays;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.Realm;
+
+/**
+ * Mutable (writable) implementation of {@link IObservableDoubleList}, backed by
+ * a <code>double</code> array.
+ * <p>
+ * Unlike a <code>WritableList&lt;Double&gt;</code>, this class stores its
+ * elements unboxed, and only creates a diff when there are listeners.
+ * </p>
+ * <p>
+ * This class is not thread safe. All state accessing methods must be invoked
+ * from the {@link Realm#isCurrent() current realm}. Only the methods for adding
+ * and removing listeners may be invoked from any thread.
+ * </p>
+ *
+ * @since 1.6
+ */
+public class WritableDoubleList extends PrimitiveObservableList<Double, double[]> implements IObservableDoubleList {
+
+	private static final double[] EMPTY = new double[0];
+
+	/**
+	 * Creates an empty list in the default realm.
+	 */
+	public WritableDoubleList() {
+		this(Realm.getDefault());
+	}
+
+	/**
+	 * Creates an empty list in the given realm.
+	 *
+	 * @param realm
+	 */
+	public WritableDoubleList(Realm realm) {
+		this(realm, EMPTY);
+	}
+
+	/**
+	 * Creates a list in the given realm containing the given elements. The
+	 * array is copied.
+	 *
+	 * @param realm
+	 * @param elements
+	 *            the initial elements
+	 */
+	public WritableDoubleList(Realm realm, double[] elements) {
+		super(realm, elements.clone(), elements.length);
+	}
+
+	@Override
+	public Object getElementType() {
+		return Double.TYPE;
+	}
+
+	@Override
+	public double getDouble(int index) {
+		ObservableTracker.getterCalled(this);
+		checkIndex(index, false);
+		return elements[index];
+	}
+
+	@Override
+	public int indexOfDouble(double element) {
+		ObservableTracker.getterCalled(this);
+		for (int i = 0; i < size; i++) {
+			if (Double.doubleToLongBits(elements[i]) == Double.doubleToLongBits(element)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public double[] toDoubleArray() {
+		ObservableTracker.getterCalled(this);
+		return Arrays.copyOf(elements, size);
+	}
+
+	@Override
+	public double setDouble(int index, double element) {
+		checkRealm();
+		checkIndex(index, false);
+		double oldElement = elements[index];
+		elements[index] = element;
+		if (hasListeners()) {
+			fireListChange(Diffs.createListDiff(
+					Diffs.createDoubleListDiffEntry(index, false, oldElement),
+					Diffs.createDoubleListDiffEntry(index, true, element)));
+		}
+		return oldElement;
+	}
+
+	@Override
+	public Double set(int index, Double element) {
+		checkElement(element);
+		return Double.valueOf(setDouble(index, element.doubleValue()));
+	}
+
+	@Override
+	public void addDouble(double element) {
+		addDouble(size, element);
+	}
+
+	@Override
+	public void addDouble(int index, double element) {
+		checkRealm();
+		checkIndex(index, true);
+		openGap(index, 1);
+		elements[index] = element;
+		fireAdded(index, 1);
+	}
+
+	@Override
+	public boolean add(Double element) {
+		add(size, element);
+		return true;
+	}
+
+	@Override
+	public void add(int index, Double element) {
+		checkElement(element);
+		addDouble(index, element.doubleValue());
+	}
+
+	@Override
+	public double removeDoubleAt(int index) {
+		checkRealm();
+		checkIndex(index, false);
+		double oldElement = elements[index];
+		closeGap(index);
+		if (hasListeners()) {
+			fireListChange(Diffs.createListDiff(Diffs.createDoubleListDiffEntry(index, false, oldElement)));
+		}
+		return oldElement;
+	}
+
+	@Override
+	public Double remove(int index) {
+		return Double.valueOf(removeDoubleAt(index));
+	}
+
+	@Override
+	int capacity() {
+		return elements.length;
+	}
+
+	@Override
+	double[] copyOf(int length) {
+		return Arrays.copyOf(elements, length);
+	}
+
+	@Override
+	Double box(int index) {
+		return Double.valueOf(elements[index]);
+	}
+
+	@Override
+	void store(int index, Double element) {
+		elements[index] = element.doubleValue();
+	}
+
+	@Override
+	ListDiffEntry<Double> createDiffEntry(int position, boolean isAddition, int index) {
+		return Diffs.createDoubleListDiffEntry(position, isAddition, elements[index]);
+	}
+}
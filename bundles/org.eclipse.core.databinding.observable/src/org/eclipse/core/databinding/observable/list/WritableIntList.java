@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.list;
+
+import java.util.Arrays;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.Realm;
+
+/**
+ * Mutable (writable) implementation of {@link IObservableIntList}, backed by
+ * an <code>int</code> array.
+ * <p>
+ * Unlike a <code>WritableList&lt;Integer&gt;</code>, this class stores its
+ * elements unboxed, and only creates a diff when there are listeners.
+ * </p>
+ * <p>
+ * This class is not thread safe. All state accessing methods must be invoked
+ * from the {@link Realm#isCurrent() current realm}. Only the methods for adding
+ * and removing listeners may be invoked from any thread.
+ * </p>
+ *
+ * @since 1.6
+ */
+public class WritableIntList extends PrimitiveObservableList<Integer, int[]> implements IObservableIntList {
+
+	private static final int[] EMPTY = new int[0];
+
+	/**
+	 * Creates an empty list in the default realm.
+	 */
+	public WritableIntList() {
+		this(Realm.getDefault());
+	}
+
+	/**
+	 * Creates an empty list in the given realm.
+	 *
+	 * @param realm
+	 */
+	public WritableIntList(Realm realm) {
+		this(realm, EMPTY);
+	}
+
+	/**
+	 * Creates a list in the given realm containing the given elements. The
+	 * array is copied.
+	 *
+	 * @param realm
+	 * @param elements
+	 *            the initial elements
+	 */
+	public WritableIntList(Realm realm, int[] elements) {
+		super(realm, elements.clone(), elements.length);
+	}
+
+	@Override
+	public Object getElementType() {
+		return Integer.TYPE;
+	}
+
+	@Override
+	public int getInt(int index) {
+		ObservableTracker.getterCalled(this);
+		checkIndex(index, false);
+		return elements[index];
+	}
+
+	@Override
+	public int indexOfInt(int element) {
+		ObservableTracker.getterCalled(this);
+		for (int i = 0; i < size; i++) {
+			if (elements[i] == element) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int[] toIntArray() {
+		ObservableTracker.getterCalled(this);
+		return Arrays.copyOf(elements, size);
+	}
+
+	@Override
+	public int setInt(int index, int element) {
+		checkRealm();
+		checkIndex(index, false);
+		int oldElement = elements[index];
+		elements[index] = element;
+		if (hasListeners()) {
+			fireListChange(Diffs.createListDiff(
+					Diffs.createIntListDiffEntry(index, false, oldElement),
+					Diffs.createIntListDiffEntry(index, true, element)));
+		}
+		return oldElement;
+	}
+
+	@Override
+	public Integer set(int index, Integer element) {
+		checkElement(element);
+		return Integer.valueOf(setInt(index, element.intValue()));
+	}
+
+	@Override
+	public void addInt(int element) {
+		addInt(size, element);
+	}
+
+	@Override
+	public void addInt(int index, int element) {
+		checkRealm();
+		checkIndex(index, true);
+		openGap(index, 1);
+		elements[index] = element;
+		fireAdded(index, 1);
+	}
+
+	@Override
+	public boolean add(Integer element) {
+		add(size, element);
+		return true;
+	}
+
+	@Override
+	public void add(int index, Integer element) {
+		checkElement(element);
+		addInt(index, element.intValue());
+	}
+
+	@Override
+	public int removeIntAt(int index) {
+		checkRealm();
+		checkIndex(index, false);
+		int oldElement = elements[index];
+		closeGap(index);
+		if (hasListeners()) {
+			fireListChange(Diffs.createListDiff(Diffs.createIntListDiffEntry(index, false, oldElement)));
+		}
+		return oldElement;
+	}
+
+	@Override
+	public Integer remove(int index) {
+		return Integer.valueOf(removeIntAt(index));
+	}
+
+	@Override
+	int capacity() {
+		return elements.length;
+	}
+
+	@Override
+	int[] copyOf(int length) {
+		return Arrays.copyOf(elements, length);
+	}
+
+	@Override
+	Integer box(int index) {
+		return Integer.valueOf(elements[index]);
+	}
+
+	@Override
+	void store(int index, Integer element) {
+		elements[index] = element.intValue();
+	}
+
+	@Override
+	ListDiffEntry<Integer> createDiffEntry(int position, boolean isAddition, int index) {
+		return Diffs.createIntListDiffEntry(position, isAddition, elements[index]);
+	}
+}
@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.value;
+
+import org.eclipse.core.databinding.observable.Diffs;
+
+/**
+ * A {@link ValueDiff} between two <code>double</code> values. The values are
+ * only boxed when {@link #getOldValue()} or {@link #getNewValue()} is called.
+ *
+ * @see Diffs#createDoubleValueDiff(double, double)
+ * @see IObservableDoubleValue
+ * @since 1.6
+ */
+public abstract class DoubleValueDiff extends ValueDiff<Double> {
+
+	/**
+	 * @return the old value
+	 */
+	public abstract double getOldDoubleValue();
+
+	/**
+	 * @return the new value
+	 */
+	public abstract double getNewDoubleValue();
+
+	@Override
+	public final Double getOldValue() {
+		return Double.valueOf(getOldDoubleValue());
+	}
+
+	@Override
+	public final Double getNewValue() {
+		return Double.valueOf(getNewDoubleValue());
+	}
+}
@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.value;
+
+import org.eclipse.core.databinding.observable.Realm;
+
+/**
+ * An observable <code>double</code> value that can be read and written
+ * without boxing. The value type is {@link Double#TYPE} and the value is never
+ * <code>null</code>.
+ * <p>
+ * Value change events fired by implementations carry a
+ * {@link DoubleValueDiff}.
+ * </p>
+ *
+ * @noimplement This interface is not intended to be implemented by clients.
+ *              Clients should instead subclass one of the classes that
+ *              implement this interface.
+ *
+ * @see WritableDoubleValue
+ * @since 1.6
+ */
+public interface IObservableDoubleValue extends IObservableValue<Double> {
+
+	/**
+	 * Returns the value. Must be invoked in the {@link Realm} of the
+	 * observable.
+	 *
+	 * @return the current value
+	 * @TrackedGetter
+	 */
+	public double getDoubleValue();
+
+	/**
+	 * Sets the value. Must be invoked in the {@link Realm} of the observable.
+	 *
+	 * @param value
+	 *            the value to set
+	 * @throws UnsupportedOperationException
+	 *             if this observable value cannot be set.
+	 */
+	public void setDoubleValue(double value);
+}
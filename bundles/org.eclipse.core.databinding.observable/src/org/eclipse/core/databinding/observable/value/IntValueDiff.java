@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.value;
+
+import org.eclipse.core.databinding.observable.Diffs;
+
+/**
+ * A {@link ValueDiff} between two <code>int</code> values. The values are only
+ * boxed when {@link #getOldValue()} or {@link #getNewValue()} is called.
+ *
+ * @see Diffs#createIntValueDiff(int, int)
+ * @see IObservableIntValue
+ * @since 1.6
+ */
+public abstract class IntValueDiff extends ValueDiff<Integer> {
+
+	/**
+	 * @return the old value
+	 */
+	public abstract int getOldIntValue();
+
+	/**
+	 * @return the new value
+	 */
+	public abstract int getNewIntValue();
+
+	@Override
+	public final Integer getOldValue() {
+		return Integer.valueOf(getOldIntValue());
+	}
+
+	@Override
+	public final Integer getNewValue() {
+		return Integer.valueOf(getNewIntValue());
+	}
+}
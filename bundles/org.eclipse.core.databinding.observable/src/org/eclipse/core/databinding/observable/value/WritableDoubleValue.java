@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.value;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * Mutable (writable) implementation of {@link IObservableDoubleValue} that
+ * will maintain a <code>double</code> value and fire change events when the
+ * value changes. Values are compared like {@link Double#equals(Object)} does,
+ * so setting <code>NaN</code> again is not a change but changing
+ * <code>0.0</code> to <code>-0.0</code> is.
+ * <p>
+ * Unlike a <code>WritableValue&lt;Double&gt;</code>, this class stores the
+ * value unboxed, and only creates a diff when the value changes while there
+ * are listeners.
+ * </p>
+ * <p>
+ * This class is not thread safe. All state accessing methods must be invoked
+ * from the {@link Realm#isCurrent() current realm}. Only the methods for adding
+ * and removing listeners may be invoked from any thread.
+ * </p>
+ *
+ * @since 1.6
+ */
+public class WritableDoubleValue extends AbstractObservableValue<Double> implements IObservableDoubleValue {
+
+	private double value;
+
+	/**
+	 * Constructs a new instance with the default realm and a value of
+	 * <code>0.0</code>.
+	 */
+	public WritableDoubleValue() {
+		this(Realm.getDefault(), 0.0);
+	}
+
+	/**
+	 * Constructs a new instance with the default realm.
+	 *
+	 * @param initialValue
+	 *            the initial value
+	 */
+	public WritableDoubleValue(double initialValue) {
+		this(Realm.getDefault(), initialValue);
+	}
+
+	/**
+	 * Constructs a new instance.
+	 *
+	 * @param realm
+	 * @param initialValue
+	 *            the initial value
+	 */
+	public WritableDoubleValue(Realm realm, double initialValue) {
+		super(realm);
+		this.value = initialValue;
+	}
+
+	@Override
+	public double getDoubleValue() {
+		ObservableTracker.getterCalled(this);
+		return value;
+	}
+
+	@Override
+	public void setDoubleValue(double value) {
+		checkRealm();
+		doSetDoubleValue(value);
+	}
+
+	/**
+	 * @param value
+	 *            The value to set.
+	 */
+	protected void doSetDoubleValue(double value) {
+		double oldValue = this.value;
+		if (Double.doubleToLongBits(oldValue) != Double.doubleToLongBits(value)) {
+			this.value = value;
+			if (hasListeners()) {
+				fireValueChange(Diffs.createDoubleValueDiff(oldValue, value));
+			}
+		}
+	}
+
+	@Override
+	protected Double doGetValue() {
+		return Double.valueOf(value);
+	}
+
+	/**
+	 * @param value
+	 *            The value to set, must not be <code>null</code>.
+	 */
+	@Override
+	protected void doSetValue(Double value) {
+		Assert.isNotNull(value, "Value cannot be null"); //$NON-NLS-1$
+		doSetDoubleValue(value.doubleValue());
+	}
+
+	@Override
+	public Object getValueType() {
+		return Double.TYPE;
+	}
+}
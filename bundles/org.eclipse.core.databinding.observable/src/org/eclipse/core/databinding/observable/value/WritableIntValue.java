@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.value;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * Mutable (writable) implementation of {@link IObservableIntValue} that will
+ * maintain an <code>int</code> value and fire change events when the value
+ * changes.
+ * <p>
+ * Unlike a <code>WritableValue&lt;Integer&gt;</code>, this class stores the
+ * value unboxed, and only creates a diff when the value changes while there
+ * are listeners.
+ * </p>
+ * <p>
+ * This class is not thread safe. All state accessing methods must be invoked
+ * from the {@link Realm#isCurrent() current realm}. Only the methods for adding
+ * and removing listeners may be invoked from any thread.
+ * </p>
+ *
+ * @since 1.6
+ */
+public class WritableIntValue extends AbstractObservableValue<Integer> implements IObservableIntValue {
+
+	private int value;
+
+	/**
+	 * Constructs a new instance with the default realm and a value of
+	 * <code>0</code>.
+	 */
+	public WritableIntValue() {
+		this(Realm.getDefault(), 0);
+	}
+
+	/**
+	 * Constructs a new instance with the default realm.
+	 *
+	 * @param initialValue
+	 *            the initial value
+	 */
+	public WritableIntValue(int initialValue) {
+		this(Realm.getDefault(), initialValue);
+	}
+
+	/**
+	 * Constructs a new instance.
+	 *
+	 * @param realm
+	 * @param initialValue
+	 *            the initial value
+	 */
+	public WritableIntValue(Realm realm, int initialValue) {
+		super(realm);
+		this.value = initialValue;
+	}
+
+	@Override
+	public int getIntValue() {
+		ObservableTracker.getterCalled(this);
+		return value;
+	}
+
+	@Override
+	public void setIntValue(int value) {
+		checkRealm();
+		doSetIntValue(value);
+	}
+
+	/**
+	 * @param value
+	 *            The value to set.
+	 */
+	protected void doSetIntValue(int value) {
+		int oldValue = this.value;
+		if (oldValue != value) {
+			this.value = value;
+			if (hasListeners()) {
+				fireValueChange(Diffs.createIntValueDiff(oldValue, value));
+			}
+		}
+	}
+
+	@Override
+	protected Integer doGetValue() {
+		return Integer.valueOf(value);
+	}
+
+	/**
+	 * @param value
+	 *            The value to set, must not be <code>null</code>.
+	 */
+	@Override
+	protected void doSetValue(Integer value) {
+		Assert.isNotNull(value, "Value cannot be null"); //$NON-NLS-1$
+		doSetIntValue(value.intValue());
+	}
+
+	@Override
+	public Object getValueType() {
+		return Integer.TYPE;
+	}
+}
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.databinding.property.value;
+
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.value.IObservableDoubleValue;
+import org.eclipse.core.internal.databinding.property.value.SimplePropertyObservableDoubleValue;
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * Simplified abstract implementation of a value property whose values are
+ * <code>double</code>s. The property is read and written without boxing, and its
+ * observables are {@link IObservableDoubleValue}s.
+ * <p>
+ * Subclasses must implement these methods:
+ * <ul>
+ * <li>{@link #doGetDoubleValue(Object)}
+ * <li>{@link #doSetDoubleValue(Object, double)}
+ * <li>{@link #adaptListener(org.eclipse.core.databinding.property.ISimplePropertyListener)}
+ * </ul>
+ * <p>
+ * In addition, we recommended overriding {@link #toString()} to return a
+ * description suitable for debugging purposes.
+ *
+ * @param <S>
+ *            type of the source object
+ * @since 1.6
+ */
+public abstract class SimpleDoubleValueProperty<S> extends SimpleValueProperty<S, Double> {
+
+	@Override
+	public Object getValueType() {
+		return Double.TYPE;
+	}
+
+	/**
+	 * Returns the value of the property on the specified source object, or
+	 * <code>0.0</code> if the source object is <code>null</code>.
+	 *
+	 * @param source
+	 *            the property source (may be null)
+	 * @return the current value of the source's value property
+	 */
+	public final double getDoubleValue(S source) {
+		if (source == null) {
+			return 0.0;
+		}
+		return doGetDoubleValue(source);
+	}
+
+	/**
+	 * Sets the source's value property to the specified value. Does nothing
+	 * if the source object is <code>null</code>.
+	 *
+	 * @param source
+	 *            the property source (may be null)
+	 * @param value
+	 *            the new value
+	 */
+	public final void setDoubleValue(S source, double value) {
+		if (source != null) {
+			doSetDoubleValue(source, value);
+		}
+	}
+
+	/**
+	 * Returns the value of the property on the specified source object
+	 *
+	 * @param source
+	 *            the property source
+	 * @return the current value of the source's value property
+	 * @noreference This method is not intended to be referenced by clients.
+	 */
+	protected abstract double doGetDoubleValue(S source);
+
+	/**
+	 * Sets the source's value property to the specified value
+	 *
+	 * @param source
+	 *            the property source
+	 * @param value
+	 *            the new value
+	 * @noreference This method is not intended to be referenced by clients.
+	 */
+	protected abstract void doSetDoubleValue(S source, double value);
+
+	@Override
+	protected final Double doGetValue(S source) {
+		return Double.valueOf(doGetDoubleValue(source));
+	}
+
+	@Override
+	protected final void doSetValue(S source, Double value) {
+		Assert.isNotNull(value, "Value cannot be null"); //$NON-NLS-1$
+		doSetDoubleValue(source, value.doubleValue());
+	}
+
+	@Override
+	public IObservableDoubleValue observe(S source) {
+		return observe(Realm.getDefault(), source);
+	}
+
+	@Override
+	public IObservableDoubleValue observe(Realm realm, S source) {
+		return new SimplePropertyObservableDoubleValue<>(realm, source, this);
+	}
+}
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.databinding.property.value;
+
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.value.IObservableIntValue;
+import org.eclipse.core.internal.databinding.property.value.SimplePropertyObservableIntValue;
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * Simplified abstract implementation of a value property whose values are
+ * <code>int</code>s. The property is read and written without boxing, and its
+ * observables are {@link IObservableIntValue}s.
+ * <p>
+ * Subclasses must implement these methods:
+ * <ul>
+ * <li>{@link #doGetIntValue(Object)}
+ * <li>{@link #doSetIntValue(Object, int)}
+ * <li>{@link #adaptListener(org.eclipse.core.databinding.property.ISimplePropertyListener)}
+ * </ul>
+ * <p>
+ * In addition, we recommended overriding {@link #toString()} to return a
+ * description suitable for debugging purposes.
+ *
+ * @param <S>
+ *            type of the source object
+ * @since 1.6
+ */
+public abstract class SimpleIntValueProperty<S> extends SimpleValueProperty<S, Integer> {
+
+	@Override
+	public Object getValueType() {
+		return Integer.TYPE;
+	}
+
+	/**
+	 * Returns the value of the property on the specified source object, or
+	 * <code>0</code> if the source object is <code>null</code>.
+	 *
+	 * @param source
+	 *            the property source (may be null)
+	 * @return the current value of the source's value property
+	 */
+	public final int getIntValue(S source) {
+		if (source == null) {
+			return 0;
+		}
+		return doGetIntValue(source);
+	}
+
+	/**
+	 * Sets the source's value property to the specified value. Does nothing
+	 * if the source object is <code>null</code>.
+	 *
+	 * @param source
+	 *            the property source (may be null)
+	 * @param value
+	 *            the new value
+	 */
+	public final void setIntValue(S source, int value) {
+		if (source != null) {
+			doSetIntValue(source, value);
+		}
+	}
+
+	/**
+	 * Returns the value of the property on the specified source object
+	 *
+	 * @param source
+	 *            the property source
+	 * @return the current value of the source's value property
+	 * @noreference This method is not intended to be referenced by clients.
+	 */
+	protected abstract int doGetIntValue(S source);
+
+	/**
+	 * Sets the source's value property to the specified value
+	 *
+	 * @param source
+	 *            the property source
+	 * @param value
+	 *            the new value
+	 * @noreference This method is not intended to be referenced by clients.
+	 */
+	protected abstract void doSetIntValue(S source, int value);
+
+	@Override
+	protected final Integer doGetValue(S source) {
+		return Integer.valueOf(doGetIntValue(source));
+	}
+
+	@Override
+	protected final void doSetValue(S source, Integer value) {
+		Assert.isNotNull(value, "Value cannot be null"); //$NON-NLS-1$
+		doSetIntValue(source, value.intValue());
+	}
+
+	@Override
+	public IObservableIntValue observe(S source) {
+		return observe(Realm.getDefault(), source);
+	}
+
+	@Override
+	public IObservableIntValue observe(Realm realm, S source) {
+		return new SimplePropertyObservableIntValue<>(realm, source, this);
+	}
+}
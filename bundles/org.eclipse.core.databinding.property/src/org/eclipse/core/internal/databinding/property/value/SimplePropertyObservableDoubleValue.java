@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.internal.databinding.property.value;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.value.IObservableDoubleValue;
+import org.eclipse.core.databinding.observable.value.ValueDiff;
+import org.eclipse.core.databinding.property.value.SimpleDoubleValueProperty;
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * An {@link IObservableDoubleValue} on a {@link SimpleDoubleValueProperty}. The
+ * value is cached unboxed, and the diffs of change events are always computed
+ * from the cached and the current value.
+ *
+ * @param <S>
+ *            type of the source object
+ * @since 1.6
+ */
+public class SimplePropertyObservableDoubleValue<S>
+		extends SimplePropertyObservablePrimitiveValue<S, Double, SimpleDoubleValueProperty<S>>
+		implements IObservableDoubleValue {
+	private double cachedValue;
+
+	/**
+	 * @param realm
+	 * @param source
+	 * @param property
+	 */
+	public SimplePropertyObservableDoubleValue(Realm realm, S source, SimpleDoubleValueProperty<S> property) {
+		super(realm, source, property);
+	}
+
+	@Override
+	void cacheValue() {
+		cachedValue = property.getDoubleValue(source);
+	}
+
+	@Override
+	void clearCachedValue() {
+		cachedValue = 0.0;
+	}
+
+	@Override
+	ValueDiff<Double> updateCachedValue(boolean force) {
+		double oldValue = cachedValue;
+		double newValue = cachedValue = property.getDoubleValue(source);
+		if (Double.doubleToLongBits(oldValue) != Double.doubleToLongBits(newValue) || force) {
+			return Diffs.createDoubleValueDiff(oldValue, newValue);
+		}
+		return null;
+	}
+
+	@Override
+	public double getDoubleValue() {
+		ObservableTracker.getterCalled(this);
+		notifyIfChanged();
+		return property.getDoubleValue(source);
+	}
+
+	@Override
+	public void setDoubleValue(double value) {
+		checkRealm();
+		doSetDoubleValue(value);
+	}
+
+	private void doSetDoubleValue(double value) {
+		updating = true;
+		try {
+			property.setDoubleValue(source, value);
+		} finally {
+			updating = false;
+		}
+
+		notifyIfChanged();
+	}
+
+	@Override
+	protected void doSetValue(Double value) {
+		Assert.isNotNull(value, "Value cannot be null"); //$NON-NLS-1$
+		doSetDoubleValue(value.doubleValue());
+	}
+}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.internal.databinding.property.value;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.value.IObservableIntValue;
+import org.eclipse.core.databinding.observable.value.ValueDiff;
+import org.eclipse.core.databinding.property.value.SimpleIntValueProperty;
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * An {@link IObservableIntValue} on a {@link SimpleIntValueProperty}. The
+ * value is cached unboxed, and the diffs of change events are always computed
+ * from the cached and the current value.
+ *
+ * @param <S>
+ *            type of the source object
+ * @since 1.6
+ */
+public class SimplePropertyObservableIntValue<S>
+		extends SimplePropertyObservablePrimitiveValue<S, Integer, SimpleIntValueProperty<S>>
+		implements IObservableIntValue {
+	private int cachedValue;
+
+	/**
+	 * @param realm
+	 * @param source
+	 * @param property
+	 */
+	public SimplePropertyObservableIntValue(Realm realm, S source, SimpleIntValueProperty<S> property) {
+		super(realm, source, property);
+	}
+
+	@Override
+	void cacheValue() {
+		cachedValue = property.getIntValue(source);
+	}
+
+	@Override
+	void clearCachedValue() {
+		cachedValue = 0;
+	}
+
+	@Override
+	ValueDiff<Integer> updateCachedValue(boolean force) {
+		int oldValue = cachedValue;
+		int newValue = cachedValue = property.getIntValue(source);
+		if (oldValue != newValue || force) {
+			return Diffs.createIntValueDiff(oldValue, newValue);
+		}
+		return null;
+	}
+
+	@Override
+	public int getIntValue() {
+		ObservableTracker.getterCalled(this);
+		notifyIfChanged();
+		return property.getIntValue(source);
+	}
+
+	@Override
+	public void setIntValue(int value) {
+		checkRealm();
+		doSetIntValue(value);
+	}
+
+	private void doSetIntValue(int value) {
+		updating = true;
+		try {
+			property.setIntValue(source, value);
+		} finally {
+			updating = false;
+		}
+
+		notifyIfChanged();
+	}
+
+	@Override
+	protected void doSetValue(Integer value) {
+		Assert.isNotNull(value, "Value cannot be null"); //$NON-NLS-1$
+		doSetIntValue(value.intValue());
+	}
+}
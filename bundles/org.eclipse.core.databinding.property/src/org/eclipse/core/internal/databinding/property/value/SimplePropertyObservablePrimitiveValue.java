@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.internal.databinding.property.value;
+
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.value.AbstractObservableValue;
+import org.eclipse.core.databinding.observable.value.ValueDiff;
+import org.eclipse.core.databinding.property.INativePropertyListener;
+import org.eclipse.core.databinding.property.IPropertyObservable;
+import org.eclipse.core.databinding.property.ISimplePropertyListener;
+import org.eclipse.core.databinding.property.SimplePropertyEvent;
+import org.eclipse.core.databinding.property.value.SimpleValueProperty;
+
+/**
+ * The common part of the observables of {@link SimpleValueProperty}s whose
+ * values are primitives. Subclasses cache the value unboxed, and compute the
+ * diffs of change events from the cached and the current value.
+ *
+ * @param <S>
+ *            type of the source object
+ * @param <T>
+ *            type of the boxed value
+ * @param <P>
+ *            type of the property
+ * @since 1.6
+ */
+abstract class SimplePropertyObservablePrimitiveValue<S, T, P extends SimpleValueProperty<S, T>>
+		extends AbstractObservableValue<T> implements IPropertyObservable<P> {
+	S source;
+	P property;
+
+	boolean updating = false;
+	private boolean stale;
+
+	private INativePropertyListener<S> listener;
+
+	SimplePropertyObservablePrimitiveValue(Realm realm, S source, P property) {
+		super(realm);
+		this.source = source;
+		this.property = property;
+	}
+
+	/**
+	 * Reads the current value of the property into the cache.
+	 */
+	abstract void cacheValue();
+
+	/**
+	 * Resets the cached value once nobody listens anymore.
+	 */
+	abstract void clearCachedValue();
+
+	/**
+	 * Reads the current value of the property into the cache.
+	 *
+	 * @param force
+	 *            whether to return a diff even if the value did not change
+	 * @return the diff between the previously cached and the current value,
+	 *         or <code>null</code> if the value did not change and
+	 *         <code>force</code> is <code>false</code>
+	 */
+	abstract ValueDiff<T> updateCachedValue(boolean force);
+
+	@Override
+	protected void firstListenerAdded() {
+		if (!isDisposed() && listener == null) {
+			listener = property.adaptListener(new ISimplePropertyListener<S, ValueDiff<? extends T>>() {
+				@Override
+				public void handleEvent(final SimplePropertyEvent<S, ValueDiff<? extends T>> event) {
+					if (!isDisposed() && !updating) {
+						getRealm().exec(new Runnable() {
+							@Override
+							public void run() {
+								if (event.type == SimplePropertyEvent.CHANGE) {
+									notifyIfChanged();
+								} else if (event.type == SimplePropertyEvent.STALE && !stale) {
+									stale = true;
+									fireStale();
+								}
+							}
+						});
+					}
+				}
+			});
+		}
+		getRealm().exec(new Runnable() {
+			@Override
+			public void run() {
+				cacheValue();
+				stale = false;
+				if (listener != null)
+					listener.addTo(source);
+			}
+		});
+	}
+
+	@Override
+	protected void lastListenerRemoved() {
+		if (listener != null)
+			listener.removeFrom(source);
+		clearCachedValue();
+		stale = false;
+	}
+
+	@Override
+	protected T doGetValue() {
+		notifyIfChanged();
+		return property.getValue(source);
+	}
+
+	final void notifyIfChanged() {
+		if (hasListeners()) {
+			ValueDiff<T> diff = updateCachedValue(stale);
+			if (diff != null) {
+				stale = false;
+				fireValueChange(diff);
+			}
+		}
+	}
+
+	@Override
+	public Object getValueType() {
+		return property.getValueType();
+	}
+
+	@Override
+	public Object getObserved() {
+		return source;
+	}
+
+	@Override
+	public P getProperty() {
+		return property;
+	}
+
+	@Override
+	public boolean isStale() {
+		ObservableTracker.getterCalled(this);
+		return stale;
+	}
+
+	@Override
+	public synchronized void dispose() {
+		if (!isDisposed()) {
+			if (listener != null)
+				listener.removeFrom(source);
+			source = null;
+			property = null;
+			listener = null;
+			stale = false;
+		}
+		super.dispose();
+	}
+}
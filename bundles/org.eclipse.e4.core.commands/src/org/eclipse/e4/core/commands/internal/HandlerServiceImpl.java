@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 IBM Corporation and others.
+ * Copyright (c) 2009, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,10 +11,22 @@
 
 package org.eclipse.e4.core.commands.internal;
 
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.inject.Inject;
+import javax.inject.Named;
 import org.eclipse.core.commands.AbstractParameterValueConverter;
 import org.eclipse.core.commands.Command;
 import org.eclipse.core.commands.ExecutionException;
@@ -30,6 +42,8 @@ import org.eclipse.e4.core.commands.ExpressionContext;
 import org.eclipse.e4.core.contexts.ContextFunction;
 import org.eclipse.e4.core.contexts.EclipseContextFactory;
 import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.core.contexts.RunAndTrack;
+import org.eclipse.e4.core.di.annotations.CanExecute;
 import org.eclipse.e4.core.di.annotations.Optional;
 import org.eclipse.e4.core.services.log.Logger;
 
@@ -53,6 +67,42 @@ public class HandlerServiceImpl implements EHandlerService {
 	public final static String STATIC_CONTEXT = "HandlerServiceImpl.staticContext"; //$NON-NLS-1$
 	public final static String HANDLER_EXCEPTION = "HandlerServiceImpl.exception"; //$NON-NLS-1$
 
+	/**
+	 * The static context key under which the enablement computed with a static context is kept,
+	 * once the static context is used a second time.
+	 */
+	static final String CAN_EXECUTE_CACHE = "HandlerServiceImpl.canExecuteCache"; //$NON-NLS-1$
+	/**
+	 * The static context key under which the context keys read by the handler of the last cached
+	 * enablement are kept.
+	 */
+	static final String CAN_EXECUTE_KEYS = "HandlerServiceImpl.canExecuteKeys"; //$NON-NLS-1$
+	private static final int MAX_CACHED_RESULTS = 16;
+
+	/**
+	 * The variable the workbench's evaluation service changes when a re-evaluation of all
+	 * enablement is requested. Cached enablement reads it, so the request drops it.
+	 */
+	static final String RE_EVALUATE = "org.eclipse.ui.internal.services.EvaluationService.evaluate"; //$NON-NLS-1$
+
+	/**
+	 * The prefix of the execution context keys that each cached enablement reads, so that it can
+	 * be told to stop tracking the context once it is dropped.
+	 */
+	private static final String CAN_EXECUTE_TRACKER = "HandlerServiceImpl.canExecuteTracker."; //$NON-NLS-1$
+
+	private static final AtomicInteger trackerIds = new AtomicInteger();
+
+	// The cached enablement still tracking its execution context
+	private static final AtomicInteger trackedResults = new AtomicInteger();
+
+	/**
+	 * Counts the executed handlers and the requests to re-evaluate all handlers. A handler may
+	 * change its own state when it is executed, or read state that is not kept in a context, so
+	 * enablement computed before either of them is not reused.
+	 */
+	private static final AtomicInteger generation = new AtomicInteger();
+
 	private static LinkedList<ExecutionContexts> contextStack = new LinkedList<ExecutionContexts>();
 
 	public static ContextFunction handlerGenerator = null;
@@ -74,6 +124,200 @@ public class HandlerServiceImpl implements EHandlerService {
 		}
 	}
 
+	/**
+	 * The enablement of a handler computed in an execution context. It is valid until one of the
+	 * context values injected into the handler changes, or a re-evaluation is requested. A result
+	 * that is dropped must be disposed so that it stops tracking the execution context.
+	 */
+	static class CanExecuteResult extends RunAndTrack {
+		final Object handler;
+		final IEclipseContext executionContext;
+		final ParameterizedCommand command;
+		final int generation;
+		final Collection<String> keys;
+		volatile boolean valid = true;
+		boolean enabled;
+		private boolean evaluated;
+		private boolean tracking;
+		private final String trackerKey = CAN_EXECUTE_TRACKER + trackerIds.incrementAndGet();
+
+		CanExecuteResult(Object handler, IEclipseContext executionContext,
+				ParameterizedCommand command, IEclipseContext staticContext) {
+			this.handler = handler;
+			this.executionContext = executionContext;
+			this.command = command;
+			this.generation = HandlerServiceImpl.generation.get();
+			this.keys = getContextKeys(handler, staticContext);
+		}
+
+		boolean matches(Object handler, IEclipseContext executionContext,
+				ParameterizedCommand command) {
+			return valid && this.handler == handler && this.executionContext == executionContext
+					&& generation == HandlerServiceImpl.generation.get()
+					&& this.command.equals(command);
+		}
+
+		@Override
+		public boolean changed(IEclipseContext context) {
+			if (!evaluated) {
+				evaluated = true;
+				tracking = true;
+				trackedResults.incrementAndGet();
+				context.get(trackerKey);
+				context.get(RE_EVALUATE);
+				Command cmd = command.getCommand();
+				cmd.setEnabled(new ExpressionContext(executionContext));
+				enabled = cmd.isEnabled();
+				return true;
+			}
+			valid = false;
+			if (tracking) {
+				tracking = false;
+				trackedResults.decrementAndGet();
+			}
+			return false;
+		}
+
+		/**
+		 * Drops the result. Changes the value only this result reads, since a tracked computation
+		 * is only removed from the context when it is notified of a change.
+		 */
+		void dispose() {
+			valid = false;
+			if (tracking) {
+				executionContext.set(trackerKey, Boolean.TRUE);
+				executionContext.remove(trackerKey);
+			}
+		}
+	}
+
+	/**
+	 * Drops the enablement cached for all static contexts. Handlers that compute their enablement
+	 * from state outside of the contexts, like the active part of the part service, are evaluated
+	 * again the next time their enablement is asked for.
+	 */
+	public static void invalidateCanExecuteResults() {
+		generation.incrementAndGet();
+	}
+
+	/**
+	 * Drops the enablement cached for the given static context only, for a caller that knows the
+	 * state outside of the contexts changed for its own handlers, like the dirty state of a part.
+	 * Callers reusing a static context call this before disposing it.
+	 *
+	 * @param staticContext
+	 *            the static context the enablement was asked for with
+	 */
+	@SuppressWarnings("unchecked")
+	public static void invalidateCanExecuteResults(IEclipseContext staticContext) {
+		List<CanExecuteResult> results = (List<CanExecuteResult>) staticContext
+				.getLocal(CAN_EXECUTE_CACHE);
+		if (results != null) {
+			for (CanExecuteResult result : results) {
+				result.dispose();
+			}
+			results.clear();
+		}
+	}
+
+	/**
+	 * Returns the number of cached enablement results still tracking their execution context.
+	 * Method for use by test cases.
+	 *
+	 * @return the number of tracked results
+	 */
+	public static int getTrackedResultCount() {
+		return trackedResults.get();
+	}
+
+	/**
+	 * Returns the context keys read by the handler whose enablement was last asked for with the
+	 * given static context, if the enablement was cached.
+	 *
+	 * @param staticContext
+	 *            the static context the enablement was asked for with
+	 * @return the context keys, or <code>null</code> if they are not known
+	 * @see #getContextKeys(Object, IEclipseContext)
+	 */
+	@SuppressWarnings("unchecked")
+	public static Collection<String> getTrackedKeys(IEclipseContext staticContext) {
+		return (Collection<String>) staticContext.getLocal(CAN_EXECUTE_KEYS);
+	}
+
+	/**
+	 * Returns the context keys the {@link CanExecute} method of a handler reads, if its enablement
+	 * provably only depends on named context values. A handler that is injected a context or
+	 * service by type may read any state through it, a handler with injected fields or methods may
+	 * read what was injected into them, and a handler that reads no named value computes its
+	 * enablement from state of its own, so their keys are not known. Values kept in the static
+	 * context don't change for the static context and are not counted as reads.
+	 *
+	 * @param handler
+	 *            the handler
+	 * @param staticContext
+	 *            the static context the enablement is asked for with
+	 * @return the context keys, or <code>null</code> if they are not known
+	 */
+	public static Collection<String> getContextKeys(Object handler, IEclipseContext staticContext) {
+		Method method = findCanExecuteMethod(handler.getClass());
+		if (method == null) {
+			// always enabled
+			return Collections.emptySet();
+		}
+		if (hasInjectedMembers(handler.getClass())) {
+			return null;
+		}
+		Class<?>[] types = method.getParameterTypes();
+		Annotation[][] annotations = method.getParameterAnnotations();
+		Set<String> keys = new HashSet<String>();
+		for (int i = 0; i < types.length; i++) {
+			String key = null;
+			for (Annotation annotation : annotations[i]) {
+				if (annotation instanceof Named) {
+					key = ((Named) annotation).value();
+				}
+			}
+			if (key != null) {
+				keys.add(key);
+			} else if (staticContext.getLocal(types[i].getName()) == null) {
+				return null;
+			}
+		}
+		return keys.isEmpty() ? null : keys;
+	}
+
+	private static Method findCanExecuteMethod(Class<?> handlerClass) {
+		for (Class<?> c = handlerClass; c != null && c != Object.class; c = c.getSuperclass()) {
+			for (Method method : c.getDeclaredMethods()) {
+				if (method.isAnnotationPresent(CanExecute.class)) {
+					return method;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static boolean hasInjectedMembers(Class<?> handlerClass) {
+		for (Class<?> c = handlerClass; c != null && c != Object.class; c = c.getSuperclass()) {
+			for (Field field : c.getDeclaredFields()) {
+				if (field.isAnnotationPresent(Inject.class)) {
+					return true;
+				}
+			}
+			for (Method method : c.getDeclaredMethods()) {
+				if (method.isAnnotationPresent(Inject.class)) {
+					return true;
+				}
+			}
+			for (Constructor<?> constructor : c.getDeclaredConstructors()) {
+				if (constructor.isAnnotationPresent(Inject.class)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
 	static LinkedList<ExecutionContexts> getContextStack() {
 		return contextStack;
 	}
@@ -176,14 +420,69 @@ public class HandlerServiceImpl implements EHandlerService {
 		push(executionContext, staticContext);
 		try {
 			Command cmd = command.getCommand();
-			cmd.setEnabled(new ExpressionContext(peek().context));
-			return cmd.isEnabled();
+			List<CanExecuteResult> results = getCanExecuteResults(staticContext);
+			Object handler = lookUpHandler(executionContext, command.getId());
+			if (results == null || handler == null || handler instanceof IHandler
+					|| staticContext.getLocal(SWT_TRIGGER) != null
+					|| !(cmd.getHandler() instanceof HandlerServiceHandler)) {
+				staticContext.remove(CAN_EXECUTE_KEYS);
+				cmd.setEnabled(new ExpressionContext(peek().context));
+				return cmd.isEnabled();
+			}
+			for (Iterator<CanExecuteResult> i = results.iterator(); i.hasNext();) {
+				CanExecuteResult result = i.next();
+				if (result.matches(handler, executionContext, command)) {
+					setTrackedKeys(staticContext, result.keys);
+					((HandlerServiceHandler) cmd.getHandler()).overrideEnabled(result.enabled);
+					return result.enabled;
+				}
+				if (!result.valid || result.generation != generation.get()) {
+					result.dispose();
+					i.remove();
+				}
+			}
+			CanExecuteResult result = new CanExecuteResult(handler, executionContext, command,
+					staticContext);
+			executionContext.runAndTrack(result);
+			if (results.size() >= MAX_CACHED_RESULTS) {
+				results.remove(0).dispose();
+			}
+			results.add(result);
+			setTrackedKeys(staticContext, result.keys);
+			return result.enabled;
 		} finally {
 			pop();
 			// executionContext.remove(STATIC_CONTEXT);
 		}
 	}
 
+	/**
+	 * Static contexts created for a single call are not worth caching for, so results are only
+	 * kept for a static context that is used again. The results are kept in the static context,
+	 * so the values it holds for its whole life, like the model of a contributed item, are part
+	 * of their key. Enablement asked for with a trigger event is never cached, since the event
+	 * changes from call to call.
+	 *
+	 * @return the results cached for the static context, or <code>null</code> the first time
+	 */
+	@SuppressWarnings("unchecked")
+	private List<CanExecuteResult> getCanExecuteResults(IEclipseContext staticContext) {
+		List<CanExecuteResult> results = (List<CanExecuteResult>) staticContext
+				.getLocal(CAN_EXECUTE_CACHE);
+		if (results == null) {
+			staticContext.set(CAN_EXECUTE_CACHE, new ArrayList<CanExecuteResult>());
+		}
+		return results;
+	}
+
+	private static void setTrackedKeys(IEclipseContext staticContext, Collection<String> keys) {
+		if (keys == null) {
+			staticContext.remove(CAN_EXECUTE_KEYS);
+		} else {
+			staticContext.set(CAN_EXECUTE_KEYS, keys);
+		}
+	}
+
 	@Override
 	public void deactivateHandler(String commandId, Object handler) {
 		context.remove(H_ID + commandId);
@@ -218,6 +517,7 @@ public class HandlerServiceImpl implements EHandlerService {
 		} catch (NotHandledException e) {
 			staticContext.set(HANDLER_EXCEPTION, e);
 		} finally {
+			generation.incrementAndGet();
 			pop();
 			// executionContext.remove(STATIC_CONTEXT);
 		}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2014 IBM Corporation and others.
+ * Copyright (c) 2010, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,7 +17,10 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.eclipse.core.commands.ParameterizedCommand;
 import org.eclipse.core.commands.contexts.Context;
 import org.eclipse.jface.bindings.Binding;
@@ -122,6 +125,20 @@ public class BindingTable {
 
 	public static final BindingComparator BEST_SEQUENCE = new BindingComparator();
 
+	/**
+	 * Counts the changes to the bindings of any table, so that resolved lookups can tell when
+	 * they are out of date.
+	 */
+	private static final AtomicInteger MODIFICATION_COUNT = new AtomicInteger();
+
+	static int getModificationCount() {
+		return MODIFICATION_COUNT.get();
+	}
+
+	static void modified() {
+		MODIFICATION_COUNT.incrementAndGet();
+	}
+
 	private Context tableId;
 	private ArrayList<Binding> bindings = new ArrayList<Binding>();
 	private Map<TriggerSequence, Binding> bindingsByTrigger = new HashMap<TriggerSequence, Binding>();
@@ -190,9 +207,153 @@ public class BindingTable {
 		}
 
 		evaluateOrderedBindings(binding.getTriggerSequence(), binding);
+		modified();
+	}
+
+	/**
+	 * Adds many bindings at once, for instance when the table is created. The result is the same
+	 * as adding the bindings one by one with {@link #addBinding(Binding)}, but the bindings of
+	 * each trigger sequence are sorted and checked for conflicts only once.
+	 *
+	 * @param newBindings
+	 *            the bindings, in the order they would be added
+	 */
+	public void addBindings(Collection<Binding> newBindings) {
+		for (Binding binding : newBindings) {
+			if (!getId().equals(binding.getContextId())) {
+				throw new IllegalArgumentException("Binding context " + binding.getContextId() //$NON-NLS-1$
+						+ " does not match " + getId()); //$NON-NLS-1$
+			}
+		}
+		if (!bindings.isEmpty() || !orderedBindingsByTrigger.isEmpty()) {
+			// the bindings have to be merged with the existing ones
+			for (Binding binding : newBindings) {
+				addBinding(binding);
+			}
+			return;
+		}
+
+		Map<TriggerSequence, List<Integer>> indexesByTrigger = new LinkedHashMap<TriggerSequence, List<Integer>>();
+		Binding[] added = newBindings.toArray(new Binding[newBindings.size()]);
+		for (int i = 0; i < added.length; i++) {
+			List<Integer> indexes = indexesByTrigger.get(added[i].getTriggerSequence());
+			if (indexes == null) {
+				indexes = new ArrayList<Integer>(1);
+				indexesByTrigger.put(added[i].getTriggerSequence(), indexes);
+			}
+			indexes.add(Integer.valueOf(i));
+		}
+
+		// the active bindings, by the index of the binding that made them active
+		Binding[] activated = new Binding[added.length];
+		for (Map.Entry<TriggerSequence, List<Integer>> entry : indexesByTrigger.entrySet()) {
+			evaluateAddedBindings(entry.getKey(), entry.getValue(), added, activated);
+		}
+
+		for (Binding binding : activated) {
+			if (binding != null) {
+				addBindingSimple(binding, false);
+			}
+		}
+		for (ArrayList<Binding> sequences : bindingsByCommand.values()) {
+			Collections.sort(sequences, BEST_SEQUENCE);
+		}
+		modified();
+	}
+
+	/**
+	 * Computes the ordered bindings, the conflicts and the active binding of a trigger sequence as
+	 * {@link #addBinding(Binding)} would when the bindings are added one after the other to a
+	 * table without bindings for this sequence.
+	 */
+	private void evaluateAddedBindings(TriggerSequence sequence, List<Integer> indexes,
+			Binding[] added, Binding[] activated) {
+		int firstIndex = indexes.get(0).intValue();
+		Binding first = added[firstIndex];
+		if (indexes.size() == 1) {
+			activated[firstIndex] = first;
+			return;
+		}
+
+		// the binding sorted first is the first one of the best scheme, where the second binding
+		// precedes the first one as they are sorted together
+		String[] activeSchemeIds = BEST_SEQUENCE.getActiveSchemes();
+		Binding active = first;
+		int activatedAt = firstIndex;
+		Binding top = null;
+		int bestRank = 0;
+		int bestCount = 0;
+		ArrayList<Binding> bindingList = new ArrayList<Binding>(indexes.size());
+		for (int i = 1; i < indexes.size(); i++) {
+			int index = indexes.get(i).intValue();
+			Binding binding = added[index];
+			int rank = getSchemeRank(activeSchemeIds, binding.getSchemeId());
+			if (i == 1) {
+				int firstRank = getSchemeRank(activeSchemeIds, first.getSchemeId());
+				bindingList.add(binding);
+				bindingList.add(first);
+				if (rank <= firstRank) {
+					top = binding;
+					bestRank = rank;
+					bestCount = rank == firstRank ? 2 : 1;
+				} else {
+					top = first;
+					bestRank = firstRank;
+					bestCount = 1;
+				}
+			} else {
+				bindingList.add(binding);
+				if (rank < bestRank) {
+					top = binding;
+					bestRank = rank;
+					bestCount = 1;
+				} else if (rank == bestRank) {
+					bestCount++;
+				}
+			}
+
+			if (bestCount == 1) {
+				if (active != top) {
+					active = top;
+					activatedAt = index;
+				}
+			} else if (active != top) {
+				// conflicting schemes, the previous binding was replaced
+				active = null;
+			}
+		}
+
+		Collections.sort(bindingList, BEST_SEQUENCE);
+		orderedBindingsByTrigger.put(sequence, bindingList);
+		if (bestCount > 1) {
+			conflicts.put(sequence, new ArrayList<Binding>(bindingList.subList(0, bestCount)));
+		}
+		if (active != null) {
+			activated[activatedAt] = active;
+		}
+	}
+
+	/**
+	 * @return the position of the scheme in the active schemes; schemes that are not active
+	 *         share the last rank. Two schemes compare equal if they have the same rank.
+	 */
+	private static int getSchemeRank(String[] activeSchemeIds, String schemeId) {
+		if (activeSchemeIds == null || activeSchemeIds.length == 0) {
+			return 0;
+		}
+		for (int i = 0; i < activeSchemeIds.length; i++) {
+			if (schemeId.equals(activeSchemeIds[i])) {
+				return i;
+			}
+		}
+		return activeSchemeIds.length;
 	}
 
 	private void addBindingSimple(Binding binding) {
+		addBindingSimple(binding, true);
+	}
+
+	private void addBindingSimple(Binding binding, boolean sortSequences) {
 		bindings.add(binding);
 		bindingsByTrigger.put(binding.getTriggerSequence(), binding);
 
@@ -202,7 +363,9 @@ public class BindingTable {
 			bindingsByCommand.put(binding.getParameterizedCommand(), sequences);
 		}
 		sequences.add(binding);
-		Collections.sort(sequences, BEST_SEQUENCE);
+		if (sortSequences) {
+			Collections.sort(sequences, BEST_SEQUENCE);
+		}
 
 		TriggerSequence[] prefs = binding.getTriggerSequence().getPrefixes();
 		for (int i = 1; i < prefs.length; i++) {
@@ -228,6 +391,9 @@ public class BindingTable {
 			ArrayList<Binding> bindings = bindingsByPrefix.get(prefs[i]);
 			if (bindings != null) {
 				bindings.remove(binding);
+				if (bindings.isEmpty()) {
+					bindingsByPrefix.remove(prefs[i]);
+				}
 			}
 		}
 	}
@@ -257,6 +423,7 @@ public class BindingTable {
 				evaluateOrderedBindings(binding.getTriggerSequence(), null);
 			}
 		}
+		modified();
 	}
 
 	/**
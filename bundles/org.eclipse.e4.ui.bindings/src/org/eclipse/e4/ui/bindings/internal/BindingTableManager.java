@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2015 IBM Corporation and others.
+ * Copyright (c) 2010, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,8 +14,12 @@ package org.eclipse.e4.ui.bindings.internal;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
 import javax.inject.Inject;
 import org.eclipse.core.commands.ParameterizedCommand;
 import org.eclipse.core.commands.contexts.Context;
@@ -36,6 +40,16 @@ public class BindingTableManager {
 
 	private String[] activeSchemeIds;
 
+	/**
+	 * The number of resolved context sets kept before they are all thrown away.
+	 */
+	private static final int MAX_RESOLVED_SETS = 32;
+
+	private Map<ContextSet, BindingTrie> resolvedSets = new HashMap<ContextSet, BindingTrie>();
+	private int resolvedModificationCount = -1;
+	private ContextSet lastContextSet;
+	private BindingTrie lastResolved;
+
 	public void addTable(BindingTable table) {
 		String contextId = getTableId(table.getId());
 		if (eclipseContext.containsKey(contextId)) {
@@ -43,6 +57,7 @@ public class BindingTableManager {
 			//			throw new IllegalArgumentException("Already contains table " + contextId); //$NON-NLS-1$
 		}
 		eclipseContext.set(contextId, table);
+		BindingTable.modified();
 		final List<Context> contexts = definedTables.getContexts();
 		if (!contexts.contains(table.getTableId())) {
 			// this is only valid because I'm throwing away the old definedTables contextSet
@@ -61,6 +76,7 @@ public class BindingTableManager {
 			throw new IllegalArgumentException("Does not contains table " + contextId); //$NON-NLS-1$
 		}
 		eclipseContext.remove(contextId);
+		BindingTable.modified();
 		final List<Context> contexts = definedTables.getContexts();
 		if (contexts.contains(table.getTableId())) {
 			// this is only valid because I'm throwing away the old definedTables contextSet
@@ -120,31 +136,82 @@ public class BindingTableManager {
 	}
 
 	public Binding getPerfectMatch(ContextSet contextSet, TriggerSequence triggerSequence) {
-		Binding result = null;
-		Binding currentResult = null;
+		return getResolved(contextSet).getPerfectMatch(triggerSequence);
+	}
+
+	/**
+	 * Returns the bindings of the given context set resolved into a trie, resolving them if the
+	 * context set was not looked up since the last change of the bindings.
+	 */
+	private BindingTrie getResolved(ContextSet contextSet) {
+		int modificationCount = BindingTable.getModificationCount();
+		if (modificationCount != resolvedModificationCount) {
+			clearResolved();
+			resolvedModificationCount = modificationCount;
+		} else if (contextSet == lastContextSet) {
+			return lastResolved;
+		}
+		BindingTrie resolved = resolvedSets.get(contextSet);
+		if (resolved == null) {
+			if (resolvedSets.size() >= MAX_RESOLVED_SETS) {
+				resolvedSets.clear();
+			}
+			resolved = resolve(contextSet);
+			resolvedSets.put(contextSet, resolved);
+		}
+		lastContextSet = contextSet;
+		lastResolved = resolved;
+		return resolved;
+	}
+
+	private void clearResolved() {
+		resolvedSets.clear();
+		lastContextSet = null;
+		lastResolved = null;
+	}
+
+	/**
+	 * Merges the tables of the context set, from the most specific context to the least specific
+	 * one. For each sequence, the binding of the most active scheme wins.
+	 */
+	private BindingTrie resolve(ContextSet contextSet) {
+		Map<TriggerSequence, Binding> matches = new HashMap<TriggerSequence, Binding>();
+		Set<TriggerSequence> resolved = new HashSet<TriggerSequence>();
 		List<Context> contexts = contextSet.getContexts();
 		ListIterator<Context> it = contexts.listIterator(contexts.size());
 		while (it.hasPrevious()) {
 			Context c = it.previous();
 			BindingTable table = getTable(c.getId());
-			if (table != null) {
-				currentResult = table.getPerfectMatch(triggerSequence);
+			if (table == null) {
+				continue;
 			}
-			if (currentResult != null) {
+			for (Binding currentResult : table.getBindings()) {
+				TriggerSequence triggerSequence = currentResult.getTriggerSequence();
+				if (resolved.contains(triggerSequence)) {
+					continue;
+				}
 				if (isMostActiveScheme(currentResult)) {
-					return currentResult;
+					matches.put(triggerSequence, currentResult);
+					resolved.add(triggerSequence);
+					continue;
 				}
+				Binding result = matches.get(triggerSequence);
 				if (result == null) {
-					result = currentResult;
+					matches.put(triggerSequence, currentResult);
 				} else {
 					int rc = compareSchemes(result.getSchemeId(), currentResult.getSchemeId());
 					if (rc < 0) {
-						result = currentResult;
+						matches.put(triggerSequence, currentResult);
 					}
 				}
 			}
 		}
-		return result;
+
+		BindingTrie trie = new BindingTrie();
+		for (Map.Entry<TriggerSequence, Binding> entry : matches.entrySet()) {
+			trie.put(entry.getKey(), entry.getValue());
+		}
+		return trie;
 	}
 
 	/**
@@ -203,18 +270,7 @@ public class BindingTableManager {
 	}
 
 	public boolean isPartialMatch(ContextSet contextSet, TriggerSequence sequence) {
-		List<Context> contexts = contextSet.getContexts();
-		ListIterator<Context> it = contexts.listIterator(contexts.size());
-		while (it.hasPrevious()) {
-			Context c = it.previous();
-			BindingTable table = getTable(c.getId());
-			if (table != null) {
-				if (table.isPartialMatch(sequence)) {
-					return true;
-				}
-			}
-		}
-		return false;
+		return getResolved(contextSet).isPartialMatch(sequence);
 	}
 
 	public Collection<Binding> getPartialMatches(ContextSet contextSet, TriggerSequence sequence) {
@@ -240,6 +296,7 @@ public class BindingTableManager {
 	public void setActiveSchemes(String[] activeSchemeIds) {
 		this.activeSchemeIds = activeSchemeIds;
 		BindingTable.BEST_SEQUENCE.setActiveSchemes(activeSchemeIds);
+		clearResolved();
 	}
 
 	/*
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.bindings.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.eclipse.jface.bindings.Binding;
+import org.eclipse.jface.bindings.Trigger;
+import org.eclipse.jface.bindings.TriggerSequence;
+
+/**
+ * The resolved bindings of a context set stored in a trie of triggers. Looking up a perfect or a
+ * partial match takes one step per trigger of the sequence, no matter how many contexts and
+ * bindings are active.
+ */
+class BindingTrie {
+	private static class Node {
+		private Map<Trigger, Node> children;
+		private Binding binding;
+	}
+
+	private final Node root = new Node();
+
+	/**
+	 * Sets the binding resolved for the given sequence.
+	 *
+	 * @param sequence
+	 *            a sequence with at least one trigger
+	 * @param binding
+	 *            the binding
+	 */
+	public void put(TriggerSequence sequence, Binding binding) {
+		Node node = root;
+		for (Trigger trigger : sequence.getTriggers()) {
+			if (node.children == null) {
+				node.children = new HashMap<Trigger, Node>(4);
+			}
+			Node child = node.children.get(trigger);
+			if (child == null) {
+				child = new Node();
+				node.children.put(trigger, child);
+			}
+			node = child;
+		}
+		node.binding = binding;
+	}
+
+	public Binding getPerfectMatch(TriggerSequence sequence) {
+		Node node = find(sequence);
+		return node == null ? null : node.binding;
+	}
+
+	/**
+	 * @return whether the sequence is a proper prefix of the sequence of a binding
+	 */
+	public boolean isPartialMatch(TriggerSequence sequence) {
+		Node node = find(sequence);
+		return node != null && node != root && node.children != null;
+	}
+
+	private Node find(TriggerSequence sequence) {
+		Node node = root;
+		for (Trigger trigger : sequence.getTriggers()) {
+			if (node.children == null) {
+				return null;
+			}
+			node = node.children.get(trigger);
+			if (node == null) {
+				return null;
+			}
+		}
+		return node;
+	}
+}
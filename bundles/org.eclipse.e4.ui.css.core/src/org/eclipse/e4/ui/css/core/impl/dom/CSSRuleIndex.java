@@ -0,0 +1,449 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.e4.ui.css.core.impl.dom;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import org.eclipse.e4.ui.css.core.dom.CSSStylableElement;
+import org.eclipse.e4.ui.css.core.dom.ExtendedCSSRule;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSAttributeConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSClassConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSElementSelectorImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSIdConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSLangConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSPseudoClassConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSPseudoElementSelectorImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.ExtendedCondition;
+import org.eclipse.e4.ui.css.core.impl.sac.ExtendedSelector;
+import org.w3c.css.sac.CombinatorCondition;
+import org.w3c.css.sac.Condition;
+import org.w3c.css.sac.ConditionalSelector;
+import org.w3c.css.sac.DescendantSelector;
+import org.w3c.css.sac.ElementSelector;
+import org.w3c.css.sac.Selector;
+import org.w3c.css.sac.SelectorList;
+import org.w3c.css.sac.SiblingSelector;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.css.CSSRule;
+import org.w3c.dom.css.CSSRuleList;
+import org.w3c.dom.css.CSSStyleRule;
+import org.w3c.dom.css.CSSStyleSheet;
+import org.w3c.dom.stylesheets.StyleSheetList;
+
+/**
+ * Indexes the selectors of the style rules of a list of style sheets by the
+ * rightmost simple selector they contain, the way browsers do, so that an
+ * element is only tested against the selectors that can possibly match it.
+ * <p>
+ * A selector is indexed by the id of its rightmost simple selector if it has
+ * one, otherwise by its class, otherwise by its element name. Selectors
+ * without any of these (such as <code>*</code> or <code>:selected</code>)
+ * are candidates for every element.
+ * </p>
+ */
+final class CSSRuleIndex {
+
+	/**
+	 * A selector of a style rule, with its position in the style sheets.
+	 */
+	static final class Entry {
+		final ExtendedSelector selector;
+		final CSSStyleRule rule;
+		final int order;
+
+		Entry(ExtendedSelector selector, CSSStyleRule rule, int order) {
+			this.selector = selector;
+			this.rule = rule;
+			this.order = order;
+		}
+	}
+
+	private static final Comparator<Entry> ORDER = new Comparator<Entry>() {
+		@Override
+		public int compare(Entry entry1, Entry entry2) {
+			return entry1.order < entry2.order ? -1 : (entry1.order == entry2.order ? 0 : 1);
+		}
+	};
+
+	private final Map<String, List<Entry>> idEntries = new HashMap<>();
+
+	private final Map<String, List<Entry>> classEntries = new HashMap<>();
+
+	private final Map<String, List<Entry>> nameEntries = new HashMap<>();
+
+	private final List<Entry> otherEntries = new ArrayList<>();
+
+	/**
+	 * The rule lists that were indexed, and their modification counts (or
+	 * lengths) at that time.
+	 */
+	private final CSSRuleList[] ruleLists;
+
+	private final int[] ruleListStamps;
+
+	/**
+	 * The attributes and pseudo classes tested by any selector, which together
+	 * with the element name, id and classes determine the style of an element.
+	 * <code>null</code> if some selector depends on more than that, such as
+	 * the siblings of the element.
+	 */
+	private String[] signatureAttributes;
+
+	private String[] signaturePseudoClasses;
+
+	/**
+	 * Whether some selector tests the ancestors of an element.
+	 */
+	private boolean signatureIncludesAncestors;
+
+	/**
+	 * Indexes the style rules of the given style sheets.
+	 */
+	CSSRuleIndex(StyleSheetList styleSheets) {
+		int sheetCount = styleSheets.getLength();
+		ruleLists = new CSSRuleList[sheetCount];
+		ruleListStamps = new int[sheetCount];
+		int order = 0;
+		Set<String> attributes = new TreeSet<>();
+		Set<String> pseudoClasses = new TreeSet<>();
+		boolean signatureSupported = true;
+		for (int i = 0; i < sheetCount; i++) {
+			CSSRuleList rules = ((CSSStyleSheet) styleSheets.item(i)).getCssRules();
+			ruleLists[i] = rules;
+			ruleListStamps[i] = stamp(rules);
+			int ruleCount = rules.getLength();
+			for (int j = 0; j < ruleCount; j++) {
+				CSSRule rule = rules.item(j);
+				if (rule.getType() != CSSRule.STYLE_RULE || !(rule instanceof ExtendedCSSRule)) {
+					continue;
+				}
+				SelectorList selectors = ((ExtendedCSSRule) rule).getSelectorList();
+				int selectorCount = selectors.getLength();
+				for (int k = 0; k < selectorCount; k++) {
+					Selector selector = selectors.item(k);
+					if (selector instanceof ExtendedSelector) {
+						add(new Entry((ExtendedSelector) selector, (CSSStyleRule) rule, order++));
+						signatureSupported = signatureSupported
+								&& collectSignatureParts(selector, attributes, pseudoClasses);
+					}
+				}
+			}
+		}
+		if (signatureSupported) {
+			signatureAttributes = attributes.toArray(new String[attributes.size()]);
+			signaturePseudoClasses = pseudoClasses.toArray(new String[pseudoClasses.size()]);
+		}
+	}
+
+	/**
+	 * @return whether this index still reflects the given style sheets
+	 */
+	boolean isUpToDate(StyleSheetList styleSheets) {
+		int sheetCount = styleSheets.getLength();
+		if (sheetCount != ruleLists.length) {
+			return false;
+		}
+		for (int i = 0; i < sheetCount; i++) {
+			CSSRuleList rules = ((CSSStyleSheet) styleSheets.item(i)).getCssRules();
+			if (rules != ruleLists[i] || stamp(rules) != ruleListStamps[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int stamp(CSSRuleList rules) {
+		if (rules instanceof CSSRuleListImpl) {
+			return ((CSSRuleListImpl) rules).getModificationCount();
+		}
+		return rules.getLength();
+	}
+
+	private void add(Entry entry) {
+		Selector selector = entry.selector;
+		// only the rightmost simple selector has to match the element itself
+		while (true) {
+			if (selector instanceof DescendantSelector) {
+				selector = ((DescendantSelector) selector).getSimpleSelector();
+			} else if (selector instanceof SiblingSelector) {
+				selector = ((SiblingSelector) selector).getSiblingSelector();
+			} else {
+				break;
+			}
+		}
+		if (selector instanceof ConditionalSelector) {
+			Condition condition = ((ConditionalSelector) selector).getCondition();
+			String id = findId(condition);
+			if (id != null) {
+				addTo(idEntries, id, entry);
+				return;
+			}
+			String cssClass = findClass(condition);
+			if (cssClass != null) {
+				addTo(classEntries, cssClass, entry);
+				return;
+			}
+			selector = ((ConditionalSelector) selector).getSimpleSelector();
+		}
+		if (selector.getSelectorType() == Selector.SAC_ELEMENT_NODE_SELECTOR) {
+			String name = ((ElementSelector) selector).getLocalName();
+			if (name != null) {
+				addTo(nameEntries, name, entry);
+				return;
+			}
+		}
+		otherEntries.add(entry);
+	}
+
+	private static String findId(Condition condition) {
+		if (condition instanceof CSSIdConditionImpl) {
+			return ((CSSIdConditionImpl) condition).getValue();
+		}
+		if (condition.getConditionType() == Condition.SAC_AND_CONDITION) {
+			CombinatorCondition and = (CombinatorCondition) condition;
+			String id = findId(and.getFirstCondition());
+			return id != null ? id : findId(and.getSecondCondition());
+		}
+		return null;
+	}
+
+	private static String findClass(Condition condition) {
+		if (condition instanceof CSSClassConditionImpl) {
+			String value = ((CSSClassConditionImpl) condition).getValue();
+			// values that cannot be a single class name are not indexed
+			if (value == null || value.isEmpty() || containsSpace(value)) {
+				return null;
+			}
+			return value;
+		}
+		if (condition.getConditionType() == Condition.SAC_AND_CONDITION) {
+			CombinatorCondition and = (CombinatorCondition) condition;
+			String cssClass = findClass(and.getFirstCondition());
+			return cssClass != null ? cssClass : findClass(and.getSecondCondition());
+		}
+		return null;
+	}
+
+	private static boolean containsSpace(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			if (Character.isSpaceChar(value.charAt(i))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void addTo(Map<String, List<Entry>> map, String key, Entry entry) {
+		List<Entry> entries = map.get(key);
+		if (entries == null) {
+			entries = new ArrayList<>(2);
+			map.put(key, entries);
+		}
+		entries.add(entry);
+	}
+
+	/**
+	 * Adds the attributes and pseudo classes tested by the given selector to
+	 * the given sets.
+	 *
+	 * @return <code>false</code> if the selector tests something that is not
+	 *         part of a style signature
+	 */
+	private boolean collectSignatureParts(Selector selector, Set<String> attributes, Set<String> pseudoClasses) {
+		if (selector instanceof ConditionalSelector) {
+			ConditionalSelector conditional = (ConditionalSelector) selector;
+			return collectSignatureParts(conditional.getSimpleSelector(), attributes, pseudoClasses)
+					&& collectSignatureParts(conditional.getCondition(), attributes, pseudoClasses);
+		}
+		if (selector instanceof DescendantSelector) {
+			// covers child selectors as well
+			DescendantSelector descendant = (DescendantSelector) selector;
+			signatureIncludesAncestors = true;
+			return collectSignatureParts(descendant.getAncestorSelector(), attributes, pseudoClasses)
+					&& collectSignatureParts(descendant.getSimpleSelector(), attributes, pseudoClasses);
+		}
+		// element names and pseudo elements are always part of the signature,
+		// anything else (such as sibling selectors) is not supported
+		return selector instanceof CSSElementSelectorImpl || selector instanceof CSSPseudoElementSelectorImpl;
+	}
+
+	private boolean collectSignatureParts(Condition condition, Set<String> attributes, Set<String> pseudoClasses) {
+		if (condition.getConditionType() == Condition.SAC_AND_CONDITION) {
+			CombinatorCondition and = (CombinatorCondition) condition;
+			return collectSignatureParts(and.getFirstCondition(), attributes, pseudoClasses)
+					&& collectSignatureParts(and.getSecondCondition(), attributes, pseudoClasses);
+		}
+		if (condition instanceof CSSIdConditionImpl || condition instanceof CSSClassConditionImpl) {
+			return true;
+		}
+		if (condition instanceof CSSPseudoClassConditionImpl) {
+			pseudoClasses.add(((CSSPseudoClassConditionImpl) condition).getValue());
+			return true;
+		}
+		if (condition instanceof CSSAttributeConditionImpl || condition instanceof CSSLangConditionImpl) {
+			((ExtendedCondition) condition).fillAttributeSet(attributes);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns a string that is the same for two elements exactly when the
+	 * indexed selectors cannot tell them apart, so that they get the same
+	 * computed style. The signature is made of the pseudo element, the name,
+	 * id and classes of the element, the values of the attributes and the
+	 * states of the pseudo classes tested by the selectors, and if needed the
+	 * signatures of the ancestors of the element.
+	 *
+	 * @param element
+	 *            the element
+	 * @param pseudoElt
+	 *            the pseudo element, may be <code>null</code>
+	 * @return the signature, or <code>null</code> if the selectors or the
+	 *         element do not allow to compute one
+	 */
+	String getStyleSignature(Element element, String pseudoElt) {
+		if (signatureAttributes == null) {
+			return null;
+		}
+		StringBuilder signature = new StringBuilder();
+		appendPart(signature, pseudoElt);
+		Node node = element;
+		do {
+			if (!(node instanceof CSSStylableElement)) {
+				return null;
+			}
+			appendSignature(signature, (CSSStylableElement) node);
+			node = node.getParentNode();
+		} while (signatureIncludesAncestors && node != null);
+		return signature.toString();
+	}
+
+	private void appendSignature(StringBuilder signature, CSSStylableElement element) {
+		appendPart(signature, element.getNamespaceURI());
+		appendPart(signature, element.getPrefix() == null ? element.getNodeName() : element.getLocalName());
+		appendPart(signature, element.getCSSId());
+		appendPart(signature, element.getCSSClass());
+		for (String attribute : signatureAttributes) {
+			appendPart(signature, element.getAttribute(attribute));
+		}
+		for (String pseudoClass : signaturePseudoClasses) {
+			if (element.isPseudoInstanceOf(pseudoClass)) {
+				signature.append(element.isStaticPseudoInstance(pseudoClass) ? 's' : 'y');
+			} else {
+				signature.append('n');
+			}
+		}
+	}
+
+	/**
+	 * Appends a length prefixed value, so that different values cannot
+	 * produce the same signature.
+	 */
+	private static void appendPart(StringBuilder signature, String value) {
+		if (value == null) {
+			signature.append('-');
+		} else {
+			signature.append(value.length()).append(':').append(value);
+		}
+	}
+
+	/**
+	 * Returns the selectors that may match the given element, in the order in
+	 * which they appear in the style sheets.
+	 *
+	 * @param element
+	 *            the element
+	 * @return the candidate selectors, must not be modified
+	 */
+	List<Entry> getCandidates(Element element) {
+		List<List<Entry>> lists = new ArrayList<>(4);
+		if (!idEntries.isEmpty()) {
+			String id = element instanceof CSSStylableElement ? ((CSSStylableElement) element).getCSSId()
+					: element.getAttribute("id"); //$NON-NLS-1$
+			addIfPresent(lists, idEntries, id);
+		}
+		if (!classEntries.isEmpty()) {
+			String cssClass = element instanceof CSSStylableElement ? ((CSSStylableElement) element).getCSSClass()
+					: element.getAttribute("class"); //$NON-NLS-1$
+			if (cssClass != null) {
+				addClassCandidates(lists, cssClass);
+			}
+		}
+		if (!nameEntries.isEmpty()) {
+			String name = element.getPrefix() == null ? element.getNodeName() : element.getLocalName();
+			addIfPresent(lists, nameEntries, name);
+		}
+		if (!otherEntries.isEmpty()) {
+			lists.add(otherEntries);
+		}
+
+		if (lists.isEmpty()) {
+			return Collections.emptyList();
+		}
+		if (lists.size() == 1) {
+			return lists.get(0);
+		}
+		List<Entry> candidates = new ArrayList<>();
+		for (List<Entry> list : lists) {
+			candidates.addAll(list);
+		}
+		Collections.sort(candidates, ORDER);
+		return candidates;
+	}
+
+	private void addClassCandidates(List<List<Entry>> lists, String cssClass) {
+		int length = cssClass.length();
+		int start = 0;
+		List<String> seen = null;
+		while (start < length) {
+			while (start < length && Character.isSpaceChar(cssClass.charAt(start))) {
+				start++;
+			}
+			int end = start;
+			while (end < length && !Character.isSpaceChar(cssClass.charAt(end))) {
+				end++;
+			}
+			if (end > start) {
+				String name = cssClass.substring(start, end);
+				List<Entry> entries = classEntries.get(name);
+				if (entries != null) {
+					// a class listed twice must not produce duplicates
+					if (seen == null) {
+						seen = new ArrayList<>(2);
+					}
+					if (!seen.contains(name)) {
+						seen.add(name);
+						lists.add(entries);
+					}
+				}
+			}
+			start = end;
+		}
+	}
+
+	private static void addIfPresent(List<List<Entry>> lists, Map<String, List<Entry>> map, String key) {
+		if (key != null) {
+			List<Entry> entries = map.get(key);
+			if (entries != null) {
+				lists.add(entries);
+			}
+		}
+	}
+}
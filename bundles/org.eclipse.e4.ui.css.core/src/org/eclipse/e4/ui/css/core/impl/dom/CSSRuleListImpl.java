@@ -21,6 +21,8 @@ public class CSSRuleListImpl implements CSSRuleList {
 
 	private List<CSSRule> ruleList;
 
+	private int modificationCount;
+
 	public CSSRuleListImpl() {
 		super();
 		this.ruleList = new ArrayList<CSSRule>();
@@ -45,6 +47,7 @@ public class CSSRuleListImpl implements CSSRuleList {
 	 */
 	public void add(CSSRule rule) {
 		ruleList.add(rule);
+		modificationCount++;
 	}
 
 	/**
@@ -52,5 +55,14 @@ public class CSSRuleListImpl implements CSSRuleList {
 	 */
 	public void remove(int position) {
 		ruleList.remove(position);
+		modificationCount++;
+	}
+
+	/**
+	 * @return the number of times rules have been added to or removed from
+	 *         this list, used to detect stale {@link CSSRuleIndex}es
+	 */
+	int getModificationCount() {
+		return modificationCount;
 	}
 }
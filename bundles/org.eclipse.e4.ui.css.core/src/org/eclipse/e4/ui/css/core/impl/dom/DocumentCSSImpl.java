@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2015 Angelo Zerr and others.
+ * Copyright (c) 2008, 2016 Angelo Zerr and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -43,6 +43,17 @@ public class DocumentCSSImpl implements ExtendedDocumentCSS {
 	 */
 	private Map<Integer, List<?>> styleDeclarationMap;
 
+	/**
+	 * Index of the style rules by their rightmost simple selector, built
+	 * lazily
+	 */
+	private CSSRuleIndex ruleIndex;
+
+	/**
+	 * Incremented whenever the rule index is rebuilt
+	 */
+	private int ruleIndexGeneration;
+
 	@Override
 	public StyleSheetList getStyleSheets() {
 		return styleSheetList;
@@ -56,12 +67,57 @@ public class DocumentCSSImpl implements ExtendedDocumentCSS {
 	@Override
 	public void addStyleSheet(StyleSheet styleSheet) {
 		styleSheetList.addStyleSheet(styleSheet);
+		this.ruleIndex = null;
 	}
 
 	@Override
 	public void removeAllStyleSheets() {
 		styleSheetList.removeAllStyleSheets();
 		this.styleDeclarationMap = null;
+		this.ruleIndex = null;
+	}
+
+	/**
+	 * Returns the index of the style rules of all style sheets, rebuilding it
+	 * if rules have been added or removed since it was last built.
+	 */
+	CSSRuleIndex getRuleIndex() {
+		if (ruleIndex == null || !ruleIndex.isUpToDate(styleSheetList)) {
+			ruleIndex = new CSSRuleIndex(styleSheetList);
+			ruleIndexGeneration++;
+		}
+		return ruleIndex;
+	}
+
+	/**
+	 * Returns a number that changes whenever style sheets or style rules have
+	 * been added or removed. Styles computed from the rules of this document,
+	 * e.g. those shared through {@link #getStyleSignature(Element, String)},
+	 * are only valid as long as it does not change.
+	 *
+	 * @return the generation of the style rules
+	 */
+	public int getRulesGeneration() {
+		getRuleIndex();
+		return ruleIndexGeneration;
+	}
+
+	/**
+	 * Returns a string that is equal for two elements when the style sheets of
+	 * this document compute the same style for them. It can be used to share
+	 * computed styles between elements, but is only valid as long as
+	 * {@link #getRulesGeneration()} does not change.
+	 *
+	 * @param element
+	 *            the element
+	 * @param pseudoElt
+	 *            the pseudo element, may be <code>null</code>
+	 * @return the signature, or <code>null</code> if the style of the element
+	 *         cannot be captured in a signature, e.g. because a selector tests
+	 *         its siblings
+	 */
+	public String getStyleSignature(Element element, String pseudoElt) {
+		return getRuleIndex().getStyleSignature(element, pseudoElt);
 	}
 
 	@Override
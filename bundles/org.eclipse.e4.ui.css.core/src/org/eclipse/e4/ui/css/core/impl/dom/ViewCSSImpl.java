@@ -59,6 +59,31 @@ public class ViewCSSImpl implements ViewCSS {
 	 */
 	@Override
 	public CSSStyleDeclaration getComputedStyle(Element elt, String pseudoElt) {
+		if (documentCSS instanceof DocumentCSSImpl) {
+			// Only test the selectors whose rightmost simple selector can
+			// match the element
+			List<CSSRuleIndex.Entry> candidates = ((DocumentCSSImpl) documentCSS).getRuleIndex().getCandidates(elt);
+			List<StyleWrapper> styleDeclarations = null;
+			StyleWrapper firstStyleDeclaration = null;
+			int position = 0;
+			for (CSSRuleIndex.Entry candidate : candidates) {
+				if (candidate.selector.match(elt, pseudoElt)) {
+					StyleWrapper wrapper = new StyleWrapper(candidate.rule.getStyle(),
+							candidate.selector.getSpecificity(), position++);
+					if (firstStyleDeclaration == null) {
+						firstStyleDeclaration = wrapper;
+					} else {
+						if (styleDeclarations == null) {
+							styleDeclarations = new ArrayList<StyleWrapper>();
+							styleDeclarations.add(firstStyleDeclaration);
+						}
+						styleDeclarations.add(wrapper);
+					}
+				}
+			}
+			return toStyleDeclaration(firstStyleDeclaration, styleDeclarations);
+		}
+
 		// Loop over the CSS styleSheet list
 		StyleSheetList styleSheetList = documentCSS.getStyleSheets();
 		int l = styleSheetList.getLength();
@@ -126,6 +151,11 @@ public class ViewCSSImpl implements ViewCSS {
 				}
 			}
 		}
+		return toStyleDeclaration(firstStyleDeclaration, styleDeclarations);
+	}
+
+	private static CSSStyleDeclaration toStyleDeclaration(StyleWrapper firstStyleDeclaration,
+			List<StyleWrapper> styleDeclarations) {
 		if (styleDeclarations != null) {
 			// There is several Style Declarations wich match
 			// the element, merge the CSS Property value.
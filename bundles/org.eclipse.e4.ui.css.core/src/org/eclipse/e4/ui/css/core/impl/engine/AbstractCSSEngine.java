@@ -369,7 +369,7 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 			/*
 			 * Compute new Style to apply.
 			 */
-			CSSStyleDeclaration style = viewCSS.getComputedStyle(elt, null);
+			CSSStyleDeclaration style = getComputedStyle(elt, null);
 			if (computeDefaultStyle) {
 				if (applyStylesToChildNodes) {
 					this.computeDefaultStyle = computeDefaultStyle;
@@ -388,8 +388,7 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 				// there are static pseudo instances definied, loop for it and
 				// apply styles for each pseudo instance.
 				for (String pseudoInstance : pseudoInstances) {
-					CSSStyleDeclaration styleWithPseudoInstance = viewCSS
-							.getComputedStyle(elt, pseudoInstance);
+					CSSStyleDeclaration styleWithPseudoInstance = getComputedStyle(elt, pseudoInstance);
 					if (computeDefaultStyle) {
 						/*
 						 * Apply default style for the current pseudo instance.
@@ -439,6 +438,20 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 
 	}
 
+	/**
+	 * Computes the style declaration of the given element. Subclasses may
+	 * override to reuse the styles computed for similar elements.
+	 *
+	 * @param elt
+	 *            the element
+	 * @param pseudoElt
+	 *            the pseudo instance, may be <code>null</code>
+	 * @return the computed style, or <code>null</code> if no rule matches
+	 */
+	protected CSSStyleDeclaration getComputedStyle(Element elt, String pseudoElt) {
+		return viewCSS.getComputedStyle(elt, pseudoElt);
+	}
+
 	/**
 	 * Allow the CSS engine to skip particular elements if they are not visible.
 	 * Elements need to be restyled when they become visible.
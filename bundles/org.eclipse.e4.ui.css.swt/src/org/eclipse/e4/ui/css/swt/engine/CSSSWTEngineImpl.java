@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2014 Angelo Zerr and others.
+ * Copyright (c) 2008, 2016 Angelo Zerr and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,15 +11,24 @@
  *******************************************************************************/
 package org.eclipse.e4.ui.css.swt.engine;
 
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.eclipse.core.runtime.RegistryFactory;
+import org.eclipse.e4.ui.css.core.impl.dom.DocumentCSSImpl;
 import org.eclipse.e4.ui.css.core.impl.engine.RegistryCSSElementProvider;
 import org.eclipse.e4.ui.css.core.impl.engine.RegistryCSSPropertyHandlerProvider;
+import org.eclipse.e4.ui.css.swt.dom.WidgetElement;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.DisposeEvent;
 import org.eclipse.swt.events.DisposeListener;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.Widget;
+import org.w3c.css.sac.InputSource;
+import org.w3c.dom.Element;
+import org.w3c.dom.css.CSSStyleDeclaration;
+import org.w3c.dom.stylesheets.StyleSheet;
 
 /**
  * CSS SWT Engine implementation which configure CSSEngineImpl to apply styles
@@ -27,8 +36,34 @@ import org.eclipse.swt.widgets.Widget;
  */
 public class CSSSWTEngineImpl extends AbstractCSSSWTEngineImpl {
 
+	/**
+	 * Upper bound for the number of cached computed styles, reached only if
+	 * many widgets have unique ids or classes.
+	 */
+	private static final int MAX_CACHED_STYLES = 4096;
+
 	private DisposeListener disposeListener;
 
+	/**
+	 * The styles computed for widgets, keyed by the style signature of their
+	 * {@link WidgetElement}. Cleared whenever the style sheets or their rules
+	 * change.
+	 */
+	private final Map<String, CSSStyleDeclaration> computedStyles = new LinkedHashMap<String, CSSStyleDeclaration>(
+			256, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CSSStyleDeclaration> eldest) {
+			return size() > MAX_CACHED_STYLES;
+		}
+	};
+
+	/**
+	 * The generation of the style rules the cached styles were computed from
+	 */
+	private int computedStylesGeneration = -1;
+
 	public CSSSWTEngineImpl(Display display) {
 		super(display);
 		init();
@@ -48,6 +83,47 @@ public class CSSSWTEngineImpl extends AbstractCSSSWTEngineImpl {
 		};
 	}
 
+	/**
+	 * Widgets that share the type, id, classes and the attributes and pseudo
+	 * states tested by the style sheets (e.g. all items of a table) get the
+	 * same computed style, so it is only computed once.
+	 */
+	@Override
+	protected CSSStyleDeclaration getComputedStyle(Element elt, String pseudoElt) {
+		if (!(elt instanceof WidgetElement) || !(getDocumentCSS() instanceof DocumentCSSImpl)) {
+			return super.getComputedStyle(elt, pseudoElt);
+		}
+		DocumentCSSImpl documentCSS = (DocumentCSSImpl) getDocumentCSS();
+		int generation = documentCSS.getRulesGeneration();
+		if (generation != computedStylesGeneration) {
+			// rules were inserted or deleted
+			computedStyles.clear();
+			computedStylesGeneration = generation;
+		}
+		String signature = documentCSS.getStyleSignature(elt, pseudoElt);
+		if (signature == null) {
+			return super.getComputedStyle(elt, pseudoElt);
+		}
+		CSSStyleDeclaration style = computedStyles.get(signature);
+		if (style == null && !computedStyles.containsKey(signature)) {
+			style = super.getComputedStyle(elt, pseudoElt);
+			computedStyles.put(signature, style);
+		}
+		return style;
+	}
+
+	@Override
+	public StyleSheet parseStyleSheet(InputSource source) throws IOException {
+		computedStyles.clear();
+		return super.parseStyleSheet(source);
+	}
+
+	@Override
+	public void reset() {
+		computedStyles.clear();
+		super.reset();
+	}
+
 	@Override
 	protected void hookNativeWidget(Object widget) {
 		if (widget instanceof Widget) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2015 IBM Corporation and others.
+ * Copyright (c) 2003, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -25,6 +25,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
@@ -238,9 +239,53 @@ public class ProgressManager extends ProgressProvider {
 	}
 
 
+	/**
+	 * The minimum time in milliseconds between two updates of the job info for
+	 * the work reported to a {@link JobMonitor}.
+	 */
+	static final long MONITOR_UPDATE_INTERVAL = 100;
+
+	/*
+	 * Applies the work held back by the job monitors, so that it is shown
+	 * even if the job does not report anything else for a while.
+	 */
+	private final Job monitorUpdateJob = createMonitorUpdateJob();
+
+	private final AtomicBoolean monitorUpdateScheduled = new AtomicBoolean();
+
+	private Job createMonitorUpdateJob() {
+		Job job = new Job(ProgressMessages.ProgressContentProvider_UpdateProgressJob) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				monitorUpdateScheduled.set(false);
+				for (Object jobMonitor : runnableMonitors.values().toArray()) {
+					((JobMonitor) jobMonitor).flushWork();
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		job.setSystem(true);
+		job.setProperty(ProgressManagerUtil.INFRASTRUCTURE_PROPERTY, new Object());
+		return job;
+	}
+
+	/**
+	 * Schedule the update of the work held back by the job monitors, unless
+	 * it is already scheduled.
+	 */
+	void scheduleMonitorUpdate() {
+		if (monitorUpdateScheduled.compareAndSet(false, true)) {
+			monitorUpdateJob.schedule(MONITOR_UPDATE_INTERVAL);
+		}
+	}
+
 	/**
 	 * The JobMonitor is the inner class that handles the IProgressMonitor
-	 * integration with the ProgressMonitor.
+	 * integration with the ProgressMonitor. The work reported is accumulated
+	 * and applied to the job info at most every
+	 * {@link ProgressManager#MONITOR_UPDATE_INTERVAL} milliseconds, any other
+	 * call applies it immediately. Work held back is applied by a trailing
+	 * update at most one interval later.
 	 */
 	class JobMonitor implements IProgressMonitorWithBlocking {
 		Job job;
@@ -249,6 +294,13 @@ public class ProgressManager extends ProgressProvider {
 
 		IProgressMonitorWithBlocking listener;
 
+		/*
+		 * The work reported since the last update, guarded by the monitor
+		 */
+		double pendingWork;
+
+		long lastWorkUpdate;
+
 		/**
 		 * Create a monitor on the supplied job.
 		 *
@@ -275,6 +327,7 @@ public class ProgressManager extends ProgressProvider {
 
 		@Override
 		public void beginTask(String taskName, int totalWork) {
+			flushWork();
 			JobInfo info = getJobInfo(job);
 			info.beginTask(taskName, totalWork);
 			refreshJobInfo(info);
@@ -286,6 +339,7 @@ public class ProgressManager extends ProgressProvider {
 
 		@Override
 		public void done() {
+			flushWork();
 			JobInfo info = getJobInfo(job);
 			info.clearTaskInfo();
 			info.clearChildren();
@@ -296,7 +350,26 @@ public class ProgressManager extends ProgressProvider {
 		}
 
 		@Override
-		public void internalWorked(double work) {
+		public synchronized void internalWorked(double work) {
+			pendingWork += work;
+			long now = System.currentTimeMillis();
+			if (now - lastWorkUpdate >= MONITOR_UPDATE_INTERVAL) {
+				lastWorkUpdate = now;
+				flushWork();
+			} else {
+				scheduleMonitorUpdate();
+			}
+		}
+
+		/**
+		 * Apply the work accumulated since the last update.
+		 */
+		synchronized void flushWork() {
+			if (pendingWork == 0) {
+				return;
+			}
+			double work = pendingWork;
+			pendingWork = 0;
 			JobInfo info = getJobInfo(job);
 			if (info.hasTaskInfo()) {
 				info.addWork(work);
@@ -332,6 +405,7 @@ public class ProgressManager extends ProgressProvider {
 
 		@Override
 		public void setTaskName(String taskName) {
+			flushWork();
 			JobInfo info = getJobInfo(job);
 			if (info.hasTaskInfo()) {
 				info.setTaskName(taskName);
@@ -352,6 +426,7 @@ public class ProgressManager extends ProgressProvider {
 			if (name == null) {
 				return;
 			}
+			flushWork();
 			JobInfo info = getJobInfo(job);
 			info.clearChildren();
 			info.addSubTask(name);
@@ -542,6 +542,13 @@ public abstract class AbstractContributionItem extends ContributionItem {
 		return null;
 	}
 
+	/**
+	 * Drops the enablement remembered for this item, since state outside of the contexts it
+	 * depends on may have changed. It is called before an explicitly requested update.
+	 */
+	protected void invalidateItemEnablement() {
+	}
+
 	protected void updateItemEnablement() {
 		if (!(modelItem.getWidget() instanceof ToolItem))
 			return;
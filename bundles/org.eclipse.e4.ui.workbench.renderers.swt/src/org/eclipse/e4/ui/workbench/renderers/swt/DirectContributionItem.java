@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2015 IBM Corporation and others.
+ * Copyright (c) 2010, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,6 +15,7 @@
 package org.eclipse.e4.ui.workbench.renderers.swt;
 
 import javax.inject.Inject;
+import org.eclipse.e4.core.commands.internal.HandlerServiceImpl;
 import org.eclipse.e4.core.contexts.ContextInjectionFactory;
 import org.eclipse.e4.core.contexts.EclipseContextFactory;
 import org.eclipse.e4.core.contexts.IEclipseContext;
@@ -146,6 +147,13 @@ public class DirectContributionItem extends AbstractContributionItem {
 		Boolean result = ((Boolean) ContextInjectionFactory.invoke(
 				contrib.getObject(), CanExecute.class,
 				getExecutionContext(lclContext), staticContext, Boolean.TRUE));
+		if (trigger == null) {
+			ToolItemUpdater updater = getUpdater();
+			if (updater != null) {
+				updater.setContextKeys(this,
+						HandlerServiceImpl.getContextKeys(contrib.getObject(), staticContext));
+			}
+		}
 		return result.booleanValue();
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2015 IBM Corporation and others.
+ * Copyright (c) 2010, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,7 +17,10 @@
 ******************************************************************************/
 package org.eclipse.e4.ui.workbench.renderers.swt;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import javax.inject.Inject;
@@ -28,6 +31,7 @@ import org.eclipse.core.commands.common.NotDefinedException;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.e4.core.commands.ECommandService;
 import org.eclipse.e4.core.commands.EHandlerService;
+import org.eclipse.e4.core.commands.internal.HandlerServiceImpl;
 import org.eclipse.e4.core.commands.internal.ICommandHelpService;
 import org.eclipse.e4.core.contexts.EclipseContextFactory;
 import org.eclipse.e4.core.contexts.IContextFunction;
@@ -342,6 +346,8 @@ public class HandledContributionItem extends AbstractContributionItem {
 				updater.removeItem(this);
 			}
 			if (infoContext != null) {
+				// stop the cached enablement from tracking the execution context
+				HandlerServiceImpl.invalidateCanExecuteResults(infoContext);
 				infoContext.dispose();
 				infoContext = null;
 			}
@@ -425,6 +431,13 @@ public class HandledContributionItem extends AbstractContributionItem {
 		service.executeHandler(cmd, staticContext);
 	}
 
+	@Override
+	protected void invalidateItemEnablement() {
+		if (infoContext != null) {
+			HandlerServiceImpl.invalidateCanExecuteResults(infoContext);
+		}
+	}
+
 	@Override
 	protected boolean canExecuteItem(Event trigger) {
 		ParameterizedCommand cmd = getModel().getWbCommand();
@@ -437,7 +450,19 @@ public class HandledContributionItem extends AbstractContributionItem {
 			return false;
 		}
 		final IEclipseContext staticContext = getStaticContext(trigger);
-		return service.canExecute(cmd, staticContext);
+		boolean enabled = service.canExecute(cmd, staticContext);
+		if (trigger == null) {
+			ToolItemUpdater updater = getUpdater();
+			if (updater != null) {
+				Collection<String> keys = HandlerServiceImpl.getTrackedKeys(staticContext);
+				if (keys != null) {
+					keys = new HashSet<>(keys);
+					keys.addAll(Arrays.asList(ToolBarManagerRenderer.HANDLER_VARIABLES));
+				}
+				updater.setContextKeys(this, keys);
+			}
+		}
+		return enabled;
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 IBM Corporation and others.
+ * Copyright (c) 2009, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -27,6 +27,7 @@ import java.util.Map;
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import org.eclipse.core.expressions.ExpressionInfo;
+import org.eclipse.e4.core.commands.internal.HandlerServiceImpl;
 import org.eclipse.e4.core.contexts.ContextInjectionFactory;
 import org.eclipse.e4.core.contexts.IContextFunction;
 import org.eclipse.e4.core.contexts.IEclipseContext;
@@ -110,6 +111,23 @@ public class ToolBarManagerRenderer extends SWTPartRenderer {
 
 	private Map<MToolBarElement, ArrayList<ToolBarContributionRecord>> sharedElementToRecord = new HashMap<>();
 
+	/**
+	 * The update variables that change which handler is active for a command.
+	 */
+	static final String[] HANDLER_VARIABLES = {
+			"org.eclipse.ui.internal.services.EvaluationService.evaluate", //$NON-NLS-1$
+			IServiceConstants.ACTIVE_CONTEXTS,
+			IServiceConstants.ACTIVE_PART,
+			IServiceConstants.ACTIVE_SHELL };
+
+	/**
+	 * The update variables that handlers commonly follow through state that is not tracked in a
+	 * context, like the active part of the part service. A change drops all cached enablement.
+	 */
+	private static final List<String> UNTRACKED_STATE_VARIABLES = Arrays.asList(
+			IServiceConstants.ACTIVE_PART, IServiceConstants.ACTIVE_SELECTION,
+			IServiceConstants.ACTIVE_SHELL);
+
 	private ToolItemUpdater enablementUpdater = new ToolItemUpdater();
 
 	@Inject
@@ -269,6 +287,7 @@ public class ToolBarManagerRenderer extends SWTPartRenderer {
 	}
 
 	private HashSet<String> updateVariables = new HashSet<>();
+	private HashSet<String> trackedVariables = new HashSet<>();
 
 	@Inject
 	@Optional
@@ -344,26 +363,39 @@ public class ToolBarManagerRenderer extends SWTPartRenderer {
 	public void init() {
 		context.set(ToolBarManagerRenderer.class, this);
 
-		String[] vars = {
-				"org.eclipse.ui.internal.services.EvaluationService.evaluate", //$NON-NLS-1$
-				IServiceConstants.ACTIVE_CONTEXTS,
-				IServiceConstants.ACTIVE_PART,
-				IServiceConstants.ACTIVE_SELECTION,
-				IServiceConstants.ACTIVE_SHELL };
-		updateVariables.addAll(Arrays.asList(vars));
+		updateVariables.addAll(Arrays.asList(HANDLER_VARIABLES));
+		updateVariables.add(IServiceConstants.ACTIVE_SELECTION);
 		context.set(UPDATE_VARS, updateVariables);
-		RunAndTrack enablementUpdater = new RunAndTrack() {
+		trackUpdateVariables();
+	}
 
-			@Override
-			public boolean changed(IEclipseContext context) {
-				for (String var : updateVariables) {
+	/**
+	 * Tracks each of the update variables on its own, so that a change only updates the tool
+	 * items depending on the variable that changed.
+	 */
+	private void trackUpdateVariables() {
+		for (final String var : updateVariables.toArray(new String[updateVariables.size()])) {
+			if (!trackedVariables.add(var)) {
+				continue;
+			}
+			context.runAndTrack(new RunAndTrack() {
+				private boolean initialized;
+
+				@Override
+				public boolean changed(IEclipseContext context) {
 					context.get(var);
+					if (initialized) {
+						trackUpdateVariables();
+						if (UNTRACKED_STATE_VARIABLES.contains(var)) {
+							HandlerServiceImpl.invalidateCanExecuteResults();
+						}
+						getUpdater().contextChanged(var);
+					}
+					initialized = true;
+					return true;
 				}
-				getUpdater().updateContributionItems(ALL_SELECTOR);
-				return true;
-			}
-		};
-		context.runAndTrack(enablementUpdater);
+			});
+		}
 	}
 
 	@Override
@@ -472,6 +504,7 @@ public class ToolBarManagerRenderer extends SWTPartRenderer {
 			ExpressionInfo info = new ExpressionInfo();
 			record.collectInfo(info);
 			updateVariables.addAll(Arrays.asList(info.getAccessedVariableNames()));
+			trackUpdateVariables();
 			final IEclipseContext parentContext = getContext(toolbarModel);
 			parentContext.runAndTrack(new RunAndTrack() {
 				@Override
@@ -487,7 +520,13 @@ public class ToolBarManagerRenderer extends SWTPartRenderer {
 						@Override
 						public void run() {
 							manager.update(false);
-							getUpdater().updateContributionItems(ALL_SELECTOR);
+							getUpdater().updateContributionItems(new Selector() {
+								@Override
+								public boolean select(MApplicationElement element) {
+									return element instanceof MUIElement
+											&& ((MUIElement) element).getParent() == toolbarModel;
+								}
+							});
 						}
 					});
 					return true;
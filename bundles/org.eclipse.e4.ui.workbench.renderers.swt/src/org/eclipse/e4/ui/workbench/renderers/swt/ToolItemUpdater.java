@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2015 IBM Corporation and others.
+ * Copyright (c) 2014, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,35 +12,200 @@
 package org.eclipse.e4.ui.workbench.renderers.swt;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.e4.ui.internal.workbench.Activator;
+import org.eclipse.e4.ui.internal.workbench.Policy;
 import org.eclipse.e4.ui.workbench.Selector;
+import org.eclipse.swt.widgets.Display;
 
+/**
+ * Updates the enablement of the tool items of a renderer. Update requests only mark the affected
+ * items, the items are re-evaluated once per pass of the event loop no matter how many requests
+ * were made in between. Items can be registered with the context keys their enablement depends
+ * on, a change of a context key then only marks the items registered for it.
+ */
 public class ToolItemUpdater {
 
-	private List<AbstractContributionItem> itemsToCheck = new ArrayList<>();
-	private final List<AbstractContributionItem> orphanedToolItems = new ArrayList<>();
+	private Set<AbstractContributionItem> itemsToCheck = new LinkedHashSet<>();
+
+	/**
+	 * The items registered with the context keys their enablement depends on. Items that are not
+	 * in this map depend on any of the tracked context keys.
+	 */
+	private Map<AbstractContributionItem, Collection<String>> keysByItem = new HashMap<>();
+	private Map<String, Set<AbstractContributionItem>> itemsByKey = new HashMap<>();
+
+	private Set<AbstractContributionItem> dirtyItems = new LinkedHashSet<>();
+	/**
+	 * The dirty items whose remembered enablement is dropped before they are re-evaluated.
+	 */
+	private Set<AbstractContributionItem> staleItems = new HashSet<>();
+	private boolean updateScheduled;
 
 	void registerItem(AbstractContributionItem item) {
+		itemsToCheck.add(item);
+	}
+
+	/**
+	 * Records the context keys the enablement of a registered item depends on. The item is then
+	 * only re-evaluated by {@link #contextChanged(String)} for one of these keys. An item with a
+	 * visibleWhen expression depends on any of the tracked context keys.
+	 *
+	 * @param item
+	 *            the item
+	 * @param keys
+	 *            the context keys the enablement of the item depends on, or <code>null</code> if
+	 *            it may depend on any of them
+	 */
+	void setContextKeys(AbstractContributionItem item, Collection<String> keys) {
 		if (!itemsToCheck.contains(item)) {
-			itemsToCheck.add(item);
+			return;
+		}
+		if (item.getModel() != null && item.getModel().getVisibleWhen() != null) {
+			keys = null;
+		}
+		Collection<String> oldKeys = keysByItem.get(item);
+		if (keys == null ? oldKeys == null : keys.equals(oldKeys)) {
+			return;
+		}
+		unregisterKeys(item);
+		if (keys == null) {
+			return;
+		}
+		keysByItem.put(item, keys);
+		for (String key : keys) {
+			Set<AbstractContributionItem> items = itemsByKey.get(key);
+			if (items == null) {
+				items = new LinkedHashSet<>();
+				itemsByKey.put(key, items);
+			}
+			items.add(item);
 		}
 	}
 
 	void removeItem(AbstractContributionItem item) {
 		itemsToCheck.remove(item);
+		dirtyItems.remove(item);
+		staleItems.remove(item);
+		unregisterKeys(item);
+	}
+
+	private void unregisterKeys(AbstractContributionItem item) {
+		Collection<String> keys = keysByItem.remove(item);
+		if (keys == null) {
+			return;
+		}
+		for (String key : keys) {
+			Set<AbstractContributionItem> items = itemsByKey.get(key);
+			if (items != null) {
+				items.remove(item);
+				if (items.isEmpty()) {
+					itemsByKey.remove(key);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Schedules the update of the items that depend on the given context key.
+	 *
+	 * @param key
+	 *            the context key that changed
+	 */
+	public void contextChanged(String key) {
+		for (AbstractContributionItem ci : itemsToCheck) {
+			if (!keysByItem.containsKey(ci)) {
+				dirtyItems.add(ci);
+			}
+		}
+		Set<AbstractContributionItem> items = itemsByKey.get(key);
+		if (items != null) {
+			dirtyItems.addAll(items);
+		}
+		scheduleUpdate();
 	}
 
+	/**
+	 * Schedules the update of the items selected by the given selector. The state outside of the
+	 * contexts may have changed, so the enablement remembered for these items is not reused.
+	 *
+	 * @param selector
+	 *            selects the items to update
+	 */
 	public void updateContributionItems(Selector selector) {
+		List<AbstractContributionItem> orphanedToolItems = null;
 		for (final AbstractContributionItem ci : itemsToCheck) {
-			if (ci.getModel() != null && ci.getModel().getParent() != null && selector.select(ci.getModel())) {
-				ci.updateItemEnablement();
-			} else {
+			if (isOrphaned(ci)) {
+				if (orphanedToolItems == null) {
+					orphanedToolItems = new ArrayList<>();
+				}
 				orphanedToolItems.add(ci);
+			} else if (selector.select(ci.getModel())) {
+				dirtyItems.add(ci);
+				staleItems.add(ci);
+			}
+		}
+		if (orphanedToolItems != null) {
+			for (AbstractContributionItem ci : orphanedToolItems) {
+				removeItem(ci);
+			}
+		}
+		scheduleUpdate();
+	}
+
+	private static boolean isOrphaned(AbstractContributionItem ci) {
+		return ci.getModel() == null || ci.getModel().getParent() == null;
+	}
+
+	private void scheduleUpdate() {
+		if (updateScheduled || dirtyItems.isEmpty()) {
+			return;
+		}
+		Display display = Display.getCurrent();
+		if (display == null) {
+			// not called from the UI thread, there is no event loop pass to wait for
+			updateDirtyItems();
+			return;
+		}
+		updateScheduled = true;
+		display.asyncExec(new Runnable() {
+			@Override
+			public void run() {
+				updateScheduled = false;
+				updateDirtyItems();
+			}
+		});
+	}
+
+	/**
+	 * Re-evaluates the enablement of the items marked since the last pass.
+	 */
+	void updateDirtyItems() {
+		int count = 0;
+		while (!dirtyItems.isEmpty()) {
+			Iterator<AbstractContributionItem> i = dirtyItems.iterator();
+			AbstractContributionItem ci = i.next();
+			i.remove();
+			if (isOrphaned(ci)) {
+				removeItem(ci);
+			} else {
+				if (staleItems.remove(ci)) {
+					ci.invalidateItemEnablement();
+				}
+				ci.updateItemEnablement();
+				count++;
 			}
 		}
-		if (!orphanedToolItems.isEmpty()) {
-			itemsToCheck.removeAll(orphanedToolItems);
-			orphanedToolItems.clear();
+		if (count > 0) {
+			Activator.trace(Policy.DEBUG_RENDERER, "Tool item enablement pass: evaluated " + count //$NON-NLS-1$
+					+ " of " + itemsToCheck.size() + " items", null); //$NON-NLS-1$ //$NON-NLS-2$
 		}
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 IBM Corporation and others.
+ * Copyright (c) 2009, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -55,6 +55,7 @@ import org.eclipse.e4.ui.internal.workbench.ModelServiceImpl;
 import org.eclipse.e4.ui.internal.workbench.PlaceholderResolver;
 import org.eclipse.e4.ui.internal.workbench.ReflectionContributionFactory;
 import org.eclipse.e4.ui.internal.workbench.ResourceHandler;
+import org.eclipse.e4.ui.internal.workbench.UIEventPublisher;
 import org.eclipse.e4.ui.internal.workbench.SelectionAggregator;
 import org.eclipse.e4.ui.internal.workbench.SelectionServiceImpl;
 import org.eclipse.e4.ui.internal.workbench.URIHelper;
@@ -177,6 +178,14 @@ public class E4Application implements IApplication {
 	}
 
 	public void saveModel() {
+		// Let the model change listeners catch up before the model is saved
+		if (workbench != null) {
+			UIEventPublisher publisher = workbench.getContext().get(UIEventPublisher.class);
+			if (publisher != null) {
+				publisher.flush();
+			}
+		}
+
 		// Save the model into the targetURI
 		if (lcManager != null && workbench != null) {
 			ContextInjectionFactory.invoke(lcManager, PreSave.class, workbench.getContext(), null);
@@ -371,6 +380,28 @@ public class E4Application implements IApplication {
 				.map(value -> Boolean.parseBoolean(value)).orElse(Boolean.TRUE);
 		eclipseContext.set(E4Workbench.DELTA_RESTORE, deltaRestore);
 
+		// Coalesce model change events
+		Boolean coalesceModelEvents = getArgValue(E4Workbench.COALESCE_MODEL_EVENTS, appContext, true)
+				.map(value -> Boolean.parseBoolean(value)).orElse(Boolean.FALSE);
+		eclipseContext.set(E4Workbench.COALESCE_MODEL_EVENTS, coalesceModelEvents);
+
+		// Binary model persistence, falls back to the workbench preference
+		Boolean binaryPersistence = getArgValue(E4Workbench.BINARY_PERSISTENCE, appContext, true)
+				.map(value -> Boolean.parseBoolean(value))
+				.orElseGet(() -> Boolean.valueOf(Platform.getPreferencesService().getBoolean(
+						"org.eclipse.e4.ui.workbench", E4Workbench.BINARY_PERSISTENCE, false, null))); //$NON-NLS-1$
+		eclipseContext.set(E4Workbench.BINARY_PERSISTENCE, binaryPersistence);
+
+		// Journal the changes of auto-saves
+		Boolean journalAutoSave = getArgValue(E4Workbench.JOURNAL_AUTO_SAVE, appContext, true)
+				.map(value -> Boolean.parseBoolean(value)).orElse(Boolean.FALSE);
+		eclipseContext.set(E4Workbench.JOURNAL_AUTO_SAVE, journalAutoSave);
+
+		// Reuse the assembled initial model
+		Boolean cacheAssembledModel = getArgValue(E4Workbench.CACHE_ASSEMBLED_MODEL, appContext, true)
+				.map(value -> Boolean.parseBoolean(value)).orElse(Boolean.FALSE);
+		eclipseContext.set(E4Workbench.CACHE_ASSEMBLED_MODEL, cacheAssembledModel);
+
 		String resourceHandler = getArgValue(IWorkbench.MODEL_RESOURCE_HANDLER, appContext, false)
 				.orElse("bundleclass://org.eclipse.e4.ui.workbench/" + ResourceHandler.class.getName());
 
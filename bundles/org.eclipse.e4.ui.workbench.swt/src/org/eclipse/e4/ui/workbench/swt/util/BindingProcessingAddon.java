@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2015 IBM Corporation and others.
+ * Copyright (c) 2010, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -172,16 +172,19 @@ public class BindingProcessingAddon {
 			table = new BindingTable(bindingContext);
 			bindingTables.addTable(table);
 		}
+		List<Binding> keyBindings = new ArrayList<Binding>();
 		for (MKeyBinding binding : bindingTable.getBindings()) {
-			defineBinding(table, bindingContext, binding);
+			defineBinding(keyBindings, bindingContext, binding);
 		}
+		table.addBindings(keyBindings);
 	}
 
 	/**
-	 * @param bindingTable
+	 * @param keyBindings
+	 *            the bindings to add to the table
 	 * @param binding
 	 */
-	private void defineBinding(BindingTable bindingTable,
+	private void defineBinding(List<Binding> keyBindings,
 			Context bindingContext, MKeyBinding binding) {
 		Binding keyBinding = createBinding(bindingContext,
 				binding.getCommand(), binding.getParameters(),
@@ -189,7 +192,7 @@ public class BindingProcessingAddon {
 		if (keyBinding != null
 				&& !binding.getTags().contains(
 						EBindingService.DELETED_BINDING_TAG)) {
-			bindingTable.addBinding(keyBinding);
+			keyBindings.add(keyBinding);
 		}
 	}
 
@@ -329,6 +332,7 @@ public class BindingProcessingAddon {
 										bindingContext);
 								bindingTables.addTable(table);
 								List<MKeyBinding> bindings = bt.getBindings();
+								List<Binding> keyBindings = new ArrayList<Binding>();
 								for (MKeyBinding binding : bindings) {
 									Binding keyBinding = createBinding(
 											bindingContext,
@@ -336,9 +340,10 @@ public class BindingProcessingAddon {
 											binding.getParameters(),
 											binding.getKeySequence(), binding);
 									if (keyBinding != null) {
-										table.addBinding(keyBinding);
+										keyBindings.add(keyBinding);
 									}
 								}
+								table.addBindings(keyBindings);
 							}
 						}
 					}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 IBM Corporation and others.
+ * Copyright (c) 2009, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -131,6 +131,18 @@ public class Activator implements BundleActivator {
 		return trace;
 	}
 
+	/**
+	 * @param option
+	 *            the trace option, relative to this bundle
+	 * @return whether messages of the trace option are traced, so that building them is
+	 *         worthwhile
+	 */
+	public static boolean isTracing(String option) {
+		DebugOptions debugOptions = activator == null ? null : activator.getDebugOptions();
+		return debugOptions != null && debugOptions.isDebugEnabled()
+				&& debugOptions.getBooleanOption(PI_WORKBENCH + option, false);
+	}
+
 	public static void trace(String option, String msg, Throwable error) {
 		final DebugOptions debugOptions = activator.getDebugOptions();
 		if (debugOptions.isDebugEnabled()
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.internal.workbench;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.EObjectInputStream;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.EObjectOutputStream;
+
+/**
+ * An {@link E4XMIResource} that is stored in the compact binary format of EMF instead of XMI.
+ * The binary contents are preceded by a table of the ids of all the objects, in the order of
+ * {@link #getAllContents()}, so that the ids survive a save and restore just like they do in
+ * XMI.
+ */
+public class E4BinaryResource extends E4XMIResource {
+
+	private static final int SIGNATURE = 0x45344944; // "E4ID"
+
+	public E4BinaryResource() {
+	}
+
+	public E4BinaryResource(URI uri) {
+		super(uri);
+	}
+
+	@Override
+	public void doSave(OutputStream outputStream, Map<?, ?> options) throws IOException {
+		List<String> ids = new ArrayList<>();
+		TreeIterator<EObject> it = getAllContents();
+		while (it.hasNext()) {
+			ids.add(getID(it.next()));
+		}
+
+		DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+		dataOutputStream.writeInt(SIGNATURE);
+		dataOutputStream.writeInt(ids.size());
+		for (String id : ids) {
+			dataOutputStream.writeBoolean(id != null);
+			if (id != null) {
+				dataOutputStream.writeUTF(id);
+			}
+		}
+		dataOutputStream.flush();
+
+		EObjectOutputStream eObjectOutputStream = new EObjectOutputStream(outputStream, options);
+		eObjectOutputStream.saveResource(this);
+		eObjectOutputStream.flush();
+	}
+
+	@Override
+	public void doLoad(InputStream inputStream, Map<?, ?> options) throws IOException {
+		DataInputStream dataInputStream = new DataInputStream(inputStream);
+		if (dataInputStream.readInt() != SIGNATURE) {
+			throw new IOException("Not a binary workbench model: " + getURI()); //$NON-NLS-1$
+		}
+		int count = dataInputStream.readInt();
+		List<String> ids = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			ids.add(dataInputStream.readBoolean() ? dataInputStream.readUTF() : null);
+		}
+
+		EObjectInputStream eObjectInputStream = new EObjectInputStream(inputStream, options);
+		eObjectInputStream.loadResource(this);
+
+		TreeIterator<EObject> it = getAllContents();
+		for (int i = 0; i < count && it.hasNext(); i++) {
+			EObject eObject = it.next();
+			String id = ids.get(i);
+			if (id != null) {
+				setID(eObject, id);
+			}
+		}
+		if (it.hasNext()) {
+			throw new IOException("The id table does not match the contents of " + getURI()); //$NON-NLS-1$
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2015 BestSolution.at and others.
+ * Copyright (c) 2008, 2016 BestSolution.at and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -27,6 +27,7 @@ import org.eclipse.e4.ui.model.application.MApplicationElement;
 import org.eclipse.e4.ui.model.application.ui.MContext;
 import org.eclipse.e4.ui.workbench.IPresentationEngine;
 import org.eclipse.e4.ui.workbench.IWorkbench;
+import org.eclipse.e4.ui.workbench.modeling.EModelService;
 import org.eclipse.emf.common.notify.Notifier;
 import org.eclipse.osgi.service.datalocation.Location;
 import org.osgi.framework.ServiceRegistration;
@@ -89,6 +90,34 @@ public class E4Workbench implements IWorkbench {
 	 * Value is: <code>forcedShowLocation</code>
 	 */
 	public static final String FORCED_SHOW_LOCATION = "forcedShowLocation"; //$NON-NLS-1$
+	/**
+	 * The argument for whether the events of model changes are coalesced and sent
+	 * asynchronously <br>
+	 * <br>
+	 * Value is: <code>coalesceModelEvents</code>
+	 */
+	public static final String COALESCE_MODEL_EVENTS = "coalesceModelEvents"; //$NON-NLS-1$
+	/**
+	 * The argument and preference for whether the workbench model is saved in a binary format
+	 * instead of XMI <br>
+	 * <br>
+	 * Value is: <code>binaryPersistence</code>
+	 */
+	public static final String BINARY_PERSISTENCE = "binaryPersistence"; //$NON-NLS-1$
+	/**
+	 * The argument for whether auto-saves only append the changed model elements to a journal
+	 * instead of saving the whole model <br>
+	 * <br>
+	 * Value is: <code>journalAutoSave</code>
+	 */
+	public static final String JOURNAL_AUTO_SAVE = "journalAutoSave"; //$NON-NLS-1$
+	/**
+	 * The argument for whether the initial model assembled from the application definition and
+	 * the model contributions is cached and reused while the contributions do not change <br>
+	 * <br>
+	 * Value is: <code>cacheAssembledModel</code>
+	 */
+	public static final String CACHE_ASSEMBLED_MODEL = "cacheAssembledModel"; //$NON-NLS-1$
 
 	private final String id;
 	private ServiceRegistration<?> osgiRegistration;
@@ -127,7 +156,8 @@ public class E4Workbench implements IWorkbench {
 			init((MApplication) uiRoot);
 		}
 
-		uiEventPublisher = new UIEventPublisher(appContext);
+		uiEventPublisher = new UIEventPublisher(appContext,
+				Boolean.TRUE.equals(appContext.get(COALESCE_MODEL_EVENTS)));
 		appContext.set(UIEventPublisher.class, uiEventPublisher);
 		((Notifier) uiRoot).eAdapters().add(uiEventPublisher);
 		Hashtable<String, Object> properties = new Hashtable<>();
@@ -189,13 +219,27 @@ public class E4Workbench implements IWorkbench {
 
 	@Override
 	public boolean close() {
+		// send the coalesced events of the changes made so far, and of those made while the
+		// renderer stops, while their listeners are still there
+		if (uiEventPublisher != null) {
+			uiEventPublisher.flush();
+		}
 		if (renderer != null) {
 			renderer.stop();
 		}
+		if (uiEventPublisher != null) {
+			uiEventPublisher.flush();
+		}
 		if (uiEventPublisher != null && appModel != null) {
 			((Notifier) appModel).eAdapters().remove(uiEventPublisher);
 			uiEventPublisher = null;
 		}
+		if (appContext != null) {
+			EModelService modelService = appContext.get(EModelService.class);
+			if (modelService instanceof ModelServiceImpl) {
+				((ModelServiceImpl) modelService).dispose();
+			}
+		}
 		if (osgiRegistration != null) {
 			osgiRegistration.unregister();
 			osgiRegistration = null;
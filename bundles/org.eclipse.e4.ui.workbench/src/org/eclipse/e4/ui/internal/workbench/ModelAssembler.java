@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2015 BestSolution.at and others.
+ * Copyright (c) 2010, 2016 BestSolution.at and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,16 +14,26 @@
 
 package org.eclipse.e4.ui.internal.workbench;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import javax.inject.Inject;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IContributor;
 import org.eclipse.core.runtime.IExtension;
 import org.eclipse.core.runtime.IExtensionPoint;
 import org.eclipse.core.runtime.IExtensionRegistry;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.e4.core.contexts.ContextInjectionFactory;
 import org.eclipse.e4.core.contexts.EclipseContextFactory;
 import org.eclipse.e4.core.contexts.IEclipseContext;
@@ -40,13 +50,20 @@ import org.eclipse.emf.common.util.Diagnostic;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EFactory;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.impl.EPackageRegistryImpl;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
 import org.eclipse.emf.ecore.util.Diagnostician;
 import org.eclipse.emf.ecore.util.EContentsEList;
 import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
 
 /**
  *
@@ -96,53 +113,223 @@ public class ModelAssembler {
 	 */
 	private void processFragments(IExtension[] extensions, List<MApplicationElement> imports,
 			List<MApplicationElement> addedElements, boolean initial) {
+		ResourceSet resourceSet = ((EObject) application).eResource().getResourceSet();
+		List<FragmentContribution> contributions = new ArrayList<>();
+		Map<URI, FragmentLoad> loads = new LinkedHashMap<>();
 
 		for (IExtension extension : extensions) {
 			IConfigurationElement[] ces = extension.getConfigurationElements();
 			for (IConfigurationElement ce : ces) {
 				if ("fragment".equals(ce.getName())) { //$NON-NLS-1$
 					if (initial || !INITIAL.equals(ce.getAttribute("apply"))) { //$NON-NLS-1$
-						processFragment(ce, imports, addedElements, initial);
+						FragmentContribution contribution = createContribution(ce, resourceSet,
+								loads);
+						if (contribution != null) {
+							contributions.add(contribution);
+						}
 					}
 				}
 			}
 		}
+
+		// parse the fragments concurrently, but validate and merge them in contribution order
+		loadFragments(loads.values());
+		boolean tracing = Activator.isTracing(Policy.DEBUG_FRAGMENTS);
+		Map<String, long[]> times = new LinkedHashMap<>();
+		for (FragmentContribution contribution : contributions) {
+			long start = tracing ? System.nanoTime() : 0;
+			processFragment(contribution, imports, addedElements, initial);
+			if (tracing) {
+				long[] bundleTimes = times.get(contribution.bundleName);
+				if (bundleTimes == null) {
+					bundleTimes = new long[2];
+					times.put(contribution.bundleName, bundleTimes);
+				}
+				if (!contribution.load.counted) {
+					contribution.load.counted = true;
+					bundleTimes[0] += contribution.load.nanos;
+				}
+				bundleTimes[1] += System.nanoTime() - start;
+			}
+		}
+		for (Map.Entry<String, long[]> entry : times.entrySet()) {
+			Activator.trace(Policy.DEBUG_FRAGMENTS, "Model fragments of \"" + entry.getKey() //$NON-NLS-1$
+					+ "\" loaded in " + entry.getValue()[0] / 1000000 + " ms, validated and merged in " //$NON-NLS-1$ //$NON-NLS-2$
+					+ entry.getValue()[1] / 1000000 + " ms", null); //$NON-NLS-1$
+		}
 	}
 
-	private void processFragment(IConfigurationElement ce, List<MApplicationElement> imports,
-			List<MApplicationElement> addedElements, boolean initial) {
-		E4XMIResource applicationResource = (E4XMIResource) ((EObject) application).eResource();
-		ResourceSet resourceSet = applicationResource.getResourceSet();
+	private FragmentContribution createContribution(IConfigurationElement ce,
+			ResourceSet resourceSet, Map<URI, FragmentLoad> loads) {
 		IContributor contributor = ce.getContributor();
 		String attrURI = ce.getAttribute("uri"); //$NON-NLS-1$
 		String bundleName = contributor.getName();
 		if (attrURI == null) {
 			logger.warn("Unable to find location for the model extension \"{0}\"", bundleName); //$NON-NLS-1$
-			return;
+			return null;
 		}
 
 		URI uri;
 		try {
-			// check if the attrURI is already a platform URI
-			if (URIHelper.isPlatformURI(attrURI)) {
-				uri = URI.createURI(attrURI);
-			} else {
-				String path = bundleName + '/' + attrURI;
-				uri = URI.createPlatformPluginURI(path, false);
-			}
+			uri = getFragmentURI(bundleName, attrURI);
 		} catch (RuntimeException e) {
 			logger.warn(e, "Invalid location \"" + attrURI + "\" of model extension \"" + bundleName + "\""); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			return null;
+		}
+
+		FragmentLoad load = loads.get(uri);
+		if (load == null) {
+			load = new FragmentLoad(uri, resourceSet);
+			loads.put(uri, load);
+		}
+		return new FragmentContribution(ce, bundleName, load);
+	}
+
+	private static URI getFragmentURI(String bundleName, String attrURI) {
+		// check if the attrURI is already a platform URI
+		if (URIHelper.isPlatformURI(attrURI)) {
+			return URI.createURI(attrURI);
+		}
+		String path = bundleName + '/' + attrURI;
+		return URI.createPlatformPluginURI(path, false);
+	}
+
+	/**
+	 * Describes the inputs of the model assembly: the contributions to the model extension point,
+	 * the versions of the contributing bundles and the time stamps of the fragments. An assembled
+	 * initial model can be reused as long as its fingerprint does not change.
+	 * <p>
+	 * A reused model is not processed again, so processors must not depend on anything but the
+	 * model or have effects outside of it. The inputs of other processors are not known, so
+	 * there is no fingerprint if a processor is not marked as <code>modelOnly</code>.
+	 * </p>
+	 *
+	 * @param registry
+	 *            the extension registry
+	 * @param converter
+	 *            the converter used to query the time stamps of the fragments
+	 * @return the fingerprint, or <code>null</code> if the assembled model must not be reused
+	 */
+	static String computeFingerprint(IExtensionRegistry registry, URIConverter converter) {
+		StringBuilder fingerprint = new StringBuilder();
+		appendBundle(fingerprint, FrameworkUtil.getBundle(ModelAssembler.class));
+		appendBundle(fingerprint, FrameworkUtil.getBundle(MApplication.class));
+		Map<String, ?> options = Collections.singletonMap(URIConverter.OPTION_REQUESTED_ATTRIBUTES,
+				Collections.singleton(URIConverter.ATTRIBUTE_TIME_STAMP));
+
+		IExtensionPoint extPoint = registry.getExtensionPoint(extensionPointID);
+		for (IExtension extension : new ExtensionsSort().sort(extPoint.getExtensions())) {
+			String bundleName = extension.getContributor().getName();
+			appendBundle(fingerprint, Platform.getBundle(bundleName));
+			for (IConfigurationElement ce : extension.getConfigurationElements()) {
+				if ("processor".equals(ce.getName()) //$NON-NLS-1$
+						&& !Boolean.parseBoolean(ce.getAttribute("modelOnly"))) { //$NON-NLS-1$
+					return null;
+				}
+				fingerprint.append(ce.getName());
+				for (String name : ce.getAttributeNames()) {
+					fingerprint.append(' ').append(name).append('=').append(ce.getAttribute(name));
+				}
+				String attrURI = ce.getAttribute("uri"); //$NON-NLS-1$
+				if ("fragment".equals(ce.getName()) && attrURI != null) { //$NON-NLS-1$
+					try {
+						Object timestamp = converter.getAttributes(
+								getFragmentURI(bundleName, attrURI), options).get(
+								URIConverter.ATTRIBUTE_TIME_STAMP);
+						fingerprint.append(" @").append(timestamp); //$NON-NLS-1$
+					} catch (RuntimeException e) {
+						// the time stamp of the bundle has to do
+					}
+				}
+				fingerprint.append('\n');
+			}
+		}
+		return fingerprint.toString();
+	}
+
+	private static void appendBundle(StringBuilder fingerprint, Bundle bundle) {
+		if (bundle == null) {
+			fingerprint.append("?\n"); //$NON-NLS-1$
+		} else {
+			fingerprint.append(bundle.getSymbolicName()).append(' ').append(bundle.getVersion())
+					.append(' ').append(bundle.getLastModified()).append('\n');
+		}
+	}
+
+	/**
+	 * Parses the resources of the fragments on a pool of worker threads.
+	 */
+	private static void loadFragments(Collection<FragmentLoad> loads) {
+		List<FragmentLoad> pending = new ArrayList<>();
+		for (FragmentLoad load : loads) {
+			if (load.resource == null) {
+				pending.add(load);
+			}
+		}
+		int threads = Math.min(pending.size(), Runtime.getRuntime().availableProcessors());
+		if (threads < 2) {
+			for (FragmentLoad load : pending) {
+				load.run();
+			}
 			return;
 		}
 
-		String contributorURI = URIHelper.constructPlatformURI(contributor);
-		Resource resource;
+		ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			private int count;
+
+			@Override
+			public synchronized Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "Model Fragment Loader " + ++count); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
 		try {
-			resource = resourceSet.getResource(uri, true);
-		} catch (RuntimeException e) {
-			logger.warn(e, "Unable to read model extension from \"" + uri.toString() +"\" of \"" + bundleName + "\""); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			List<Future<?>> futures = new ArrayList<>();
+			for (FragmentLoad load : pending) {
+				futures.add(executor.submit(load));
+			}
+			boolean interrupted = false;
+			for (Future<?> future : futures) {
+				while (true) {
+					try {
+						future.get();
+						break;
+					} catch (InterruptedException e) {
+						// the fragments are needed to start, so keep waiting
+						interrupted = true;
+					} catch (ExecutionException e) {
+						// reported when the fragment is merged
+						break;
+					}
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private void processFragment(FragmentContribution contribution,
+			List<MApplicationElement> imports, List<MApplicationElement> addedElements,
+			boolean initial) {
+		E4XMIResource applicationResource = (E4XMIResource) ((EObject) application).eResource();
+		ResourceSet resourceSet = applicationResource.getResourceSet();
+		IConfigurationElement ce = contribution.ce;
+		FragmentLoad load = contribution.load;
+		URI uri = load.uri;
+		String bundleName = contribution.bundleName;
+		String contributorURI = URIHelper.constructPlatformURI(ce.getContributor());
+		Resource resource = load.resource;
+		if (resource == null) {
+			logger.warn(load.error, "Unable to read model extension from \"" + uri.toString() +"\" of \"" + bundleName + "\""); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 			return;
 		}
+		if (resource.getResourceSet() != resourceSet) {
+			resourceSet.getResources().add(resource);
+		}
 
 		EList<?> contents = resource.getContents();
 		if (contents.isEmpty()) {
@@ -338,4 +525,99 @@ public class ModelAssembler {
 			cmd.run();
 		}
 	}
+
+	/**
+	 * A fragment contributed through the extension point.
+	 */
+	private static class FragmentContribution {
+		final IConfigurationElement ce;
+		final String bundleName;
+		final FragmentLoad load;
+
+		FragmentContribution(IConfigurationElement ce, String bundleName, FragmentLoad load) {
+			this.ce = ce;
+			this.bundleName = bundleName;
+			this.load = load;
+		}
+	}
+
+	/**
+	 * Parses the resource of one or more fragment contributions. Resources are parsed into a
+	 * resource set of their own as resource sets are not thread safe; the resource is moved to
+	 * the resource set of the application when it is merged. The resource factory is looked up
+	 * and the parsed fragments are validated on the calling thread, only the parsing runs on
+	 * the worker threads.
+	 */
+	private static class FragmentLoad implements Runnable {
+		final URI uri;
+		private Resource.Factory factory;
+		private ResourceSet loadSet;
+		volatile Resource resource;
+		volatile Throwable error;
+		volatile long nanos;
+		boolean counted;
+
+		FragmentLoad(URI uri, ResourceSet resourceSet) {
+			this.uri = uri;
+			// loaded already, nothing to parse
+			resource = resourceSet.getResource(uri, false);
+			if (resource == null) {
+				factory = resourceSet.getResourceFactoryRegistry().getFactory(uri);
+				loadSet = new ResourceSetImpl();
+				loadSet.setPackageRegistry(new SynchronizedPackageRegistry(resourceSet
+						.getPackageRegistry()));
+				loadSet.setURIConverter(resourceSet.getURIConverter());
+				loadSet.getLoadOptions().putAll(resourceSet.getLoadOptions());
+			}
+		}
+
+		@Override
+		public void run() {
+			long start = System.nanoTime();
+			try {
+				if (factory == null) {
+					throw new IllegalArgumentException("Cannot create a resource for '" + uri //$NON-NLS-1$
+							+ "'; a registered resource factory is needed"); //$NON-NLS-1$
+				}
+				Resource loaded = factory.createResource(uri);
+				loadSet.getResources().add(loaded);
+				loaded.load(loadSet.getLoadOptions());
+				resource = loaded;
+			} catch (IOException | RuntimeException e) {
+				error = e;
+			} finally {
+				nanos = System.nanoTime() - start;
+			}
+		}
+	}
+
+	/**
+	 * The package registry of the resource sets that fragments are parsed into. Looking up a
+	 * package can resolve a package descriptor and thereby change the application's registry or
+	 * the global registry, so the worker threads look packages up one at a time. The packages
+	 * of the application model are frozen once initialized and can be read concurrently.
+	 */
+	private static class SynchronizedPackageRegistry extends EPackageRegistryImpl {
+		private static final long serialVersionUID = 1L;
+
+		private final EPackage.Registry registry;
+
+		SynchronizedPackageRegistry(EPackage.Registry registry) {
+			this.registry = registry;
+		}
+
+		@Override
+		public EPackage getEPackage(String nsURI) {
+			synchronized (SynchronizedPackageRegistry.class) {
+				return registry.getEPackage(nsURI);
+			}
+		}
+
+		@Override
+		public EFactory getEFactory(String nsURI) {
+			synchronized (SynchronizedPackageRegistry.class) {
+				return registry.getEFactory(nsURI);
+			}
+		}
+	}
 }
@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.internal.workbench;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.MApplicationElement;
+import org.eclipse.e4.ui.model.application.commands.MBindingContext;
+import org.eclipse.e4.ui.model.application.impl.ApplicationPackageImpl;
+import org.eclipse.e4.ui.model.application.ui.MUIElement;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPlaceholder;
+import org.eclipse.e4.ui.model.application.ui.advanced.impl.AdvancedPackageImpl;
+import org.eclipse.e4.ui.workbench.modeling.EModelService;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+
+/**
+ * Keeps the elements of an application model indexed by their element id, their tags and their
+ * type so that {@link ModelServiceImpl} knows which elements a <code>findElements</code> query can
+ * return without walking the whole model.
+ * <p>
+ * The index is attached to the application as a content adapter and is updated as elements are
+ * added, removed or changed. It only narrows down the candidates: the search still walks the
+ * model to find them in order, and stops once all of them have been found.
+ * </p>
+ * <p>
+ * The model is usually changed in the UI thread but may be searched from other threads, so
+ * updates and lookups of the index are synchronized. The model is never walked while the index
+ * is locked.
+ * </p>
+ */
+final class ModelElementIndex extends EContentAdapter {
+
+	private final MApplication application;
+
+	private final Set<MApplicationElement> elements = new HashSet<>();
+
+	private final Map<String, Set<MApplicationElement>> elementsById = new HashMap<>();
+
+	private final Map<String, Set<MApplicationElement>> elementsByTag = new HashMap<>();
+
+	private final Map<Class<?>, Set<MApplicationElement>> elementsByType = new HashMap<>();
+
+	private final Map<MUIElement, Set<MPlaceholder>> placeholdersByRef = new IdentityHashMap<>();
+
+	/*
+	 * The number of indexed placeholders whose reference is not indexed. The recursive search
+	 * follows such references out of the application, to elements the index does not know.
+	 */
+	private int foreignRefCount;
+
+	ModelElementIndex(MApplication application) {
+		this.application = application;
+		((EObject) application).eAdapters().add(this);
+	}
+
+	MApplication getApplication() {
+		return application;
+	}
+
+	synchronized void dispose() {
+		((EObject) application).eAdapters().remove(this);
+	}
+
+	/**
+	 * Returns the indexed elements that a search from <code>searchRoot</code> may find: the
+	 * elements with the given id, else those of the least used of the given tags, else those of
+	 * the given type.
+	 *
+	 * @param searchRoot
+	 *            the element to start the search from
+	 * @param clazz
+	 *            the type of the elements to find, may be <code>null</code>
+	 * @param searchFlags
+	 *            the {@link EModelService} search flags
+	 * @param id
+	 *            the element id the search requires, or <code>null</code>
+	 * @param tags
+	 *            the tags the search requires, or <code>null</code>
+	 * @return a copy of the candidates, or <code>null</code> if the search may find elements
+	 *         that are not indexed or there are too many candidates to be worth it
+	 */
+	synchronized Set<MApplicationElement> getCandidates(MApplicationElement searchRoot,
+			Class<?> clazz, int searchFlags, String id, List<String> tags) {
+		if (foreignRefCount > 0 || !elements.contains(searchRoot)) {
+			return null;
+		}
+		// Binding contexts are reached through a non-containment reference
+		if (searchFlags == EModelService.ANYWHERE && MBindingContext.class.equals(clazz)) {
+			return null;
+		}
+		Set<MApplicationElement> candidates = null;
+		if (id != null) {
+			candidates = get(elementsById, id);
+		} else if (tags != null && !tags.isEmpty()) {
+			for (String tag : tags) {
+				Set<MApplicationElement> tagged = get(elementsByTag, tag);
+				if (candidates == null || tagged.size() < candidates.size()) {
+					candidates = tagged;
+				}
+			}
+		} else if (clazz != null) {
+			candidates = new HashSet<>();
+			for (Map.Entry<Class<?>, Set<MApplicationElement>> entry : elementsByType.entrySet()) {
+				if (clazz.isAssignableFrom(entry.getKey())) {
+					candidates.addAll(entry.getValue());
+				}
+			}
+		}
+		if (candidates == null || candidates.size() * 2 > elements.size()) {
+			return null;
+		}
+		return new HashSet<>(candidates);
+	}
+
+	@Override
+	protected void setTarget(EObject target) {
+		super.setTarget(target);
+		if (target instanceof MApplicationElement) {
+			index((MApplicationElement) target);
+		}
+	}
+
+	@Override
+	protected void unsetTarget(EObject target) {
+		super.unsetTarget(target);
+		if (target instanceof MApplicationElement) {
+			unindex((MApplicationElement) target);
+		}
+	}
+
+	@Override
+	public synchronized void notifyChanged(Notification notification) {
+		super.notifyChanged(notification);
+
+		Object notifier = notification.getNotifier();
+		if (!(notifier instanceof MApplicationElement) || !elements.contains(notifier)) {
+			return;
+		}
+		MApplicationElement element = (MApplicationElement) notifier;
+		Object feature = notification.getFeature();
+		if (feature == ApplicationPackageImpl.Literals.APPLICATION_ELEMENT__ELEMENT_ID) {
+			remove(elementsById, notification.getOldValue(), element);
+			add(elementsById, element.getElementId(), element);
+		} else if (feature == ApplicationPackageImpl.Literals.APPLICATION_ELEMENT__TAGS) {
+			if (notification.getEventType() == Notification.MOVE) {
+				return;
+			}
+			for (Object tag : values(notification.getOldValue())) {
+				if (!element.getTags().contains(tag)) {
+					remove(elementsByTag, tag, element);
+				}
+			}
+			for (String tag : element.getTags()) {
+				add(elementsByTag, tag, element);
+			}
+		} else if (feature == AdvancedPackageImpl.Literals.PLACEHOLDER__REF) {
+			MPlaceholder placeholder = (MPlaceholder) element;
+			removeRef(placeholder, (MUIElement) notification.getOldValue());
+			addRef(placeholder, placeholder.getRef());
+		}
+	}
+
+	private void index(MApplicationElement element) {
+		if (!elements.add(element)) {
+			return;
+		}
+		add(elementsById, element.getElementId(), element);
+		for (String tag : element.getTags()) {
+			add(elementsByTag, tag, element);
+		}
+		add(elementsByType, element.getClass(), element);
+		if (element instanceof MPlaceholder) {
+			MPlaceholder placeholder = (MPlaceholder) element;
+			addRef(placeholder, placeholder.getRef());
+		}
+		Set<MPlaceholder> placeholders = placeholdersByRef.get(element);
+		if (placeholders != null) {
+			foreignRefCount -= placeholders.size();
+		}
+	}
+
+	private void unindex(MApplicationElement element) {
+		if (!elements.remove(element)) {
+			return;
+		}
+		remove(elementsById, element.getElementId(), element);
+		for (String tag : element.getTags()) {
+			remove(elementsByTag, tag, element);
+		}
+		remove(elementsByType, element.getClass(), element);
+		if (element instanceof MPlaceholder) {
+			MPlaceholder placeholder = (MPlaceholder) element;
+			removeRef(placeholder, placeholder.getRef());
+		}
+		Set<MPlaceholder> placeholders = placeholdersByRef.get(element);
+		if (placeholders != null) {
+			foreignRefCount += placeholders.size();
+		}
+	}
+
+	private void addRef(MPlaceholder placeholder, MUIElement ref) {
+		if (ref == null) {
+			return;
+		}
+		Set<MPlaceholder> placeholders = placeholdersByRef.get(ref);
+		if (placeholders == null) {
+			placeholders = new HashSet<>();
+			placeholdersByRef.put(ref, placeholders);
+		}
+		if (placeholders.add(placeholder) && !elements.contains(ref)) {
+			foreignRefCount++;
+		}
+	}
+
+	private void removeRef(MPlaceholder placeholder, MUIElement ref) {
+		Set<MPlaceholder> placeholders = placeholdersByRef.get(ref);
+		if (placeholders == null || !placeholders.remove(placeholder)) {
+			return;
+		}
+		if (placeholders.isEmpty()) {
+			placeholdersByRef.remove(ref);
+		}
+		if (!elements.contains(ref)) {
+			foreignRefCount--;
+		}
+	}
+
+	private static <K> Set<MApplicationElement> get(Map<K, Set<MApplicationElement>> map, K key) {
+		Set<MApplicationElement> bucket = map.get(key);
+		return bucket == null ? Collections.<MApplicationElement> emptySet() : bucket;
+	}
+
+	private static <K> void add(Map<K, Set<MApplicationElement>> map, K key,
+			MApplicationElement element) {
+		if (key == null) {
+			return;
+		}
+		Set<MApplicationElement> bucket = map.get(key);
+		if (bucket == null) {
+			bucket = new HashSet<>();
+			map.put(key, bucket);
+		}
+		bucket.add(element);
+	}
+
+	private static void remove(Map<?, Set<MApplicationElement>> map, Object key,
+			MApplicationElement element) {
+		Set<MApplicationElement> bucket = map.get(key);
+		if (bucket != null && bucket.remove(element) && bucket.isEmpty()) {
+			map.remove(key);
+		}
+	}
+
+	private static Collection<?> values(Object value) {
+		if (value instanceof Collection<?>) {
+			return (Collection<?>) value;
+		}
+		if (value instanceof String) {
+			return Collections.singleton(value);
+		}
+		return Collections.emptySet();
+	}
+}
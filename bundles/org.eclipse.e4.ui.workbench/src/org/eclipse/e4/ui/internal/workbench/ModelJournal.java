@@ -0,0 +1,638 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.internal.workbench;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import org.eclipse.emf.common.util.EMap;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * An append-only log of the model elements that changed between two auto-saves. Each entry holds
+ * the persisted state of the changed elements only: their attributes, the ids of the elements
+ * they refer to and the ids of their children. Replaying the entries in order on the last full
+ * save restores the model as it was at the last auto-save.
+ * <p>
+ * The journal belongs to the full save it was started for; if that file changed, the journal is
+ * ignored. An entry that failed to be written is cut off again, and a last entry that was not
+ * completely written, for instance because the workbench crashed, is ignored. Any other damage
+ * makes the whole journal unusable: no entry is applied unless all of them can be read.
+ * </p>
+ */
+final class ModelJournal {
+
+	private static final int HEADER_SIGNATURE = 0x45344A48; // "E4JH"
+	private static final int ENTRY_SIGNATURE = 0x45344A45; // "E4JE"
+
+	/**
+	 * The number of entries after which the journal is compacted into a full save.
+	 */
+	private static final int MAX_ENTRIES = 50;
+
+	/**
+	 * The minimum journal size after which the journal is compacted when it gets bigger than half
+	 * of the full save.
+	 */
+	private static final long MIN_COMPACTION_SIZE = 64 * 1024;
+
+	private static final byte ATTRIBUTE = 0;
+	private static final byte MANY_ATTRIBUTE = 1;
+	private static final byte REFERENCE = 2;
+	private static final byte MANY_REFERENCE = 3;
+	private static final byte MAP = 4;
+
+	private final File file;
+
+	/**
+	 * Fingerprints of the persisted state of the elements by id, as last saved or journaled;
+	 * <code>null</code> if the next save has to be a full one.
+	 */
+	private Map<String, Long> fingerprints;
+
+	private String baseName;
+	private long baseLength;
+	private long baseLastModified;
+	private int entryCount;
+
+	ModelJournal(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Starts a new journal after a full save of the given snapshot.
+	 *
+	 * @param baseFile
+	 *            the file the snapshot was saved to
+	 * @param root
+	 *            the saved snapshot
+	 * @param ids
+	 *            the ids of the objects of the snapshot
+	 */
+	void reset(File baseFile, EObject root, Map<EObject, String> ids) {
+		delete();
+		Map<String, Long> newFingerprints = new HashMap<>();
+		try {
+			writeChanges(root, ids, newFingerprints, null);
+			fingerprints = newFingerprints;
+			baseName = baseFile.getName();
+			baseLength = baseFile.length();
+			baseLastModified = baseFile.lastModified();
+		} catch (UnsupportedElementException e) {
+			fingerprints = null;
+		} catch (IOException e) {
+			fingerprints = null;
+		}
+	}
+
+	/**
+	 * Discards the journal, the next save has to be a full one.
+	 */
+	void invalidate() {
+		delete();
+		fingerprints = null;
+	}
+
+	/**
+	 * Appends the elements of the snapshot that changed since the last save to the journal.
+	 *
+	 * @param root
+	 *            the snapshot
+	 * @param ids
+	 *            the ids of the objects of the snapshot
+	 * @return <code>false</code> if the snapshot has to be saved in full instead, either because
+	 *         there is nothing to append to or because the journal should be compacted
+	 * @throws IOException
+	 *             if the journal cannot be written
+	 */
+	boolean append(EObject root, Map<EObject, String> ids) throws IOException {
+		if (fingerprints == null || entryCount >= MAX_ENTRIES) {
+			return false;
+		}
+		long length = file.length();
+		if (length > MIN_COMPACTION_SIZE && length > baseLength / 2) {
+			return false;
+		}
+
+		Map<String, Long> newFingerprints = new HashMap<>();
+		ByteArrayOutputStream records = new ByteArrayOutputStream();
+		int count;
+		try {
+			count = writeChanges(root, ids, newFingerprints, new DataOutputStream(records));
+		} catch (UnsupportedElementException e) {
+			return false;
+		}
+		if (count > 0) {
+			writeEntry(count, records.toByteArray());
+		}
+		fingerprints = newFingerprints;
+		return true;
+	}
+
+	private void writeEntry(int count, byte[] records) throws IOException {
+		boolean newFile = !file.exists() || entryCount == 0;
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(records.length + 8);
+		DataOutputStream entry = new DataOutputStream(bytes);
+		entry.writeInt(ENTRY_SIGNATURE);
+		entry.writeInt(count);
+		entry.write(records);
+		entry.flush();
+		byte[] data = bytes.toByteArray();
+		CRC32 crc = new CRC32();
+		crc.update(data);
+
+		long length = newFile ? 0 : file.length();
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(file, !newFile)))) {
+			if (newFile) {
+				out.writeInt(HEADER_SIGNATURE);
+				out.writeUTF(baseName);
+				out.writeLong(baseLength);
+				out.writeLong(baseLastModified);
+			}
+			out.writeInt(data.length);
+			out.write(data);
+			out.writeLong(crc.getValue());
+		} catch (IOException e) {
+			truncate(length);
+			throw e;
+		}
+		entryCount++;
+	}
+
+	/**
+	 * Cuts off what was written of an entry that could not be written completely, so that later
+	 * entries are not appended after it. If that fails, the next save has to be a full one.
+	 */
+	private void truncate(long length) {
+		if (length == 0) {
+			invalidate();
+			return;
+		}
+		try (RandomAccessFile out = new RandomAccessFile(file, "rw")) { //$NON-NLS-1$
+			out.setLength(length);
+		} catch (IOException e) {
+			invalidate();
+		}
+	}
+
+	private void delete() {
+		if (file.exists()) {
+			file.delete();
+		}
+		entryCount = 0;
+	}
+
+	/**
+	 * Writes the records of the elements whose persisted state differs from the known
+	 * fingerprints, and computes the new fingerprints.
+	 *
+	 * @param out
+	 *            where to write the records to, <code>null</code> to only compute fingerprints
+	 * @return the number of records written
+	 */
+	private int writeChanges(EObject root, Map<EObject, String> ids,
+			Map<String, Long> newFingerprints, DataOutputStream out) throws IOException,
+			UnsupportedElementException {
+		MessageDigest digest = createDigest();
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		DataOutputStream record = new DataOutputStream(buffer);
+		int count = 0;
+		List<EObject> elements = new ArrayList<>();
+		elements.add(root);
+		TreeIterator<EObject> it = root.eAllContents();
+		while (it.hasNext()) {
+			EObject element = it.next();
+			if (element instanceof Map.Entry<?, ?>) {
+				// written along with the element owning the map
+				it.prune();
+			} else {
+				elements.add(element);
+			}
+		}
+		for (EObject element : elements) {
+			String id = getId(element, ids);
+			buffer.reset();
+			writeElement(element, id, ids, record);
+			record.flush();
+			byte[] bytes = buffer.toByteArray();
+			Long fingerprint = Long.valueOf(fingerprint(digest, bytes));
+			newFingerprints.put(id, fingerprint);
+			if (out != null && !fingerprint.equals(fingerprints.get(id))) {
+				out.write(bytes);
+				count++;
+			}
+		}
+		if (out != null) {
+			out.flush();
+		}
+		return count;
+	}
+
+	private static void writeElement(EObject element, String id, Map<EObject, String> ids,
+			DataOutputStream out) throws IOException, UnsupportedElementException {
+		EClass eClass = element.eClass();
+		out.writeUTF(id);
+		out.writeUTF(eClass.getEPackage().getNsURI());
+		out.writeUTF(eClass.getName());
+
+		List<EStructuralFeature> features = new ArrayList<>();
+		for (EStructuralFeature feature : eClass.getEAllStructuralFeatures()) {
+			if (isPersisted(feature) && element.eIsSet(feature)) {
+				features.add(feature);
+			}
+		}
+		out.writeInt(features.size());
+		for (EStructuralFeature feature : features) {
+			out.writeUTF(feature.getName());
+			Object value = element.eGet(feature);
+			if (feature instanceof EAttribute) {
+				EDataType type = ((EAttribute) feature).getEAttributeType();
+				if (feature.isMany()) {
+					List<?> values = (List<?>) value;
+					out.writeByte(MANY_ATTRIBUTE);
+					out.writeInt(values.size());
+					for (Object v : values) {
+						writeString(out, convertToString(type, v));
+					}
+				} else {
+					out.writeByte(ATTRIBUTE);
+					writeString(out, convertToString(type, value));
+				}
+			} else if (isMap(feature)) {
+				EMap<?, ?> map = (EMap<?, ?>) value;
+				out.writeByte(MAP);
+				out.writeInt(map.size());
+				for (Map.Entry<?, ?> entry : map.entrySet()) {
+					if (!isString(entry.getKey()) || !isString(entry.getValue())) {
+						throw new UnsupportedElementException();
+					}
+					writeString(out, (String) entry.getKey());
+					writeString(out, (String) entry.getValue());
+				}
+			} else if (feature.isMany()) {
+				List<?> targets = (List<?>) value;
+				out.writeByte(MANY_REFERENCE);
+				out.writeInt(targets.size());
+				for (Object target : targets) {
+					out.writeUTF(getId((EObject) target, ids));
+				}
+			} else {
+				out.writeByte(REFERENCE);
+				writeString(out, value == null ? null : getId((EObject) value, ids));
+			}
+		}
+	}
+
+	/**
+	 * Replays the journal on the model of the given resource.
+	 *
+	 * @param journalFile
+	 *            the journal
+	 * @param baseFile
+	 *            the file the model was loaded from
+	 * @param resource
+	 *            the resource holding the model
+	 * @return the number of entries replayed, <code>-1</code> if the journal does not belong to the
+	 *         loaded model
+	 * @throws IOException
+	 *             if the journal is damaged or does not match the model; no entry has been applied
+	 *             unless the model failed to take one
+	 */
+	static int replay(File journalFile, File baseFile, E4XMIResource resource) throws IOException {
+		// the journal is small compared to the model, read it at once so that the length of each
+		// entry can be checked against what is left of it
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+				Files.readAllBytes(journalFile.toPath())));
+		List<List<Record>> entries = new ArrayList<>();
+		try {
+			if (in.readInt() != HEADER_SIGNATURE || !baseFile.getName().equals(in.readUTF())
+					|| baseFile.length() != in.readLong()
+					|| baseFile.lastModified() != in.readLong()) {
+				return -1;
+			}
+
+			// read and check all the entries before applying any
+			while (in.available() > 0) {
+				if (in.available() < 4 + 8) {
+					// the last entry was not completely written
+					break;
+				}
+				int length = in.readInt();
+				if (length < 8) {
+					throw new IOException("Invalid journal entry length " + length); //$NON-NLS-1$
+				}
+				if (length + 8L > in.available()) {
+					// the last entry was not completely written
+					break;
+				}
+				byte[] data = new byte[length];
+				in.readFully(data);
+				long checksum = in.readLong();
+				CRC32 crc = new CRC32();
+				crc.update(data);
+				if (crc.getValue() != checksum) {
+					throw new IOException("Invalid journal entry checksum"); //$NON-NLS-1$
+				}
+				entries.add(readEntry(new DataInputStream(new ByteArrayInputStream(data)),
+						resource));
+			}
+		} catch (EOFException e) {
+			throw new IOException("Invalid workbench journal", e); //$NON-NLS-1$
+		}
+
+		Map<String, EObject> objects = new HashMap<>();
+		TreeIterator<EObject> it = resource.getAllContents();
+		while (it.hasNext()) {
+			EObject object = it.next();
+			String id = resource.getID(object);
+			if (id != null) {
+				objects.put(id, object);
+			}
+		}
+		for (List<Record> records : entries) {
+			applyEntry(records, objects, resource);
+		}
+		return entries.size();
+	}
+
+	private static List<Record> readEntry(DataInputStream in, Resource resource)
+			throws IOException {
+		if (in.readInt() != ENTRY_SIGNATURE) {
+			throw new IOException("Invalid journal entry"); //$NON-NLS-1$
+		}
+		int count = in.readInt();
+		if (count < 0 || count > in.available()) {
+			throw new IOException("Invalid journal record count " + count); //$NON-NLS-1$
+		}
+		List<Record> records = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			records.add(readRecord(in, resource));
+		}
+		return records;
+	}
+
+	private static void applyEntry(List<Record> records, Map<String, EObject> objects,
+			E4XMIResource resource) {
+		// create the new elements first so that references to them can be resolved
+		List<Record> created = new ArrayList<>();
+		for (Record record : records) {
+			EObject object = objects.get(record.id);
+			if (object == null || object.eClass() != record.eClass) {
+				object = EcoreUtil.create(record.eClass);
+				objects.put(record.id, object);
+				created.add(record);
+			}
+		}
+		for (Record record : records) {
+			apply(record, objects.get(record.id), objects);
+		}
+		for (Record record : created) {
+			resource.setID(objects.get(record.id), record.id);
+		}
+	}
+
+	private static Record readRecord(DataInputStream in, Resource resource) throws IOException {
+		Record record = new Record();
+		record.id = in.readUTF();
+		String nsURI = in.readUTF();
+		String className = in.readUTF();
+		EPackage ePackage = resource.getResourceSet() == null ? EPackage.Registry.INSTANCE
+				.getEPackage(nsURI) : resource.getResourceSet().getPackageRegistry()
+				.getEPackage(nsURI);
+		EClassifier eClass = ePackage == null ? null : ePackage.getEClassifier(className);
+		if (!(eClass instanceof EClass)) {
+			throw new IOException("Unknown model class " + nsURI + '#' + className); //$NON-NLS-1$
+		}
+		record.eClass = (EClass) eClass;
+
+		int featureCount = readSize(in);
+		for (int i = 0; i < featureCount; i++) {
+			String name = in.readUTF();
+			byte kind = in.readByte();
+			Object value;
+			switch (kind) {
+			case ATTRIBUTE:
+			case REFERENCE:
+				value = readString(in);
+				break;
+			case MANY_ATTRIBUTE:
+			case MAP: {
+				int size = kind == MAP ? readSize(in) * 2 : readSize(in);
+				List<String> values = new ArrayList<>(size);
+				for (int j = 0; j < size; j++) {
+					values.add(readString(in));
+				}
+				value = values;
+				break;
+			}
+			case MANY_REFERENCE: {
+				int size = readSize(in);
+				List<String> values = new ArrayList<>(size);
+				for (int j = 0; j < size; j++) {
+					values.add(in.readUTF());
+				}
+				value = values;
+				break;
+			}
+			default:
+				throw new IOException("Invalid journal record"); //$NON-NLS-1$
+			}
+			EStructuralFeature feature = record.eClass.getEStructuralFeature(name);
+			// features that are no longer persisted are skipped
+			if (feature != null && isPersisted(feature)) {
+				record.values.put(feature, value);
+			}
+		}
+		return record;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void apply(Record record, EObject object, Map<String, EObject> objects) {
+		for (Map.Entry<EStructuralFeature, Object> entry : record.values.entrySet()) {
+			EStructuralFeature feature = entry.getKey();
+			Object value = entry.getValue();
+			if (feature instanceof EAttribute) {
+				EDataType type = ((EAttribute) feature).getEAttributeType();
+				if (feature.isMany()) {
+					List<Object> values = new ArrayList<>();
+					for (String string : (List<String>) value) {
+						values.add(EcoreUtil.createFromString(type, string));
+					}
+					object.eSet(feature, values);
+				} else {
+					object.eSet(feature, value == null ? null : EcoreUtil.createFromString(type,
+							(String) value));
+				}
+			} else if (isMap(feature)) {
+				EMap<String, String> map = (EMap<String, String>) object.eGet(feature);
+				List<String> pairs = (List<String>) value;
+				map.clear();
+				for (int i = 0; i < pairs.size(); i += 2) {
+					map.put(pairs.get(i), pairs.get(i + 1));
+				}
+			} else if (feature.isMany()) {
+				List<EObject> targets = new ArrayList<>();
+				for (String id : (List<String>) value) {
+					EObject target = objects.get(id);
+					if (target != null) {
+						targets.add(target);
+					}
+				}
+				object.eSet(feature, targets);
+			} else {
+				object.eSet(feature, value == null ? null : objects.get(value));
+			}
+		}
+
+		// features that are not part of the record were unset
+		Set<EStructuralFeature> recorded = new HashSet<>(record.values.keySet());
+		for (EStructuralFeature feature : record.eClass.getEAllStructuralFeatures()) {
+			if (isPersisted(feature) && !recorded.contains(feature) && object.eIsSet(feature)) {
+				object.eUnset(feature);
+			}
+		}
+	}
+
+	private static boolean isPersisted(EStructuralFeature feature) {
+		if (feature.isTransient() || feature.isDerived() || !feature.isChangeable()) {
+			return false;
+		}
+		return !(feature instanceof EReference) || !((EReference) feature).isContainer();
+	}
+
+	private static boolean isMap(EStructuralFeature feature) {
+		return feature instanceof EReference && ((EReference) feature).isContainment()
+				&& feature.getEType().getInstanceClass() == Map.Entry.class;
+	}
+
+	private static boolean isString(Object value) {
+		return value == null || value instanceof String;
+	}
+
+	private static String getId(EObject object, Map<EObject, String> ids)
+			throws UnsupportedElementException {
+		String id = ids.get(object);
+		if (id == null) {
+			throw new UnsupportedElementException();
+		}
+		return id;
+	}
+
+	private static String convertToString(EDataType type, Object value)
+			throws UnsupportedElementException {
+		try {
+			return EcoreUtil.convertToString(type, value);
+		} catch (RuntimeException e) {
+			throw new UnsupportedElementException();
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		// strings such as persisted mementos may exceed the limit of writeUTF
+		if (value == null) {
+			out.writeInt(-1);
+		} else {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		if (length > in.available()) {
+			throw new IOException("Invalid journal string length " + length); //$NON-NLS-1$
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads the size of a list of the entry being read, which cannot be larger than the bytes left
+	 * in the entry.
+	 */
+	private static int readSize(DataInputStream in) throws IOException {
+		int size = in.readInt();
+		if (size < 0 || size > in.available()) {
+			throw new IOException("Invalid journal record size " + size); //$NON-NLS-1$
+		}
+		return size;
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("MD5"); //$NON-NLS-1$
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static long fingerprint(MessageDigest digest, byte[] bytes) {
+		byte[] hash = digest.digest(bytes);
+		long fingerprint = 0;
+		for (int i = 0; i < 8; i++) {
+			fingerprint = (fingerprint << 8) | (hash[i] & 0xFF);
+		}
+		return fingerprint;
+	}
+
+	/**
+	 * The persisted state of one element as read from the journal.
+	 */
+	private static class Record {
+		String id;
+		EClass eClass;
+		Map<EStructuralFeature, Object> values = new LinkedHashMap<>();
+	}
+
+	/**
+	 * Thrown when the state of an element cannot be journaled, for instance because it refers to
+	 * an element without id. The snapshot is saved in full instead.
+	 */
+	private static class UnsupportedElementException extends Exception {
+		private static final long serialVersionUID = 1L;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2015 IBM Corporation and others.
+ * Copyright (c) 2010, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,7 +15,9 @@ package org.eclipse.e4.ui.internal.workbench;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IExtensionRegistry;
 import org.eclipse.e4.core.contexts.IEclipseContext;
@@ -81,6 +83,13 @@ public class ModelServiceImpl implements EModelService {
 	/** Factory which is able to create {@link MApplicationElement}s in a generic way. */
 	private GenericMApplicationElementFactoryImpl mApplicationElementFactory;
 
+	/**
+	 * Index of the application's elements, created on the first search. Guarded by
+	 * <code>this</code> as the model may be searched from other threads, e.g. by the auto-save
+	 * job.
+	 */
+	private ModelElementIndex elementIndex;
+
 	// Cleans up after a hosted element is disposed
 	private EventHandler hostedElementHandler = new EventHandler() {
 
@@ -145,10 +154,13 @@ public class ModelServiceImpl implements EModelService {
 				"Unsupported model object type: " + elementType.getCanonicalName()); //$NON-NLS-1$
 	}
 
+	/*
+	 * The search stops once it has found the given number of elements.
+	 */
 	private <T> void findElementsRecursive(MApplicationElement searchRoot, Class<T> clazz,
-			Selector matcher, List<T> elements, int searchFlags) {
+			Selector matcher, List<T> elements, int searchFlags, int limit) {
 		Assert.isLegal(searchRoot != null);
-		if (searchFlags == 0) {
+		if (searchFlags == 0 || elements.size() >= limit) {
 			return;
 		}
 
@@ -183,21 +195,21 @@ public class ModelServiceImpl implements EModelService {
 			}
 
 			for (MApplicationElement child : children) {
-				findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(child, clazz, matcher, elements, searchFlags, limit);
 			}
 		}
 
 		if (searchRoot instanceof MBindingContext && (searchFlags == ANYWHERE)) {
 			MBindingContext bindingContext = (MBindingContext) searchRoot;
 			for (MBindingContext child : bindingContext.getChildren()) {
-				findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(child, clazz, matcher, elements, searchFlags, limit);
 			}
 		}
 
 		if (searchRoot instanceof MBindingTable) {
 			MBindingTable bindingTable = (MBindingTable) searchRoot;
 			for (MKeyBinding child : bindingTable.getBindings()) {
-				findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(child, clazz, matcher, elements, searchFlags, limit);
 			}
 		}
 
@@ -223,19 +235,19 @@ public class ModelServiceImpl implements EModelService {
 					MElementContainer<? extends MUIElement> container = searchContainer;
 					List<? extends MUIElement> children = container.getChildren();
 					for (MUIElement child : children) {
-						findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+						findElementsRecursive(child, clazz, matcher, elements, searchFlags, limit);
 					}
 				} else if ((searchFlags & IN_ACTIVE_PERSPECTIVE) != 0) {
 					// Only search the currently active perspective, if any
 					MPerspective active = ((MPerspectiveStack) searchContainer).getSelectedElement();
 					if (active != null) {
-						findElementsRecursive(active, clazz, matcher, elements, searchFlags);
+						findElementsRecursive(active, clazz, matcher, elements, searchFlags, limit);
 					}
 				} else if ((searchFlags & IN_SHARED_AREA) != 0) {
 					// Only recurse through the shared areas
 					List<MArea> areas = findElements(searchContainer, null, MArea.class, null);
 					for (MArea area : areas) {
-						findElementsRecursive(area, clazz, matcher, elements, searchFlags);
+						findElementsRecursive(area, clazz, matcher, elements, searchFlags, limit);
 					}
 				}
 			} else {
@@ -243,7 +255,7 @@ public class ModelServiceImpl implements EModelService {
 				MElementContainer<MUIElement> container = (MElementContainer<MUIElement>) searchRoot;
 				List<MUIElement> children = container.getChildren();
 				for (MUIElement child : children) {
-					findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+					findElementsRecursive(child, clazz, matcher, elements, searchFlags, limit);
 				}
 			}
 		}
@@ -253,7 +265,7 @@ public class ModelServiceImpl implements EModelService {
 			MTrimmedWindow tw = (MTrimmedWindow) searchRoot;
 			List<MTrimBar> bars = tw.getTrimBars();
 			for (MTrimBar bar : bars) {
-				findElementsRecursive(bar, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(bar, clazz, matcher, elements, searchFlags, limit);
 			}
 		}
 
@@ -261,17 +273,17 @@ public class ModelServiceImpl implements EModelService {
 		if (searchRoot instanceof MWindow) {
 			MWindow window = (MWindow) searchRoot;
 			for (MWindow dw : window.getWindows()) {
-				findElementsRecursive(dw, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(dw, clazz, matcher, elements, searchFlags, limit);
 			}
 
 			MMenu menu = window.getMainMenu();
 			if (menu != null && (searchFlags & IN_MAIN_MENU) != 0) {
-				findElementsRecursive(menu, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(menu, clazz, matcher, elements, searchFlags, limit);
 			}
 			// Check for Handlers
 			if (searchFlags == ANYWHERE && MHandler.class.equals(clazz)) {
 				for (MHandler child : window.getHandlers()) {
-					findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+					findElementsRecursive(child, clazz, matcher, elements, searchFlags, limit);
 				}
 			}
 		}
@@ -279,7 +291,7 @@ public class ModelServiceImpl implements EModelService {
 		if (searchRoot instanceof MPerspective) {
 			MPerspective persp = (MPerspective) searchRoot;
 			for (MWindow dw : persp.getWindows()) {
-				findElementsRecursive(dw, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(dw, clazz, matcher, elements, searchFlags, limit);
 			}
 		}
 		// Search shared elements
@@ -289,7 +301,7 @@ public class ModelServiceImpl implements EModelService {
 			// Don't search in shared areas unless the flag is set
 			if (ph.getRef() != null
 					&& (!(ph.getRef() instanceof MArea) || (searchFlags & IN_SHARED_AREA) != 0)) {
-				findElementsRecursive(ph.getRef(), clazz, matcher, elements, searchFlags);
+				findElementsRecursive(ph.getRef(), clazz, matcher, elements, searchFlags, limit);
 			}
 		}
 
@@ -297,16 +309,16 @@ public class ModelServiceImpl implements EModelService {
 			MPart part = (MPart) searchRoot;
 
 			for (MMenu menu : part.getMenus()) {
-				findElementsRecursive(menu, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(menu, clazz, matcher, elements, searchFlags, limit);
 			}
 
 			MToolBar toolBar = part.getToolbar();
 			if (toolBar != null) {
-				findElementsRecursive(toolBar, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(toolBar, clazz, matcher, elements, searchFlags, limit);
 			}
 			if (MHandler.class.equals(clazz)) {
 				for (MHandler child : part.getHandlers()) {
-					findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+					findElementsRecursive(child, clazz, matcher, elements, searchFlags, limit);
 				}
 			}
 		}
@@ -322,7 +334,7 @@ public class ModelServiceImpl implements EModelService {
 	 *            the window
 	 * @return the stack or {@code null}
 	 */
-	private MPerspectiveStack getPrimaryPerspectiveStack(MWindow window) {
+	static MPerspectiveStack getPrimaryPerspectiveStack(MWindow window) {
 		List<MWindowElement> winKids = window.getChildren();
 		if (winKids.isEmpty()) {
 			return null;
@@ -350,7 +362,7 @@ public class ModelServiceImpl implements EModelService {
 	 * @param clazz
 	 * @return the first element that is an instanceof {@code clazz} or null
 	 */
-	private <T> T firstInstance(Collection<? super T> elements, Class<T> clazz) {
+	private static <T> T firstInstance(Collection<? super T> elements, Class<T> clazz) {
 		for (Object o : elements) {
 			if (clazz.isInstance(o)) {
 				return clazz.cast(o);
@@ -368,7 +380,7 @@ public class ModelServiceImpl implements EModelService {
 	 *            the class
 	 * @return the number of elements that are an instance of {@code clazz}
 	 */
-	private int instanceCount(Collection<?> elements, Class<?> clazz) {
+	private static int instanceCount(Collection<?> elements, Class<?> clazz) {
 		int count = 0;
 		for (Object o : elements) {
 			if (clazz.isInstance(o)) {
@@ -381,32 +393,103 @@ public class ModelServiceImpl implements EModelService {
 	@Override
 	public <T> List<T> findElements(MUIElement searchRoot, String id, Class<T> clazz,
 			List<String> tagsToMatch) {
-		ElementMatcher matcher = new ElementMatcher(id, clazz, tagsToMatch);
-		return findElements(searchRoot, clazz, ANYWHERE, matcher);
+		return findElements(searchRoot, id, clazz, tagsToMatch, ANYWHERE);
 	}
 
 	@Override
 	public <T> List<T> findElements(MUIElement searchRoot, String id, Class<T> clazz,
 			List<String> tagsToMatch, int searchFlags) {
 		ElementMatcher matcher = new ElementMatcher(id, clazz, tagsToMatch);
-		return findElements(searchRoot, clazz, searchFlags, matcher);
+		return findElements(searchRoot, clazz, searchFlags, matcher, id, tagsToMatch);
 	}
 
 	@Override
 	public <T> List<T> findElements(MApplicationElement searchRoot, Class<T> clazz,
 			int searchFlags, Selector matcher) {
+		return findElements(searchRoot, clazz, searchFlags, matcher, null, null);
+	}
+
+	/**
+	 * Searches the model recursively. If the element index knows which elements may match, only
+	 * those are checked and the search stops once all of them have been found. The id and tags,
+	 * if given, must be required by the matcher.
+	 */
+	private <T> List<T> findElements(MApplicationElement searchRoot, Class<T> clazz,
+			int searchFlags, Selector matcher, String id, List<String> tagsToMatch) {
 		List<T> elements = new ArrayList<>();
-		findElementsRecursive(searchRoot, clazz, matcher, elements, searchFlags);
+		if (searchFlags == 0) {
+			return elements;
+		}
+		ModelElementIndex index = getElementIndex(searchRoot);
+		final Set<MApplicationElement> candidates = index == null ? null : index.getCandidates(
+				searchRoot, clazz, searchFlags, id, tagsToMatch);
+		if (candidates == null) {
+			findElementsRecursive(searchRoot, clazz, matcher, elements, searchFlags,
+					Integer.MAX_VALUE);
+			return elements;
+		}
+		for (Iterator<MApplicationElement> it = candidates.iterator(); it.hasNext();) {
+			MApplicationElement candidate = it.next();
+			if ((clazz != null && !clazz.isInstance(candidate)) || !matcher.select(candidate)) {
+				it.remove();
+			}
+		}
+		if (!candidates.isEmpty()) {
+			findElementsRecursive(searchRoot, clazz, new Selector() {
+				@Override
+				public boolean select(MApplicationElement element) {
+					return candidates.contains(element);
+				}
+			}, elements, searchFlags, candidates.size());
+		}
 		return elements;
 	}
 
+	/**
+	 * Returns the index of the application the given element belongs to, or <code>null</code>
+	 * if it does not belong to the indexed application. Only the running application is
+	 * indexed: the one in the application context or, if there is none, the one using the
+	 * application context. Copies of it, like those saved by the workbench, are searched
+	 * recursively.
+	 */
+	private synchronized ModelElementIndex getElementIndex(MApplicationElement searchRoot) {
+		if (!(searchRoot instanceof EObject)) {
+			return null;
+		}
+		EObject root = EcoreUtil.getRootContainer((EObject) searchRoot);
+		if (!(root instanceof MApplication)) {
+			return null;
+		}
+		if (elementIndex != null && elementIndex.getApplication() == root) {
+			return elementIndex;
+		}
+		MApplication application = appContext.get(MApplication.class);
+		if (application == null ? ((MApplication) root).getContext() != appContext
+				: application != root) {
+			return null;
+		}
+		if (elementIndex != null) {
+			elementIndex.dispose();
+		}
+		elementIndex = new ModelElementIndex((MApplication) root);
+		return elementIndex;
+	}
+
+	/**
+	 * Removes the index of the application's elements from the model. A later search indexes
+	 * the application again.
+	 */
+	public synchronized void dispose() {
+		if (elementIndex != null) {
+			elementIndex.dispose();
+			elementIndex = null;
+		}
+	}
+
 	private <T> List<T> findPerspectiveElements(MUIElement searchRoot, String id,
 			Class<T> clazz,
 			List<String> tagsToMatch) {
-		List<T> elements = new ArrayList<>();
-		ElementMatcher matcher = new ElementMatcher(id, clazz, tagsToMatch);
-		findElementsRecursive(searchRoot, clazz, matcher, elements, PRESENTATION);
-		return elements;
+		return findElements(searchRoot, id, clazz, tagsToMatch, PRESENTATION);
 	}
 
 	@Override
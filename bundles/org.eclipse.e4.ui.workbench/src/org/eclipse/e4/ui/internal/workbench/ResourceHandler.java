@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 IBM Corporation and others.
+ * Copyright (c) 2009, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -20,14 +20,20 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.xml.parsers.DocumentBuilderFactory;
 import org.eclipse.core.internal.runtime.PlatformURLPluginConnection;
+import org.eclipse.core.runtime.IExtensionRegistry;
 import org.eclipse.core.runtime.URIUtil;
 import org.eclipse.e4.core.contexts.ContextInjectionFactory;
 import org.eclipse.e4.core.contexts.IEclipseContext;
@@ -62,6 +68,11 @@ import org.w3c.dom.Document;
  */
 public class ResourceHandler implements IModelResourceHandler {
 
+	private static final String BINARY_EXTENSION = "e4bin"; //$NON-NLS-1$
+	private static final String JOURNAL_FILE = "workbench.journal"; //$NON-NLS-1$
+	private static final String ASSEMBLY_CACHE_FILE = "assembled.xmi"; //$NON-NLS-1$
+	private static final String ASSEMBLY_FINGERPRINT_FILE = "assembled.fingerprint"; //$NON-NLS-1$
+
 	private ResourceSetImpl resourceSetImpl;
 	private Resource resource;
 
@@ -80,6 +91,32 @@ public class ResourceHandler implements IModelResourceHandler {
 	@Named(E4Workbench.INSTANCE_LOCATION)
 	private Location instanceLocation;
 
+	/**
+	 * Whether the model is saved in the binary format instead of XMI.
+	 */
+	@Inject
+	@Optional
+	@Named(E4Workbench.BINARY_PERSISTENCE)
+	private Boolean binaryPersistence;
+
+	/**
+	 * Whether auto-saves only append the changed elements to a journal.
+	 */
+	@Inject
+	@Optional
+	@Named(E4Workbench.JOURNAL_AUTO_SAVE)
+	private Boolean journalAutoSave;
+
+	private ModelJournal journal;
+
+	/**
+	 * Whether the assembled initial model is cached for unchanged installations.
+	 */
+	@Inject
+	@Optional
+	@Named(E4Workbench.CACHE_ASSEMBLED_MODEL)
+	private Boolean cacheAssembledModel;
+
 	/**
 	 * Dictates whether the model should be stored using EMF or with the merging algorithm.
 	 * https://bugs.eclipse.org/bugs/show_bug.cgi?id=295524
@@ -110,6 +147,8 @@ public class ResourceHandler implements IModelResourceHandler {
 		resourceSetImpl = new ResourceSetImpl();
 		resourceSetImpl.getResourceFactoryRegistry().getExtensionToFactoryMap()
 				.put(Resource.Factory.Registry.DEFAULT_EXTENSION, new E4XMIResourceFactory());
+		resourceSetImpl.getResourceFactoryRegistry().getExtensionToFactoryMap()
+				.put(BINARY_EXTENSION, new E4BinaryResourceFactory());
 
 		resourceSetImpl.getPackageRegistry().put(ApplicationPackageImpl.eNS_URI,
 				ApplicationPackageImpl.eINSTANCE);
@@ -160,7 +199,7 @@ public class ResourceHandler implements IModelResourceHandler {
 				MApplication appElement = null;
 				try {
 					// create new resource in case code below fails somewhere
-					File workbenchData = getWorkbenchSaveLocation();
+					File workbenchData = getWorkbenchSaveLocation(false);
 					URI restoreLocationNew = URI.createFileURI(workbenchData.getAbsolutePath());
 					resource = resourceSetImpl.createResource(restoreLocationNew);
 
@@ -205,20 +244,33 @@ public class ResourceHandler implements IModelResourceHandler {
 		}
 
 		File workbenchData = null;
+		File binaryWorkbenchData = null;
 		URI restoreLocation = null;
 
 		if (saveAndRestore) {
-			workbenchData = getWorkbenchSaveLocation();
+			workbenchData = getWorkbenchSaveLocation(false);
+			binaryWorkbenchData = getWorkbenchSaveLocation(true);
 			restoreLocation = URI.createFileURI(workbenchData.getAbsolutePath());
 		}
 
-		if (clearPersistedState && workbenchData != null && workbenchData.exists()) {
-			workbenchData.delete();
+		if (clearPersistedState && workbenchData != null) {
+			if (workbenchData.exists()) {
+				workbenchData.delete();
+			}
+			if (binaryWorkbenchData.exists()) {
+				binaryWorkbenchData.delete();
+			}
+			File journalFile = getJournalLocation();
+			if (journalFile.exists()) {
+				journalFile.delete();
+			}
 		}
 
 		// last stored time-stamp
 		long restoreLastModified = restoreLocation == null ? 0L : new File(
 				restoreLocation.toFileString()).lastModified();
+		long binaryRestoreLastModified = binaryWorkbenchData == null ? 0L : binaryWorkbenchData
+				.lastModified();
 
 		// See bug 380663, bug 381219
 		// long lastApplicationModification = getLastApplicationModification();
@@ -227,25 +279,42 @@ public class ResourceHandler implements IModelResourceHandler {
 		boolean initialModel;
 
 		resource = null;
-		if (restore && saveAndRestore) {
-			resource = loadResource(restoreLocation);
-			// If the saved model does not have any top-level windows, Eclipse will exit
-			// immediately, so throw out the persisted state and reinitialize with the defaults.
-			if (!hasTopLevelWindows(resource)) {
-				if (logger != null) {
-					logger.error(new Exception(), // log a stack trace to help debug the corruption
-							"The persisted workbench has no top-level windows, so reinitializing with defaults."); //$NON-NLS-1$
-				}
-				resource = null;
+		// Prefer the binary model if it was saved last, fall back to XMI if it cannot be read
+		if (binaryRestoreLastModified > 0 && binaryRestoreLastModified >= restoreLastModified
+				&& saveAndRestore) {
+			URI binaryLocation = URI.createFileURI(binaryWorkbenchData.getAbsolutePath());
+			resource = loadPersistedResource(binaryLocation);
+			if (resource != null && !replayJournal(binaryWorkbenchData)) {
+				resource = reloadPersistedResource(binaryLocation);
+			}
+		}
+		if (resource == null && restore && saveAndRestore) {
+			resource = loadPersistedResource(restoreLocation);
+			if (resource != null && !replayJournal(workbenchData)) {
+				resource = reloadPersistedResource(restoreLocation);
 			}
 		}
+		String assemblyFingerprint = null;
+		boolean assembled = false;
 		if (resource == null) {
-			Resource applicationResource = loadResource(applicationDefinitionInstance);
-			MApplication theApp = (MApplication) applicationResource.getContents().get(0);
-			resource = createResourceWithApp(theApp);
+			if (isCacheAssembledModel() && instanceLocation != null) {
+				assemblyFingerprint = computeAssemblyFingerprint();
+				if (assemblyFingerprint != null) {
+					resource = loadAssemblyCache(assemblyFingerprint);
+					assembled = resource != null;
+				}
+			}
+			if (resource == null) {
+				Resource applicationResource = loadResource(applicationDefinitionInstance);
+				MApplication theApp = (MApplication) applicationResource.getContents().get(0);
+				resource = createResourceWithApp(theApp);
+			}
 			context.set(E4Workbench.NO_SAVED_MODEL_FOUND, Boolean.TRUE);
 			initialModel = true;
 		} else {
+			if (isBinary(resource) != isBinaryPersistence()) {
+				resource = convertResource(resource);
+			}
 			initialModel = false;
 		}
 
@@ -254,9 +323,14 @@ public class ResourceHandler implements IModelResourceHandler {
 		MApplication appElement = (MApplication) resource.getContents().get(0);
 
 		this.context.set(MApplication.class, appElement);
-		ModelAssembler contribProcessor = ContextInjectionFactory.make(ModelAssembler.class,
-				context);
-		contribProcessor.processModel(initialModel);
+		if (!assembled) {
+			ModelAssembler contribProcessor = ContextInjectionFactory.make(ModelAssembler.class,
+					context);
+			contribProcessor.processModel(initialModel);
+			if (assemblyFingerprint != null) {
+				saveAssemblyCache(appElement, assemblyFingerprint);
+			}
+		}
 
 		if (!hasTopLevelWindows(resource) && logger != null) {
 			logger.error(new Exception(), // log a stack trace to help debug the
@@ -276,8 +350,212 @@ public class ResourceHandler implements IModelResourceHandler {
 
 	@Override
 	public void save() throws IOException {
-		if (saveAndRestore)
-			resource.save(null);
+		if (saveAndRestore) {
+			synchronized (getJournal()) {
+				resource.save(null);
+				// the saved model contains everything journaled so far
+				getJournal().invalidate();
+			}
+		}
+	}
+
+	/**
+	 * Saves a copy of the application model taken for auto-save. If journaling is enabled and a
+	 * previous copy was saved in this session, only the elements that changed since then are
+	 * appended to the journal; the whole copy is saved when the journal gets too large.
+	 * <p>
+	 * The copy must not be contained in a resource. The objects of the copy are saved with the
+	 * given ids, which should be the ids of the corresponding objects of the application model so
+	 * that the journal can refer to them.
+	 * </p>
+	 *
+	 * @param snapshot
+	 *            the copy of the application model
+	 * @param ids
+	 *            the ids of the objects of the copy
+	 * @throws IOException
+	 *             if the copy cannot be saved
+	 */
+	public void saveSnapshot(MApplication snapshot, Map<EObject, String> ids) throws IOException {
+		if (!saveAndRestore) {
+			return;
+		}
+		ModelJournal modelJournal = getJournal();
+		synchronized (modelJournal) {
+			if (isJournalAutoSave() && modelJournal.append((EObject) snapshot, ids)) {
+				return;
+			}
+			E4XMIResource res = (E4XMIResource) createResourceWithApp(snapshot);
+			try {
+				for (Map.Entry<EObject, String> entry : ids.entrySet()) {
+					res.setID(entry.getKey(), entry.getValue());
+				}
+				res.save(null);
+				if (isJournalAutoSave()) {
+					modelJournal.reset(new File(res.getURI().toFileString()), (EObject) snapshot,
+							ids);
+				} else {
+					modelJournal.invalidate();
+				}
+			} finally {
+				res.unload();
+				resourceSetImpl.getResources().remove(res);
+			}
+		}
+	}
+
+	/**
+	 * Applies the changes journaled by auto-saves since the given file was saved on the loaded
+	 * model.
+	 */
+	/**
+	 * Applies the changes journaled since the given full save to the loaded model. A journal that
+	 * cannot be replayed completely is deleted, and the model has to be restored from the full save
+	 * again.
+	 *
+	 * @return <code>false</code> if the model may have been changed by a journal that failed to
+	 *         replay
+	 */
+	private boolean replayJournal(File baseFile) {
+		File journalFile = getJournalLocation();
+		if (!journalFile.exists() || !(resource instanceof E4XMIResource)) {
+			return true;
+		}
+		try {
+			if (ModelJournal.replay(journalFile, baseFile, (E4XMIResource) resource) < 0) {
+				// written for a model that has been saved since
+				journalFile.delete();
+			}
+			return true;
+		} catch (IOException e) {
+			// nothing has been applied
+			if (logger != null) {
+				logger.error(e, "Unable to read the workbench journal " + journalFile); //$NON-NLS-1$
+			}
+			journalFile.delete();
+			return true;
+		} catch (RuntimeException e) {
+			if (logger != null) {
+				logger.error(e, "Unable to replay the workbench journal " + journalFile); //$NON-NLS-1$
+			}
+			journalFile.delete();
+			return false;
+		}
+	}
+
+	/**
+	 * Discards the resource loaded from the given location and loads it again.
+	 */
+	private Resource reloadPersistedResource(URI uri) {
+		resource.unload();
+		resourceSetImpl.getResources().remove(resource);
+		return loadPersistedResource(uri);
+	}
+
+	/**
+	 * Describes the application definition and the contributions it is assembled with.
+	 *
+	 * @return the fingerprint, or <code>null</code> if the assembled model must not be reused
+	 */
+	private String computeAssemblyFingerprint() {
+		String contributions = ModelAssembler.computeFingerprint(
+				context.get(IExtensionRegistry.class), resourceSetImpl.getURIConverter());
+		if (contributions == null) {
+			return null;
+		}
+		return applicationDefinitionInstance + " " + getLastApplicationModification() + '\n' //$NON-NLS-1$
+				+ contributions;
+	}
+
+	/**
+	 * Loads the initial model assembled by an earlier start, if it was assembled from the same
+	 * contributions.
+	 *
+	 * @return the resource or <code>null</code> if the model has to be assembled
+	 */
+	private Resource loadAssemblyCache(String fingerprint) {
+		File cacheFile = new File(getBaseLocation(), ASSEMBLY_CACHE_FILE);
+		File fingerprintFile = new File(getBaseLocation(), ASSEMBLY_FINGERPRINT_FILE);
+		if (!cacheFile.exists() || !fingerprintFile.exists()) {
+			return null;
+		}
+		URI uri = URI.createFileURI(cacheFile.getAbsolutePath());
+		try {
+			String cachedFingerprint = new String(Files.readAllBytes(fingerprintFile.toPath()),
+					StandardCharsets.UTF_8);
+			if (!fingerprint.equals(cachedFingerprint)) {
+				return null;
+			}
+			Resource cached = resourceSetImpl.getResource(uri, true);
+			if (cached.getContents().isEmpty()
+					|| !(cached.getContents().get(0) instanceof MApplication)) {
+				throw new IOException("No application model in " + uri); //$NON-NLS-1$
+			}
+			return convertResource(cached);
+		} catch (IOException | RuntimeException e) {
+			if (logger != null) {
+				logger.warn(e, "Unable to load the assembled model " + uri); //$NON-NLS-1$
+			}
+			Resource brokenResource = resourceSetImpl.getResource(uri, false);
+			if (brokenResource != null) {
+				brokenResource.unload();
+				resourceSetImpl.getResources().remove(brokenResource);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Saves a copy of the assembled initial model along with the fingerprint of the contributions
+	 * it was assembled from.
+	 */
+	private void saveAssemblyCache(MApplication application, String fingerprint) {
+		File cacheFile = new File(getBaseLocation(), ASSEMBLY_CACHE_FILE);
+		File fingerprintFile = new File(getBaseLocation(), ASSEMBLY_FINGERPRINT_FILE);
+		E4XMIResource source = (E4XMIResource) ((EObject) application).eResource();
+		E4XMIResource cache = null;
+		try {
+			// a cache without fingerprint is never used
+			Files.deleteIfExists(fingerprintFile.toPath());
+			EcoreUtil.Copier copier = new EcoreUtil.Copier();
+			EObject copy = copier.copy((EObject) application);
+			copier.copyReferences();
+			cache = (E4XMIResource) resourceSetImpl.createResource(URI.createFileURI(cacheFile
+					.getAbsolutePath()));
+			cache.getContents().add(copy);
+			for (Map.Entry<EObject, EObject> entry : copier.entrySet()) {
+				String id = source.getID(entry.getKey());
+				if (id != null) {
+					cache.setID(entry.getValue(), id);
+				}
+			}
+			cache.save(null);
+			Files.write(fingerprintFile.toPath(), fingerprint.getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			if (logger != null) {
+				logger.warn(e, "Unable to cache the assembled model " + cacheFile); //$NON-NLS-1$
+			}
+		} finally {
+			if (cache != null) {
+				cache.unload();
+				resourceSetImpl.getResources().remove(cache);
+			}
+		}
+	}
+
+	private boolean isCacheAssembledModel() {
+		return cacheAssembledModel != null && cacheAssembledModel.booleanValue();
+	}
+
+	private synchronized ModelJournal getJournal() {
+		if (journal == null) {
+			journal = new ModelJournal(getJournalLocation());
+		}
+		return journal;
+	}
+
+	private boolean isJournalAutoSave() {
+		return journalAutoSave != null && journalAutoSave.booleanValue();
 	}
 
 	/**
@@ -296,17 +574,78 @@ public class ResourceHandler implements IModelResourceHandler {
 
 	private Resource createResource() {
 		if (saveAndRestore) {
-			URI saveLocation = URI.createFileURI(getWorkbenchSaveLocation().getAbsolutePath());
+			URI saveLocation = URI.createFileURI(getWorkbenchSaveLocation(isBinaryPersistence())
+					.getAbsolutePath());
 			return resourceSetImpl.createResource(saveLocation);
 		}
 		return resourceSetImpl.createResource(URI.createURI("workbench.xmi")); //$NON-NLS-1$
 	}
 
-	private File getWorkbenchSaveLocation() {
-		File workbenchData = new File(getBaseLocation(), "workbench.xmi"); //$NON-NLS-1$
+	/**
+	 * Loads a saved model. The model is thrown out if it cannot be read or if it does not have
+	 * any top-level windows, as Eclipse would exit immediately.
+	 *
+	 * @return the resource or <code>null</code> if the model is not usable
+	 */
+	private Resource loadPersistedResource(URI uri) {
+		Resource persistedResource = loadResource(uri);
+		if (!hasTopLevelWindows(persistedResource)) {
+			if (logger != null) {
+				logger.error(new Exception(), // log a stack trace to help debug the corruption
+						"The persisted workbench " + uri + " has no top-level windows, so ignoring it."); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			Resource brokenResource = resourceSetImpl.getResource(uri, false);
+			if (brokenResource != null) {
+				brokenResource.unload();
+				resourceSetImpl.getResources().remove(brokenResource);
+			}
+			return null;
+		}
+		return persistedResource;
+	}
+
+	/**
+	 * Moves the model into a resource of the configured format, keeping the ids of its objects.
+	 */
+	private Resource convertResource(Resource oldResource) {
+		E4XMIResource newResource = (E4XMIResource) createResource();
+		List<EObject> contents = new ArrayList<>(oldResource.getContents());
+		Map<EObject, String> ids = new HashMap<>();
+		if (oldResource instanceof E4XMIResource) {
+			TreeIterator<EObject> it = oldResource.getAllContents();
+			while (it.hasNext()) {
+				EObject eObject = it.next();
+				ids.put(eObject, ((E4XMIResource) oldResource).getID(eObject));
+			}
+		}
+		newResource.getContents().addAll(contents);
+		for (Map.Entry<EObject, String> entry : ids.entrySet()) {
+			if (entry.getValue() != null) {
+				newResource.setID(entry.getKey(), entry.getValue());
+			}
+		}
+		resourceSetImpl.getResources().remove(oldResource);
+		return newResource;
+	}
+
+	private boolean isBinaryPersistence() {
+		return binaryPersistence != null && binaryPersistence.booleanValue();
+	}
+
+	private static boolean isBinary(Resource resource) {
+		return resource instanceof E4BinaryResource;
+	}
+
+	private File getWorkbenchSaveLocation(boolean binary) {
+		File workbenchData = new File(getBaseLocation(), binary ? "workbench." + BINARY_EXTENSION //$NON-NLS-1$
+				: "workbench.xmi"); //$NON-NLS-1$
 		return workbenchData;
 	}
 
+	private File getJournalLocation() {
+		return new File(getBaseLocation(), JOURNAL_FILE);
+	}
+
 	private File getBaseLocation() {
 		File baseLocation;
 		try {
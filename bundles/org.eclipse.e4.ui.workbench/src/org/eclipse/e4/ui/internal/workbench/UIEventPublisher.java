@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 IBM Corporation and others.
+ * Copyright (c) 2009, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,11 +11,18 @@
  *******************************************************************************/
 package org.eclipse.e4.ui.internal.workbench;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.services.events.IEventBroker;
+import org.eclipse.e4.ui.di.UISynchronize;
 import org.eclipse.e4.ui.model.application.MApplicationElement;
 import org.eclipse.e4.ui.model.application.impl.StringToObjectMapImpl;
 import org.eclipse.e4.ui.model.application.impl.StringToStringMapImpl;
@@ -33,13 +40,77 @@ import org.eclipse.emf.ecore.util.EContentAdapter;
  */
 public class UIEventPublisher extends EContentAdapter {
 
+	// The event types in the order of their topics in the topic tables
+	private static final String[] EVENT_TYPES = { EventTypes.ADD, EventTypes.ADD_MANY,
+			EventTypes.REMOVE, EventTypes.REMOVE_MANY, EventTypes.MOVE, EventTypes.SET,
+			"UNKNOWN" }; //$NON-NLS-1$
+
+	private static final String APPLICATION_ELEMENT_TOPIC_BASE = "org/eclipse/e4/ui/model/application/ApplicationElement/"; //$NON-NLS-1$
+
+	private static final String[] TRANSIENTDATA_TOPICS = createTopics(APPLICATION_ELEMENT_TOPIC_BASE
+			+ UIEvents.ApplicationElement.TRANSIENTDATA);
+
+	private static final String[] PERSISTEDSTATE_TOPICS = createTopics(APPLICATION_ELEMENT_TOPIC_BASE
+			+ UIEvents.ApplicationElement.PERSISTEDSTATE);
+
 	private IEclipseContext context;
 
+	private final boolean coalesce;
+
+	/** The topics of each feature, indexed like {@link #EVENT_TYPES}. */
+	private final Map<EStructuralFeature, String[]> featureTopics = new ConcurrentHashMap<>();
+
+	private final ConcurrentHashMap<String, AtomicInteger> publishedCounts = new ConcurrentHashMap<>();
+
+	/**
+	 * Topics and payloads of the events waiting to be sent, guarded by itself. The topic of an
+	 * event merged into a later one is set to <code>null</code>.
+	 */
+	private final List<Object> pendingEvents = new ArrayList<>();
+
+	/**
+	 * The position in {@link #pendingEvents} of the last SET event of each element and
+	 * single-valued feature, guarded by {@link #pendingEvents}.
+	 */
+	private final Map<List<Object>, Integer> pendingSets = new HashMap<>();
+
+	private boolean dispatchScheduled;
+
+	private final Runnable dispatcher = new Runnable() {
+		@Override
+		public void run() {
+			flush();
+		}
+	};
+
 	/**
 	 * @param e4Context
 	 */
 	public UIEventPublisher(IEclipseContext e4Context) {
+		this(e4Context, false);
+	}
+
+	/**
+	 * Creates a publisher that optionally coalesces the events of a burst of model changes.
+	 * Coalesced events are sent in order, all at once, the next time the UI thread processes
+	 * its asynchronous runnables, or when {@link #flush()} is called. Without a
+	 * {@link UISynchronize} in the context the events are sent right away.
+	 * <p>
+	 * The SET events of the same single-valued feature of an element are merged meanwhile: a
+	 * single event is sent in place of the last one, with the old value of the first one and the
+	 * new value of the last one, and none at all if the feature got its old value back. The
+	 * other events are all sent.
+	 * </p>
+	 *
+	 * @param e4Context
+	 *            the context to get the event broker from
+	 * @param coalesce
+	 *            <code>true</code> to coalesce the events, <code>false</code> to send each event
+	 *            while the model is being notified
+	 */
+	public UIEventPublisher(IEclipseContext e4Context, boolean coalesce) {
 		this.context = e4Context;
+		this.coalesce = coalesce;
 	}
 
 	@Override
@@ -56,11 +127,124 @@ public class UIEventPublisher extends EContentAdapter {
 		String topic = formatData(notification, argMap);
 
 		if (topic != null) {
-			IEventBroker eventManager = context.get(IEventBroker.class);
-			eventManager.send(topic, argMap);
+			if (coalesce) {
+				queue(topic, argMap, getFeatureKey(notification),
+						notification.getEventType() == Notification.SET);
+			} else {
+				send(topic, argMap);
+			}
 		}
 	}
 
+	/**
+	 * Returns the element and feature of an event of a single-valued feature, whose SET events
+	 * can be merged, or <code>null</code>.
+	 */
+	private static List<Object> getFeatureKey(Notification notification) {
+		if (!(notification.getNotifier() instanceof MApplicationElement)) {
+			return null;
+		}
+		EStructuralFeature feature = (EStructuralFeature) notification.getFeature();
+		return feature.isMany() ? null : Arrays.asList(notification.getNotifier(), feature);
+	}
+
+	private void queue(String topic, Map<String, Object> argMap, List<Object> featureKey,
+			boolean set) {
+		boolean schedule;
+		synchronized (pendingEvents) {
+			if (featureKey != null) {
+				// a SET is only merged with the previous event of the feature if that was a SET
+				Integer index = pendingSets.remove(featureKey);
+				if (index != null && set) {
+					// drop the earlier event and send its old value with this one
+					@SuppressWarnings("unchecked")
+					Map<String, Object> earlier = (Map<String, Object>) pendingEvents.get(index
+							.intValue() + 1);
+					pendingEvents.set(index.intValue(), null);
+					Object oldValue = earlier.get(EventTags.OLD_VALUE);
+					if (Objects.equals(oldValue, argMap.get(EventTags.NEW_VALUE))) {
+						return;
+					}
+					if (oldValue == null) {
+						argMap.remove(EventTags.OLD_VALUE);
+					} else {
+						argMap.put(EventTags.OLD_VALUE, oldValue);
+					}
+				}
+				if (set) {
+					pendingSets.put(featureKey, Integer.valueOf(pendingEvents.size()));
+				}
+			}
+			pendingEvents.add(topic);
+			pendingEvents.add(argMap);
+			schedule = !dispatchScheduled;
+			dispatchScheduled = true;
+		}
+		if (schedule) {
+			UISynchronize sync = context.get(UISynchronize.class);
+			if (sync != null) {
+				sync.asyncExec(dispatcher);
+			} else {
+				flush();
+			}
+		}
+	}
+
+	/**
+	 * Sends the events that have been coalesced but not yet sent. Does nothing if this
+	 * publisher does not coalesce events.
+	 */
+	public void flush() {
+		while (true) {
+			Object[] events;
+			synchronized (pendingEvents) {
+				if (pendingEvents.isEmpty()) {
+					dispatchScheduled = false;
+					return;
+				}
+				events = pendingEvents.toArray();
+				pendingEvents.clear();
+				pendingSets.clear();
+			}
+			for (int i = 0; i < events.length; i += 2) {
+				if (events[i] == null) {
+					continue;
+				}
+				@SuppressWarnings("unchecked")
+				Map<String, Object> argMap = (Map<String, Object>) events[i + 1];
+				send((String) events[i], argMap);
+			}
+		}
+	}
+
+	private void send(String topic, Map<String, Object> argMap) {
+		IEventBroker eventManager = context.get(IEventBroker.class);
+		eventManager.send(topic, argMap);
+
+		AtomicInteger count = publishedCounts.get(topic);
+		if (count == null) {
+			AtomicInteger newCount = new AtomicInteger();
+			count = publishedCounts.putIfAbsent(topic, newCount);
+			if (count == null) {
+				count = newCount;
+			}
+		}
+		count.incrementAndGet();
+	}
+
+	/**
+	 * Returns how many events have been sent on each topic since this publisher was created.
+	 *
+	 * @return a snapshot of the number of events sent per topic
+	 */
+	public Map<String, Integer> getPublishedCounts() {
+		Map<String, Integer> counts = new HashMap<>();
+		for (Map.Entry<String, AtomicInteger> entry : publishedCounts.entrySet()) {
+			counts.put(entry.getKey(), Integer.valueOf(entry.getValue().get()));
+		}
+		return counts;
+	}
+
 	/**
 	 * Large hack here. Open to better suggestions
 	 *
@@ -115,7 +299,7 @@ public class UIEventPublisher extends EContentAdapter {
 			appElement = (MApplicationElement) notifier;
 			feature = (EStructuralFeature) notification.getFeature();
 			attributeName = feature.getName();
-			topic = getTopic(feature, getEventType(notification));
+			topic = getTopic(feature, notification.getEventType());
 			switch (notification.getEventType()) {
 			case Notification.MOVE:
 				// for MOVE, oldValue is actually the source position
@@ -165,7 +349,7 @@ public class UIEventPublisher extends EContentAdapter {
 			}
 
 			attributeName = UIEvents.ApplicationElement.TRANSIENTDATA;
-			topic = getTopic(attributeName, getEventType(notification));
+			topic = TRANSIENTDATA_TOPICS[getEventTypeIndex(notification.getEventType())];
 
 			// We need to send MapEntries for the old and new values.
 			oldValue = createMapEntry(key, notification.getOldValue());
@@ -188,7 +372,7 @@ public class UIEventPublisher extends EContentAdapter {
 			}
 
 			attributeName = UIEvents.ApplicationElement.PERSISTEDSTATE;
-			topic = getTopic(attributeName, getEventType(notification));
+			topic = PERSISTEDSTATE_TOPICS[getEventTypeIndex(notification.getEventType())];
 			oldValue = createMapEntry(key, notification.getOldValue());
 			newValue = createMapEntry(key, notification.getNewValue());
 		} else {
@@ -226,28 +410,32 @@ public class UIEventPublisher extends EContentAdapter {
 	}
 
 	private String getEventType(Notification notification) {
-		switch (notification.getEventType()) {
+		return EVENT_TYPES[getEventTypeIndex(notification.getEventType())];
+	}
+
+	private static int getEventTypeIndex(int eventType) {
+		switch (eventType) {
 		case Notification.ADD:
-			return EventTypes.ADD;
+			return 0;
 
 		case Notification.ADD_MANY:
-			return EventTypes.ADD_MANY;
+			return 1;
 
 		case Notification.REMOVE:
-			return EventTypes.REMOVE;
+			return 2;
 
 		case Notification.REMOVE_MANY:
-			return EventTypes.REMOVE_MANY;
+			return 3;
 
 		case Notification.MOVE:
-			return EventTypes.MOVE;
+			return 4;
 
 			// case Notification.UNSET: doesn't appear to be generated
 		case Notification.SET:
-			return EventTypes.SET;
+			return 5;
 		}
 
-		return "UNKNOWN"; //$NON-NLS-1$
+		return 6;
 	}
 
 	private Map.Entry<String, Object> createMapEntry(final String key, final Object value) {
@@ -269,16 +457,23 @@ public class UIEventPublisher extends EContentAdapter {
 		};
 	}
 
-	private String getTopic(EStructuralFeature eFeature, String type) {
-		EClass eContainingClass = eFeature.getEContainingClass();
-		return UIEvents.UIModelTopicBase + UIEvents.TOPIC_SEP
-				+ eContainingClass.getEPackage().getName() + UIEvents.TOPIC_SEP
-				+ eContainingClass.getName() + UIEvents.TOPIC_SEP + eFeature.getName()
-				+ UIEvents.TOPIC_SEP + type;
+	private String getTopic(EStructuralFeature eFeature, int eventType) {
+		String[] topics = featureTopics.get(eFeature);
+		if (topics == null) {
+			EClass eContainingClass = eFeature.getEContainingClass();
+			topics = createTopics(UIEvents.UIModelTopicBase + UIEvents.TOPIC_SEP
+					+ eContainingClass.getEPackage().getName() + UIEvents.TOPIC_SEP
+					+ eContainingClass.getName() + UIEvents.TOPIC_SEP + eFeature.getName());
+			featureTopics.put(eFeature, topics);
+		}
+		return topics[getEventTypeIndex(eventType)];
 	}
 
-	private String getTopic(String attributeName, String type) {
-		String topicBase = "org/eclipse/e4/ui/model/application/ApplicationElement/"; //$NON-NLS-1$
-		return topicBase + attributeName + UIEvents.TOPIC_SEP + type;
+	private static String[] createTopics(String topicBase) {
+		String[] topics = new String[EVENT_TYPES.length];
+		for (int i = 0; i < topics.length; i++) {
+			topics[i] = topicBase + UIEvents.TOPIC_SEP + EVENT_TYPES[i];
+		}
+		return topics;
 	}
 }
@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.jface.util;
+
+import java.util.Comparator;
+
+/**
+ * A string comparator that can convert strings into sort keys, so that sorting
+ * many strings compares precomputed keys instead of the strings themselves.
+ * This is typically implemented by wrapping a collator that produces collation
+ * keys.
+ * <p>
+ * A viewer opts in to sorting with sort keys by passing a comparator that
+ * implements this interface to its
+ * {@link org.eclipse.jface.viewers.ViewerComparator}, see
+ * {@link org.eclipse.jface.viewers.ViewerComparator#setSortKeysEnabled(boolean)}.
+ * The comparator of {@link Policy#getComparator()} is used as well if it
+ * implements this interface.
+ * </p>
+ *
+ * @since 3.12
+ */
+public interface ISortKeyComparator extends Comparator<Object> {
+
+	/**
+	 * Returns the sort key of the given string. Keys are compared with
+	 * {@link #compareSortKeys(Object, Object)} in the same order as
+	 * {@link #compare(Object, Object)} orders their strings.
+	 * <p>
+	 * This method may be called from several threads at the same time.
+	 * </p>
+	 *
+	 * @param string
+	 *            the string, not <code>null</code>
+	 * @return the sort key of the string
+	 */
+	Object getSortKey(String string);
+
+	/**
+	 * Compares two keys returned by {@link #getSortKey(String)}.
+	 *
+	 * @param key1
+	 *            the first key
+	 * @param key2
+	 *            the second key
+	 * @return a negative number, zero, or a positive number as the string of
+	 *         the first key is less than, equal to, or greater than the string
+	 *         of the second key
+	 */
+	int compareSortKeys(Object key1, Object key2);
+}
@@ -658,6 +658,9 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 
 		Object[] children = getSortedChildren(getRoot());
 		Item[] items = doGetItems();
+		if (internalRefreshAllIncrementally(children, items, updateLabels)) {
+			return;
+		}
 		int min = Math.min(children.length, items.length);
 		for (int i = 0; i < min; ++i) {
 
@@ -716,6 +719,149 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 		}
 	}
 
+	/**
+	 * Refreshes all of the elements of the table by removing the items whose
+	 * elements are gone or out of order, and creating items for the new
+	 * elements, instead of relabeling every item whose position changed.
+	 * Items that keep their element are only updated if updateLabels is true.
+	 * <p>
+	 * The items that are kept are the longest run of existing items whose
+	 * elements appear in the same relative order in the new children, so the
+	 * number of removed and created items is minimal. The incremental refresh
+	 * is only done if it touches fewer items than relabeling by position
+	 * would, and if neither the items nor the children contain an element
+	 * twice.
+	 * </p>
+	 *
+	 * @param children
+	 *            the new sorted and filtered children of the root
+	 * @param items
+	 *            the current items of the table
+	 * @param updateLabels
+	 *            whether the labels of kept items are to be updated
+	 * @return <code>true</code> if the table has been refreshed,
+	 *         <code>false</code> if the caller has to refresh it by position
+	 */
+	private boolean internalRefreshAllIncrementally(Object[] children,
+			Item[] items, boolean updateLabels) {
+		int min = Math.min(children.length, items.length);
+		int positionalChanges = Math.abs(children.length - items.length);
+		for (int i = 0; i < min; ++i) {
+			if (!equals(children[i], items[i].getData())) {
+				positionalChanges++;
+			}
+		}
+		if (positionalChanges == 0 || min == 0) {
+			return false;
+		}
+
+		ElementHashtable childIndices = newHashtable(children.length);
+		for (int i = 0; i < children.length; ++i) {
+			if (childIndices.put(children[i], Integer.valueOf(i)) != null) {
+				return false;
+			}
+		}
+		int[] newIndices = new int[items.length];
+		for (int i = 0; i < items.length; ++i) {
+			Object data = items[i].getData();
+			if (data == null) {
+				return false;
+			}
+			Integer index = (Integer) childIndices.get(data);
+			newIndices[i] = index == null ? -1 : index.intValue();
+		}
+		boolean[] kept = longestIncreasingRun(newIndices);
+		int keptCount = 0;
+		for (int i = 0; i < kept.length; ++i) {
+			if (kept[i]) {
+				keptCount++;
+			}
+		}
+		int removeCount = items.length - keptCount;
+		if (removeCount + children.length - keptCount >= positionalChanges) {
+			return false;
+		}
+
+		// disassociate all removed items before associating anything, see
+		// internalRefreshAll
+		if (removeCount > 0) {
+			int[] removed = new int[removeCount];
+			int next = 0;
+			for (int i = 0; i < items.length; ++i) {
+				if (!kept[i]) {
+					disassociate(items[i]);
+					removed[next++] = i;
+				}
+			}
+			doRemove(removed);
+		}
+		boolean[] hasItem = new boolean[children.length];
+		for (int i = 0; i < items.length; ++i) {
+			if (kept[i]) {
+				Object child = children[newIndices[i]];
+				hasItem[newIndices[i]] = true;
+				if (updateLabels) {
+					updateItem(items[i], child);
+				} else {
+					// associate the new element, even if equal to the old
+					// one, to remove stale references (see bug 31314)
+					associate(child, items[i]);
+				}
+			}
+		}
+		// the kept items are in order, so every row before the current index
+		// is final when the missing items are created in ascending order
+		for (int i = 0; i < children.length; ++i) {
+			if (!hasItem[i]) {
+				createItem(children[i], i);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns which entries of the given array form its longest strictly
+	 * increasing subsequence, ignoring negative entries.
+	 *
+	 * @param values
+	 *            the values
+	 * @return for each entry, whether it is part of the subsequence
+	 */
+	private static boolean[] longestIncreasingRun(int[] values) {
+		// tails[k] is the index of the smallest value ending a subsequence of
+		// length k + 1, predecessors link each index to the previous entry of
+		// its subsequence
+		int[] tails = new int[values.length];
+		int[] predecessors = new int[values.length];
+		int length = 0;
+		for (int i = 0; i < values.length; ++i) {
+			int value = values[i];
+			if (value < 0) {
+				continue;
+			}
+			int low = 0;
+			int high = length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (values[tails[mid]] < value) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			predecessors[i] = low > 0 ? tails[low - 1] : -1;
+			tails[low] = i;
+			if (low == length) {
+				length++;
+			}
+		}
+		boolean[] result = new boolean[values.length];
+		for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = predecessors[i]) {
+			result[i] = true;
+		}
+		return result;
+	}
+
 	/**
 	 * Removes the given elements from this table viewer.
 	 *
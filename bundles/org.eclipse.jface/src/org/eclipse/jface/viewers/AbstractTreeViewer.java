@@ -618,6 +618,10 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 
 	@Override
 	protected Object[] getSortedChildren(Object parentElementOrTreePath) {
+		Object[] precomputed = getPrecomputedChildren(parentElementOrTreePath);
+		if (precomputed != null) {
+			return precomputed;
+		}
 		Object[] result = getFilteredChildren(parentElementOrTreePath);
 		ViewerComparator comparator = getComparator();
 		if (parentElementOrTreePath != null
@@ -984,7 +988,7 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 			return false;
 		}
 
-		CustomHashtable itemSet = newHashtable(n * 2 + 1);
+		ElementHashtable itemSet = newHashtable(n);
 		for (Iterator i = items.iterator(); i.hasNext();) {
 			Item item = (Item) i.next();
 			Object element = item.getData();
@@ -1401,7 +1405,7 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 
 		if (InternalPolicy.DEBUG_LOG_EQUAL_VIEWER_ELEMENTS
 				&& elements.length > 1) {
-			CustomHashtable elementSet = newHashtable(elements.length * 2);
+			ElementHashtable elementSet = newHashtable(elements.length);
 			for (int i = 0; i < elements.length; i++) {
 				Object element = elements[i];
 				Object old = elementSet.put(element, element);
@@ -1847,6 +1851,65 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The <code>AbstractTreeViewer</code> implementation computes the children
+	 * of the refreshed element and of all its expanded descendants, since
+	 * collapsed subtrees are pruned during refresh anyway. Background refresh
+	 * is not supported for tree path content providers and
+	 * {@link TreePathViewerSorter}s.
+	 * </p>
+	 */
+	@Override
+	Object[] getBackgroundRefreshParents(Object element) {
+		Object root = getRoot();
+		if (element == null || root == null
+				|| !(getContentProvider() instanceof ITreeContentProvider)
+				|| isTreePathContentProvider()
+				|| getComparator() instanceof TreePathViewerSorter) {
+			return null;
+		}
+		Widget[] widgets;
+		if (equals(element, root)) {
+			widgets = new Widget[] { getControl() };
+		} else {
+			widgets = findItems(element);
+			if (widgets.length == 0) {
+				return null;
+			}
+		}
+		List parents = new ArrayList();
+		parents.add(element);
+		for (int i = 0; i < widgets.length; i++) {
+			collectExpandedElements(getChildren(widgets[i]), parents);
+		}
+		return parents.toArray();
+	}
+
+	/**
+	 * Adds the elements of all expanded items in the given subtrees to the
+	 * given list.
+	 *
+	 * @param items
+	 *            the items, or <code>null</code>
+	 * @param result
+	 *            the list to add the elements to
+	 */
+	private void collectExpandedElements(Item[] items, List result) {
+		if (items == null) {
+			return;
+		}
+		for (int i = 0; i < items.length; i++) {
+			Item item = items[i];
+			Object data = item.getData();
+			if (data != null && getExpanded(item)) {
+				result.add(data);
+				collectExpandedElements(getChildren(item), result);
+			}
+		}
+	}
+
 	/**
 	 * Refreshes the tree starting at the given widget.
 	 * <p>
@@ -1983,7 +2046,7 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 	 */
 	protected void internalRemove(Object parent, Object[] elements) {
 
-		CustomHashtable toRemove = new CustomHashtable(getComparer());
+		ElementHashtable toRemove = new ElementHashtable(getComparer());
 		for (int i = 0; i < elements.length; i++) {
 			toRemove.put(elements[i], elements[i]);
 		}
@@ -2029,7 +2092,7 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 	 * @param widget
 	 *            the widget
 	 */
-	private void internalSetExpanded(CustomHashtable expandedElements,
+	private void internalSetExpanded(ElementHashtable expandedElements,
 			Widget widget) {
 		Item[] items = getChildren(widget);
 		for (int i = 0; i < items.length; i++) {
@@ -2063,7 +2126,7 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 	 *            the widget
 	 */
 	private void internalSetExpandedTreePaths(
-			CustomHashtable expandedTreePaths, Widget widget,
+			ElementHashtable expandedTreePaths, Widget widget,
 			TreePath currentPath) {
 		Item[] items = getChildren(widget);
 		for (int i = 0; i < items.length; i++) {
@@ -2400,7 +2463,7 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 		if (checkBusy()) {
 			return;
 		}
-		CustomHashtable expandedElements = newHashtable(elements.length * 2 + 1);
+		ElementHashtable expandedElements = newHashtable(elements.length);
 		for (int i = 0; i < elements.length; ++i) {
 			Object element = elements[i];
 			// Ensure item exists for element. This will materialize items for
@@ -2449,8 +2512,8 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 				return ((TreePath) element).hashCode(comparer);
 			}
 		};
-		CustomHashtable expandedTreePaths = new CustomHashtable(
-				treePaths.length * 2 + 1, treePathComparer);
+		ElementHashtable expandedTreePaths = new ElementHashtable(
+				treePaths.length, treePathComparer);
 		for (int i = 0; i < treePaths.length; ++i) {
 			TreePath treePath = treePaths[i];
 			// Ensure item exists for element. This will materialize items for
@@ -2647,11 +2710,8 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 		Item[] items = getChildren(widget);
 
 		// save the expanded elements
-		CustomHashtable expanded = newHashtable(CustomHashtable.DEFAULT_CAPACITY); // assume
-																					// num
-																					// expanded
-																					// is
-																					// small
+		// assume num expanded is small
+		ElementHashtable expanded = newHashtable(ElementHashtable.DEFAULT_CAPACITY);
 		for (int i = 0; i < items.length; ++i) {
 			if (getExpanded(items[i])) {
 				Object element = items[i].getData();
@@ -2667,7 +2727,7 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 		// been deleted but not reordered, or all elements have been removed.
 		int numItemsToDispose = items.length - min;
 		if (numItemsToDispose > 0) {
-			CustomHashtable children = newHashtable(elementChildren.length * 2);
+			ElementHashtable children = newHashtable(elementChildren.length);
 			for (int i = 0; i < elementChildren.length; i++) {
 				Object elementChild = elementChildren[i];
 				children.put(elementChild, elementChild);
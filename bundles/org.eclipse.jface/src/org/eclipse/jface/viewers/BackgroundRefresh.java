@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.viewers;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Computes the sorted and filtered children of a set of parent elements on
+ * behalf of a {@link StructuredViewer}, off the display thread, and hands the
+ * result back to the viewer on the display thread.
+ * <p>
+ * Everything the computation needs (content provider, filters, comparator
+ * and comparer) is captured on the display thread when the refresh is
+ * created, so that changes made to the viewer while the computation runs do
+ * not leak into it. A refresh that has been superseded is canceled; a
+ * canceled refresh stops at the next parent or filter boundary and never
+ * reports back to the viewer.
+ * </p>
+ *
+ * @see StructuredViewer#setBackgroundRefreshExecutor(java.util.concurrent.Executor)
+ * @since 3.12
+ */
+final class BackgroundRefresh implements Runnable {
+
+	private final StructuredViewer viewer;
+
+	private final Display display;
+
+	private final Object element;
+
+	private final boolean updateLabels;
+
+	private final Object root;
+
+	private final Object[] parents;
+
+	private final IStructuredContentProvider contentProvider;
+
+	private final ViewerFilter[] filters;
+
+	private final ViewerComparator comparator;
+
+	private final IElementComparer comparer;
+
+	private final Object[][] sortedChildren;
+
+	private volatile boolean canceled;
+
+	private volatile boolean failed;
+
+	/**
+	 * Creates a new background refresh. Must be called on the display thread.
+	 *
+	 * @param viewer
+	 *            the viewer being refreshed
+	 * @param element
+	 *            the element that was passed to the refresh method
+	 * @param updateLabels
+	 *            whether labels of existing elements are to be updated
+	 * @param parents
+	 *            the parent elements whose children are to be computed
+	 */
+	BackgroundRefresh(StructuredViewer viewer, Object element, boolean updateLabels, Object[] parents) {
+		this.viewer = viewer;
+		this.display = viewer.getControl().getDisplay();
+		this.element = element;
+		this.updateLabels = updateLabels;
+		this.root = viewer.getRoot();
+		this.parents = parents;
+		this.contentProvider = (IStructuredContentProvider) viewer.getContentProvider();
+		this.filters = viewer.getFilters();
+		this.comparator = viewer.getComparator();
+		this.comparer = viewer.getComparer();
+		this.sortedChildren = new Object[parents.length][];
+	}
+
+	@Override
+	public void run() {
+		try {
+			for (int i = 0; i < parents.length; i++) {
+				if (canceled) {
+					return;
+				}
+				sortedChildren[i] = computeSortedChildren(parents[i]);
+			}
+		} catch (RuntimeException e) {
+			// let the synchronous refresh report the problem on the display
+			// thread, exactly as it would have without background refresh
+			failed = true;
+		}
+		if (canceled || display.isDisposed()) {
+			return;
+		}
+		try {
+			display.asyncExec(() -> viewer.applyBackgroundRefresh(this));
+		} catch (SWTException e) {
+			// the display was disposed in the meantime, nothing to update
+		}
+	}
+
+	private Object[] computeSortedChildren(Object parent) {
+		Object[] result;
+		if (contentProvider instanceof ITreeContentProvider && !isRoot(parent)) {
+			result = ((ITreeContentProvider) contentProvider).getChildren(parent);
+		} else {
+			result = contentProvider.getElements(parent);
+		}
+		if (result == null) {
+			return new Object[0];
+		}
+		for (int i = 0; i < result.length; i++) {
+			Assert.isNotNull(result[i]);
+		}
+		for (int i = 0; i < filters.length; i++) {
+			if (canceled) {
+				return result;
+			}
+			result = filters[i].filter(viewer, parent, result);
+		}
+		if (comparator != null && !canceled) {
+			// be sure we're not modifying the original array from the model
+			result = result.clone();
+			comparator.sort(viewer, result);
+		}
+		return result;
+	}
+
+	private boolean isRoot(Object parent) {
+		if (comparer == null) {
+			return root.equals(parent);
+		}
+		return comparer.equals(root, parent);
+	}
+
+	/**
+	 * Cancels this refresh. Can be called from any thread.
+	 */
+	void cancel() {
+		canceled = true;
+	}
+
+	/**
+	 * @return the element that was passed to the refresh method
+	 */
+	Object getElement() {
+		return element;
+	}
+
+	/**
+	 * @return whether labels of existing elements are to be updated
+	 */
+	boolean isUpdateLabels() {
+		return updateLabels;
+	}
+
+	/**
+	 * Adds the computed children to the given map, keyed by parent element.
+	 * Adds nothing if the computation failed.
+	 *
+	 * @param map
+	 *            the map to fill
+	 */
+	void collectSortedChildren(ElementHashtable map) {
+		if (failed) {
+			return;
+		}
+		for (int i = 0; i < parents.length; i++) {
+			map.put(parents[i], sortedChildren[i]);
+		}
+	}
+}
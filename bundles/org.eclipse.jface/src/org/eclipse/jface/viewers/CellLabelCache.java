@@ -0,0 +1,273 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jface.viewers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.swt.custom.StyleRange;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.Resource;
+
+/**
+ * CellLabelCache remembers the text, image, colors, font and style ranges
+ * that the label providers of a {@link ColumnViewer} have set on the cells of
+ * an element, so that they can be applied again without calling the label
+ * providers.
+ * <p>
+ * The cache holds the labels of at most a given number of elements and
+ * discards the least recently used element when it is full. Elements are
+ * compared with the viewer's {@link IElementComparer}, if any.
+ * </p>
+ *
+ * @see ColumnViewer#setLabelCacheSize(int)
+ * @since 3.12
+ */
+/* package */final class CellLabelCache {
+
+	private final IElementComparer comparer;
+
+	private final int maximumSize;
+
+	private final Map<Object, CellLabel[]> labels;
+
+	private long hits;
+
+	private long misses;
+
+	/**
+	 * Creates a new cache.
+	 *
+	 * @param maximumSize
+	 *            the maximum number of elements whose labels are cached, must
+	 *            be positive
+	 * @param comparer
+	 *            the comparer used to compare elements, or <code>null</code>
+	 *            to use the normal <code>equals</code> and
+	 *            <code>hashCode</code> methods
+	 */
+	CellLabelCache(int maximumSize, IElementComparer comparer) {
+		this.maximumSize = maximumSize;
+		this.comparer = comparer;
+		this.labels = new LinkedHashMap<Object, CellLabel[]>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Object, CellLabel[]> eldest) {
+				return size() > CellLabelCache.this.maximumSize;
+			}
+		};
+	}
+
+	/**
+	 * @return the maximum number of elements whose labels are cached
+	 */
+	int getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * @return the comparer used to compare elements, or <code>null</code>
+	 */
+	IElementComparer getComparer() {
+		return comparer;
+	}
+
+	/**
+	 * Applies the cached label of the given cell's element and column to the
+	 * cell, if there is one.
+	 *
+	 * @param cell
+	 *            the cell to update
+	 * @return <code>true</code> if the cell has been updated from the cache,
+	 *         <code>false</code> if the label provider has to update it
+	 */
+	boolean apply(ViewerCell cell) {
+		CellLabel[] columns = labels.get(key(cell.getElement()));
+		int columnIndex = cell.getColumnIndex();
+		CellLabel label = columns != null && columnIndex < columns.length ? columns[columnIndex] : null;
+		if (label == null || label.isDisposed()) {
+			misses++;
+			return false;
+		}
+		hits++;
+		label.applyTo(cell);
+		return true;
+	}
+
+	/**
+	 * Remembers the label that has just been set on the given cell.
+	 *
+	 * @param cell
+	 *            the cell that has been updated by its label provider
+	 */
+	void store(ViewerCell cell) {
+		Object key = key(cell.getElement());
+		int columnIndex = cell.getColumnIndex();
+		CellLabel[] columns = labels.get(key);
+		if (columns == null || columnIndex >= columns.length) {
+			CellLabel[] newColumns = new CellLabel[columnIndex + 1];
+			if (columns != null) {
+				System.arraycopy(columns, 0, newColumns, 0, columns.length);
+			}
+			columns = newColumns;
+			labels.put(key, columns);
+		}
+		columns[columnIndex] = new CellLabel(cell);
+	}
+
+	/**
+	 * Discards the labels of the given element.
+	 *
+	 * @param element
+	 *            the element
+	 */
+	void remove(Object element) {
+		labels.remove(key(element));
+	}
+
+	/**
+	 * Discards all labels. The statistics are kept.
+	 */
+	void clear() {
+		labels.clear();
+	}
+
+	/**
+	 * @return the number of cells that have been updated from the cache
+	 */
+	long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return the number of cells that had to be updated by their label
+	 *         provider
+	 */
+	long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Resets the number of hits and misses to <code>0</code>.
+	 */
+	void resetStatistics() {
+		hits = 0;
+		misses = 0;
+	}
+
+	/**
+	 * Adds the hits and misses of the given cache to the statistics of this
+	 * cache.
+	 *
+	 * @param other
+	 *            the cache
+	 */
+	void addStatistics(CellLabelCache other) {
+		hits += other.hits;
+		misses += other.misses;
+	}
+
+	private Object key(Object element) {
+		return comparer == null ? element : new ComparerKey(element, comparer);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder buffer = new StringBuilder("CellLabelCache"); //$NON-NLS-1$
+		buffer.append(" size=").append(labels.size()); //$NON-NLS-1$
+		buffer.append(" hits=").append(hits); //$NON-NLS-1$
+		buffer.append(" misses=").append(misses); //$NON-NLS-1$
+		return buffer.toString();
+	}
+
+	/**
+	 * Wraps an element so that it is hashed and compared with an element
+	 * comparer.
+	 */
+	private static final class ComparerKey {
+		private final Object element;
+
+		private final IElementComparer comparer;
+
+		ComparerKey(Object element, IElementComparer comparer) {
+			this.element = element;
+			this.comparer = comparer;
+		}
+
+		@Override
+		public int hashCode() {
+			return comparer.hashCode(element);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof ComparerKey
+					&& comparer.equals(element, ((ComparerKey) obj).element);
+		}
+
+		@Override
+		public String toString() {
+			return String.valueOf(element);
+		}
+	}
+
+	/**
+	 * The label of one cell.
+	 */
+	private static final class CellLabel {
+		private final String text;
+
+		private final Image image;
+
+		private final Color foreground;
+
+		private final Color background;
+
+		private final Font font;
+
+		private final StyleRange[] styleRanges;
+
+		CellLabel(ViewerCell cell) {
+			text = cell.getText();
+			image = cell.getImage();
+			foreground = cell.getForeground();
+			background = cell.getBackground();
+			font = cell.getFont();
+			styleRanges = cell.getStyleRanges();
+		}
+
+		/**
+		 * @return whether a resource of the label has been disposed since it
+		 *         was cached, in which case it must not be used
+		 */
+		boolean isDisposed() {
+			return isDisposed(image) || isDisposed(foreground)
+					|| isDisposed(background) || isDisposed(font);
+		}
+
+		private static boolean isDisposed(Resource resource) {
+			return resource != null && resource.isDisposed();
+		}
+
+		void applyTo(ViewerCell cell) {
+			cell.setText(text);
+			cell.setImage(image);
+			cell.setForeground(foreground);
+			cell.setBackground(background);
+			cell.setFont(font);
+			cell.setStyleRanges(styleRanges);
+		}
+	}
+}
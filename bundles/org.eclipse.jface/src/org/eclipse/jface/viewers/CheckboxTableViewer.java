@@ -325,8 +325,8 @@ public class CheckboxTableViewer extends TableViewer implements ICheckable {
 
     	//Preserve checked items
         TableItem[] children = getTable().getItems();
-        CustomHashtable checked = newHashtable(children.length * 2 + 1);
-        CustomHashtable grayed = newHashtable(children.length * 2 + 1);
+        ElementHashtable checked = newHashtable(children.length);
+        ElementHashtable grayed = newHashtable(children.length);
 
         for (int i = 0; i < children.length; i++) {
             TableItem item = children[i];
@@ -422,7 +422,7 @@ public class CheckboxTableViewer extends TableViewer implements ICheckable {
      */
     public void setCheckedElements(Object[] elements) {
         assertElementsNotNull(elements);
-        CustomHashtable set = newHashtable(elements.length * 2 + 1);
+        ElementHashtable set = newHashtable(elements.length);
         for (int i = 0; i < elements.length; ++i) {
             set.put(elements[i], elements[i]);
         }
@@ -476,7 +476,7 @@ public class CheckboxTableViewer extends TableViewer implements ICheckable {
      */
     public void setGrayedElements(Object[] elements) {
         assertElementsNotNull(elements);
-        CustomHashtable set = newHashtable(elements.length * 2 + 1);
+        ElementHashtable set = newHashtable(elements.length);
         for (int i = 0; i < elements.length; ++i) {
             set.put(elements[i], elements[i]);
         }
@@ -132,7 +132,7 @@ public class CheckboxTreeViewer extends TreeViewer implements ICheckable {
      * @param grayed a set of elements (element type: <code>Object</code>)
      * @param widget the widget
      */
-    private void applyState(CustomHashtable checked, CustomHashtable grayed,
+    private void applyState(ElementHashtable checked, ElementHashtable grayed,
             Widget widget) {
         Item[] items = getChildren(widget);
         for (int i = 0; i < items.length; i++) {
@@ -179,7 +179,7 @@ public class CheckboxTreeViewer extends TreeViewer implements ICheckable {
      * @param grayed a writable set of elements (element type: <code>Object</code>)
      * @param widget the widget
      */
-    private void gatherState(CustomHashtable checked, CustomHashtable grayed,
+    private void gatherState(ElementHashtable checked, ElementHashtable grayed,
             Widget widget) {
         Item[] items = getChildren(widget);
         for (int i = 0; i < items.length; i++) {
@@ -348,7 +348,7 @@ public class CheckboxTreeViewer extends TreeViewer implements ICheckable {
      * @param checkedElements the set (element type: <code>Object</code>) of elements which are checked
      * @param widget the widget
      */
-    private void internalSetChecked(CustomHashtable checkedElements,
+    private void internalSetChecked(ElementHashtable checkedElements,
             Widget widget) {
         Item[] items = getChildren(widget);
         for (int i = 0; i < items.length; i++) {
@@ -370,7 +370,7 @@ public class CheckboxTreeViewer extends TreeViewer implements ICheckable {
      * @param grayedElements the set (element type: <code>Object</code>) of elements which are grayed
      * @param widget the widget
      */
-    private void internalSetGrayed(CustomHashtable grayedElements, Widget widget) {
+    private void internalSetGrayed(ElementHashtable grayedElements, Widget widget) {
         Item[] items = getChildren(widget);
         for (int i = 0; i < items.length; i++) {
             TreeItem item = (TreeItem) items[i];
@@ -401,8 +401,8 @@ public class CheckboxTreeViewer extends TreeViewer implements ICheckable {
 
     	//Preserve checked items
         int n = getItemCount(getControl());
-        CustomHashtable checkedNodes = newHashtable(n * 2 + 1);
-        CustomHashtable grayedNodes = newHashtable(n * 2 + 1);
+        ElementHashtable checkedNodes = newHashtable(n);
+        ElementHashtable grayedNodes = newHashtable(n);
 
         gatherState(checkedNodes, grayedNodes, getControl());
 
@@ -467,7 +467,7 @@ public class CheckboxTreeViewer extends TreeViewer implements ICheckable {
      */
     public void setCheckedElements(Object[] elements) {
         assertElementsNotNull(elements);
-        CustomHashtable checkedElements = newHashtable(elements.length * 2 + 1);
+        ElementHashtable checkedElements = newHashtable(elements.length);
         for (int i = 0; i < elements.length; ++i) {
             Object element = elements[i];
             // Ensure item exists for element
@@ -534,7 +534,7 @@ public class CheckboxTreeViewer extends TreeViewer implements ICheckable {
      */
     public void setGrayedElements(Object[] elements) {
         assertElementsNotNull(elements);
-        CustomHashtable grayedElements = newHashtable(elements.length * 2 + 1);
+        ElementHashtable grayedElements = newHashtable(elements.length);
         for (int i = 0; i < elements.length; ++i) {
             Object element = elements[i];
             // Ensure item exists for element
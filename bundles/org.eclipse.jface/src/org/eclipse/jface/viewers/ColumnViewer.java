@@ -60,6 +60,8 @@ public abstract class ColumnViewer extends StructuredViewer {
 
 	private MouseListener mouseListener;
 
+	private CellLabelCache labelCache;
+
 	// after logging for the first
 	// time
 
@@ -344,6 +346,7 @@ public abstract class ColumnViewer extends StructuredViewer {
 		Assert.isTrue(labelProvider instanceof ITableLabelProvider
 				|| labelProvider instanceof ILabelProvider
 				|| labelProvider instanceof CellLabelProvider);
+		clearLabelCache();
 		updateColumnParts(labelProvider);// Reset the label providers in the
 		// columns
 		if (labelProvider instanceof CellLabelProvider) {
@@ -539,9 +542,134 @@ public abstract class ColumnViewer extends StructuredViewer {
 	public void update(Object element, String[] properties) {
 		if (checkBusy())
 			return;
+		if (labelCache != null) {
+			labelCache.remove(element);
+		}
 		super.update(element, properties);
 	}
 
+	@Override
+	protected void handleLabelProviderChanged(LabelProviderChangedEvent event) {
+		if (event.getElements() == null) {
+			clearLabelCache();
+		}
+		super.handleLabelProviderChanged(event);
+	}
+
+	@Override
+	protected void unmapAllElements() {
+		clearLabelCache();
+		super.unmapAllElements();
+	}
+
+	@Override
+	public void setComparer(IElementComparer comparer) {
+		super.setComparer(comparer);
+		if (labelCache != null) {
+			CellLabelCache oldCache = labelCache;
+			labelCache = new CellLabelCache(oldCache.getMaximumSize(), comparer);
+			labelCache.addStatistics(oldCache);
+		}
+	}
+
+	/**
+	 * Sets the maximum number of elements whose cell labels are cached by this
+	 * viewer. While the cache is enabled, the text, image, colors, font and
+	 * style ranges that the label providers set on the cells of an element
+	 * are remembered, and refreshing the element applies them again without
+	 * calling the label providers. When the cache is full, the labels of the
+	 * least recently used element are discarded.
+	 * <p>
+	 * The labels of an element are discarded by
+	 * {@link #update(Object, String[])}, by a
+	 * {@link LabelProviderChangedEvent} for the element, or when a label
+	 * provider, the comparer or the input is set. A
+	 * {@link LabelProviderChangedEvent} without elements discards all labels.
+	 * Clients must therefore update elements whose labels have changed; a
+	 * refresh alone does not update cached labels.
+	 * </p>
+	 * <p>
+	 * The cache must only be enabled if the label of a cell depends on
+	 * nothing but its element and column, and if the label providers do
+	 * nothing but set the label on the cell.
+	 * </p>
+	 * <p>
+	 * Setting the size resets the hit and miss counts. The cached labels are
+	 * kept if the size does not change.
+	 * </p>
+	 *
+	 * @param size
+	 *            the maximum number of elements whose labels are cached, or
+	 *            <code>0</code> to disable the cache
+	 * @see #getLabelCacheSize()
+	 * @since 3.12
+	 */
+	public void setLabelCacheSize(int size) {
+		Assert.isTrue(size >= 0);
+		if (size == 0) {
+			labelCache = null;
+		} else if (labelCache == null || labelCache.getMaximumSize() != size) {
+			labelCache = new CellLabelCache(size, getComparer());
+		} else {
+			labelCache.resetStatistics();
+		}
+	}
+
+	/**
+	 * Returns the maximum number of elements whose cell labels are cached by
+	 * this viewer.
+	 *
+	 * @return the maximum number of elements, or <code>0</code> if the cache
+	 *         is disabled
+	 * @see #setLabelCacheSize(int)
+	 * @since 3.12
+	 */
+	public int getLabelCacheSize() {
+		return labelCache == null ? 0 : labelCache.getMaximumSize();
+	}
+
+	/**
+	 * Returns the number of cells that have been updated from the label cache
+	 * since the cache size was last set.
+	 *
+	 * @return the number of cache hits, or <code>0</code> if the cache is
+	 *         disabled
+	 * @see #setLabelCacheSize(int)
+	 * @since 3.12
+	 */
+	public long getLabelCacheHits() {
+		return labelCache == null ? 0 : labelCache.getHits();
+	}
+
+	/**
+	 * Returns the number of cells that had to be updated by their label
+	 * provider since the label cache size was last set.
+	 *
+	 * @return the number of cache misses, or <code>0</code> if the cache is
+	 *         disabled
+	 * @see #setLabelCacheSize(int)
+	 * @since 3.12
+	 */
+	public long getLabelCacheMisses() {
+		return labelCache == null ? 0 : labelCache.getMisses();
+	}
+
+	/**
+	 * @return the label cache, or <code>null</code> if it is disabled
+	 */
+	CellLabelCache getLabelCache() {
+		return labelCache;
+	}
+
+	/**
+	 * Discards all cached cell labels.
+	 */
+	void clearLabelCache() {
+		if (labelCache != null) {
+			labelCache.clear();
+		}
+	}
+
 	/**
 	 * Sets the cell editors of this column viewer. If editing is not supported
 	 * by this viewer the call simply has no effect.
@@ -660,6 +788,7 @@ public abstract class ColumnViewer extends StructuredViewer {
 			((Control)event.widget).removeMouseListener(mouseListener);
 			mouseListener = null;
 		}
+		labelCache = null;
 		super.handleDispose(event);
 	}
 
@@ -0,0 +1,311 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jface.viewers;
+
+/**
+ * ElementHashtable associates keys with values. Keys and values cannot be
+ * null. Keys are compared and hashed with an optional
+ * {@link IElementComparer}.
+ * <p>
+ * The table uses open addressing with linear probing over flat arrays of
+ * keys, values and cached hash codes, so adding an entry does not allocate
+ * anything unless the table has to grow. The table is kept at most half
+ * full, and entries are removed by shifting the following entries of their
+ * probe sequence back, so no tombstones are needed. The cached hash codes
+ * make growing the table cheap and avoid calling
+ * {@link IElementComparer#equals(Object, Object)} for keys that merely share
+ * a slot.
+ * </p>
+ */
+/* package */final class ElementHashtable {
+
+	/**
+	 * The default number of entries used when not specified in the
+	 * constructor.
+	 */
+	public static final int DEFAULT_CAPACITY = 13;
+
+	private static final int MINIMUM_TABLE_SIZE = 8;
+
+	private static final int MAXIMUM_TABLE_SIZE = 1 << 30;
+
+	private final IElementComparer comparer;
+
+	private Object[] keys;
+
+	private Object[] values;
+
+	private int[] hashes;
+
+	private int mask;
+
+	private int elementCount;
+
+	/**
+	 * Constructs a new hash table with the default capacity and the given
+	 * element comparer.
+	 *
+	 * @param comparer the element comparer to use to compare keys and obtain
+	 *   hash codes for keys, or <code>null</code>  to use the normal
+	 *   <code>equals</code> and <code>hashCode</code> methods
+	 */
+	public ElementHashtable(IElementComparer comparer) {
+		this(DEFAULT_CAPACITY, comparer);
+	}
+
+	/**
+	 * Constructs a new hash table with the given capacity and the given
+	 * element comparer.
+	 *
+	 * @param capacity the number of entries that can be added without
+	 *   rehashing
+	 * @param comparer the element comparer to use to compare keys and obtain
+	 *   hash codes for keys, or <code>null</code>  to use the normal
+	 *   <code>equals</code> and <code>hashCode</code> methods
+	 */
+	public ElementHashtable(int capacity, IElementComparer comparer) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException();
+		}
+		this.comparer = comparer;
+		allocate(tableSizeFor(capacity));
+	}
+
+	/**
+	 * Constructs a new hash table with enough capacity to hold all keys in the
+	 * given hash table, then adds all key/value pairs in the given hash table
+	 * to the new one, using the given element comparer.
+	 *
+	 * @param table the original hash table to copy from
+	 * @param comparer the element comparer to use to compare keys and obtain
+	 *   hash codes for keys, or <code>null</code>  to use the normal
+	 *   <code>equals</code> and <code>hashCode</code> methods
+	 */
+	public ElementHashtable(ElementHashtable table, IElementComparer comparer) {
+		this(table.size(), comparer);
+		Object[] oldKeys = table.keys;
+		Object[] oldValues = table.values;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != null) {
+				put(oldKeys[i], oldValues[i]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the element comparer used to compare keys and to obtain hash
+	 * codes for keys, or <code>null</code> if no comparer has been provided.
+	 *
+	 * @return the element comparer or <code>null</code>
+	 */
+	public IElementComparer getComparer() {
+		return comparer;
+	}
+
+	/**
+	 * Answers if this table contains the specified object as a key of one of
+	 * the key/value pairs.
+	 *
+	 * @param key the object to look for as a key in this table
+	 * @return true if object is a key in this table, false otherwise
+	 */
+	public boolean containsKey(Object key) {
+		return indexOf(key) >= 0;
+	}
+
+	/**
+	 * Answers the value associated with the specified key in this table.
+	 *
+	 * @param key the key of the value returned
+	 * @return the value associated with the specified key, null if the
+	 *         specified key does not exist
+	 */
+	public Object get(Object key) {
+		int index = indexOf(key);
+		return index < 0 ? null : values[index];
+	}
+
+	/**
+	 * Associate the specified value with the specified key in this table. If
+	 * the key already exists, the old value is replaced. The key and value
+	 * cannot be null.
+	 *
+	 * @param key the key to add
+	 * @param value the value to add
+	 * @return the old value associated with the specified key, null if the key
+	 *         did not exist
+	 */
+	public Object put(Object key, Object value) {
+		if (key == null || value == null) {
+			throw new NullPointerException();
+		}
+		int hash = hash(key);
+		int index = hash & mask;
+		Object candidate;
+		while ((candidate = keys[index]) != null) {
+			if (hashes[index] == hash && keyEquals(key, candidate)) {
+				Object result = values[index];
+				keys[index] = key; // important to avoid hanging onto keys that are equal but "old" -- see bug 30607
+				values[index] = value;
+				return result;
+			}
+			index = (index + 1) & mask;
+		}
+		keys[index] = key;
+		values[index] = value;
+		hashes[index] = hash;
+		if (++elementCount > keys.length >> 1) {
+			rehash();
+		}
+		return null;
+	}
+
+	/**
+	 * Remove the key/value pair with the specified key from this table.
+	 *
+	 * @param key the key to remove
+	 * @return the value associated with the specified key, null if the
+	 *         specified key did not exist
+	 */
+	public Object remove(Object key) {
+		int index = indexOf(key);
+		if (index < 0) {
+			return null;
+		}
+		Object result = values[index];
+		elementCount--;
+		// Shift the following entries of the probe sequence back into the
+		// gap, unless their home slot lies after the gap.
+		int gap = index;
+		int next = index;
+		while (true) {
+			next = (next + 1) & mask;
+			if (keys[next] == null) {
+				break;
+			}
+			int home = hashes[next] & mask;
+			if (((next - home) & mask) >= ((next - gap) & mask)) {
+				keys[gap] = keys[next];
+				values[gap] = values[next];
+				hashes[gap] = hashes[next];
+				gap = next;
+			}
+		}
+		keys[gap] = null;
+		values[gap] = null;
+		return result;
+	}
+
+	/**
+	 * Answers the number of key/value pairs in this table.
+	 *
+	 * @return the number of key/value pairs in this table
+	 */
+	public int size() {
+		return elementCount;
+	}
+
+	private int indexOf(Object key) {
+		int hash = hash(key);
+		int index = hash & mask;
+		Object candidate;
+		while ((candidate = keys[index]) != null) {
+			if (hashes[index] == hash && keyEquals(key, candidate)) {
+				return index;
+			}
+			index = (index + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Answers the hash code for the given key, spread over all bits so that
+	 * masking it with the table size gives well-distributed slots even for
+	 * poor hash codes.
+	 */
+	private int hash(Object key) {
+		int hash = comparer == null ? key.hashCode() : comparer.hashCode(key);
+		hash *= 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * Compares two keys for equality.
+	 */
+	private boolean keyEquals(Object a, Object b) {
+		if (comparer == null) {
+			return a.equals(b);
+		}
+		return comparer.equals(a, b);
+	}
+
+	private void allocate(int tableSize) {
+		keys = new Object[tableSize];
+		values = new Object[tableSize];
+		hashes = new int[tableSize];
+		mask = tableSize - 1;
+	}
+
+	private static int tableSizeFor(int capacity) {
+		int tableSize = MINIMUM_TABLE_SIZE;
+		while (tableSize < MAXIMUM_TABLE_SIZE && tableSize >> 1 < capacity) {
+			tableSize <<= 1;
+		}
+		return tableSize;
+	}
+
+	/**
+	 * Doubles the size of the table. The cached hash codes are reused, so the
+	 * element comparer is not consulted.
+	 */
+	private void rehash() {
+		if (keys.length == MAXIMUM_TABLE_SIZE) {
+			throw new IllegalStateException("Hashtable is full"); //$NON-NLS-1$
+		}
+		Object[] oldKeys = keys;
+		Object[] oldValues = values;
+		int[] oldHashes = hashes;
+		allocate(oldKeys.length << 1);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != null) {
+				int index = oldHashes[i] & mask;
+				while (keys[index] != null) {
+					index = (index + 1) & mask;
+				}
+				keys[index] = oldKeys[i];
+				values[index] = oldValues[i];
+				hashes[index] = oldHashes[i];
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		if (elementCount == 0) {
+			return "{}"; //$NON-NLS-1$
+		}
+		StringBuilder buffer = new StringBuilder();
+		buffer.append('{');
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != null) {
+				buffer.append(keys[i]);
+				buffer.append('=');
+				buffer.append(values[i]);
+				buffer.append(", "); //$NON-NLS-1$
+			}
+		}
+		// Remove the last ", "
+		buffer.setLength(buffer.length() - 2);
+		buffer.append('}');
+		return buffer.toString();
+	}
+}
@@ -157,11 +157,19 @@ public abstract class OwnerDrawLabelProvider extends CellLabelProvider {
 
 	@Override
 	public void update(ViewerCell cell) {
-		// Force a redraw
+		redraw(cell);
+	}
+
+	/**
+	 * Forces a redraw of the given cell.
+	 *
+	 * @param cell
+	 *            the cell
+	 */
+	static void redraw(ViewerCell cell) {
 		Rectangle cellBounds = cell.getBounds();
 		cell.getControl().redraw(cellBounds.x, cellBounds.y, cellBounds.width,
 				cellBounds.height, true);
-
 	}
 
 	/**
@@ -18,6 +18,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IStatus;
@@ -65,7 +66,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 * <code>Object</code>, value type: <code>Widget</code>, or <code>Widget[]</code>).
 	 * <code>null</code> means that the element map is disabled.
 	 */
-	private CustomHashtable elementMap;
+	private ElementHashtable elementMap;
 
 	/**
 	 * The comparer to use for comparing elements, or <code>null</code> to use
@@ -148,6 +149,33 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 */
 	private StructuredViewerInternals.AssociateListener associateListener;
 
+	/**
+	 * The executor used to compute the viewer contents in the background on
+	 * refresh, or <code>null</code> if refreshes are synchronous.
+	 *
+	 * @see #setBackgroundRefreshExecutor(Executor)
+	 */
+	private Executor backgroundRefreshExecutor;
+
+	/**
+	 * The background refresh whose result has not been applied yet, or
+	 * <code>null</code> if none.
+	 */
+	private BackgroundRefresh pendingBackgroundRefresh;
+
+	/**
+	 * Children computed by a background refresh, keyed by parent element
+	 * (value type: <code>Object[]</code>). Only set while the result of a
+	 * background refresh is being applied.
+	 */
+	private ElementHashtable precomputedChildren;
+
+	/**
+	 * Indicates whether the result of a background refresh is currently being
+	 * applied.
+	 */
+	private boolean applyingBackgroundRefresh;
+
 	/**
 	 * Empty array of widgets.
 	 */
@@ -588,7 +616,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 
 		if (InternalPolicy.DEBUG_LOG_EQUAL_VIEWER_ELEMENTS
 				&& elements.length > 1) {
-			CustomHashtable elementSet = newHashtable(elements.length * 2);
+			ElementHashtable elementSet = newHashtable(elements.length);
 			for (int i = 0; i < elements.length; i++) {
 				Object element = elements[i];
 				Object old = elementSet.put(element, element);
@@ -1081,6 +1109,10 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 * @return a sorted and filtered array of child elements
 	 */
 	protected Object[] getSortedChildren(Object parent) {
+		Object[] precomputed = getPrecomputedChildren(parent);
+		if (precomputed != null) {
+			return precomputed;
+		}
 		Object[] result = getFilteredChildren(parent);
 		if (sorter != null) {
 			// be sure we're not modifying the original array from the model
@@ -1384,13 +1416,13 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	/**
 	 * Returns a new hashtable using the given capacity and this viewer's element comparer.
 	 *
-	 * @param capacity the initial capacity of the hashtable
+	 * @param capacity the number of entries the hashtable can hold without rehashing
 	 * @return a new hashtable
 	 *
 	 * @since 3.0
 	 */
-	CustomHashtable newHashtable(int capacity) {
-		return new CustomHashtable(capacity, getComparer());
+	ElementHashtable newHashtable(int capacity) {
+		return new ElementHashtable(capacity, getComparer());
 	}
 
 	/**
@@ -1516,6 +1548,9 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 *            the element
 	 */
 	public void refresh(final Object element) {
+		if (scheduleBackgroundRefresh(element, true)) {
+			return;
+		}
 		preservingSelection(() -> internalRefresh(element));
 	}
 
@@ -1539,9 +1574,168 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 * @since 2.0
 	 */
 	public void refresh(final Object element, final boolean updateLabels) {
+		if (scheduleBackgroundRefresh(element, updateLabels)) {
+			return;
+		}
 		preservingSelection(() -> internalRefresh(element, updateLabels));
 	}
 
+	/**
+	 * Sets the executor used to compute the contents of this viewer in the
+	 * background when it is refreshed, or <code>null</code> to refresh
+	 * synchronously (the default).
+	 * <p>
+	 * When an executor is set, {@link #refresh(Object)} and
+	 * {@link #refresh(Object, boolean)} fetch the children from the content
+	 * provider, run them through this viewer's filters and sort them with this
+	 * viewer's comparator on the executor. Only the resulting update of the
+	 * items happens on the display thread. A refresh that is still being
+	 * computed is canceled when a newer one is requested, when the input
+	 * changes or when the viewer is disposed. Refreshes that cannot be
+	 * computed in the background (for example with lazy or tree path content
+	 * providers) are performed synchronously as before.
+	 * </p>
+	 * <p>
+	 * The content provider, the filters, the comparator and the label provider
+	 * (as far as it is used by the comparator) must be safe to call from a
+	 * background thread. Clients that also call structural update methods
+	 * like <code>add</code> or <code>remove</code> should be aware that a
+	 * pending refresh shows the model as it was when the refresh was
+	 * computed.
+	 * </p>
+	 *
+	 * @param executor
+	 *            the executor to compute refreshes on, or <code>null</code> to
+	 *            refresh synchronously
+	 * @since 3.12
+	 */
+	public void setBackgroundRefreshExecutor(Executor executor) {
+		this.backgroundRefreshExecutor = executor;
+		if (executor == null) {
+			cancelBackgroundRefresh();
+		}
+	}
+
+	/**
+	 * Returns the executor used to compute refreshes in the background, or
+	 * <code>null</code> if this viewer refreshes synchronously.
+	 *
+	 * @return the executor, or <code>null</code>
+	 * @see #setBackgroundRefreshExecutor(Executor)
+	 * @since 3.12
+	 */
+	public Executor getBackgroundRefreshExecutor() {
+		return backgroundRefreshExecutor;
+	}
+
+	/**
+	 * Returns the parent elements whose children have to be computed to
+	 * refresh the given element in the background, or <code>null</code> if a
+	 * refresh of the given element cannot be computed in the background.
+	 * <p>
+	 * The default implementation supports refreshing the root element of
+	 * viewers with an {@link IStructuredContentProvider}.
+	 * </p>
+	 *
+	 * @param element
+	 *            the element to refresh
+	 * @return the parent elements, or <code>null</code>
+	 */
+	Object[] getBackgroundRefreshParents(Object element) {
+		Object root = getRoot();
+		if (root == null || !equals(element, root)
+				|| !(getContentProvider() instanceof IStructuredContentProvider)) {
+			return null;
+		}
+		return new Object[] { root };
+	}
+
+	/**
+	 * Schedules a background refresh of the given element if background
+	 * refresh is enabled and possible for the element. Cancels any refresh
+	 * that is still pending.
+	 *
+	 * @param element
+	 *            the element to refresh
+	 * @param updateLabels
+	 *            whether labels of existing elements are to be updated
+	 * @return <code>true</code> if the refresh was scheduled, and
+	 *         <code>false</code> if it has to be performed synchronously
+	 */
+	private boolean scheduleBackgroundRefresh(Object element, boolean updateLabels) {
+		if (backgroundRefreshExecutor == null || applyingBackgroundRefresh
+				|| associateListener != null) {
+			return false;
+		}
+		Control control = getControl();
+		if (control == null || control.isDisposed()) {
+			return false;
+		}
+		Object[] parents = getBackgroundRefreshParents(element);
+		if (parents == null) {
+			return false;
+		}
+		cancelBackgroundRefresh();
+		BackgroundRefresh backgroundRefresh = new BackgroundRefresh(this, element, updateLabels, parents);
+		pendingBackgroundRefresh = backgroundRefresh;
+		backgroundRefreshExecutor.execute(backgroundRefresh);
+		return true;
+	}
+
+	/**
+	 * Cancels the pending background refresh, if any.
+	 */
+	private void cancelBackgroundRefresh() {
+		if (pendingBackgroundRefresh != null) {
+			pendingBackgroundRefresh.cancel();
+			pendingBackgroundRefresh = null;
+		}
+	}
+
+	/**
+	 * Applies the result of a background refresh. Called on the display
+	 * thread once the computation has completed. Does nothing if the refresh
+	 * has been superseded in the meantime.
+	 *
+	 * @param backgroundRefresh
+	 *            the completed background refresh
+	 */
+	void applyBackgroundRefresh(BackgroundRefresh backgroundRefresh) {
+		if (backgroundRefresh != pendingBackgroundRefresh) {
+			return;
+		}
+		pendingBackgroundRefresh = null;
+		Control control = getControl();
+		if (control == null || control.isDisposed()) {
+			return;
+		}
+		precomputedChildren = newHashtable(ElementHashtable.DEFAULT_CAPACITY);
+		backgroundRefresh.collectSortedChildren(precomputedChildren);
+		applyingBackgroundRefresh = true;
+		try {
+			refresh(backgroundRefresh.getElement(), backgroundRefresh.isUpdateLabels());
+		} finally {
+			applyingBackgroundRefresh = false;
+			precomputedChildren = null;
+		}
+	}
+
+	/**
+	 * Returns the children of the given parent computed by the background
+	 * refresh that is currently being applied, or <code>null</code> if there
+	 * are none.
+	 *
+	 * @param parent
+	 *            the parent element
+	 * @return the sorted and filtered children, or <code>null</code>
+	 */
+	Object[] getPrecomputedChildren(Object parent) {
+		if (precomputedChildren == null || parent == null) {
+			return null;
+		}
+		return (Object[]) precomputedChildren.get(parent);
+	}
+
 	/**
 	 *
 	 * Refreshes the given item with the given element. Calls
@@ -1691,6 +1885,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		try {
 			//		fInChange= true;
 
+			cancelBackgroundRefresh();
 			unmapAllElements();
 
 			super.setInput(input);
@@ -1827,7 +2022,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		Assert.isTrue(getInput() == null,
 				"Can only enable the hash look up before input has been set");//$NON-NLS-1$
 		if (enable) {
-			elementMap = newHashtable(CustomHashtable.DEFAULT_CAPACITY);
+			elementMap = newHashtable(ElementHashtable.DEFAULT_CAPACITY);
 		} else {
 			elementMap = null;
 		}
@@ -1845,7 +2040,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	public void setComparer(IElementComparer comparer) {
 		this.comparer = comparer;
 		if (elementMap != null) {
-			elementMap = new CustomHashtable(elementMap, comparer);
+			elementMap = new ElementHashtable(elementMap, comparer);
 		}
 	}
 
@@ -1914,7 +2109,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 */
 	protected void unmapAllElements() {
 		if (elementMap != null) {
-			elementMap = newHashtable(CustomHashtable.DEFAULT_CAPACITY);
+			elementMap = newHashtable(ElementHashtable.DEFAULT_CAPACITY);
 		}
 	}
 
@@ -2328,6 +2523,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	@Override
 	protected void handleDispose(DisposeEvent event) {
 		super.handleDispose(event);
+		cancelBackgroundRefresh();
 		sorter = null;
 		comparer = null;
 		if (filters != null)
@@ -408,11 +408,11 @@ public class TableViewer extends AbstractTableViewer {
 		// deselect any items that are being removed, see bug 97786
 		boolean deselectedItems = false;
 		Object elementToBeRemoved = null;
-		CustomHashtable elementsToBeRemoved = null;
+		ElementHashtable elementsToBeRemoved = null;
 		if (elements.length == 1) {
 			elementToBeRemoved = elements[0];
 		} else {
-			elementsToBeRemoved = new CustomHashtable(getComparer());
+			elementsToBeRemoved = new ElementHashtable(getComparer());
 			for (Object element : elements) {
 				elementsToBeRemoved.put(element, element);
 			}
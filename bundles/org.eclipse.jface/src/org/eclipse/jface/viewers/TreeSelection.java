@@ -35,7 +35,7 @@ public class TreeSelection extends StructuredSelection implements ITreeSelection
 	 */
 
 	private TreePath[] paths = null;
-	private CustomHashtable element2TreePaths = null;
+	private ElementHashtable element2TreePaths = null;
 
 	/**
 	 * The canonical empty selection. This selection should be used instead of
@@ -48,12 +48,12 @@ public class TreeSelection extends StructuredSelection implements ITreeSelection
 	private static class InitializeData {
 		List selection;
 		TreePath[] paths;
-		CustomHashtable element2TreePaths;
+		ElementHashtable element2TreePaths;
 
 		private InitializeData(TreePath[] paths, IElementComparer comparer) {
 			this.paths= new TreePath[paths.length];
 			System.arraycopy(paths, 0, this.paths, 0, paths.length);
-			element2TreePaths = new CustomHashtable(comparer);
+			element2TreePaths = new ElementHashtable(comparer);
 			int size = paths.length;
 			selection = new ArrayList(size);
 			for (int i = 0; i < size; i++) {
@@ -93,6 +93,9 @@ public abstract class ViewerColumn {
 		}
 
 		this.labelProvider = labelProvider;
+		if (viewer != null) {
+			viewer.clearLabelCache();
+		}
 
 		if (registerListener) {
 			this.labelProvider.initialize(viewer, this);
@@ -138,7 +141,18 @@ public abstract class ViewerColumn {
 			Assert.isTrue(false, "Column " + cell.getColumnIndex() + //$NON-NLS-1$
 			" has no label provider."); //$NON-NLS-1$
 		}
+		CellLabelCache labelCache = viewer.getLabelCache();
+		if (labelCache != null && labelCache.apply(cell)) {
+			if (labelProvider instanceof OwnerDrawLabelProvider) {
+				// the style ranges may have changed without the item noticing
+				OwnerDrawLabelProvider.redraw(cell);
+			}
+			return;
+		}
 		labelProvider.update(cell);
+		if (labelCache != null) {
+			labelCache.store(cell);
+		}
 	}
 
 	/**
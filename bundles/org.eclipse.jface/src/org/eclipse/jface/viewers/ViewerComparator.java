@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2015 IBM Corporation and others.
+ * Copyright (c) 2006, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,11 +12,18 @@
 
 package org.eclipse.jface.viewers;
 
+import java.text.CollationKey;
+import java.text.Collator;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.util.ISortKeyComparator;
 import org.eclipse.jface.util.Policy;
 
 /**
@@ -37,6 +44,12 @@ import org.eclipse.jface.util.Policy;
  * categorization; and they may override the <code>compare</code> methods
  * to provide a totally different way of sorting elements.
  * </p>
+ * <p>
+ * Clients sorting large numbers of elements with the default
+ * <code>compare</code> method may enable sort keys with
+ * {@link #setSortKeysEnabled(boolean)}, so that the category, label and
+ * collation key of each element are computed only once per sort.
+ * </p>
  * @see IStructuredContentProvider
  * @see StructuredViewer
  *
@@ -48,6 +61,14 @@ public class ViewerComparator {
 	 */
 	private Comparator comparator;
 
+	/**
+	 * The minimum number of elements for which sort keys are computed and
+	 * sorted in parallel.
+	 */
+	private static final int PARALLEL_THRESHOLD = 10000;
+
+	private boolean sortKeysEnabled;
+
 	/**
      * Creates a new {@link ViewerComparator}, which uses the default comparator
      * to sort strings.
@@ -170,12 +191,52 @@ public class ViewerComparator {
         return false;
     }
 
+	/**
+	 * Sets whether <code>sort</code> computes the category and the label of
+	 * each element only once, instead of calling <code>compare</code> for
+	 * every comparison. If the comparator used to sort strings is a
+	 * {@link Collator}, the labels are converted to {@link CollationKey}s; if
+	 * it is an {@link ISortKeyComparator}, they are converted to its sort keys.
+	 * In both cases large arrays are keyed and sorted in parallel. Labels
+	 * sorted with any other comparator are compared sequentially, as strings.
+	 * <p>
+	 * Sort keys must only be enabled if <code>compare</code> is not overridden,
+	 * or if it orders elements exactly like the default implementation does.
+	 * The label provider is only called from the thread that calls
+	 * <code>sort</code>.
+	 * </p>
+	 *
+	 * @param enabled
+	 *            <code>true</code> to sort using sort keys, <code>false</code>
+	 *            to call <code>compare</code> for every comparison
+	 * @see #isSortKeysEnabled()
+	 * @since 3.12
+	 */
+	public void setSortKeysEnabled(boolean enabled) {
+		this.sortKeysEnabled = enabled;
+	}
+
+	/**
+	 * Returns whether <code>sort</code> computes the category and the label of
+	 * each element only once.
+	 *
+	 * @return <code>true</code> if sort keys are enabled, <code>false</code>
+	 *         otherwise
+	 * @see #setSortKeysEnabled(boolean)
+	 * @since 3.12
+	 */
+	public boolean isSortKeysEnabled() {
+		return sortKeysEnabled;
+	}
+
     /**
      * Sorts the given elements in-place, modifying the given array.
      * <p>
      * The default implementation of this method uses the
      * java.util.Arrays#sort algorithm on the given array,
-     * calling <code>compare</code> to compare elements.
+     * calling <code>compare</code> to compare elements. If sort keys are
+     * enabled, <code>compare</code> is not called; the elements are ordered
+     * by their precomputed categories and labels instead.
      * </p>
      * <p>
      * Subclasses may reimplement this method to provide a more optimized implementation.
@@ -185,6 +246,10 @@ public class ViewerComparator {
      * @param elements the elements to sort
      */
 	public void sort(final Viewer viewer, Object[] elements) {
+		if (sortKeysEnabled) {
+			sortWithKeys(viewer, elements);
+			return;
+		}
 		try {
 			Arrays.sort(elements, (a, b) -> ViewerComparator.this.compare(viewer, a, b));
 		} catch (IllegalArgumentException e) {
@@ -200,4 +265,85 @@ public class ViewerComparator {
 			throw e;
 		}
 	}
+
+	private void sortWithKeys(Viewer viewer, Object[] elements) {
+		SortKey[] keys = new SortKey[elements.length];
+		for (int i = 0; i < elements.length; i++) {
+			keys[i] = new SortKey(elements[i], category(elements[i]), getLabel(viewer, elements[i]));
+		}
+		Comparator stringComparator = getComparator();
+		boolean parallel = keys.length >= PARALLEL_THRESHOLD;
+		boolean sortInParallel = parallel;
+		Comparator<Object> keyComparator;
+		if (stringComparator instanceof Collator) {
+			Collator collator = (Collator) stringComparator;
+			// Collators are not thread safe (and RuleBasedCollator serializes
+			// its callers), so every chunk gets its own copy.
+			computeSortKeys(keys, parallel, () -> {
+				Collator chunkCollator = parallel ? (Collator) collator.clone() : collator;
+				return chunkCollator::getCollationKey;
+			});
+			keyComparator = (a, b) -> ((CollationKey) a).compareTo((CollationKey) b);
+		} else if (stringComparator instanceof ISortKeyComparator) {
+			ISortKeyComparator sortKeyComparator = (ISortKeyComparator) stringComparator;
+			computeSortKeys(keys, parallel, () -> sortKeyComparator::getSortKey);
+			keyComparator = sortKeyComparator::compareSortKeys;
+		} else {
+			// nothing is known about the thread safety of other comparators
+			sortInParallel = false;
+			for (SortKey key : keys) {
+				key.sortKey = key.label;
+			}
+			keyComparator = stringComparator;
+		}
+		Comparator<SortKey> sortKeyComparator = (a, b) -> {
+			if (a.category != b.category) {
+				return a.category - b.category;
+			}
+			return keyComparator.compare(a.sortKey, b.sortKey);
+		};
+		if (sortInParallel) {
+			Arrays.parallelSort(keys, sortKeyComparator);
+		} else {
+			Arrays.sort(keys, sortKeyComparator);
+		}
+		for (int i = 0; i < keys.length; i++) {
+			elements[i] = keys[i].element;
+		}
+	}
+
+	/**
+	 * Computes the sort keys of the labels, in parallel chunks if requested.
+	 * The supplier is called once per chunk for the function computing the
+	 * keys of that chunk.
+	 */
+	private static void computeSortKeys(SortKey[] keys, boolean parallel,
+			Supplier<Function<String, Object>> keyFunctions) {
+		int chunks = parallel ? Math.max(1, ForkJoinPool.getCommonPoolParallelism()) : 1;
+		int chunkSize = (keys.length + chunks - 1) / chunks;
+		IntStream range = IntStream.range(0, chunks);
+		(parallel ? range.parallel() : range).forEach(chunk -> {
+			Function<String, Object> keyFunction = keyFunctions.get();
+			int end = Math.min(keys.length, (chunk + 1) * chunkSize);
+			for (int i = chunk * chunkSize; i < end; i++) {
+				keys[i].sortKey = keyFunction.apply(keys[i].label);
+			}
+		});
+	}
+
+	/**
+	 * The precomputed category, label and sort key of an element.
+	 */
+	private static final class SortKey {
+		final Object element;
+		final int category;
+		final String label;
+		Object sortKey;
+
+		SortKey(Object element, int category, String label) {
+			this.element = element;
+			this.category = category;
+			this.label = label;
+		}
+	}
 }
@@ -12,19 +12,30 @@
 package org.eclipse.jface.viewers;
 
 import java.util.ArrayList;
+import java.util.stream.IntStream;
 
 /**
  * A viewer filter is used by a structured viewer to extract a subset of
  * elements provided by its content provider.
  * <p>
  * Subclasses must implement the <code>select</code> method and may implement
- * the <code>isFilterProperty</code> method.
+ * the <code>isFilterProperty</code> method. Subclasses whose
+ * <code>select</code> method can be called from several threads at once may
+ * override <code>isSelectThreadSafe</code> to have large arrays filtered in
+ * parallel.
  * </p>
  *
  * @see IStructuredContentProvider
  * @see StructuredViewer
  */
 public abstract class ViewerFilter {
+
+	/**
+	 * The minimum number of elements that are filtered in parallel if
+	 * <code>select</code> is thread safe.
+	 */
+	private static final int PARALLEL_THRESHOLD = 10000;
+
 	/**
 	 * Creates a new viewer filter.
 	 */
@@ -37,7 +48,9 @@ public abstract class ViewerFilter {
 	 * <p>
 	 * The default implementation of this method calls <code>select</code> on
 	 * each element in the array, and returns only those elements for which
-	 * <code>select</code> returns <code>true</code>.
+	 * <code>select</code> returns <code>true</code>. If
+	 * {@link #isSelectThreadSafe()} returns <code>true</code>, large arrays
+	 * are filtered in parallel; the order of the elements is preserved.
 	 * </p>
 	 *
 	 * @param viewer
@@ -50,6 +63,9 @@ public abstract class ViewerFilter {
 	 */
 	public Object[] filter(Viewer viewer, Object parent, Object[] elements) {
 		int size = elements.length;
+		if (size >= PARALLEL_THRESHOLD && isSelectThreadSafe()) {
+			return filterInParallel(viewer, parent, elements);
+		}
 		ArrayList<Object> out = new ArrayList<>(size);
 		for (int i = 0; i < size; ++i) {
 			Object element = elements[i];
@@ -60,6 +76,19 @@ public abstract class ViewerFilter {
 		return out.toArray();
 	}
 
+	private Object[] filterInParallel(Viewer viewer, Object parent, Object[] elements) {
+		boolean[] selected = new boolean[elements.length];
+		IntStream.range(0, elements.length).parallel()
+				.forEach(i -> selected[i] = select(viewer, parent, elements[i]));
+		ArrayList<Object> out = new ArrayList<>(elements.length);
+		for (int i = 0; i < elements.length; ++i) {
+			if (selected[i]) {
+				out.add(elements[i]);
+			}
+		}
+		return out.toArray();
+	}
+
 	/**
 	 * Filters the given elements for the given viewer. The input array is not
 	 * modified.
@@ -101,6 +130,24 @@ public abstract class ViewerFilter {
 		return false;
 	}
 
+	/**
+	 * Returns whether <code>select</code> may be called from several threads
+	 * at once, so that <code>filter</code> can filter large arrays in
+	 * parallel.
+	 * <p>
+	 * The default implementation of this method returns <code>false</code>.
+	 * Subclasses may reimplement if <code>select</code> neither modifies
+	 * shared state nor accesses widgets.
+	 * </p>
+	 *
+	 * @return <code>true</code> if <code>select</code> is thread safe, and
+	 *         <code>false</code> otherwise
+	 * @since 3.12
+	 */
+	protected boolean isSelectThreadSafe() {
+		return false;
+	}
+
 	/**
 	 * Returns whether the given element makes it through this filter.
 	 *
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,7 +11,9 @@
 package org.eclipse.ui.internal.views.markers;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IStatus;
@@ -49,7 +51,6 @@ public class CachedMarkerBuilder {
 	private Markers markers;
 	private Markers markersClone;
 
-	final Object MARKER_INCREMENTAL_UPDATE_FAMILY = new Object();
 	final Object CACHE_UPDATE_FAMILY = new Object();
 	final Object MARKERSVIEW_UPDATE_JOB_FAMILY;
 
@@ -128,11 +129,7 @@ public class CachedMarkerBuilder {
 			PlatformUI.getWorkbench().getWorkingSetManager().removePropertyChangeListener(getWorkingSetListener());
 		}
 
-		if (isIncremental()) {
-			if (incrementJob != null) {
-				incrementJob.clearEntries();
-			}
-		}
+		requestFullUpdate();
 	}
 
 	/**
@@ -297,6 +294,7 @@ public class CachedMarkerBuilder {
 	 *
 	 */
 	void scheduleUpdate() {
+		requestFullUpdate();
 		if (active) {
 			scheduler.scheduleUpdate(MarkerUpdateScheduler.SHORT_DELAY,true);
 		}
@@ -307,6 +305,7 @@ public class CachedMarkerBuilder {
 	 *
 	 */
 	void scheduleUpdate(long delay) {
+		requestFullUpdate();
 		if (active) {
 			scheduler.scheduleUpdate(delay,true);
 		}
@@ -451,10 +450,6 @@ public class CachedMarkerBuilder {
 				// ensure cancellation before calling the method
 				// updateJob.cancel();
 			} else {
-				/*
-				 * updateJob = isIncremental() ? new IncrementUpdateJob(this):
-				 * new MarkerUpdateJob(this);
-				 */
 				updateJob = new MarkerUpdateJob(this);
 				updateJob.setPriority(Job.LONG);
 				updateJob.setSystem(true);
@@ -597,20 +592,30 @@ public class CachedMarkerBuilder {
 	}
 
 ///////	<Incremental update code>///////
-		private IncrementUpdateJob incrementJob;
 	/**
-	 * Checks whether the builder should perform incrementally Note : Incremental
-	 * updating method is NOT used and tested yet but left out for further
-	 * investigation(*).
+	 * The most marker changes applied to the markers incrementally. Beyond it
+	 * the markers are collected again.
+	 */
+	static final int INCREMENTAL_UPDATE_LIMIT = 10000;
+
+	private final Object pendingUpdatesLock = new Object();
+
+	// the marker changes received since the markers were last updated
+	private List<MarkerUpdate> pendingUpdates = new ArrayList<>();
+
+	private int pendingChangeCount;
+
+	// whether the markers have to be collected again
+	private boolean fullUpdateRequired = true;
+
+	/**
+	 * Checks whether the builder should update the markers incrementally from
+	 * the marker changes.
 	 *
-	 * @return Returns true if we should collect markers incrementally.
+	 * @return Returns true if we should update markers incrementally.
 	 */
 	boolean isIncremental() {
-		/*
-		 * We do not update incrementally. We have
-		 * code for further investigation(*) for this anyway.
-		 */
-		return false;
+		return true;
 	}
 
 	/**
@@ -635,16 +640,89 @@ public class CachedMarkerBuilder {
 	}
 
 	/**
-	 * Handles an incremental update
+	 * Handles an incremental update. The changes are applied by the next
+	 * update job, unless too many changes are pending.
+	 *
 	 * @param update
 	 */
 	void incrementalUpdate(MarkerUpdate update) {
-		synchronized (getUpdateScheduler().getSchedulingLock()) {
-			if (incrementJob == null) {
-				scheduleUpdateJob(MarkerUpdateScheduler.SHORT_DELAY, true);
+		synchronized (pendingUpdatesLock) {
+			if (fullUpdateRequired) {
+				return;
+			}
+			pendingChangeCount += update.added.size() + update.removed.size() + update.changed.size();
+			if (pendingChangeCount > INCREMENTAL_UPDATE_LIMIT) {
+				requestFullUpdate();
+				return;
+			}
+			pendingUpdates.add(update);
+		}
+	}
+
+	/**
+	 * Make the next update job collect the markers again rather than apply
+	 * the pending marker changes.
+	 */
+	void requestFullUpdate() {
+		synchronized (pendingUpdatesLock) {
+			fullUpdateRequired = true;
+			pendingUpdates = new ArrayList<>();
+			pendingChangeCount = 0;
+		}
+	}
+
+	/**
+	 * Called before the markers are collected again. Changes received from
+	 * now on are applied to the collected markers.
+	 */
+	void startFullUpdate() {
+		synchronized (pendingUpdatesLock) {
+			fullUpdateRequired = false;
+			pendingUpdates = new ArrayList<>();
+			pendingChangeCount = 0;
+		}
+	}
+
+	/**
+	 * Remove and return the pending marker changes.
+	 *
+	 * @return the changes in the order they were received, or
+	 *         <code>null</code> if the markers have to be collected again
+	 */
+	List<MarkerUpdate> takePendingUpdates() {
+		synchronized (pendingUpdatesLock) {
+			if (fullUpdateRequired) {
+				return null;
+			}
+			List<MarkerUpdate> updates = pendingUpdates;
+			pendingUpdates = new ArrayList<>();
+			pendingChangeCount = 0;
+			return updates;
+		}
+	}
+
+	/**
+	 * Put back marker changes that could not be applied, ahead of the
+	 * changes received since they were taken.
+	 *
+	 * @param updates
+	 */
+	void requeuePendingUpdates(List<MarkerUpdate> updates) {
+		synchronized (pendingUpdatesLock) {
+			if (fullUpdateRequired) {
+				return;
+			}
+			int count = 0;
+			for (MarkerUpdate update : updates) {
+				count += update.added.size() + update.removed.size() + update.changed.size();
+			}
+			pendingChangeCount += count;
+			if (pendingChangeCount > INCREMENTAL_UPDATE_LIMIT) {
+				requestFullUpdate();
+				return;
 			}
+			pendingUpdates.addAll(0, updates);
 		}
-		incrementJob.addUpdate(update);
 	}
 ///////	</Incremental update code>///////
 
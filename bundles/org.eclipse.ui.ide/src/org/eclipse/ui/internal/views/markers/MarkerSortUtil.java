@@ -363,6 +363,58 @@ public class MarkerSortUtil {
 		}
 	}
 
+	/**
+	 * Merges entries into a sorted array of entries, without sorting the array
+	 * again. The additions are sorted, then each one is put at the position
+	 * found by a binary search in the sorted array, after any equal entry.
+	 * Only O(k log n) comparisons are made for k additions to n entries.
+	 *
+	 * @param sorted
+	 *            the sorted entries, left unchanged
+	 * @param additions
+	 *            the entries to add, sorted in place
+	 * @param comparator
+	 *            the comparator the entries are sorted with
+	 * @return a new sorted array holding the entries of both arrays
+	 */
+	public static MarkerEntry[] mergeSorted(MarkerEntry[] sorted,
+			MarkerEntry[] additions, Comparator<MarkerItem> comparator) {
+		Arrays.sort(additions, comparator);
+		MarkerEntry[] result = new MarkerEntry[sorted.length + additions.length];
+		int from = 0;
+		int to = 0;
+		for (int i = 0; i < additions.length; i++) {
+			int index = upperBound(sorted, from, sorted.length, additions[i],
+					comparator);
+			System.arraycopy(sorted, from, result, to, index - from);
+			to += index - from;
+			from = index;
+			result[to++] = additions[i];
+			additions[i].clearCache();
+		}
+		System.arraycopy(sorted, from, result, to, sorted.length - from);
+		return result;
+	}
+
+	/**
+	 * Return the first index in [low,high) of an entry that sorts after entry.
+	 */
+	private static int upperBound(MarkerEntry[] sorted, int low, int high,
+			MarkerEntry entry, Comparator<MarkerItem> comparator) {
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			int value = comparator.compare(sorted[mid], entry);
+			// keep the caches small as in the sort
+			sorted[mid].clearCache();
+			if (value <= 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
 	/**
 	 * @param fArray1
 	 * @param comparator
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 IBM Corporation and others.
+ * Copyright (c) 2015, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,6 +13,7 @@ package org.eclipse.ui.internal.views.markers;
 
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -66,18 +67,30 @@ class MarkerUpdateJob extends Job {
 		// builder.getUpdateScheduler().indicateStatus(
 		// MarkerMessages.MarkerView_searching_for_markers, false);
 
-		Collection<MarkerEntry> markerEntries = new LinkedList<>();
-		//this is not incremental clean every time
-		clean = !clean(markerEntries, monitor);
-		if (monitor.isCanceled()) {
-			return;
-		}
-		// builder.getUpdateScheduler().indicateStatus(
-		// MarkerMessages.MarkerView_processUpdates, false);
-
-		monitor.setTaskName(MarkerMessages.MarkerView_processUpdates);
-		if (!processMarkerEntries(markerEntries, monitor)) {
-			return;
+		if (!applyPendingUpdates(monitor)) {
+			if (monitor.isCanceled()) {
+				return;
+			}
+			// changes received while collecting are applied next time
+			builder.startFullUpdate();
+			Collection<MarkerEntry> markerEntries = new LinkedList<>();
+			clean = !clean(markerEntries, monitor);
+			if (monitor.isCanceled()) {
+				builder.requestFullUpdate();
+				return;
+			}
+			if (clean) {
+				// collecting failed, do not rely on the result
+				builder.requestFullUpdate();
+			}
+			// builder.getUpdateScheduler().indicateStatus(
+			// MarkerMessages.MarkerView_processUpdates, false);
+
+			monitor.setTaskName(MarkerMessages.MarkerView_processUpdates);
+			if (!processMarkerEntries(markerEntries, monitor)) {
+				builder.requestFullUpdate();
+				return;
+			}
 		}
 		if (monitor.isCanceled()) {
 			return;
@@ -90,6 +103,29 @@ class MarkerUpdateJob extends Job {
 		updateDone();
 	}
 
+	/**
+	 * Apply the marker changes received since the last update to the sorted
+	 * markers, instead of collecting all the markers again.
+	 *
+	 * @param monitor
+	 * @return <code>false</code> if the markers have to be collected again or
+	 *         the monitor was canceled
+	 */
+	boolean applyPendingUpdates(IProgressMonitor monitor) {
+		List<MarkerUpdate> updates = builder.takePendingUpdates();
+		if (updates == null) {
+			return false;
+		}
+		monitor.setTaskName(MarkerMessages.MarkerView_processUpdates);
+		if (builder.getMarkers().applyUpdates(updates, monitor)) {
+			return true;
+		}
+		if (monitor.isCanceled()) {
+			builder.requeuePendingUpdates(updates);
+		}
+		return false;
+	}
+
 	/**
 	 * Capture the current time into as lastupdate time
 	 */
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 IBM Corporation and others.
+ * Copyright (c) 2009, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,6 +17,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -55,6 +56,26 @@ class Markers {
 	private Map<IMarker, MarkerEntry> markerToEntryMap;
 	private Integer[] markerCounts;
 
+	// the number of entries sorted at the start of each category, or of all
+	// the entries if they are not grouped, null if they are not sorted; the
+	// sorted entries sort before the others. Incremental updates rely on these
+	// and on the group the entries were sorted into.
+	private int[] sortedCounts;
+	private MarkerGroup groupedBy;
+
+	/**
+	 * Entries of which the first ones are sorted and sort before the others.
+	 */
+	private static class PartiallySorted {
+		final MarkerEntry[] entries;
+		final int sortedCount;
+
+		PartiallySorted(MarkerEntry[] entries, int sortedCount) {
+			this.entries = entries;
+			this.sortedCount = sortedCount;
+		}
+	}
+
 	Markers(CachedMarkerBuilder builder) {
 		this.builder = builder;
 		inChange = false;
@@ -74,6 +95,7 @@ class Markers {
 		boolean initialVal = inChange;
 		try {
 			inChange = true;
+			sortedCounts = null;
 			if (markerToEntryMap != null) {
 				markerToEntryMap.clear();
 				markerToEntryMap = null;
@@ -82,6 +104,8 @@ class Markers {
 			if (markerEntries.size() == 0) {
 				categories = EMPTY_CATEGORY_ARRAY;
 				markerEntryArray = EMPTY_ENTRY_ARRAY;
+				sortedCounts = sortAndGroup ? new int[builder.isShowingHierarchy() ? 0 : 1] : null;
+				groupedBy = builder.getCategoryGroup();
 				return true;
 			}
 			if (monitor.isCanceled()) {
@@ -117,6 +141,7 @@ class Markers {
 		try {
 			inChange = true;
 			// Sort by Category first
+			groupedBy = builder.getCategoryGroup();
 			if (builder.isShowingHierarchy()) {
 				MarkerCategory[] markerCategories = groupIntoCategories(monitor, markerEntryArray);
 				categories = markerCategories;
@@ -145,8 +170,11 @@ class Markers {
 		boolean initialVal = inChange;
 		try {
 			inChange = true;
+			sortedCounts = null;
+			int[] counts;
 			if (builder.isShowingHierarchy()) {
 				Comparator<MarkerItem> comparator = builder.getComparator().getFieldsComparator();
+				counts = new int[categories.length];
 				for (int i = 0; i < categories.length; i++) {
 					if (monitor.isCanceled()) {
 						return false;
@@ -156,6 +184,7 @@ class Markers {
 					category.children = null; // reset cached children
 					int avaliable = category.end - category.start + 1;
 					int effLimit = getShowingLimit(avaliable);
+					counts[i] = effLimit >= avaliable - 1 ? avaliable : effLimit;
 					MarkerSortUtil.sortStartingKElement(markerEntryArray,
 							comparator, category.start, category.end, effLimit,
 							monitor);
@@ -166,12 +195,14 @@ class Markers {
 				}
 				int avaialble = markerEntryArray.length - 1;
 				int effLimit = getShowingLimit(avaialble);
+				counts = new int[] { effLimit >= avaialble ? markerEntryArray.length : effLimit };
 				MarkerSortUtil.sortStartingKElement(markerEntryArray,
 						builder.getComparator(), effLimit, monitor);
 			}
 			if (monitor.isCanceled()) {
 				return false;
 			}
+			sortedCounts = counts;
 			monitor.worked(50);
 			return true;
 		} finally {
@@ -280,6 +311,245 @@ class Markers {
 		return result;
 	}
 
+	/**
+	 * Apply marker changes to the sorted and grouped entries. The entries of
+	 * removed and changed markers are dropped, the entries of added and
+	 * changed markers that are selected by the filters are merged into the
+	 * sorted entries of their category, or appended to its unsorted entries
+	 * if they sort after the sorted ones because of the marker limits. Nothing
+	 * is grouped again, and a category is only sorted again if it has fewer
+	 * sorted entries than it shows.
+	 * <p>
+	 * New entry and category arrays are built rather than adjusting the
+	 * existing ones in place, as the clones handed to the view share them.
+	 * This copies the n entries, but only compares O(k log n) times for k
+	 * changes, where collecting the markers again groups and sorts them all.
+	 * </p>
+	 *
+	 * @param updates
+	 *            the changes in the order they were received
+	 * @param monitor
+	 * @return <code>false</code> if the entries are left unchanged, either
+	 *         because they are not sorted or grouped differently and have to
+	 *         be collected again, or because the monitor was canceled
+	 */
+	synchronized boolean applyUpdates(Collection<MarkerUpdate> updates, IProgressMonitor monitor) {
+		if (sortedCounts == null || groupedBy != builder.getCategoryGroup()
+				|| sortedCounts.length != (builder.isShowingHierarchy() ? categories.length : 1)) {
+			return false;
+		}
+		boolean initialVal = inChange;
+		try {
+			inChange = true;
+			// the last change of each marker, null for a removal
+			Map<IMarker, MarkerEntry> changes = new LinkedHashMap<>();
+			for (MarkerUpdate update : updates) {
+				for (MarkerEntry entry : update.removed) {
+					changes.put(entry.getMarker(), null);
+				}
+				for (MarkerEntry entry : update.changed) {
+					changes.put(entry.getMarker(), entry);
+				}
+				for (MarkerEntry entry : update.added) {
+					changes.put(entry.getMarker(), entry);
+				}
+			}
+			if (changes.isEmpty()) {
+				return true;
+			}
+
+			MarkerContentGenerator generator = builder.getGenerator();
+			List<MarkerEntry> additions = new ArrayList<>();
+			for (MarkerEntry entry : changes.values()) {
+				if (monitor.isCanceled()) {
+					return false;
+				}
+				if (entry != null && entry.getMarker().exists() && generator.select(entry)) {
+					additions.add(entry);
+				}
+			}
+
+			MarkerEntry[] newEntries;
+			MarkerCategory[] newCategories;
+			int[] newSortedCounts;
+			if (builder.isShowingHierarchy()) {
+				MarkerGroup group = builder.getCategoryGroup();
+				TreeMap<MarkerGroupingEntry, PartiallySorted> kept = new TreeMap<>(group.getEntriesComparator());
+				for (int i = 0; i < categories.length; i++) {
+					PartiallySorted entries = keptEntries(categories[i].start, categories[i].end,
+							sortedCounts[i], changes);
+					if (entries.entries.length == 0) {
+						continue;
+					}
+					// the group of unchanged markers is still the one of their
+					// category
+					MarkerGroupingEntry key = findGroupValue(group, entries.entries[0]);
+					if (key == null || kept.containsKey(key)) {
+						return false;
+					}
+					kept.put(key, entries);
+				}
+				TreeMap<MarkerGroupingEntry, List<MarkerEntry>> added = new TreeMap<>(group.getEntriesComparator());
+				for (MarkerEntry entry : additions) {
+					MarkerGroupingEntry key = findGroupValue(group, entry);
+					if (key == null) {
+						continue; // skip stale markers
+					}
+					List<MarkerEntry> list = added.get(key);
+					if (list == null) {
+						list = new ArrayList<>();
+						added.put(key, list);
+					}
+					list.add(entry);
+					if (!kept.containsKey(key)) {
+						kept.put(key, new PartiallySorted(EMPTY_ENTRY_ARRAY, 0));
+					}
+				}
+
+				// merge category by category, in the order of the groups
+				Comparator<MarkerItem> comparator = builder.getComparator().getFieldsComparator();
+				List<PartiallySorted> merged = new ArrayList<>(kept.size());
+				int size = 0;
+				for (Map.Entry<MarkerGroupingEntry, PartiallySorted> category : kept.entrySet()) {
+					if (monitor.isCanceled()) {
+						return false;
+					}
+					PartiallySorted entries = category.getValue();
+					List<MarkerEntry> list = added.get(category.getKey());
+					if (list != null) {
+						entries = merge(entries, list, comparator, monitor);
+					}
+					if (entries.entries.length > 0) {
+						merged.add(entries);
+						size += entries.entries.length;
+					}
+				}
+				newEntries = new MarkerEntry[size];
+				newCategories = new MarkerCategory[merged.size()];
+				newSortedCounts = new int[merged.size()];
+				int start = 0;
+				for (int i = 0; i < newCategories.length; i++) {
+					MarkerEntry[] entries = merged.get(i).entries;
+					System.arraycopy(entries, 0, newEntries, start, entries.length);
+					newCategories[i] = new MarkerCategory(this, start, start + entries.length - 1,
+							group.getMarkerField().getValue(entries[0]));
+					newSortedCounts[i] = merged.get(i).sortedCount;
+					start += entries.length;
+				}
+			} else {
+				PartiallySorted entries = merge(
+						keptEntries(0, markerEntryArray.length - 1, sortedCounts[0], changes), additions,
+						builder.getComparator(), monitor);
+				newEntries = entries.entries;
+				newCategories = EMPTY_CATEGORY_ARRAY;
+				newSortedCounts = new int[] { entries.sortedCount };
+			}
+			if (monitor.isCanceled()) {
+				return false;
+			}
+
+			markerEntryArray = newEntries;
+			categories = newCategories;
+			sortedCounts = newSortedCounts;
+			if (markerToEntryMap != null) {
+				markerToEntryMap.clear();
+				markerToEntryMap = null;
+			}
+			markerCounts = null;
+			return true;
+		} finally {
+			inChange = initialVal;
+		}
+	}
+
+	/**
+	 * Return the entries in [start,end] that are not stale and whose markers
+	 * did not change, with the number of them that are among the sortedCount
+	 * first entries.
+	 */
+	private PartiallySorted keptEntries(int start, int end, int sortedCount, Map<IMarker, MarkerEntry> changes) {
+		List<MarkerEntry> kept = new ArrayList<>(end - start + 1);
+		int keptSorted = 0;
+		for (int i = start; i <= end; i++) {
+			MarkerEntry entry = markerEntryArray[i];
+			IMarker marker = entry.getMarker();
+			if (marker != null && !entry.getStaleState() && !changes.containsKey(marker)) {
+				kept.add(entry);
+				if (i < start + sortedCount) {
+					keptSorted++;
+				}
+			}
+		}
+		return new PartiallySorted(kept.toArray(new MarkerEntry[kept.size()]), keptSorted);
+	}
+
+	/**
+	 * Merge additions into partially sorted entries. The additions sorting
+	 * before the last sorted entry are merged into the sorted entries, the
+	 * others are appended to the unsorted ones. If that leaves fewer sorted
+	 * entries than are shown, the shown entries are sorted again.
+	 */
+	private PartiallySorted merge(PartiallySorted entries, List<MarkerEntry> additions,
+			Comparator<MarkerItem> comparator, IProgressMonitor monitor) {
+		MarkerEntry[] kept = entries.entries;
+		int sortedCount = entries.sortedCount;
+		if (sortedCount == kept.length) {
+			MarkerEntry[] result = MarkerSortUtil.mergeSorted(kept,
+					additions.toArray(new MarkerEntry[additions.size()]), comparator);
+			return new PartiallySorted(result, result.length);
+		}
+
+		List<MarkerEntry> sortedAdditions = new ArrayList<>();
+		List<MarkerEntry> unsortedAdditions = new ArrayList<>();
+		MarkerEntry lastSorted = sortedCount == 0 ? null : kept[sortedCount - 1];
+		for (MarkerEntry entry : additions) {
+			if (lastSorted != null && comparator.compare(entry, lastSorted) <= 0) {
+				sortedAdditions.add(entry);
+			} else {
+				unsortedAdditions.add(entry);
+				entry.clearCache();
+			}
+		}
+		if (lastSorted != null) {
+			lastSorted.clearCache();
+		}
+		MarkerEntry[] sorted = new MarkerEntry[sortedCount];
+		System.arraycopy(kept, 0, sorted, 0, sortedCount);
+		sorted = MarkerSortUtil.mergeSorted(sorted,
+				sortedAdditions.toArray(new MarkerEntry[sortedAdditions.size()]), comparator);
+		MarkerEntry[] result = new MarkerEntry[kept.length + additions.size()];
+		System.arraycopy(sorted, 0, result, 0, sorted.length);
+		System.arraycopy(kept, sortedCount, result, sorted.length, kept.length - sortedCount);
+		int index = sorted.length + kept.length - sortedCount;
+		for (MarkerEntry entry : unsortedAdditions) {
+			result[index++] = entry;
+		}
+
+		int shown = getShowingLimit(result.length);
+		if (sorted.length >= shown) {
+			return new PartiallySorted(result, sorted.length);
+		}
+		MarkerSortUtil.sortStartingKElement(result, comparator, 0, result.length - 1, shown, monitor);
+		return new PartiallySorted(result, shown >= result.length - 1 ? result.length : shown);
+	}
+
+	/**
+	 * Return the group value of the entry or <code>null</code> if its marker
+	 * is stale.
+	 */
+	private static MarkerGroupingEntry findGroupValue(MarkerGroup group, MarkerEntry entry) {
+		IMarker marker = entry.getMarker();
+		if (marker == null) {
+			return null;
+		}
+		try {
+			return group.findGroupValue(marker.getType(), marker);
+		} catch (CoreException e) {
+			entry.checkIfMarkerStale();
+			return null;
+		}
+	}
+
 	/**
 	 * Returns an array of marker counts where getMarkerCounts()[severity] is
 	 * the number of markers in the list with the given severity.
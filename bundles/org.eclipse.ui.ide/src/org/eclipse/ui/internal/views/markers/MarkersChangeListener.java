@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 IBM Corporation and others.
+ * Copyright (c) 2015, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -162,6 +162,7 @@ class MarkersChangeListener implements IResourceChangeListener {
 	 * @param event
 	 */
 	private void handleMarkerChange(IResourceChangeEvent event) {
+		builder.requestFullUpdate();
 		builder.getUpdateScheduler().scheduleUpdate();
 	}
 
@@ -178,10 +179,11 @@ class MarkersChangeListener implements IResourceChangeListener {
 	 * of the markers that were gathered initially, and keeps them synched at
 	 * any point with the markers of interest in Workspace. Unfortunately marker
 	 * operations cannot be locked so locking between gathering of markers and
-	 * marker deltas is not possible.
+	 * marker deltas is not possible, the changes received while gathering are
+	 * applied once the gathering is done.
 	 *
-	 * Note : this method of updating is NOT used and tested yet and has holes
-	 * but left out SOLELY for further investigation(*).
+	 * Events with more than {@link CachedMarkerBuilder#INCREMENTAL_UPDATE_LIMIT}
+	 * marker deltas trigger a full update.
 	 *
 	 * @param event
 	 */
@@ -190,6 +192,11 @@ class MarkersChangeListener implements IResourceChangeListener {
 		if (markerDeltas.length == 0) {
 			return;
 		}
+		if (markerDeltas.length > CachedMarkerBuilder.INCREMENTAL_UPDATE_LIMIT) {
+			builder.requestFullUpdate();
+			builder.getUpdateScheduler().scheduleUpdate();
+			return;
+		}
 		Collection<MarkerEntry> removed = new LinkedList<>(), added = new LinkedList<>(), changed = new LinkedList<>();
 		String[] types = listeningTypes;
 		for (int i = 0; i < markerDeltas.length; i++) {
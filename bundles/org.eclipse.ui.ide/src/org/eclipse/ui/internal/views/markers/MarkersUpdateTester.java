@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.views.markers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.ui.IPageLayout;
+import org.eclipse.ui.views.markers.internal.MarkerSupportRegistry;
+
+/**
+ * Class needed for testing the incremental updates of {@link Markers}. It
+ * holds the markers of a problems view that is not opened, so that the
+ * markers are only updated when asked to.
+ *
+ * @since 3.12
+ */
+public class MarkersUpdateTester {
+
+	private final CachedMarkerBuilder builder;
+
+	/**
+	 * @param grouped
+	 *            whether the markers are grouped into categories or shown as a
+	 *            flat list
+	 */
+	public MarkersUpdateTester(boolean grouped) {
+		this(grouped, 0);
+	}
+
+	/**
+	 * @param grouped
+	 *            whether the markers are grouped into categories or shown as a
+	 *            flat list
+	 * @param limit
+	 *            the number of markers shown per category, or in the list, or
+	 *            <code>0</code> to show all the markers
+	 */
+	public MarkersUpdateTester(boolean grouped, int limit) {
+		ExtendedMarkersView view = new ExtendedMarkersView(MarkerSupportRegistry.PROBLEMS_GENERATOR);
+		builder = new CachedMarkerBuilder(view);
+		MarkerContentGenerator generator = new MarkerContentGenerator(
+				MarkerSupportRegistry.getInstance().getContentGenDescriptor(MarkerSupportRegistry.PROBLEMS_GENERATOR),
+				builder, IPageLayout.ID_PROBLEM_VIEW);
+		generator.restoreState(null);
+		generator.setMarkerLimitsEnabled(limit > 0);
+		if (limit > 0) {
+			generator.setMarkerLimits(limit);
+		}
+		if (!grouped) {
+			builder.setCategoryGroup(null);
+		}
+	}
+
+	/**
+	 * Collect, sort and group all the markers again.
+	 *
+	 * @return <code>true</code> if the markers were updated
+	 */
+	public boolean updateWithNewMarkers() {
+		Collection<MarkerEntry> entries = new ArrayList<>();
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		if (!builder.getGenerator().generateMarkerEntries(entries, monitor)) {
+			return false;
+		}
+		return builder.getMarkers().updateWithNewMarkers(entries, true, monitor);
+	}
+
+	/**
+	 * Apply marker changes to the current markers.
+	 *
+	 * @param added
+	 * @param removed
+	 * @param changed
+	 * @return <code>true</code> if the changes were applied
+	 */
+	public boolean applyUpdate(IMarker[] added, IMarker[] removed, IMarker[] changed) {
+		MarkerUpdate update = new MarkerUpdate(toEntries(added), toEntries(removed), toEntries(changed));
+		return builder.getMarkers().applyUpdates(Collections.singletonList(update), new NullProgressMonitor());
+	}
+
+	private static Collection<MarkerEntry> toEntries(IMarker[] markers) {
+		Collection<MarkerEntry> entries = new ArrayList<>(markers.length);
+		for (IMarker marker : markers) {
+			entries.add(new MarkerEntry(marker));
+		}
+		return entries;
+	}
+
+	/**
+	 * @return the markers in the order they are shown
+	 */
+	public IMarker[] getMarkers() {
+		MarkerEntry[] entries = builder.getMarkers().getMarkerEntryArray();
+		IMarker[] markers = new IMarker[entries.length];
+		for (int i = 0; i < entries.length; i++) {
+			markers[i] = entries[i].getMarker();
+		}
+		return markers;
+	}
+
+	/**
+	 * @return the markers that are shown with the marker limits, in the order
+	 *         they are shown; the markers past the limits are not sorted
+	 */
+	public List<IMarker> getShownMarkers() {
+		IMarker[] markers = getMarkers();
+		MarkerContentGenerator generator = builder.getGenerator();
+		int limit = generator.isMarkerLimitsEnabled() ? generator.getMarkerLimits() : markers.length;
+		List<IMarker> shown = new ArrayList<>();
+		if (builder.isShowingHierarchy()) {
+			for (MarkerCategory category : builder.getMarkers().getCategories()) {
+				int end = Math.min(category.end, category.start + limit - 1);
+				shown.addAll(Arrays.asList(markers).subList(category.start, end + 1));
+			}
+		} else {
+			shown.addAll(Arrays.asList(markers).subList(0, Math.min(limit, markers.length)));
+		}
+		return shown;
+	}
+
+	/**
+	 * @return the name and the bounds of each category, in the order they are
+	 *         shown
+	 */
+	public List<String> getCategories() {
+		List<String> categories = new ArrayList<>();
+		for (MarkerCategory category : builder.getMarkers().getCategories()) {
+			categories.add(category.getName() + '[' + category.start + ',' + category.end + ']');
+		}
+		return categories;
+	}
+
+	/**
+	 * Dispose the listeners of the receiver.
+	 */
+	public void dispose() {
+		builder.getGenerator().dispose();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -79,6 +79,8 @@ import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.di.InjectionException;
 import org.eclipse.e4.core.services.events.IEventBroker;
 import org.eclipse.e4.ui.internal.workbench.E4Workbench;
+import org.eclipse.e4.ui.internal.workbench.E4XMIResource;
+import org.eclipse.e4.ui.internal.workbench.ResourceHandler;
 import org.eclipse.e4.ui.internal.workbench.renderers.swt.IUpdateService;
 import org.eclipse.e4.ui.internal.workbench.swt.E4Application;
 import org.eclipse.e4.ui.internal.workbench.swt.IEventLoopAdvisor;
@@ -1320,15 +1322,39 @@ public final class Workbench extends EventManager implements IWorkbench,
 		if (Job.getJobManager().find(WORKBENCH_AUTO_SAVE_JOB).length > 0) {
 			return;
 		}
-		final MApplication appCopy = (MApplication) EcoreUtil.copy((EObject) application);
+		EcoreUtil.Copier copier = new EcoreUtil.Copier();
+		final MApplication appCopy = (MApplication) copier.copy((EObject) application);
+		copier.copyReferences();
 		if (detectWorkbenchCorruption(appCopy)) {
 			return;
 		}
 		final IModelResourceHandler handler = e4Context.get(IModelResourceHandler.class);
+		// the copy keeps the ids of the model so that only its changes can be journaled
+		final Map<EObject, String> ids = new HashMap<>();
+		Resource appResource = ((EObject) application).eResource();
+		if (handler instanceof ResourceHandler && appResource instanceof E4XMIResource) {
+			for (Map.Entry<EObject, EObject> entry : copier.entrySet()) {
+				String id = ((E4XMIResource) appResource).getID(entry.getKey());
+				if (id != null) {
+					ids.put(entry.getValue(), id);
+				}
+			}
+		}
 
 		Job cleanAndSaveJob = new Job(WORKBENCH_AUTO_SAVE_BACKGROUND_JOB) {
 			@Override
 			protected IStatus run(IProgressMonitor monitor) {
+				if (!ids.isEmpty()) {
+					cleanUpCopy(appCopy, e4Context);
+					try {
+						if (!detectWorkbenchCorruption(appCopy)) {
+							((ResourceHandler) handler).saveSnapshot(appCopy, ids);
+						}
+					} catch (IOException e) {
+						// Just auto-save, we don't really care
+					}
+					return Status.OK_STATUS;
+				}
 				final Resource res = handler.createResourceWithApp(appCopy);
 				cleanUpCopy(appCopy, e4Context);
 				try {
@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.decorators;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.jface.viewers.IDecorationContext;
+
+/**
+ * A cache of decoration results by element and decoration context.
+ * <p>
+ * The results of elements whose label update is pending are pinned: they are
+ * kept until the label update has been sent with {@link #unpin(Object[])}, no
+ * matter how many there are. Once unpinned, at most a given number of results
+ * are kept and the least recently used ones are evicted first.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ *
+ * @param <R>
+ *            the type of the results
+ */
+public class DecorationResultCache<R> {
+
+	private static class Key {
+		final Object element;
+
+		final IDecorationContext context;
+
+		Key(Object element, IDecorationContext context) {
+			this.element = element;
+			this.context = context;
+		}
+
+		@Override
+		public int hashCode() {
+			return element.hashCode() * 31 + context.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return element.equals(other.element) && context.equals(other.context);
+		}
+	}
+
+	private final Map<Object, Map<IDecorationContext, R>> pinned = new HashMap<>();
+
+	private final Map<Key, R> results;
+
+	/**
+	 * @param maxSize
+	 *            the maximum number of results kept once they are unpinned
+	 */
+	public DecorationResultCache(final int maxSize) {
+		results = new LinkedHashMap<Key, R>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, R> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * @param element
+	 *            the decorated element
+	 * @param context
+	 *            the decoration context
+	 * @return the result, or <code>null</code> if there is none
+	 */
+	public synchronized R get(Object element, IDecorationContext context) {
+		Map<IDecorationContext, R> contexts = pinned.get(element);
+		if (contexts != null) {
+			R result = contexts.get(context);
+			if (result != null) {
+				return result;
+			}
+		}
+		return results.get(new Key(element, context));
+	}
+
+	/**
+	 * Adds a pinned result.
+	 *
+	 * @param element
+	 *            the decorated element
+	 * @param context
+	 *            the decoration context
+	 * @param result
+	 *            the result
+	 */
+	public synchronized void put(Object element, IDecorationContext context, R result) {
+		results.remove(new Key(element, context));
+		Map<IDecorationContext, R> contexts = pinned.get(element);
+		if (contexts == null) {
+			contexts = new HashMap<>(2);
+			pinned.put(element, contexts);
+		}
+		contexts.put(context, result);
+	}
+
+	/**
+	 * Pins a result that is already in the cache.
+	 *
+	 * @param element
+	 *            the decorated element
+	 * @param context
+	 *            the decoration context
+	 * @return <code>true</code> if there is a result, <code>false</code> if
+	 *         there is none
+	 */
+	public synchronized boolean pin(Object element, IDecorationContext context) {
+		Map<IDecorationContext, R> contexts = pinned.get(element);
+		if (contexts != null && contexts.containsKey(context)) {
+			return true;
+		}
+		R result = results.remove(new Key(element, context));
+		if (result == null) {
+			return false;
+		}
+		put(element, context, result);
+		return true;
+	}
+
+	/**
+	 * Unpins the results of the given elements, which may then be evicted.
+	 *
+	 * @param elements
+	 *            the elements whose labels have been updated
+	 */
+	public synchronized void unpin(Object[] elements) {
+		for (Object element : elements) {
+			Map<IDecorationContext, R> contexts = pinned.remove(element);
+			if (contexts != null) {
+				for (Map.Entry<IDecorationContext, R> entry : contexts.entrySet()) {
+					results.put(new Key(element, entry.getKey()), entry.getValue());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes the results that are not pinned.
+	 */
+	public synchronized void clearUnpinned() {
+		results.clear();
+	}
+
+	/**
+	 * Removes all the results.
+	 */
+	public synchronized void clear() {
+		pinned.clear();
+		results.clear();
+	}
+
+	/**
+	 * @return the number of results in the cache
+	 */
+	public synchronized int size() {
+		int size = results.size();
+		for (Map<IDecorationContext, R> contexts : pinned.values()) {
+			size += contexts.size();
+		}
+		return size;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,11 +15,14 @@ package org.eclipse.ui.internal.decorators;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -41,18 +44,53 @@ import org.eclipse.ui.progress.WorkbenchJob;
 
 /**
  * The DecorationScheduler is the class that handles the decoration of elements
- * using a background thread.
+ * using background threads.
  */
 public class DecorationScheduler {
 
 	static final ILabelProviderListener[] EMPTY_LISTENER_LIST = new ILabelProviderListener[0];
 
+	/**
+	 * The system property setting the number of jobs decorating elements
+	 * concurrently.
+	 */
+	static final String WORKERS_PROPERTY = "org.eclipse.ui.decorators.workers"; //$NON-NLS-1$
+
+	/**
+	 * The number of jobs decorating elements concurrently, one unless more are
+	 * requested with the {@link #WORKERS_PROPERTY} system property, and never
+	 * more than the available processors. With several jobs only the
+	 * decorators of different plug-ins run at the same time, the decorators
+	 * contributed by a plug-in are never called from two jobs at once (see
+	 * {@link LightweightDecoratorManager#getDecorations(Object[], DecorationBuilder[])}),
+	 * so this is only safe if the installed decorators do not share state
+	 * across plug-ins.
+	 */
+	static final int DECORATION_WORKERS = Math.max(1,
+			Math.min(Integer.getInteger(WORKERS_PROPERTY, 1).intValue(),
+					Runtime.getRuntime().availableProcessors()));
+
+	/**
+	 * The number of elements a decoration job takes from the queue at once.
+	 */
+	static final int BATCH_SIZE = 50;
+
+	/**
+	 * The maximum number of decoration results kept once the labels of their
+	 * elements have been updated. The results of elements awaiting their label
+	 * update are always kept. Updated results are dropped as soon as no
+	 * decoration is in progress, so this only bounds the results piling up
+	 * while elements keep being queued for decoration.
+	 */
+	static final int MAX_CACHED_RESULTS = 10000;
+
 	// When decorations are computed they are added to this cache via
 	// decorated() method
-	Map resultCache = new HashMap();
+	final DecorationResultCache<DecorationResult> resultCache = new DecorationResultCache<>(
+			MAX_CACHED_RESULTS);
 
 	// Objects that need an icon and text computed for display to the user
-	List awaitingDecoration = new ArrayList();
+	Queue<Object> awaitingDecoration = new ConcurrentLinkedQueue<>();
 
 	// Objects that are awaiting a label update.
 	Set pendingUpdate = new HashSet();
@@ -60,13 +98,16 @@ public class DecorationScheduler {
 	// Key to lock write access to the pending update set
 	Object pendingKey = new Object();
 
-	Map awaitingDecorationValues = new HashMap();
+	Map<Object, DecorationReference> awaitingDecorationValues = new ConcurrentHashMap<>();
+
+	// The number of batches taken from the queue and not decorated yet
+	private final AtomicInteger batchesInProgress = new AtomicInteger();
 
 	DecoratorManager decoratorManager;
 
-	boolean shutdown = false;
+	volatile boolean shutdown = false;
 
-	Job decorationJob;
+	Job[] decorationJobs;
 
 	UIJob updateJob;
 
@@ -88,8 +129,33 @@ public class DecorationScheduler {
 	 * @param manager
 	 */
 	DecorationScheduler(DecoratorManager manager) {
+		this(manager, DECORATION_WORKERS);
+	}
+
+	/**
+	 * Return a new instance of the receiver configured for the supplied
+	 * DecoratorManager and decorating elements with the given number of jobs.
+	 * Public for use by test cases.
+	 *
+	 * @param manager
+	 * @param workers
+	 *            the number of jobs decorating elements concurrently
+	 */
+	public DecorationScheduler(DecoratorManager manager, int workers) {
 		decoratorManager = manager;
-		createDecorationJob();
+		decorationJobs = new Job[Math.max(1, workers)];
+		for (int i = 0; i < decorationJobs.length; i++) {
+			decorationJobs[i] = createDecorationJob();
+		}
+	}
+
+	/**
+	 * Return the number of jobs decorating elements concurrently.
+	 *
+	 * @return int
+	 */
+	public int getWorkerCount() {
+		return decorationJobs.length;
 	}
 
 	/**
@@ -134,29 +200,36 @@ public class DecorationScheduler {
 	 *            The decoration context
 	 */
 
-	synchronized void queueForDecoration(Object element, Object adaptedElement,
-			boolean forceUpdate, String undecoratedText,
-			IDecorationContext context) {
+	void queueForDecoration(final Object element, final Object adaptedElement,
+			final boolean forceUpdate, final String undecoratedText,
+			final IDecorationContext context) {
 
 		Assert.isNotNull(context);
-		DecorationReference reference = (DecorationReference) awaitingDecorationValues
-				.get(element);
-		if (reference != null) {
-			if (forceUpdate) {// Make sure we don't loose a force
-				reference.setForceUpdate(forceUpdate);
+		final boolean[] added = new boolean[1];
+		// The reference is updated atomically so that a decoration job
+		// either takes it with the new context or not at all
+		awaitingDecorationValues.compute(element, (key, reference) -> {
+			if (reference != null) {
+				if (forceUpdate) {// Make sure we don't loose a force
+					reference.setForceUpdate(forceUpdate);
+				}
+				reference.addContext(context);
+				return reference;
 			}
-			reference.addContext(context);
-		} else {
-			reference = new DecorationReference(element, adaptedElement,
-					context);
-			reference.setForceUpdate(forceUpdate);
-			reference.setUndecoratedText(undecoratedText);
-			awaitingDecorationValues.put(element, reference);
+			DecorationReference newReference = new DecorationReference(element, adaptedElement, context);
+			newReference.setForceUpdate(forceUpdate);
+			newReference.setUndecoratedText(undecoratedText);
+			added[0] = true;
+			return newReference;
+		});
+		if (added[0]) {
 			awaitingDecoration.add(element);
 			if (shutdown) {
 				return;
 			}
-			decorationJob.schedule();
+			for (Job job : decorationJobs) {
+				job.schedule();
+			}
 		}
 
 	}
@@ -219,21 +292,12 @@ public class DecorationScheduler {
 
 	private DecorationResult internalGetResult(Object element,
 			IDecorationContext context) {
-		Map results = (Map) resultCache.get(context);
-		if (results != null) {
-			return (DecorationResult) results.get(element);
-		}
-		return null;
+		return resultCache.get(element, context);
 	}
 
 	protected void internalPutResult(Object element,
 			IDecorationContext context, DecorationResult result) {
-		Map results = (Map) resultCache.get(context);
-		if (results == null) {
-			results = new HashMap();
-			resultCache.put(context, results);
-		}
-		results.put(element, result);
+		resultCache.put(element, context, result);
 	}
 
 	/**
@@ -263,33 +327,56 @@ public class DecorationScheduler {
 	}
 
 	/**
-	 * Get the next resource to be decorated.
+	 * Get the next elements to be decorated.
 	 *
-	 * @return IResource
+	 * @param max
+	 *            the maximum number of elements to take
+	 * @return the references of the elements, empty if there are none left
 	 */
-	synchronized DecorationReference nextElement() {
+	List<DecorationReference> nextElements(int max) {
+		List<DecorationReference> references = new ArrayList<>(max);
+		Object element;
+		while (!shutdown && references.size() < max && (element = awaitingDecoration.poll()) != null) {
+			DecorationReference reference = awaitingDecorationValues.remove(element);
+			if (reference != null) {
+				references.add(reference);
+			}
+		}
+		return references;
+	}
 
-		if (shutdown || awaitingDecoration.isEmpty()) {
-			return null;
+	/**
+	 * A decoration job is done with the batch it took from the queue. Only
+	 * notify listeners when all the jobs have exhausted the queue of
+	 * decoration requests.
+	 */
+	private void batchDone() {
+		synchronized (this) {
+			if (batchesInProgress.decrementAndGet() == 0 && awaitingDecoration.isEmpty()) {
+				decorated();
+			}
 		}
-		Object element = awaitingDecoration.remove(0);
+	}
 
-		return (DecorationReference) awaitingDecorationValues.remove(element);
+	/**
+	 * @return <code>true</code> if there are elements waiting for their
+	 *         decoration or being decorated
+	 */
+	boolean decorationsInProgress() {
+		return batchesInProgress.get() > 0 || !awaitingDecoration.isEmpty();
 	}
 
 	/**
-	 * Create the Thread used for running decoration.
+	 * Create a Job used for running decoration.
 	 */
-	private void createDecorationJob() {
-		decorationJob = new Job(
+	private Job createDecorationJob() {
+		Job decorationJob = new Job(
 				WorkbenchMessages.DecorationScheduler_CalculationJobName) {
 			@Override
 			public IStatus run(IProgressMonitor monitor) {
 
-				synchronized (DecorationScheduler.this) {
-					if (shutdown) {
-						return Status.CANCEL_STATUS;
-					}
+				if (shutdown) {
+					return Status.CANCEL_STATUS;
 				}
 
 				while (updatesPending()) {
@@ -307,10 +394,16 @@ public class DecorationScheduler {
 						WorkbenchMessages.DecorationScheduler_CalculatingTask,
 						100);
 				// will block if there are no resources to be decorated
-				DecorationReference reference;
+				List<DecorationReference> references;
 				monitor.worked(5);
 				int workCount = 5;
-				while ((reference = nextElement()) != null) {
+				while (true) {
+					batchesInProgress.incrementAndGet();
+					references = nextElements(BATCH_SIZE);
+					if (references.isEmpty()) {
+						batchDone();
+						break;
+					}
 
 					// Count up to 90 to give the appearance of updating
 					if (workCount < 90) {
@@ -318,21 +411,11 @@ public class DecorationScheduler {
 						workCount++;
 					}
 
-					monitor.subTask(reference.getSubTask());
-					Object element = reference.getElement();
-					boolean force = reference.shouldForceUpdate();
-					IDecorationContext[] contexts = reference.getContexts();
-					for (int i = 0; i < contexts.length; i++) {
-						IDecorationContext context = contexts[i];
-						ensureResultCached(element, force, context);
-					}
-
-					// Only notify listeners when we have exhausted the
-					// queue of decoration requests.
-					synchronized (DecorationScheduler.this) {
-						if (awaitingDecoration.isEmpty()) {
-							decorated();
-						}
+					monitor.subTask(references.get(0).getSubTask());
+					try {
+						ensureResultsCached(references);
+					} finally {
+						batchDone();
 					}
 				}
 				monitor.worked(100 - workCount);
@@ -341,46 +424,53 @@ public class DecorationScheduler {
 			}
 
 			/**
-			 * Ensure that a result is cached for the given element and context
+			 * Ensure that results are cached for the given elements in all of
+			 * their contexts. The decorations missing from the cache are
+			 * computed in one batch.
 			 *
-			 * @param element
-			 *            the elements
-			 * @param force
-			 *            whether an update should be forced
-			 * @param context
-			 *            the decoration context
+			 * @param references
+			 *            the elements to decorate
 			 */
-			private void ensureResultCached(Object element, boolean force,
-					IDecorationContext context) {
-				boolean elementIsCached = internalGetResult(element, context) != null;
-				if (elementIsCached) {
-					synchronized (pendingKey) {
-						pendingUpdate.add(element);
+			private void ensureResultsCached(List<DecorationReference> references) {
+				List<Object> elements = new ArrayList<>();
+				List<DecorationBuilder> builders = new ArrayList<>();
+				List<Boolean> forces = new ArrayList<>();
+				for (DecorationReference reference : references) {
+					Object element = reference.getElement();
+					boolean force = reference.shouldForceUpdate();
+					IDecorationContext[] contexts = reference.getContexts();
+					for (int i = 0; i < contexts.length; i++) {
+						IDecorationContext context = contexts[i];
+						if (resultCache.pin(element, context)) {
+							synchronized (pendingKey) {
+								pendingUpdate.add(element);
+							}
+						} else {
+							elements.add(element);
+							builders.add(new DecorationBuilder(context));
+							forces.add(Boolean.valueOf(force));
+						}
 					}
-
+				}
+				if (elements.isEmpty()) {
+					return;
 				}
 
-				if (!elementIsCached) {
-					DecorationBuilder cacheResult = new DecorationBuilder(
-							context);
-					// Calculate the decoration
-					decoratorManager.getLightweightManager().getDecorations(
-							element, cacheResult);
+				// Calculate the decorations
+				decoratorManager.getLightweightManager().getDecorations(
+						elements.toArray(), builders.toArray(new DecorationBuilder[builders.size()]));
 
+				for (int i = 0; i < elements.size(); i++) {
+					DecorationBuilder cacheResult = builders.get(i);
 					// If we should update regardless then put a result
 					// anyways
-					if (cacheResult.hasValue() || force) {
-
-						// Synchronize on the result lock as we want to
-						// be sure that we do not try and decorate during
-						// label update servicing.
-						// Note: resultCache and pendingUpdate modifications
-						// must be done atomically.
+					if (cacheResult.hasValue() || forces.get(i).booleanValue()) {
+						Object element = elements.get(i);
 
 						// Add the decoration even if it's empty in
 						// order to indicate that the decoration is
 						// ready
-						internalPutResult(element, context, cacheResult
+						internalPutResult(element, cacheResult.getDecorationContext(), cacheResult
 								.createResult());
 
 						// Add an update for only the original element
@@ -389,8 +479,6 @@ public class DecorationScheduler {
 						synchronized (pendingKey) {
 							pendingUpdate.add(element);
 						}
-
-
 					}
 				}
 			}
@@ -409,6 +497,7 @@ public class DecorationScheduler {
 		decorationJob.setSystem(true);
 		decorationJob.setPriority(Job.DECORATE);
 		decorationJob.schedule();
+		return decorationJob;
 	}
 
 	/**
@@ -473,6 +562,9 @@ public class DecorationScheduler {
 
 			ILabelProviderListener[] listeners;
 
+			// The elements of the current label update
+			Object[] updatedElements;
+
 			@Override
 			public IStatus runInUIThread(IProgressMonitor monitor) {
 
@@ -541,11 +633,25 @@ public class DecorationScheduler {
             private void resetState() {
                 currentIndex = NEEDS_INIT;// Reset
                 removedListeners.clear();
+                // The labels of these elements are up to date, the results
+                // of the elements awaiting another update stay pinned
+                if (updatedElements != null) {
+                    List<Object> updated = new ArrayList<>(updatedElements.length);
+                    synchronized (pendingKey) {
+                        for (Object element : updatedElements) {
+                            if (!pendingUpdate.contains(element)) {
+                                updated.add(element);
+                            }
+                        }
+                    }
+                    resultCache.unpin(updated.toArray());
+                    updatedElements = null;
+                }
                 // Other decoration requests may have occurred due to
                 // updates or we may have timed out updating listeners.
                 // Only clear the results if there are none pending.
-                if (awaitingDecoration.isEmpty()) {
-                    resultCache.clear();
+                if (!decorationsInProgress()) {
+                    resultCache.clearUnpinned();
                 }
             }
 
@@ -555,11 +661,11 @@ public class DecorationScheduler {
 				removedListeners.clear();
 				currentIndex = 0;
 				synchronized (pendingKey) {
-					Object[] elements = pendingUpdate
+					updatedElements = pendingUpdate
 							.toArray(new Object[pendingUpdate.size()]);
 					pendingUpdate.clear();
 					labelProviderChangedEvent = new LabelProviderChangedEvent(
-							decoratorManager, elements);
+							decoratorManager, updatedElements);
 				}
 				listeners = decoratorManager.getListeners();
 			}
@@ -657,7 +763,7 @@ public class DecorationScheduler {
 	 * @return boolean
 	 */
 	public boolean processingUpdates() {
-		return !hasPendingUpdates() && !awaitingDecoration.isEmpty();
+		return !hasPendingUpdates() && decorationsInProgress();
 	}
 
 	/**
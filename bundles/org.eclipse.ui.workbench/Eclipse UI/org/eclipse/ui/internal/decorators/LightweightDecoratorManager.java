@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,15 +11,22 @@
 package org.eclipse.ui.internal.decorators;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.core.runtime.IExtension;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.InvalidRegistryObjectException;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.dynamichelpers.IExtensionTracker;
 import org.eclipse.osgi.util.NLS;
+import org.eclipse.ui.internal.LegacyResourceSupport;
 import org.eclipse.ui.internal.ObjectContributorManager;
 import org.eclipse.ui.internal.WorkbenchMessages;
 import org.eclipse.ui.internal.WorkbenchPlugin;
@@ -96,11 +103,65 @@ public class LightweightDecoratorManager extends ObjectContributorManager {
 		}
 	}
 
-	private LightweightRunnable runnable = new LightweightRunnable();
+	/**
+	 * The key of the dispatch table. The contributors of an element only
+	 * depend on its class, on the types the adapter manager can adapt the
+	 * class to, and on the resource types it adapts to. The adapter types are
+	 * part of the key since adapter factories can be registered at any time.
+	 */
+	private static final class DispatchKey {
+		private final Class elementClass;
+
+		private final String[] adapterTypes;
+
+		private final Class resourceClass;
+
+		private final boolean resourceMapping;
+
+		DispatchKey(Class elementClass, String[] adapterTypes,
+				Class resourceClass, boolean resourceMapping) {
+			this.elementClass = elementClass;
+			this.adapterTypes = adapterTypes;
+			this.resourceClass = resourceClass;
+			this.resourceMapping = resourceMapping;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = elementClass.hashCode() * 31
+					+ Arrays.hashCode(adapterTypes);
+			if (resourceClass != null) {
+				hash = hash * 31 + resourceClass.hashCode();
+			}
+			return resourceMapping ? hash * 31 + 1 : hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof DispatchKey)) {
+				return false;
+			}
+			DispatchKey other = (DispatchKey) obj;
+			return elementClass == other.elementClass
+					&& resourceClass == other.resourceClass
+					&& resourceMapping == other.resourceMapping
+					&& Arrays.equals(adapterTypes, other.adapterTypes);
+		}
+	}
 
 	// The lightweight definitions read from the registry
 	private LightweightDecoratorDefinition[] lightweightDefinitions;
 
+	/**
+	 * The decorators registered for each kind of element, regardless of their
+	 * enablement. Flushed whenever a decorator is added or removed and when
+	 * the manager is reset.
+	 */
+	private final Map<DispatchKey, LightweightDecoratorDefinition[]> dispatchTable = new ConcurrentHashMap<>();
+
+	// The locks serializing the decorators of each contributing plug-in
+	private final Map<String, Object> decoratorLocks = new ConcurrentHashMap<>();
+
 	private static final LightweightDecoratorDefinition[] EMPTY_LIGHTWEIGHT_DEF = new LightweightDecoratorDefinition[0];
 
 	LightweightDecoratorManager(LightweightDecoratorDefinition[] definitions) {
@@ -266,7 +327,18 @@ public class LightweightDecoratorManager extends ObjectContributorManager {
 	 * Reset any cached values.
 	 */
 	void reset() {
-		runnable.clearReferences();
+		// runnables are created for each decoration, only the dispatch table
+		// is cached
+		dispatchTable.clear();
+	}
+
+	@Override
+	public synchronized void flushLookup() {
+		super.flushLookup();
+		// called by the super constructor before the table exists
+		if (dispatchTable != null) {
+			dispatchTable.clear();
+		}
 	}
 
 	/**
@@ -309,23 +381,72 @@ public class LightweightDecoratorManager extends ObjectContributorManager {
 			return EMPTY_LIGHTWEIGHT_DEF;
 		}
 
+		LightweightDecoratorDefinition[] candidates = getRegisteredDecorators(element);
+		if (candidates.length == 0) {
+			return EMPTY_LIGHTWEIGHT_DEF;
+		}
+
+		List<LightweightDecoratorDefinition> decorators = null;
+		for (int i = 0; i < candidates.length; i++) {
+			if (candidates[i].isEnabledFor(element)) {
+				if (decorators == null) {
+					decorators = new ArrayList<>(candidates.length);
+				}
+				decorators.add(candidates[i]);
+			}
+		}
+		if (decorators == null) {
+			return EMPTY_LIGHTWEIGHT_DEF;
+		}
+		return decorators.toArray(new LightweightDecoratorDefinition[decorators.size()]);
+	}
+
+	/**
+	 * Return the decorators registered for the type of the element, the types
+	 * of its super classes and interfaces and the types it adapts to, in the
+	 * order of the contributor search. The result is looked up in the dispatch
+	 * table so the type hierarchy is only walked once per kind of element.
+	 */
+	private LightweightDecoratorDefinition[] getRegisteredDecorators(Object element) {
+		DispatchKey key = getDispatchKey(element);
+		LightweightDecoratorDefinition[] decorators = dispatchTable.get(key);
+		if (decorators != null) {
+			return decorators;
+		}
+
 		List elements = new ArrayList(1);
 		elements.add(element);
-		LightweightDecoratorDefinition[] decoratorArray = EMPTY_LIGHTWEIGHT_DEF;
-		List contributors = getContributors(elements);
-		if (!contributors.isEmpty()) {
-			Collection decorators = DecoratorManager.getDecoratorsFor(element,
-					(DecoratorDefinition[]) contributors
-							.toArray(new DecoratorDefinition[contributors
-									.size()]));
-			if (decorators.size() > 0) {
-				decoratorArray = new LightweightDecoratorDefinition[decorators
-						.size()];
-				decorators.toArray(decoratorArray);
-			}
+		// the lookup caches of the super class are not thread safe, and a
+		// flush must not be overtaken by the result of an older lookup
+		synchronized (this) {
+			List contributors = getContributors(elements);
+			decorators = contributors.isEmpty() ? EMPTY_LIGHTWEIGHT_DEF
+					: (LightweightDecoratorDefinition[]) contributors
+							.toArray(new LightweightDecoratorDefinition[contributors.size()]);
+			dispatchTable.put(key, decorators);
 		}
+		return decorators;
+	}
 
-		return decoratorArray;
+	private static DispatchKey getDispatchKey(Object element) {
+		Class resourceClass = null;
+		boolean resourceMapping = false;
+		if (element instanceof IAdaptable) {
+			Object resource = LegacyResourceSupport
+					.getAdaptedContributorResource(element);
+			if (resource != null) {
+				resourceClass = resource.getClass();
+			}
+			Class resourceMappingClass = LegacyResourceSupport
+					.getResourceMappingClass();
+			resourceMapping = resourceMappingClass != null
+					&& (resourceMappingClass.isInstance(element) || LegacyResourceSupport
+							.getAdaptedContributorResourceMapping(element) != null);
+		}
+		Class elementClass = element.getClass();
+		return new DispatchKey(elementClass, Platform.getAdapterManager()
+				.computeAdapterTypes(elementClass), resourceClass,
+				resourceMapping);
 	}
 
 	/**
@@ -345,9 +466,79 @@ public class LightweightDecoratorManager extends ObjectContributorManager {
 			// If we are doing the adaptable one make sure we are
 			// only applying the adaptable decorations
 			LightweightDecoratorDefinition dd = decorators[i];
-			decoration.setCurrentDefinition(dd);
-			decorate(element, decoration, dd);
+			synchronized (getLock(dd)) {
+				decoration.setCurrentDefinition(dd);
+				decorate(element, decoration, dd);
+			}
+		}
+	}
+
+	/**
+	 * Fill the decorations of many elements at once. The elements are
+	 * decorated decorator by decorator, each decorator is applied to all the
+	 * elements it decorates before the next one, and only one thread at a time
+	 * runs the decorators of a given plug-in. The decorators of an element are
+	 * still applied in the same order as by
+	 * {@link #getDecorations(Object, DecorationBuilder)}.
+	 *
+	 * @param elements
+	 *            The source elements
+	 * @param decorations
+	 *            The DecorationBuilders of the elements, in the same order
+	 */
+	void getDecorations(Object[] elements, DecorationBuilder[] decorations) {
+		LightweightDecoratorDefinition[][] decorators = new LightweightDecoratorDefinition[elements.length][];
+		int rounds = 0;
+		for (int i = 0; i < elements.length; i++) {
+			decorators[i] = getDecoratorsFor(elements[i]);
+			rounds = Math.max(rounds, decorators[i].length);
+		}
+
+		// Round n applies the n-th decorator of each element, grouping the
+		// elements that share it
+		for (int round = 0; round < rounds; round++) {
+			Map<LightweightDecoratorDefinition, List<Integer>> batches = new LinkedHashMap<>();
+			for (int i = 0; i < elements.length; i++) {
+				if (round < decorators[i].length) {
+					List<Integer> batch = batches.get(decorators[i][round]);
+					if (batch == null) {
+						batch = new ArrayList<>();
+						batches.put(decorators[i][round], batch);
+					}
+					batch.add(Integer.valueOf(i));
+				}
+			}
+			for (Map.Entry<LightweightDecoratorDefinition, List<Integer>> batch : batches.entrySet()) {
+				LightweightDecoratorDefinition dd = batch.getKey();
+				synchronized (getLock(dd)) {
+					for (Integer index : batch.getValue()) {
+						int i = index.intValue();
+						decorations[i].setCurrentDefinition(dd);
+						decorate(elements[i], decorations[i], dd);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Return the lock to hold while running the decorator. The decorators of a
+	 * plug-in share a lock since they may share state, the decorators of
+	 * different plug-ins may run at the same time.
+	 *
+	 * @param decorator
+	 *            the decorator about to run
+	 * @return the lock of the plug-in contributing the decorator
+	 */
+	private Object getLock(LightweightDecoratorDefinition decorator) {
+		String pluginId;
+		try {
+			pluginId = decorator.getPluginId();
+		} catch (InvalidRegistryObjectException e) {
+			// The contributor is gone, only lock the decorator itself
+			return decorator;
 		}
+		return decoratorLocks.computeIfAbsent(pluginId, id -> new Object());
 	}
 
 	/**
@@ -363,6 +554,7 @@ public class LightweightDecoratorManager extends ObjectContributorManager {
 	private void decorate(Object element, DecorationBuilder decoration,
 			LightweightDecoratorDefinition decorator) {
 
+		LightweightRunnable runnable = new LightweightRunnable();
 		runnable.setValues(element, decoration, decorator);
 		SafeRunner.run(runnable);
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2015 IBM Corporation and others.
+ * Copyright (c) 2003, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -29,6 +29,9 @@ import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IProgressMonitorWithBlocking;
 import org.eclipse.core.runtime.IStatus;
@@ -93,7 +96,7 @@ public class ProgressManager extends ProgressProvider implements
 
 	private static ProgressManager singleton;
 
-	final private Map jobs = Collections.synchronizedMap(new HashMap());
+	final private ConcurrentMap jobs = new ConcurrentHashMap();
 
 	final private Map familyListeners = Collections
 			.synchronizedMap(new HashMap());
@@ -128,7 +131,7 @@ public class ProgressManager extends ProgressProvider implements
 	 */
 	public static final String BLOCKED_JOB_KEY = "LOCKED_JOB"; //$NON-NLS-1$
 
-	final Map runnableMonitors = Collections.synchronizedMap(new HashMap());
+	final ConcurrentMap runnableMonitors = new ConcurrentHashMap();
 
 	// A table that maps families to keys in the Jface image
 	// table
@@ -166,17 +169,68 @@ public class ProgressManager extends ProgressProvider implements
 		singleton.shutdown();
 	}
 
+	/**
+	 * The minimum time in milliseconds between two updates of the job info for
+	 * the work reported to a {@link JobMonitor}.
+	 */
+	static final long MONITOR_UPDATE_INTERVAL = 100;
+
+	/*
+	 * Applies the work held back by the job monitors, so that it is shown
+	 * even if the job does not report anything else for a while.
+	 */
+	private final Job monitorUpdateJob = createMonitorUpdateJob();
+
+	private final AtomicBoolean monitorUpdateScheduled = new AtomicBoolean();
+
+	private Job createMonitorUpdateJob() {
+		Job job = new Job(ProgressMessages.ProgressContentProvider_UpdateProgressJob) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				monitorUpdateScheduled.set(false);
+				for (Object jobMonitor : runnableMonitors.values().toArray()) {
+					((JobMonitor) jobMonitor).flushWork();
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		job.setSystem(true);
+		job.setProperty(ProgressManagerUtil.INFRASTRUCTURE_PROPERTY, new Object());
+		return job;
+	}
+
+	/**
+	 * Schedule the update of the work held back by the job monitors, unless
+	 * it is already scheduled.
+	 */
+	void scheduleMonitorUpdate() {
+		if (monitorUpdateScheduled.compareAndSet(false, true)) {
+			monitorUpdateJob.schedule(MONITOR_UPDATE_INTERVAL);
+		}
+	}
+
 	/**
 	 * The JobMonitor is the inner class that handles the IProgressMonitor
-	 * integration with the ProgressMonitor.
+	 * integration with the ProgressMonitor. The work reported is accumulated
+	 * and applied to the job info at most every
+	 * {@link ProgressManager#MONITOR_UPDATE_INTERVAL} milliseconds, any other
+	 * call applies it immediately. Work held back is applied by a trailing
+	 * update at most one interval later.
 	 */
-	class JobMonitor implements IProgressMonitorWithBlocking {
+	public class JobMonitor implements IProgressMonitorWithBlocking {
 		Job job;
 
 		String currentTaskName;
 
 		IProgressMonitorWithBlocking listener;
 
+		/*
+		 * The work reported since the last update, guarded by the monitor
+		 */
+		double pendingWork;
+
+		long lastWorkUpdate;
+
 		/**
 		 * Create a monitor on the supplied job.
 		 *
@@ -191,7 +245,7 @@ public class ProgressManager extends ProgressProvider implements
 		 *
 		 * @param monitor
 		 */
-		void addProgressListener(IProgressMonitorWithBlocking monitor) {
+		public void addProgressListener(IProgressMonitorWithBlocking monitor) {
 			listener = monitor;
 			JobInfo info = getJobInfo(job);
 			TaskInfo currentTask = info.getTaskInfo();
@@ -203,6 +257,7 @@ public class ProgressManager extends ProgressProvider implements
 
 		@Override
 		public void beginTask(String taskName, int totalWork) {
+			flushWork();
 			JobInfo info = getJobInfo(job);
 			info.beginTask(taskName, totalWork);
 			refreshJobInfo(info);
@@ -214,6 +269,7 @@ public class ProgressManager extends ProgressProvider implements
 
 		@Override
 		public void done() {
+			flushWork();
 			JobInfo info = getJobInfo(job);
 			info.clearTaskInfo();
 			info.clearChildren();
@@ -224,7 +280,26 @@ public class ProgressManager extends ProgressProvider implements
 		}
 
 		@Override
-		public void internalWorked(double work) {
+		public synchronized void internalWorked(double work) {
+			pendingWork += work;
+			long now = System.currentTimeMillis();
+			if (now - lastWorkUpdate >= MONITOR_UPDATE_INTERVAL) {
+				lastWorkUpdate = now;
+				flushWork();
+			} else {
+				scheduleMonitorUpdate();
+			}
+		}
+
+		/**
+		 * Apply the work accumulated since the last update.
+		 */
+		synchronized void flushWork() {
+			if (pendingWork == 0) {
+				return;
+			}
+			double work = pendingWork;
+			pendingWork = 0;
 			JobInfo info = getJobInfo(job);
 			if (info.hasTaskInfo()) {
 				info.addWork(work);
@@ -260,6 +335,7 @@ public class ProgressManager extends ProgressProvider implements
 
 		@Override
 		public void setTaskName(String taskName) {
+			flushWork();
 			JobInfo info = getJobInfo(job);
 			if (info.hasTaskInfo()) {
 				info.setTaskName(taskName);
@@ -280,6 +356,7 @@ public class ProgressManager extends ProgressProvider implements
 			if (name == null) {
 				return;
 			}
+			flushWork();
 			JobInfo info = getJobInfo(job);
 			info.clearChildren();
 			info.addSubTask(name);
@@ -581,15 +658,15 @@ public class ProgressManager extends ProgressProvider implements
 	 */
 	public JobMonitor progressFor(Job job) {
 
-		synchronized (runnableMonitors) {
-			JobMonitor monitor = (JobMonitor) runnableMonitors.get(job);
-			if (monitor == null) {
-				monitor = new JobMonitor(job);
-				runnableMonitors.put(job, monitor);
+		JobMonitor monitor = (JobMonitor) runnableMonitors.get(job);
+		if (monitor == null) {
+			monitor = new JobMonitor(job);
+			JobMonitor existing = (JobMonitor) runnableMonitors.putIfAbsent(job, monitor);
+			if (existing != null) {
+				monitor = existing;
 			}
-
-			return monitor;
 		}
+		return monitor;
 
 	}
 
@@ -622,7 +699,10 @@ public class ProgressManager extends ProgressProvider implements
 		JobInfo info = internalGetJobInfo(job);
 		if (info == null) {
 			info = new JobInfo(job);
-			jobs.put(job, info);
+			JobInfo existing = (JobInfo) jobs.putIfAbsent(job, info);
+			if (existing != null) {
+				info = existing;
+			}
 		}
 		return info;
 	}
@@ -790,19 +870,18 @@ public class ProgressManager extends ProgressProvider implements
 	 * @return JobInfo[]
 	 */
 	public JobInfo[] getJobInfos(boolean debug) {
-		synchronized (jobs) {
-			Iterator iterator = jobs.keySet().iterator();
-			Collection result = new ArrayList();
-			while (iterator.hasNext()) {
-				Job next = (Job) iterator.next();
-				if (!isCurrentDisplaying(next, debug)) {
-					result.add(jobs.get(next));
-				}
+		// iterate the entries, a job may be removed concurrently
+		Iterator iterator = jobs.entrySet().iterator();
+		Collection result = new ArrayList();
+		while (iterator.hasNext()) {
+			Map.Entry next = (Map.Entry) iterator.next();
+			if (!isCurrentDisplaying((Job) next.getKey(), debug)) {
+				result.add(next.getValue());
 			}
-			JobInfo[] infos = new JobInfo[result.size()];
-			result.toArray(infos);
-			return infos;
 		}
+		JobInfo[] infos = new JobInfo[result.size()];
+		result.toArray(infos);
+		return infos;
 	}
 
 	/**
@@ -812,25 +891,23 @@ public class ProgressManager extends ProgressProvider implements
 	 * @return JobTreeElement[]
 	 */
 	public JobTreeElement[] getRootElements(boolean debug) {
-		synchronized (jobs) {
-			Iterator iterator = jobs.keySet().iterator();
-			Collection result = new HashSet();
-			while (iterator.hasNext()) {
-				Job next = (Job) iterator.next();
-				if (!isCurrentDisplaying(next, debug)) {
-					JobInfo jobInfo = (JobInfo) jobs.get(next);
-					GroupInfo group = jobInfo.getGroupInfo();
-					if (group == null) {
-						result.add(jobInfo);
-					} else {
-						result.add(group);
-					}
+		Iterator iterator = jobs.entrySet().iterator();
+		Collection result = new HashSet();
+		while (iterator.hasNext()) {
+			Map.Entry next = (Map.Entry) iterator.next();
+			if (!isCurrentDisplaying((Job) next.getKey(), debug)) {
+				JobInfo jobInfo = (JobInfo) next.getValue();
+				GroupInfo group = jobInfo.getGroupInfo();
+				if (group == null) {
+					result.add(jobInfo);
+				} else {
+					result.add(group);
 				}
 			}
-			JobTreeElement[] infos = new JobTreeElement[result.size()];
-			result.toArray(infos);
-			return infos;
 		}
+		JobTreeElement[] infos = new JobTreeElement[result.size()];
+		result.toArray(infos);
+		return infos;
 	}
 
 	/**
@@ -839,13 +916,7 @@ public class ProgressManager extends ProgressProvider implements
 	 * @return boolean
 	 */
 	public boolean hasJobInfos() {
-		synchronized (jobs) {
-			Iterator iterator = jobs.keySet().iterator();
-			while (iterator.hasNext()) {
-				return true;
-			}
-			return false;
-		}
+		return !jobs.isEmpty();
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2015 IBM Corporation and others.
+ * Copyright (c) 2003, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,6 +13,10 @@ package org.eclipse.ui.internal.progress;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -25,7 +29,7 @@ import org.eclipse.ui.progress.WorkbenchJob;
 /**
  * The ProgressViewUpdater is the singleton that updates viewers.
  */
-class ProgressViewUpdater implements IJobProgressManagerListener {
+public class ProgressViewUpdater implements IJobProgressManagerListener {
 
     private static ProgressViewUpdater singleton;
 
@@ -35,7 +39,47 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 
     UpdatesInfo currentInfo = new UpdatesInfo();
 
-    Object updateLock = new Object();
+	/**
+	 * The maximum number of events waiting for the update job. Beyond it
+	 * events are dropped and the next update refreshes everything.
+	 */
+	static final int MAX_PENDING_EVENTS = 10000;
+
+	private static final int ADD = 0;
+
+	private static final int REMOVE = 1;
+
+	private static final int REFRESH = 2;
+
+	/**
+	 * An update requested by a job listener, applied to the
+	 * {@link UpdatesInfo} by the update job.
+	 */
+	private static final class UpdateEvent {
+		final int kind;
+
+		final JobTreeElement element;
+
+		UpdateEvent(int kind, JobTreeElement element) {
+			this.kind = kind;
+			this.element = element;
+		}
+	}
+
+	/*
+	 * The job listeners only append to the queue, the update job drains it in
+	 * the UI thread. Neither side takes a lock.
+	 */
+	private final Queue<UpdateEvent> pendingEvents = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger pendingCount = new AtomicInteger();
+
+	private final AtomicBoolean refreshAllPending = new AtomicBoolean();
+
+	private final AtomicInteger droppedCount = new AtomicInteger();
+
+	// Only read and written by the update job
+	private int coalescedCount;
 
 	class MutableBoolean {
 		boolean value;
@@ -72,27 +116,30 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
          * Add an add update
          *
          * @param addition
+         * @return <code>false</code> if the addition was already pending
          */
-        void add(JobTreeElement addition) {
-            additions.add(addition);
+        boolean add(JobTreeElement addition) {
+            return additions.add(addition);
         }
 
         /**
          * Add a remove update
          *
          * @param removal
+         * @return <code>false</code> if the removal was already pending
          */
-        void remove(JobTreeElement removal) {
-            deletions.add(removal);
+        boolean remove(JobTreeElement removal) {
+            return deletions.add(removal);
         }
 
         /**
          * Add a refresh update
          *
          * @param refresh
+         * @return <code>false</code> if the refresh was already pending
          */
-        void refresh(JobTreeElement refresh) {
-            refreshes.add(refresh);
+        boolean refresh(JobTreeElement refresh) {
+            return refreshes.add(refresh);
         }
 
         /**
@@ -155,7 +202,7 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
      *
      * @return ProgressViewUpdater
      */
-   static ProgressViewUpdater getSingleton() {
+    public static ProgressViewUpdater getSingleton() {
         if (singleton == null) {
 			singleton = new ProgressViewUpdater();
 		}
@@ -260,28 +307,22 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 					return Status.CANCEL_STATUS;
 				}
 
+				drainPendingEvents();
+
 				if (currentInfo.updateAll) {
-					synchronized (updateLock) {
-						currentInfo.reset();
-					}
+					currentInfo.reset();
 					for (int i = 0; i < collectors.length; i++) {
 						collectors[i].refresh();
 					}
 
 				} else {
-					// Lock while getting local copies of the caches.
-					Object[] updateItems;
-					Object[] additionItems;
-					Object[] deletionItems;
-					synchronized (updateLock) {
-						currentInfo.processForUpdate();
-
-						updateItems = currentInfo.refreshes.toArray();
-						additionItems = currentInfo.additions.toArray();
-						deletionItems = currentInfo.deletions.toArray();
-
-						currentInfo.reset();
-					}
+					currentInfo.processForUpdate();
+
+					Object[] updateItems = currentInfo.refreshes.toArray();
+					Object[] additionItems = currentInfo.additions.toArray();
+					Object[] deletionItems = currentInfo.deletions.toArray();
+
+					currentInfo.reset();
 
 					for (int v = 0; v < collectors.length; v++) {
 						IProgressUpdateCollector collector = collectors[v];
@@ -314,6 +355,49 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 
     }
 
+    /**
+     * Apply the events appended by the job listeners to the current info. Only
+     * called from the update job.
+     */
+    void drainPendingEvents() {
+        if (refreshAllPending.getAndSet(false)) {
+            currentInfo.updateAll = true;
+        }
+        UpdateEvent event;
+        while ((event = pendingEvents.poll()) != null) {
+            pendingCount.decrementAndGet();
+            boolean added;
+            switch (event.kind) {
+            case ADD:
+                added = currentInfo.add(event.element);
+                break;
+            case REMOVE:
+                added = currentInfo.remove(event.element);
+                break;
+            default:
+                added = currentInfo.refresh(event.element);
+                break;
+            }
+            if (!added) {
+                coalescedCount++;
+            }
+        }
+    }
+
+    /**
+     * Append an event for the update job. When too many events are waiting
+     * the event is dropped and everything is refreshed instead.
+     */
+    private void post(int kind, JobTreeElement element) {
+        if (pendingCount.incrementAndGet() > MAX_PENDING_EVENTS) {
+            pendingCount.decrementAndGet();
+            droppedCount.incrementAndGet();
+            refreshAllPending.set(true);
+            return;
+        }
+        pendingEvents.add(new UpdateEvent(kind, element));
+    }
+
     /**
      * Get the updates info that we are using in the receiver.
      *
@@ -323,6 +407,26 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
         return currentInfo;
     }
 
+    /**
+     * Return the number of events that were dropped because too many events
+     * were waiting for the update job.
+     *
+     * @return int
+     */
+    public int getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Return the number of events that were merged into an update already
+     * pending for the same element. Only meaningful in the UI thread.
+     *
+     * @return int
+     */
+    public int getCoalescedCount() {
+        return coalescedCount;
+    }
+
     /**
      * Refresh the supplied JobInfo.
      * @param info
@@ -333,13 +437,11 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 			return;
 		}
 
-        synchronized (updateLock) {
-            currentInfo.refresh(info);
-            GroupInfo group = info.getGroupInfo();
-            if (group != null) {
-				currentInfo.refresh(group);
-			}
-        }
+        post(REFRESH, info);
+        GroupInfo group = info.getGroupInfo();
+        if (group != null) {
+			post(REFRESH, group);
+		}
         //Add in a 100ms delay so as to keep priority low
         scheduleUpdate();
 
@@ -352,9 +454,7 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 			return;
 		}
 
-        synchronized (updateLock) {
-            currentInfo.refresh(info);
-        }
+        post(REFRESH, info);
         //Add in a 100ms delay so as to keep priority low
         scheduleUpdate();
 
@@ -362,9 +462,7 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 
     @Override
 	public void refreshGroup(GroupInfo info) {
-        synchronized (updateLock) {
-            currentInfo.refresh(info);
-        }
+        post(REFRESH, info);
         //Add in a 100ms delay so as to keep priority low
         scheduleUpdate();
 
@@ -373,9 +471,7 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
     @Override
 	public void addGroup(GroupInfo info) {
 
-        synchronized (updateLock) {
-            currentInfo.add(info);
-        }
+        post(ADD, info);
         scheduleUpdate();
 
     }
@@ -383,9 +479,7 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
     @Override
 	public void refreshAll() {
 
-        synchronized (updateLock) {
-            currentInfo.updateAll = true;
-        }
+        refreshAllPending.set(true);
 
         //Add in a 100ms delay so as to keep priority low
         scheduleUpdate();
@@ -399,14 +493,11 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 			return;
 		}
 
-        synchronized (updateLock) {
-            GroupInfo group = info.getGroupInfo();
-
-            if (group == null) {
-				currentInfo.add(info);
-			} else {
-                currentInfo.refresh(group);
-            }
+        GroupInfo group = info.getGroupInfo();
+        if (group == null) {
+			post(ADD, info);
+		} else {
+            post(REFRESH, group);
         }
         scheduleUpdate();
 
@@ -419,22 +510,18 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 			return;
 		}
 
-        synchronized (updateLock) {
-            GroupInfo group = info.getGroupInfo();
-            if (group == null) {
-				currentInfo.remove(info);
-			} else {
-                currentInfo.refresh(group);
-            }
+        GroupInfo group = info.getGroupInfo();
+        if (group == null) {
+			post(REMOVE, info);
+		} else {
+            post(REFRESH, group);
         }
         scheduleUpdate();
     }
 
     @Override
 	public void removeGroup(GroupInfo group) {
-        synchronized (updateLock) {
-            currentInfo.remove(group);
-        }
+        post(REMOVE, group);
         scheduleUpdate();
 
     }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2014 IBM Corporation and others.
+ * Copyright (c) 2009, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -30,7 +30,9 @@ import org.eclipse.core.commands.ParameterizedCommand;
 import org.eclipse.e4.core.commands.CommandServiceAddon;
 import org.eclipse.e4.core.commands.ECommandService;
 import org.eclipse.e4.core.commands.EHandlerService;
+import org.eclipse.e4.core.commands.internal.HandlerServiceImpl;
 import org.eclipse.e4.core.contexts.ContextInjectionFactory;
+import org.eclipse.e4.core.contexts.EclipseContextFactory;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.di.annotations.CanExecute;
 import org.eclipse.e4.core.di.annotations.Execute;
@@ -301,6 +303,170 @@ public class HandlerTest {
 		assertEquals(null, wHS.executeHandler(nonparameterizedCmd));
 	}
 
+	static class CountingHandler {
+		public int canExecuteCount;
+
+		@CanExecute
+		public boolean canExecute(@Optional @Named(ACTIVE_INFO_ID) Info info) {
+			canExecuteCount++;
+			return info != null && info.name.equals("Hello");
+		}
+
+		@Execute
+		public void execute() {
+		}
+	}
+
+	@Test
+	public void testCanExecuteReusedStaticContext() {
+		ECommandService cs = workbenchContext.get(ECommandService.class);
+		ParameterizedCommand cmd = cs.createCommand(TEST_ID1, null);
+		EHandlerService wHS = workbenchContext.get(EHandlerService.class);
+		CountingHandler handler = new CountingHandler();
+		wHS.activateHandler(TEST_ID1, handler);
+		workbenchContext.set(ACTIVE_INFO_ID, new Info("Hello"));
+
+		IEclipseContext staticContext = EclipseContextFactory.create("staticContext");
+		try {
+			assertTrue(wHS.canExecute(cmd, staticContext));
+			assertTrue(wHS.canExecute(cmd, staticContext));
+			int count = handler.canExecuteCount;
+			assertTrue(wHS.canExecute(cmd, staticContext));
+			assertEquals(count, handler.canExecuteCount);
+
+			workbenchContext.set(ACTIVE_INFO_ID, new Info("Bye"));
+			assertFalse(wHS.canExecute(cmd, staticContext));
+			assertEquals(count + 1, handler.canExecuteCount);
+			assertFalse(wHS.canExecute(cmd, staticContext));
+			assertEquals(count + 1, handler.canExecuteCount);
+
+			wHS.executeHandler(cmd);
+			workbenchContext.set(ACTIVE_INFO_ID, new Info("Hello"));
+			count = handler.canExecuteCount;
+			assertTrue(wHS.canExecute(cmd, staticContext));
+			assertEquals(count + 1, handler.canExecuteCount);
+		} finally {
+			staticContext.dispose();
+		}
+	}
+
+	static class DirtyStateHandler {
+		public boolean dirty;
+		public int canExecuteCount;
+
+		@CanExecute
+		public boolean canExecute() {
+			canExecuteCount++;
+			return dirty;
+		}
+
+		@Execute
+		public void execute() {
+		}
+	}
+
+	@Test
+	public void testCanExecuteStateOutsideContext() {
+		ECommandService cs = workbenchContext.get(ECommandService.class);
+		ParameterizedCommand cmd = cs.createCommand(TEST_ID1, null);
+		EHandlerService wHS = workbenchContext.get(EHandlerService.class);
+		DirtyStateHandler handler = new DirtyStateHandler();
+		wHS.activateHandler(TEST_ID1, handler);
+
+		IEclipseContext staticContext = EclipseContextFactory.create("staticContext");
+		try {
+			assertFalse(wHS.canExecute(cmd, staticContext));
+			assertFalse(wHS.canExecute(cmd, staticContext));
+
+			// the dirty state is not in a context, the cached result is only
+			// dropped when an enablement update is requested
+			handler.dirty = true;
+			assertFalse(wHS.canExecute(cmd, staticContext));
+			HandlerServiceImpl.invalidateCanExecuteResults(staticContext);
+			int count = handler.canExecuteCount;
+			assertTrue(wHS.canExecute(cmd, staticContext));
+			assertEquals(count + 1, handler.canExecuteCount);
+			assertTrue(wHS.canExecute(cmd, staticContext));
+			assertEquals(count + 1, handler.canExecuteCount);
+		} finally {
+			staticContext.dispose();
+		}
+	}
+
+	@Test
+	public void testCanExecuteReEvaluationRequested() {
+		ECommandService cs = workbenchContext.get(ECommandService.class);
+		ParameterizedCommand cmd = cs.createCommand(TEST_ID1, null);
+		EHandlerService wHS = workbenchContext.get(EHandlerService.class);
+		DirtyStateHandler handler = new DirtyStateHandler();
+		wHS.activateHandler(TEST_ID1, handler);
+
+		IEclipseContext staticContext = EclipseContextFactory.create("staticContext");
+		try {
+			assertFalse(wHS.canExecute(cmd, staticContext));
+			assertFalse(wHS.canExecute(cmd, staticContext));
+			handler.dirty = true;
+			assertFalse(wHS.canExecute(cmd, staticContext));
+
+			// what the evaluation service does when a re-evaluation is requested
+			workbenchContext.set("org.eclipse.ui.internal.services.EvaluationService.evaluate", Boolean.TRUE);
+			int count = handler.canExecuteCount;
+			assertTrue(wHS.canExecute(cmd, staticContext));
+			assertEquals(count + 1, handler.canExecuteCount);
+		} finally {
+			HandlerServiceImpl.invalidateCanExecuteResults(staticContext);
+			staticContext.dispose();
+		}
+	}
+
+	@Test
+	public void testDroppedCanExecuteResultsStopTracking() {
+		ECommandService cs = workbenchContext.get(ECommandService.class);
+		ParameterizedCommand cmd = cs.createCommand(TEST_ID1, null);
+		EHandlerService wHS = workbenchContext.get(EHandlerService.class);
+		// reads no context value that could ever change
+		DirtyStateHandler handler = new DirtyStateHandler();
+		wHS.activateHandler(TEST_ID1, handler);
+
+		int tracked = HandlerServiceImpl.getTrackedResultCount();
+		IEclipseContext staticContext = EclipseContextFactory.create("staticContext");
+		try {
+			assertFalse(wHS.canExecute(cmd, staticContext));
+			for (int i = 0; i < 100; i++) {
+				HandlerServiceImpl.invalidateCanExecuteResults();
+				assertFalse(wHS.canExecute(cmd, staticContext));
+			}
+			assertEquals(tracked + 1, HandlerServiceImpl.getTrackedResultCount());
+		} finally {
+			HandlerServiceImpl.invalidateCanExecuteResults(staticContext);
+			staticContext.dispose();
+		}
+		assertEquals(tracked, HandlerServiceImpl.getTrackedResultCount());
+	}
+
+	@Test
+	public void testCanExecuteWithTriggerNotCached() {
+		ECommandService cs = workbenchContext.get(ECommandService.class);
+		ParameterizedCommand cmd = cs.createCommand(TEST_ID1, null);
+		EHandlerService wHS = workbenchContext.get(EHandlerService.class);
+		DirtyStateHandler handler = new DirtyStateHandler();
+		wHS.activateHandler(TEST_ID1, handler);
+
+		IEclipseContext staticContext = EclipseContextFactory.create("staticContext");
+		try {
+			staticContext.set("org.eclipse.swt.widgets.Event", new Object());
+			assertFalse(wHS.canExecute(cmd, staticContext));
+			assertFalse(wHS.canExecute(cmd, staticContext));
+
+			handler.dirty = true;
+			int count = handler.canExecuteCount;
+			assertTrue(wHS.canExecute(cmd, staticContext));
+			assertEquals(count + 1, handler.canExecuteCount);
+		} finally {
+			staticContext.dispose();
+		}
+	}
+
 	private void defineCommands(IEclipseContext context) {
 		ECommandService cs = workbenchContext.get(ECommandService.class);
 		Category category = cs.defineCategory(TEST_CAT1, "CAT1", null);
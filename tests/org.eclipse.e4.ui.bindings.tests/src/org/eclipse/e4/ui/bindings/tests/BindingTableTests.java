@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2014 IBM Corporation and others.
+ * Copyright (c) 2013, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -383,6 +383,70 @@ public class BindingTableTests {
 		assertEquals(about, it.next());
 	}
 
+	@Test
+	public void testManagerLookupAfterBindingChanges() throws Exception {
+		// use tables of our own, they get modified
+		IEclipseContext context = Activator.getDefault().getGlobalContext().createChild("bindingChanges");
+		BindingTableManager manager = ContextInjectionFactory.make(BindingTableManager.class, context);
+		for (int i = 0; i < CONTEXTS.length; i += 3) {
+			manager.addTable(loadTable(CONTEXTS[i]));
+		}
+		ContextSet javaSet = createJavaSet(manager);
+		Binding about = getTestBinding(ABOUT_ID);
+		Binding paste = getTestBinding(PASTE_ID);
+		KeySequence ctrl5 = KeySequence.getInstance("CTRL+5");
+		KeySequence ctrl5V = KeySequence.getInstance("CTRL+5 V");
+		Binding pasteCtrl5 = manager.getPerfectMatch(javaSet, ctrl5V);
+		assertEquals(paste.getParameterizedCommand(), pasteCtrl5.getParameterizedCommand());
+		assertTrue(manager.isPartialMatch(javaSet, ctrl5));
+
+		manager.getTable(ID_TEXT).removeBinding(pasteCtrl5);
+		assertEquals(null, manager.getPerfectMatch(javaSet, ctrl5V));
+		assertTrue(manager.isPartialMatch(javaSet, ctrl5));
+
+		manager.getTable(ID_DIALOG_AND_WINDOW).removeBinding(about);
+		assertEquals(null, manager.getPerfectMatch(javaSet, about.getTriggerSequence()));
+		assertFalse(manager.isPartialMatch(javaSet, ctrl5));
+
+		manager.getTable(ID_TEXT).addBinding(pasteCtrl5);
+		assertEquals(pasteCtrl5, manager.getPerfectMatch(javaSet, ctrl5V));
+		assertTrue(manager.isPartialMatch(javaSet, ctrl5));
+		context.dispose();
+	}
+
+	@Test
+	public void testAddBindings() throws Exception {
+		Context window = contextManager.getContext(ID_WINDOW);
+		ArrayList<Binding> bindings = new ArrayList<>();
+		for (Binding b : loadedBindings) {
+			if (ID_WINDOW.equals(b.getContextId())) {
+				bindings.add(b);
+			}
+		}
+		KeySequence f2 = KeySequence.getInstance("F2");
+		Binding copyF2 = new KeyBinding(f2, getTestBinding(COPY_ID).getParameterizedCommand(),
+				"org.eclipse.ui.defaultAcceleratorConfiguration", ID_WINDOW, null, null, null, Binding.SYSTEM);
+		bindings.add(copyF2);
+
+		BindingTable sequential = new BindingTable(window);
+		for (Binding b : bindings) {
+			sequential.addBinding(b);
+		}
+		BindingTable bulk = new BindingTable(window);
+		bulk.addBindings(bindings);
+
+		assertEquals(new ArrayList<>(sequential.getBindings()), new ArrayList<>(bulk.getBindings()));
+		assertEquals(null, bulk.getPerfectMatch(f2));
+		assertEquals(sequential.getConflictsFor(f2), bulk.getConflictsFor(f2));
+		assertEquals(2, bulk.getConflictsFor(f2).size());
+		ParameterizedCommand paste = getTestBinding(PASTE_ID).getParameterizedCommand();
+		assertEquals(sequential.getSequencesFor(paste), bulk.getSequencesFor(paste));
+		assertEquals(sequential.getBestSequenceFor(paste), bulk.getBestSequenceFor(paste));
+
+		bulk.removeBinding(copyF2);
+		assertEquals(getTestBinding(RENAME_ID), bulk.getPerfectMatch(f2));
+	}
+
 	private BindingTable loadTable(String contextId) {
 		Context context = contextManager.getContext(contextId);
 		BindingTable table = new BindingTable(context);
@@ -108,6 +108,75 @@ public class ViewCSSTest {
 		assertEquals("color: blue;", buttonStyle.getCssText());
 	}
 
+	@Test
+	public void testGetComputedStyle_idClassAndTypeSelectors() throws Exception {
+		String css = "Button { color: black; }\n" + ".primary { color: blue; }\n" + "#ok { color: green; }\n"
+				+ "Label.primary { font-weight: bold; }\n" + "* { background-color: white; }\n";
+		ViewCSS viewCSS = createViewCss(css);
+
+		TestElement button = new TestElement("Button", engine);
+		button.setClass("default primary");
+		button.setId("ok");
+		CSSStyleDeclaration buttonStyle = viewCSS.getComputedStyle(button, null);
+		assertNotNull(buttonStyle);
+		assertEquals("green", buttonStyle.getPropertyCSSValue("color").getCssText());
+		assertEquals("white", buttonStyle.getPropertyCSSValue("background-color").getCssText());
+		assertNull(buttonStyle.getPropertyCSSValue("font-weight"));
+
+		TestElement label = new TestElement("Label", engine);
+		label.setClass("primary primary");
+		CSSStyleDeclaration labelStyle = viewCSS.getComputedStyle(label, null);
+		assertNotNull(labelStyle);
+		assertEquals("blue", labelStyle.getPropertyCSSValue("color").getCssText());
+		assertEquals("bold", labelStyle.getPropertyCSSValue("font-weight").getCssText());
+
+		TestElement shell = new TestElement("Shell", engine);
+		CSSStyleDeclaration shellStyle = viewCSS.getComputedStyle(shell, null);
+		assertNotNull(shellStyle);
+		assertEquals("background-color: white;", shellStyle.getCssText());
+	}
+
+	@Test
+	public void testGetComputedStyle_descendantSelectorIndexedByRightmostSelector() throws Exception {
+		String css = "Shell Button { color: red; }\n" + "Composite > .primary { color: blue; }\n";
+		ViewCSS viewCSS = createViewCss(css);
+
+		final TestElement shell = new TestElement("Shell", engine);
+		final TestElement composite = new TestElement("Composite", shell, engine);
+		final TestElement button = new TestElement("Button", composite, engine);
+		final TestElement label = new TestElement("Label", shell, engine);
+		label.setClass("primary");
+
+		assertEquals("color: red;", viewCSS.getComputedStyle(button, null).getCssText());
+		assertNull(viewCSS.getComputedStyle(label, null));
+
+		button.setClass("primary");
+		assertEquals("blue", viewCSS.getComputedStyle(button, null).getPropertyCSSValue("color").getCssText());
+	}
+
+	@Test
+	public void testGetComputedStyle_styleSheetsChanged() throws Exception {
+		DocumentCSSImpl docCss = new DocumentCSSImpl();
+		docCss.addStyleSheet(ParserTestUtil.parseCss("Button { color: blue; }"));
+		ViewCSS viewCSS = new ViewCSSImpl(docCss);
+
+		TestElement button = new TestElement("Button", engine);
+		assertEquals("color: blue;", viewCSS.getComputedStyle(button, null).getCssText());
+
+		docCss.addStyleSheet(ParserTestUtil.parseCss("Button { color: red; }"));
+		assertEquals("red", viewCSS.getComputedStyle(button, null).getPropertyCSSValue("color").getCssText());
+
+		docCss.removeAllStyleSheets();
+		assertNull(viewCSS.getComputedStyle(button, null));
+
+		CSSStyleSheet styleSheet = ParserTestUtil.parseCss("Label { color: black; }\nButton { color: green; }");
+		docCss.addStyleSheet(styleSheet);
+		assertEquals("color: green;", viewCSS.getComputedStyle(button, null).getCssText());
+
+		styleSheet.deleteRule(1);
+		assertNull(viewCSS.getComputedStyle(button, null));
+	}
+
 	private static ViewCSS createViewCss(String css) throws IOException {
 		CSSStyleSheet styleSheet = ParserTestUtil.parseCss(css);
 		DocumentCSSImpl docCss = new DocumentCSSImpl();
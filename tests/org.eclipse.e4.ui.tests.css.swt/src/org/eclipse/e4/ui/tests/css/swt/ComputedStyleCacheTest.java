@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others. All rights reserved. This
+ * program and the accompanying materials are made available under the terms of
+ * the Eclipse Public License v1.0 which accompanies this distribution, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.tests.css.swt;
+
+import static org.junit.Assert.assertEquals;
+
+import org.eclipse.e4.ui.css.swt.dom.WidgetElement;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.Test;
+import org.w3c.dom.css.CSSStyleSheet;
+
+/*
+ * Tests that widgets sharing computed styles still get the styles of the rules
+ * that match them
+ */
+public class ComputedStyleCacheTest extends CSSSWTTestCase {
+
+	static final RGB RED = new RGB(255, 0, 0);
+	static final RGB GREEN = new RGB(0, 255, 0);
+	static final RGB BLUE = new RGB(0, 0, 255);
+
+	private Shell shell;
+	private Composite panel;
+
+	private void createShell() {
+		shell = new Shell(display, SWT.SHELL_TRIM);
+		shell.setLayout(new FillLayout());
+		panel = new Composite(shell, SWT.NONE);
+		panel.setLayout(new FillLayout());
+	}
+
+	@Test
+	public void testClassesAndIds() {
+		engine = createEngine("Label { color: #FF0000 }\n" + ".green { color: #00FF00 }\n"
+				+ "#blue { color: #0000FF }", display);
+		createShell();
+		Label plain1 = new Label(panel, SWT.NONE);
+		Label plain2 = new Label(panel, SWT.NONE);
+		Label green = new Label(panel, SWT.NONE);
+		WidgetElement.setCSSClass(green, "green");
+		Label blue = new Label(panel, SWT.NONE);
+		WidgetElement.setCSSClass(blue, "green");
+		WidgetElement.setID(blue, "blue");
+
+		engine.applyStyles(shell, true);
+
+		assertEquals(RED, plain1.getForeground().getRGB());
+		assertEquals(RED, plain2.getForeground().getRGB());
+		assertEquals(GREEN, green.getForeground().getRGB());
+		assertEquals(BLUE, blue.getForeground().getRGB());
+	}
+
+	@Test
+	public void testAttributes() {
+		engine = createEngine("Button { color: #FF0000 }\n" + "Button[style~='SWT.CHECK'] { color: #00FF00 }",
+				display);
+		createShell();
+		Button push = new Button(panel, SWT.PUSH);
+		Button check = new Button(panel, SWT.CHECK);
+
+		engine.applyStyles(shell, true);
+
+		assertEquals(RED, push.getForeground().getRGB());
+		assertEquals(GREEN, check.getForeground().getRGB());
+	}
+
+	@Test
+	public void testAncestors() {
+		engine = createEngine("Label { color: #FF0000 }\n" + ".inner Label { color: #00FF00 }", display);
+		createShell();
+		Label outer = new Label(panel, SWT.NONE);
+		Composite innerPanel = new Composite(panel, SWT.NONE);
+		WidgetElement.setCSSClass(innerPanel, "inner");
+		Label inner = new Label(innerPanel, SWT.NONE);
+
+		engine.applyStyles(shell, true);
+
+		assertEquals(RED, outer.getForeground().getRGB());
+		assertEquals(GREEN, inner.getForeground().getRGB());
+	}
+
+	@Test
+	public void testStyleSheetChanged() {
+		engine = createEngine("Label { color: #FF0000 }", display);
+		createShell();
+		Label label = new Label(panel, SWT.NONE);
+		engine.applyStyles(shell, true);
+		assertEquals(RED, label.getForeground().getRGB());
+
+		clearAndApply(engine, shell, "Label { color: #0000FF }");
+
+		assertEquals(BLUE, label.getForeground().getRGB());
+	}
+
+	@Test
+	public void testRuleDeleted() {
+		engine = createEngine("Label { color: #FF0000 }\n" + "Label { color: #00FF00 }", display);
+		createShell();
+		Label label = new Label(panel, SWT.NONE);
+		engine.applyStyles(shell, true);
+		assertEquals(GREEN, label.getForeground().getRGB());
+
+		CSSStyleSheet styleSheet = (CSSStyleSheet) engine.getDocumentCSS().getStyleSheets().item(0);
+		styleSheet.deleteRule(1);
+		engine.applyStyles(label, false);
+
+		assertEquals(RED, label.getForeground().getRGB());
+	}
+
+	@Test
+	public void testClassChanged() {
+		engine = createEngine("Label { color: #FF0000 }\n" + ".green { color: #00FF00 }", display);
+		createShell();
+		Label label = new Label(panel, SWT.NONE);
+		engine.applyStyles(shell, true);
+		assertEquals(RED, label.getForeground().getRGB());
+
+		WidgetElement.setCSSClass(label, "green");
+		engine.applyStyles(label, false);
+
+		assertEquals(GREEN, label.getForeground().getRGB());
+	}
+}
@@ -56,7 +56,8 @@ import org.junit.runners.Suite;
 	Bug459961Test.class,
 	Bug419482Test.class,
 	ShellActiveTest.class,
-	InheritTest.class })
+	InheritTest.class,
+	ComputedStyleCacheTest.class })
 public class CssSwtTestSuite {
 
 }
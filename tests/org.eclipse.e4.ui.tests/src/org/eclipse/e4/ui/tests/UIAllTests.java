@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 IBM Corporation and others.
+ * Copyright (c) 2009, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -35,6 +35,7 @@ import org.eclipse.e4.ui.tests.workbench.MSashTest;
 import org.eclipse.e4.ui.tests.workbench.MSaveablePartTest;
 import org.eclipse.e4.ui.tests.workbench.MToolItemTest;
 import org.eclipse.e4.ui.tests.workbench.MWindowTest;
+import org.eclipse.e4.ui.tests.workbench.ModelAssemblerTest;
 import org.eclipse.e4.ui.tests.workbench.PartFocusTest;
 import org.eclipse.e4.ui.tests.workbench.PartRenderingEngineTests;
 import org.eclipse.e4.ui.tests.workbench.SashRendererTest;
@@ -42,6 +43,7 @@ import org.eclipse.e4.ui.tests.workbench.TopoSortTests;
 import org.eclipse.e4.ui.workbench.renderers.swt.StackRendererTest;
 import org.eclipse.e4.ui.workbench.renderers.swt.TabStateHandlerTest;
 import org.eclipse.e4.ui.workbench.renderers.swt.ThemeDefinitionChangedHandlerTest;
+import org.eclipse.e4.ui.workbench.renderers.swt.ToolItemUpdaterTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -78,9 +80,11 @@ import org.junit.runners.Suite;
 		ModelElementTest.class,
 		StackRendererTest.class,
 		TabStateHandlerTest.class,
+		ToolItemUpdaterTest.class,
 		ThemeDefinitionChangedHandlerTest.class,
 		TopoSortTests.class,
 		ExtensionsSortTests.class,
+		ModelAssemblerTest.class,
 		HandlerActivationTest.class,
 		// SWTPartRendererTest.class,
 })
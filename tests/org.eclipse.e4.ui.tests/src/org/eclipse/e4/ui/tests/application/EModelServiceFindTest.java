@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 IBM Corporation and others.
+ * Copyright (c) 2009, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,11 +15,13 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.List;
 import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.ui.internal.workbench.ModelServiceImpl;
 import org.eclipse.e4.ui.internal.workbench.swt.E4Application;
 import org.eclipse.e4.ui.model.application.MApplication;
 import org.eclipse.e4.ui.model.application.MApplicationElement;
@@ -28,6 +30,7 @@ import org.eclipse.e4.ui.model.application.commands.MHandler;
 import org.eclipse.e4.ui.model.application.commands.MKeyBinding;
 import org.eclipse.e4.ui.model.application.ui.MDirtyable;
 import org.eclipse.e4.ui.model.application.ui.MUIElement;
+import org.eclipse.e4.ui.model.application.ui.advanced.MArea;
 import org.eclipse.e4.ui.model.application.ui.advanced.MPerspective;
 import org.eclipse.e4.ui.model.application.ui.advanced.MPerspectiveStack;
 import org.eclipse.e4.ui.model.application.ui.advanced.MPlaceholder;
@@ -42,6 +45,8 @@ import org.eclipse.e4.ui.model.application.ui.menu.MToolBarElement;
 import org.eclipse.e4.ui.model.application.ui.menu.MToolControl;
 import org.eclipse.e4.ui.workbench.Selector;
 import org.eclipse.e4.ui.workbench.modeling.EModelService;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -417,4 +422,148 @@ public class EModelServiceFindTest {
 		assertEquals(1, elements.size());
 		assertEquals(part, elements.get(0));
 	}
+
+	@Test
+	public void testFindElementsAfterModelChanges() {
+		MApplication application = createApplication();
+		EModelService modelService = application.getContext().get(EModelService.class);
+		MPartSashContainer psc = (MPartSashContainer) modelService.find("twoValidIds", application);
+		assertNotNull(psc);
+
+		MPart part = modelService.createModelElement(MPart.class);
+		part.setElementId("addedId");
+		part.getTags().add("addedTag");
+		psc.getChildren().add(part);
+		assertEquals(1, modelService.findElements(application, "addedId", MPart.class, null).size());
+
+		List<String> tags = new ArrayList<String>();
+		tags.add("addedTag");
+		assertEquals(1, modelService.findElements(application, null, null, tags).size());
+
+		part.setElementId("changedId");
+		part.getTags().remove("addedTag");
+		assertEquals(0, modelService.findElements(application, "addedId", MPart.class, null).size());
+		assertEquals(0, modelService.findElements(application, null, null, tags).size());
+		assertSame(part, modelService.find("changedId", application));
+
+		psc.getChildren().remove(part);
+		assertNull(modelService.find("changedId", application));
+
+		MPartStack stack = modelService.createModelElement(MPartStack.class);
+		stack.getChildren().add(part);
+		psc.getChildren().add(stack);
+		assertSame(part, modelService.find("changedId", application));
+	}
+
+	@Test
+	public void testFindElementsInSearchOrder() {
+		MApplication application = createApplication();
+		EModelService modelService = application.getContext().get(EModelService.class);
+
+		MWindow window = modelService.createModelElement(MWindow.class);
+		application.getChildren().add(window);
+
+		MPartStack outside = modelService.createModelElement(MPartStack.class);
+		outside.getChildren().add(createPart(modelService, "sharedId"));
+		window.getChildren().add(outside);
+
+		MPerspectiveStack perspectiveStack = modelService.createModelElement(MPerspectiveStack.class);
+		window.getChildren().add(perspectiveStack);
+
+		MArea area = modelService.createModelElement(MArea.class);
+		area.getChildren().add(createPart(modelService, "sharedId"));
+		window.getSharedElements().add(area);
+
+		MPartStack sharedStack = modelService.createModelElement(MPartStack.class);
+		sharedStack.getChildren().add(createPart(modelService, "sharedId"));
+		window.getSharedElements().add(sharedStack);
+
+		for (int i = 0; i < 3; i++) {
+			MPerspective perspective = modelService.createModelElement(MPerspective.class);
+			perspectiveStack.getChildren().add(perspective);
+			MPartStack stack = modelService.createModelElement(MPartStack.class);
+			perspective.getChildren().add(stack);
+			for (int j = 0; j < 10; j++) {
+				stack.getChildren().add(createPart(modelService, j == i ? "sharedId" : "otherId"));
+			}
+			MPlaceholder areaPlaceholder = modelService.createModelElement(MPlaceholder.class);
+			areaPlaceholder.setRef(area);
+			perspective.getChildren().add(areaPlaceholder);
+			MPlaceholder stackPlaceholder = modelService.createModelElement(MPlaceholder.class);
+			stackPlaceholder.setRef(sharedStack);
+			perspective.getChildren().add(i, stackPlaceholder);
+		}
+		perspectiveStack.setSelectedElement(perspectiveStack.getChildren().get(1));
+
+		int[] flags = { EModelService.ANYWHERE, EModelService.PRESENTATION, EModelService.GLOBAL,
+				EModelService.OUTSIDE_PERSPECTIVE, EModelService.IN_ANY_PERSPECTIVE,
+				EModelService.IN_ACTIVE_PERSPECTIVE,
+				EModelService.IN_ANY_PERSPECTIVE | EModelService.IN_SHARED_AREA };
+		for (int searchFlags : flags) {
+			assertSameAsFullSearch(modelService, application, "sharedId", searchFlags);
+			assertSameAsFullSearch(modelService, window, "sharedId", searchFlags);
+			assertSameAsFullSearch(modelService, perspectiveStack, "sharedId", searchFlags);
+		}
+	}
+
+	@Test
+	public void testFindElementsInCopy() {
+		MApplication application = createApplication();
+		applicationContext.set(MApplication.class, application);
+		EModelService modelService = application.getContext().get(EModelService.class);
+		assertNotNull(modelService.find("singleValidId", application));
+		int adapterCount = ((EObject) application).eAdapters().size();
+
+		// the workbench searches copies of the model in the auto-save job
+		MApplication copy = EcoreUtil.copy(application);
+		MUIElement window = modelService.find("singleValidId", copy);
+		assertNotNull(window);
+		assertSame(copy, EcoreUtil.getRootContainer((EObject) window));
+		assertTrue(((EObject) copy).eAdapters().isEmpty());
+
+		assertEquals(adapterCount, ((EObject) application).eAdapters().size());
+		assertNotNull(modelService.find("singleValidId", application));
+	}
+
+	@Test
+	public void testDispose() {
+		MApplication application = createApplication();
+		EModelService modelService = application.getContext().get(EModelService.class);
+		int adapterCount = ((EObject) application).eAdapters().size();
+		assertNotNull(modelService.find("singleValidId", application));
+		assertEquals(adapterCount + 1, ((EObject) application).eAdapters().size());
+
+		((ModelServiceImpl) modelService).dispose();
+		assertEquals(adapterCount, ((EObject) application).eAdapters().size());
+
+		assertNotNull(modelService.find("singleValidId", application));
+		assertEquals(adapterCount + 1, ((EObject) application).eAdapters().size());
+		((ModelServiceImpl) modelService).dispose();
+	}
+
+	private MPart createPart(EModelService modelService, String id) {
+		MPart part = modelService.createModelElement(MPart.class);
+		part.setElementId(id);
+		return part;
+	}
+
+	/*
+	 * Compares a search by id with a search for all elements, which has to
+	 * visit the whole model
+	 */
+	private void assertSameAsFullSearch(EModelService modelService, MUIElement searchRoot, String id,
+			int searchFlags) {
+		List<MUIElement> expected = new ArrayList<MUIElement>();
+		for (MUIElement element : modelService.findElements(searchRoot, null, MUIElement.class, null,
+				searchFlags)) {
+			if (id.equals(element.getElementId())) {
+				expected.add(element);
+			}
+		}
+		List<MUIElement> found = modelService.findElements(searchRoot, id, MUIElement.class, null, searchFlags);
+		assertEquals("Search flags " + searchFlags, expected, found);
+		if (searchFlags == EModelService.ANYWHERE) {
+			assertTrue(found.size() > 1);
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2015 IBM Corporation and others.
+ * Copyright (c) 2010, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,22 +13,40 @@
 package org.eclipse.e4.ui.tests.application;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
 
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.URIUtil;
 import org.eclipse.e4.core.contexts.ContextInjectionFactory;
 import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.ui.internal.workbench.E4BinaryResource;
 import org.eclipse.e4.ui.internal.workbench.E4Workbench;
 import org.eclipse.e4.ui.internal.workbench.E4XMIResource;
 import org.eclipse.e4.ui.internal.workbench.ResourceHandler;
 import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.ui.basic.MBasicFactory;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MWindow;
+import org.eclipse.e4.ui.model.application.ui.basic.MWindowElement;
 import org.eclipse.e4.ui.model.application.ui.menu.MMenu;
 import org.eclipse.e4.ui.model.application.ui.menu.MMenuElement;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.osgi.service.datalocation.Location;
 import org.junit.Test;
 import org.osgi.framework.BundleContext;
@@ -58,17 +76,32 @@ public class ResourceHandlerTest extends HeadlessStartupTest {
 	}
 
 	private ResourceHandler createHandler(URI uri) {
+		return createHandler(uri, true, false);
+	}
+
+	private ResourceHandler createHandler(URI uri, boolean clearPersistedState, boolean binaryPersistence) {
+		return createHandler(uri, clearPersistedState, binaryPersistence, false);
+	}
+
+	private ResourceHandler createHandler(URI uri, boolean clearPersistedState, boolean binaryPersistence,
+			boolean journalAutoSave) {
+		return ContextInjectionFactory.make(ResourceHandler.class,
+				createHandlerContext(uri, clearPersistedState, binaryPersistence, journalAutoSave));
+	}
+
+	private IEclipseContext createHandlerContext(URI uri, boolean clearPersistedState,
+			boolean binaryPersistence, boolean journalAutoSave) {
 		IEclipseContext localContext = applicationContext.createChild();
 		localContext.set(E4Workbench.INSTANCE_LOCATION, getInstanceLocation());
 		localContext.set(E4Workbench.PERSIST_STATE, Boolean.TRUE);
-		localContext.set(E4Workbench.CLEAR_PERSISTED_STATE, Boolean.TRUE);
+		localContext.set(E4Workbench.CLEAR_PERSISTED_STATE, Boolean.valueOf(clearPersistedState));
 		localContext.set(E4Workbench.DELTA_RESTORE, Boolean.TRUE);
+		localContext.set(E4Workbench.BINARY_PERSISTENCE, Boolean.valueOf(binaryPersistence));
+		localContext.set(E4Workbench.JOURNAL_AUTO_SAVE, Boolean.valueOf(journalAutoSave));
 
 		localContext.set(E4Workbench.INITIAL_WORKBENCH_MODEL_URI, uri);
 
-		return ContextInjectionFactory
-				.make(ResourceHandler.class, localContext);
-
+		return localContext;
 	}
 
 	@Test
@@ -162,6 +195,201 @@ public class ResourceHandlerTest extends HeadlessStartupTest {
 		assertNotNull(findByElementId(menu2.getChildren(), "fragment.contributedMenuItem.xpath"));
 	}
 
+	@Test
+	public void testBinaryPersistence() throws Exception {
+		URI uri = URI.createPlatformPluginURI("org.eclipse.e4.ui.tests/xmi/modelprocessor/base.e4xmi", true);
+		ResourceHandler handler = createHandler(uri, true, true);
+		Resource resource = handler.loadMostRecentModel();
+		assertTrue(resource instanceof E4BinaryResource);
+		MWindow window = ((MApplication) resource.getContents().get(0)).getChildren().get(1);
+		String windowId = ((E4XMIResource) resource).getID((EObject) window);
+		handler.save();
+
+		Resource restored = createHandler(uri, false, true).loadMostRecentModel();
+		assertTrue(restored instanceof E4BinaryResource);
+		MWindow restoredWindow = ((MApplication) restored.getContents().get(0)).getChildren().get(1);
+		assertEquals(window.getElementId(), restoredWindow.getElementId());
+		assertEquals(windowId, ((E4XMIResource) restored).getID((EObject) restoredWindow));
+	}
+
+	@Test
+	public void testBinaryPersistenceFallsBackToXMI() throws Exception {
+		URI uri = URI.createPlatformPluginURI("org.eclipse.e4.ui.tests/xmi/modelprocessor/base.e4xmi", true);
+		ResourceHandler handler = createHandler(uri, true, false);
+		Resource resource = handler.loadMostRecentModel();
+		assertFalse(resource instanceof E4BinaryResource);
+		MWindow window = ((MApplication) resource.getContents().get(0)).getChildren().get(1);
+		String windowId = ((E4XMIResource) resource).getID((EObject) window);
+		handler.save();
+
+		// a newer, but unreadable binary model
+		File baseLocation = new File(URIUtil.toURI(getInstanceLocation().getURL()));
+		File binaryFile = new File(baseLocation, ".metadata/.plugins/org.eclipse.e4.workbench/workbench.e4bin");
+		try (OutputStream out = new FileOutputStream(binaryFile)) {
+			out.write(new byte[] { 1, 2, 3, 4 });
+		}
+		binaryFile.setLastModified(System.currentTimeMillis() + 1000);
+
+		Resource restored = createHandler(uri, false, true).loadMostRecentModel();
+		assertTrue(restored instanceof E4BinaryResource);
+		MWindow restoredWindow = ((MApplication) restored.getContents().get(0)).getChildren().get(1);
+		assertEquals(window.getElementId(), restoredWindow.getElementId());
+		assertEquals(windowId, ((E4XMIResource) restored).getID((EObject) restoredWindow));
+		binaryFile.delete();
+	}
+
+	@Test
+	public void testJournalAutoSave() throws Exception {
+		URI uri = URI.createPlatformPluginURI("org.eclipse.e4.ui.tests/xmi/modelprocessor/base.e4xmi", true);
+		ResourceHandler handler = createHandler(uri, true, false, true);
+		E4XMIResource resource = (E4XMIResource) handler.loadMostRecentModel();
+		MApplication application = (MApplication) resource.getContents().get(0);
+		saveSnapshot(handler, resource);
+		File journalFile = new File(new File(URIUtil.toURI(getInstanceLocation().getURL())),
+				".metadata/.plugins/org.eclipse.e4.workbench/workbench.journal");
+		assertFalse(journalFile.exists());
+
+		MWindow window = application.getChildren().get(0);
+		window.setLabel("Journaled");
+		MPart part = MBasicFactory.INSTANCE.createPart();
+		part.setElementId("journal.part");
+		part.getPersistedState().put("key", "value");
+		window.getChildren().add(part);
+		String partId = resource.getID((EObject) part);
+		saveSnapshot(handler, resource);
+		assertTrue(journalFile.exists());
+
+		E4XMIResource restored = (E4XMIResource) createHandler(uri, false, false, true).loadMostRecentModel();
+		MWindow restoredWindow = ((MApplication) restored.getContents().get(0)).getChildren().get(0);
+		assertEquals("Journaled", restoredWindow.getLabel());
+		MPart restoredPart = null;
+		for (MWindowElement element : restoredWindow.getChildren()) {
+			if ("journal.part".equals(element.getElementId())) {
+				restoredPart = (MPart) element;
+			}
+		}
+		assertNotNull(restoredPart);
+		assertEquals("value", restoredPart.getPersistedState().get("key"));
+		assertEquals(partId, restored.getID((EObject) restoredPart));
+
+		// a full save makes the journal obsolete
+		handler.save();
+		assertFalse(journalFile.exists());
+	}
+
+	@Test
+	public void testDamagedJournalDiscarded() throws Exception {
+		URI uri = URI.createPlatformPluginURI("org.eclipse.e4.ui.tests/xmi/modelprocessor/base.e4xmi", true);
+		ResourceHandler handler = createHandler(uri, true, false, true);
+		E4XMIResource resource = (E4XMIResource) handler.loadMostRecentModel();
+		MApplication application = (MApplication) resource.getContents().get(0);
+		saveSnapshot(handler, resource);
+		File journalFile = new File(new File(URIUtil.toURI(getInstanceLocation().getURL())),
+				".metadata/.plugins/org.eclipse.e4.workbench/workbench.journal");
+
+		MWindow window = application.getChildren().get(0);
+		String label = window.getLabel();
+		window.setLabel("Journaled");
+		saveSnapshot(handler, resource);
+		assertTrue(journalFile.exists());
+
+		// a complete entry with a wrong checksum
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(journalFile, true))) {
+			out.writeInt(8);
+			out.writeLong(0);
+			out.writeLong(0);
+		}
+
+		E4XMIResource restored = (E4XMIResource) createHandler(uri, false, false, true).loadMostRecentModel();
+		MWindow restoredWindow = ((MApplication) restored.getContents().get(0)).getChildren().get(0);
+		assertEquals(label, restoredWindow.getLabel());
+		assertFalse(journalFile.exists());
+	}
+
+	@Test
+	public void testAssembledModelCache() throws Exception {
+		// processors that may read other state must run on every start
+		assumeTrue(hasOnlyModelOnlyProcessors());
+		URI uri = URI.createPlatformPluginURI("org.eclipse.e4.ui.tests/xmi/modelprocessor/base.e4xmi", true);
+		File baseLocation = new File(new File(URIUtil.toURI(getInstanceLocation().getURL())),
+				".metadata/.plugins/org.eclipse.e4.workbench");
+		File cacheFile = new File(baseLocation, "assembled.xmi");
+		File fingerprintFile = new File(baseLocation, "assembled.fingerprint");
+		cacheFile.delete();
+		fingerprintFile.delete();
+
+		MApplication assembled = (MApplication) createCachingHandler(uri).loadMostRecentModel().getContents()
+				.get(0);
+		assertTrue(cacheFile.exists());
+		assertTrue(fingerprintFile.exists());
+		long cacheLastModified = cacheFile.lastModified();
+
+		E4XMIResource cached = (E4XMIResource) createCachingHandler(uri).loadMostRecentModel();
+		MApplication application = (MApplication) cached.getContents().get(0);
+		assertEquals(cacheLastModified, cacheFile.lastModified());
+		assertEquals(assembled.getChildren().size(), application.getChildren().size());
+		assertEquals("fragment.contributedWindow", application.getChildren().get(1).getElementId());
+		assertEquals("_w4fQ8HVHEd-aXt9fFntEtw", cached.getID((EObject) application.getChildren().get(1)));
+		assertEquals("fragment.contributedPosFirst",
+				application.getChildren().get(0).getChildren().get(0).getElementId());
+
+		// a changed installation assembles the model again
+		try (OutputStream out = new FileOutputStream(fingerprintFile)) {
+			out.write("changed".getBytes("UTF-8"));
+		}
+		application = (MApplication) createCachingHandler(uri).loadMostRecentModel().getContents().get(0);
+		assertEquals("fragment.contributedWindow", application.getChildren().get(1).getElementId());
+		assertTrue(fingerprintFile.length() > "changed".length());
+	}
+
+	@Test
+	public void testAssembledModelNotCachedWithProcessors() throws Exception {
+		assumeFalse(hasOnlyModelOnlyProcessors());
+		URI uri = URI.createPlatformPluginURI("org.eclipse.e4.ui.tests/xmi/modelprocessor/base.e4xmi", true);
+		File baseLocation = new File(new File(URIUtil.toURI(getInstanceLocation().getURL())),
+				".metadata/.plugins/org.eclipse.e4.workbench");
+		File cacheFile = new File(baseLocation, "assembled.xmi");
+		File fingerprintFile = new File(baseLocation, "assembled.fingerprint");
+		cacheFile.delete();
+		fingerprintFile.delete();
+
+		MApplication application = (MApplication) createCachingHandler(uri).loadMostRecentModel().getContents()
+				.get(0);
+		assertEquals("fragment.contributedWindow", application.getChildren().get(1).getElementId());
+		assertFalse(cacheFile.exists());
+		assertFalse(fingerprintFile.exists());
+	}
+
+	private static boolean hasOnlyModelOnlyProcessors() {
+		for (IConfigurationElement ce : Platform.getExtensionRegistry().getConfigurationElementsFor(
+				"org.eclipse.e4.workbench.model")) {
+			if ("processor".equals(ce.getName()) && !Boolean.parseBoolean(ce.getAttribute("modelOnly"))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private ResourceHandler createCachingHandler(URI uri) {
+		IEclipseContext localContext = createHandlerContext(uri, true, false, false);
+		localContext.set(E4Workbench.CACHE_ASSEMBLED_MODEL, Boolean.TRUE);
+		return ContextInjectionFactory.make(ResourceHandler.class, localContext);
+	}
+
+	private void saveSnapshot(ResourceHandler handler, E4XMIResource resource) throws Exception {
+		EcoreUtil.Copier copier = new EcoreUtil.Copier();
+		MApplication snapshot = (MApplication) copier.copy(resource.getContents().get(0));
+		copier.copyReferences();
+		Map<EObject, String> ids = new HashMap<>();
+		for (Map.Entry<EObject, EObject> entry : copier.entrySet()) {
+			String id = resource.getID(entry.getKey());
+			if (id != null) {
+				ids.put(entry.getValue(), id);
+			}
+		}
+		handler.saveSnapshot(snapshot, ids);
+	}
+
 	/**
 	 * @param children
 	 * @param id
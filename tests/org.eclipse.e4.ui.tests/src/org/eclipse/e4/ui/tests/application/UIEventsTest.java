@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 IBM Corporation and others.
+ * Copyright (c) 2009, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,15 +11,19 @@
 
 package org.eclipse.e4.ui.tests.application;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import org.eclipse.e4.core.contexts.EclipseContextFactory;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.services.events.IEventBroker;
+import org.eclipse.e4.ui.di.UISynchronize;
 import org.eclipse.e4.ui.internal.workbench.UIEventPublisher;
 import org.eclipse.e4.ui.model.application.MApplication;
 import org.eclipse.e4.ui.model.application.MApplicationElement;
@@ -30,6 +34,7 @@ import org.eclipse.e4.ui.model.application.ui.menu.MMenu;
 import org.eclipse.e4.ui.model.application.ui.menu.MMenuFactory;
 import org.eclipse.e4.ui.tests.model.test.MTestFactory;
 import org.eclipse.e4.ui.tests.model.test.MTestHarness;
+import org.eclipse.e4.ui.workbench.UIEvents;
 import org.eclipse.e4.ui.workbench.UIEvents.ApplicationElement;
 import org.eclipse.e4.ui.workbench.UIEvents.Command;
 import org.eclipse.e4.ui.workbench.UIEvents.Context;
@@ -37,6 +42,7 @@ import org.eclipse.e4.ui.workbench.UIEvents.Contribution;
 import org.eclipse.e4.ui.workbench.UIEvents.Dirtyable;
 import org.eclipse.e4.ui.workbench.UIEvents.ElementContainer;
 import org.eclipse.e4.ui.workbench.UIEvents.EventTags;
+import org.eclipse.e4.ui.workbench.UIEvents.EventTypes;
 import org.eclipse.e4.ui.workbench.UIEvents.Input;
 import org.eclipse.e4.ui.workbench.UIEvents.Parameter;
 import org.eclipse.e4.ui.workbench.UIEvents.UIElement;
@@ -335,6 +341,70 @@ public class UIEventsTest extends HeadlessApplicationElementTest {
 		checkForFailures(allTesters, windowTester);
 	}
 
+	@Test
+	public void testCoalescedEvents() {
+		IEventBroker eventBroker = applicationContext.get(IEventBroker.class);
+		AppElementTester appTester = new AppElementTester(eventBroker);
+
+		// keep the dispatch of the publisher from running until the test flushes
+		final List<Runnable> dispatches = new ArrayList<Runnable>();
+		applicationContext.set(UISynchronize.class, new UISynchronize() {
+			@Override
+			public void syncExec(Runnable runnable) {
+				runnable.run();
+			}
+
+			@Override
+			public void asyncExec(Runnable runnable) {
+				dispatches.add(runnable);
+			}
+		});
+
+		final List<Event> idEvents = new ArrayList<Event>();
+		eventBroker.subscribe(topic(ApplicationElement.TOPIC_ELEMENTID, EventTypes.SET), new EventHandler() {
+			@Override
+			public void handleEvent(Event event) {
+				idEvents.add(event);
+			}
+		});
+
+		MTestHarness allData = MTestFactory.eINSTANCE.createTestHarness();
+		final UIEventPublisher ep = new UIEventPublisher(applicationContext, true);
+		((Notifier) allData).eAdapters().add(ep);
+
+		allData.setElementId("First Id");
+		allData.setElementId("Second Id");
+		allData.getTags().add("Testing");
+		allData.getPersistedState().put("testing", "Some state");
+
+		assertEquals(1, dispatches.size());
+		assertEquals(0, appTester.getAttIds(true).length);
+		assertTrue(ep.getPublishedCounts().isEmpty());
+
+		dispatches.get(0).run();
+
+		assertEquals(0, appTester.getAttIds(false).length);
+		Map<String, Integer> counts = ep.getPublishedCounts();
+		// the two SET events of the element id are merged
+		assertEquals(Integer.valueOf(1), counts.get(topic(ApplicationElement.TOPIC_ELEMENTID, EventTypes.SET)));
+		assertEquals(Integer.valueOf(1), counts.get(topic(ApplicationElement.TOPIC_TAGS, EventTypes.ADD)));
+		assertEquals(Integer.valueOf(1), counts.get(topic(ApplicationElement.TOPIC_PERSISTEDSTATE, EventTypes.ADD)));
+		assertEquals(1, idEvents.size());
+		assertNull(idEvents.get(0).getProperty(EventTags.OLD_VALUE));
+		assertEquals("Second Id", idEvents.get(0).getProperty(EventTags.NEW_VALUE));
+
+		// a value that is set back is not sent at all
+		allData.setElementId("Third Id");
+		allData.setElementId("Second Id");
+		assertEquals(2, dispatches.size());
+		dispatches.get(1).run();
+		assertEquals(1, idEvents.size());
+	}
+
+	private static String topic(String attributeTopic, String eventType) {
+		return attributeTopic.replace(UIEvents.ALL_SUB_TOPICS, eventType);
+	}
+
 	// Verify bug 374534
 	@Test
 	public void testBrokerCleanup() {
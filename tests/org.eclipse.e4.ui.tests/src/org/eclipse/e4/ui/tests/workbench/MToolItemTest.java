@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 IBM Corporation and others.
+ * Copyright (c) 2009, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,20 +16,38 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import org.eclipse.e4.core.commands.CommandServiceAddon;
+import org.eclipse.e4.core.contexts.ContextInjectionFactory;
 import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.core.di.annotations.CanExecute;
+import org.eclipse.e4.core.di.annotations.Execute;
+import org.eclipse.e4.core.services.events.IEventBroker;
+import org.eclipse.e4.ui.bindings.BindingServiceAddon;
 import org.eclipse.e4.ui.internal.workbench.E4Workbench;
+import org.eclipse.e4.ui.internal.workbench.addons.CommandProcessingAddon;
+import org.eclipse.e4.ui.internal.workbench.addons.HandlerProcessingAddon;
 import org.eclipse.e4.ui.internal.workbench.swt.E4Application;
 import org.eclipse.e4.ui.internal.workbench.swt.PartRenderingEngine;
 import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.commands.MCommand;
+import org.eclipse.e4.ui.model.application.commands.MHandler;
+import org.eclipse.e4.ui.model.application.commands.impl.CommandsFactoryImpl;
 import org.eclipse.e4.ui.model.application.impl.ApplicationFactoryImpl;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
 import org.eclipse.e4.ui.model.application.ui.basic.MTrimBar;
 import org.eclipse.e4.ui.model.application.ui.basic.MTrimmedWindow;
 import org.eclipse.e4.ui.model.application.ui.basic.impl.BasicFactoryImpl;
 import org.eclipse.e4.ui.model.application.ui.menu.ItemType;
+import org.eclipse.e4.ui.model.application.ui.menu.MHandledToolItem;
 import org.eclipse.e4.ui.model.application.ui.menu.MToolBar;
 import org.eclipse.e4.ui.model.application.ui.menu.MToolItem;
 import org.eclipse.e4.ui.model.application.ui.menu.impl.MenuFactoryImpl;
+import org.eclipse.e4.ui.services.ContextServiceAddon;
+import org.eclipse.e4.ui.workbench.UIEvents;
+import org.eclipse.e4.ui.workbench.modeling.EPartService;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.ToolItem;
 import org.junit.After;
@@ -287,4 +305,101 @@ public class MToolItemTest {
 		toolItem2.setSelected(true);
 		assertTrue(toolItemWidget2.getSelection());
 	}
+
+	public static class ActivePartHandler {
+		private final MPart enabledPart;
+
+		public ActivePartHandler(MPart enabledPart) {
+			this.enabledPart = enabledPart;
+		}
+
+		@CanExecute
+		public boolean canExecute(EPartService partService) {
+			// the active part of the part service is not tracked in a context
+			return partService.getActivePart() == enabledPart;
+		}
+
+		@Execute
+		public void execute() {
+		}
+	}
+
+	@Test
+	public void testMToolItem_EnablementFollowsActivePart() {
+		ContextInjectionFactory.make(CommandServiceAddon.class, appContext);
+		ContextInjectionFactory.make(ContextServiceAddon.class, appContext);
+		ContextInjectionFactory.make(BindingServiceAddon.class, appContext);
+
+		MTrimmedWindow window = BasicFactoryImpl.eINSTANCE
+				.createTrimmedWindow();
+		MPartStack stack = BasicFactoryImpl.eINSTANCE.createPartStack();
+		MPart partA = BasicFactoryImpl.eINSTANCE.createPart();
+		MPart partB = BasicFactoryImpl.eINSTANCE.createPart();
+		stack.getChildren().add(partA);
+		stack.getChildren().add(partB);
+		stack.setSelectedElement(partA);
+		window.getChildren().add(stack);
+		window.setSelectedElement(stack);
+
+		MCommand command = CommandsFactoryImpl.eINSTANCE.createCommand();
+		command.setElementId("mToolItemTest.activePartCommand");
+		command.setCommandName("Active Part Command");
+		MHandler handler = CommandsFactoryImpl.eINSTANCE.createHandler();
+		handler.setCommand(command);
+		handler.setObject(new ActivePartHandler(partA));
+		window.getHandlers().add(handler);
+
+		MTrimBar trimBar = BasicFactoryImpl.eINSTANCE.createTrimBar();
+		MToolBar toolBar = MenuFactoryImpl.eINSTANCE.createToolBar();
+		MHandledToolItem toolItem = MenuFactoryImpl.eINSTANCE
+				.createHandledToolItem();
+		toolItem.setCommand(command);
+		window.getTrimBars().add(trimBar);
+		trimBar.getChildren().add(toolBar);
+		toolBar.getChildren().add(toolItem);
+
+		MApplication application = ApplicationFactoryImpl.eINSTANCE
+				.createApplication();
+		application.getCommands().add(command);
+		application.getChildren().add(window);
+		application.setContext(appContext);
+		appContext.set(MApplication.class, application);
+		ContextInjectionFactory.make(CommandProcessingAddon.class, appContext);
+		ContextInjectionFactory.make(HandlerProcessingAddon.class, appContext);
+
+		wb = new E4Workbench(window, appContext);
+		wb.createAndRunUI(window);
+
+		EPartService partService = window.getContext().get(EPartService.class);
+		partService.activate(partA);
+		// evaluate the handler more than once, so that its enablement is
+		// remembered for the tool item
+		IEventBroker eventBroker = appContext.get(IEventBroker.class);
+		eventBroker.send(UIEvents.REQUEST_ENABLEMENT_UPDATE_TOPIC,
+				UIEvents.ALL_ELEMENT_ID);
+		processEvents();
+		eventBroker.send(UIEvents.REQUEST_ENABLEMENT_UPDATE_TOPIC,
+				UIEvents.ALL_ELEMENT_ID);
+		processEvents();
+
+		ToolItem toolItemWidget = (ToolItem) toolItem.getWidget();
+		assertTrue(toolItem.isEnabled());
+		assertTrue(toolItemWidget.isEnabled());
+
+		partService.activate(partB);
+		processEvents();
+		assertFalse(toolItem.isEnabled());
+		assertFalse(toolItemWidget.isEnabled());
+
+		partService.activate(partA);
+		processEvents();
+		assertTrue(toolItem.isEnabled());
+		assertTrue(toolItemWidget.isEnabled());
+	}
+
+	private static void processEvents() {
+		Display display = Display.getDefault();
+		while (display.readAndDispatch()) {
+		}
+	}
 }
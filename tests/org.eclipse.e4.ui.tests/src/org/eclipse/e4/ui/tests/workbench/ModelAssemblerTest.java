@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.tests.workbench;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IContributor;
+import org.eclipse.core.runtime.IExtension;
+import org.eclipse.core.runtime.IExtensionPoint;
+import org.eclipse.core.runtime.IExtensionRegistry;
+import org.eclipse.e4.core.contexts.ContextInjectionFactory;
+import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.ui.internal.workbench.E4XMIResource;
+import org.eclipse.e4.ui.internal.workbench.E4XMIResourceFactory;
+import org.eclipse.e4.ui.internal.workbench.ModelAssembler;
+import org.eclipse.e4.ui.internal.workbench.swt.E4Application;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.ui.basic.MWindow;
+import org.eclipse.e4.ui.model.application.ui.basic.MWindowElement;
+import org.eclipse.e4.ui.workbench.modeling.EModelService;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ExtensibleURIConverterImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that {@link ModelAssembler} merges the fragments it loads concurrently in the order of
+ * their contributions.
+ */
+public class ModelAssemblerTest {
+
+	private static final String BUNDLE_NAME = "org.eclipse.e4.ui.tests";
+
+	private IEclipseContext context;
+	private MApplication application;
+	private MWindow window;
+	private Set<String> readingThreads;
+
+	@Before
+	public void setUp() throws Exception {
+		context = E4Application.createDefaultContext();
+		EModelService modelService = context.get(EModelService.class);
+		application = modelService.createModelElement(MApplication.class);
+		window = modelService.createModelElement(MWindow.class);
+		window.setElementId("assembler.window");
+		application.getChildren().add(window);
+
+		readingThreads = Collections.synchronizedSet(new HashSet<String>());
+		ResourceSetImpl resourceSet = new ResourceSetImpl();
+		resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap()
+				.put(Resource.Factory.Registry.DEFAULT_EXTENSION, new E4XMIResourceFactory());
+		resourceSet.setURIConverter(new ExtensibleURIConverterImpl() {
+			@Override
+			public InputStream createInputStream(URI uri, Map<?, ?> options) throws IOException {
+				readingThreads.add(Thread.currentThread().getName());
+				return super.createInputStream(uri, options);
+			}
+		});
+		Resource resource = new E4XMIResource(URI.createURI("assembler.e4xmi"));
+		resourceSet.getResources().add(resource);
+		resource.getContents().add((EObject) application);
+		context.set(MApplication.class, application);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		context.dispose();
+	}
+
+	@Test
+	public void testFragmentsMergedInContributionOrder() {
+		context.set(IExtensionRegistry.class, createRegistry(4, 1, 3, 2));
+
+		ModelAssembler assembler = ContextInjectionFactory.make(ModelAssembler.class, context);
+		assembler.processModel(true);
+
+		// the second fragment of the third resource is invalid and not merged
+		assertEquals(Arrays.asList("assembler.part4.1", "assembler.part4.2", "assembler.part1.1",
+				"assembler.part1.2", "assembler.part3.1", "assembler.part2.1", "assembler.part2.2"),
+				getChildIds());
+
+		if (Runtime.getRuntime().availableProcessors() > 1) {
+			boolean loadedConcurrently = false;
+			for (String name : readingThreads) {
+				loadedConcurrently |= name.startsWith("Model Fragment Loader");
+			}
+			assertTrue("Fragments were read by " + readingThreads, loadedConcurrently);
+		}
+	}
+
+	@Test
+	public void testFragmentContributedTwice() {
+		context.set(IExtensionRegistry.class, createRegistry(2, 1, 2));
+
+		ModelAssembler assembler = ContextInjectionFactory.make(ModelAssembler.class, context);
+		assembler.processModel(true);
+
+		// the resource is loaded once, its elements are merged once
+		assertEquals(Arrays.asList("assembler.part2.1", "assembler.part2.2", "assembler.part1.1",
+				"assembler.part1.2"), getChildIds());
+	}
+
+	private List<String> getChildIds() {
+		List<String> ids = new ArrayList<String>();
+		for (MWindowElement child : window.getChildren()) {
+			ids.add(child.getElementId());
+		}
+		return ids;
+	}
+
+	/*
+	 * Creates a registry with a single model extension that contributes the
+	 * fragment resources with the given numbers in the given order
+	 */
+	private static IExtensionRegistry createRegistry(int... fragments) {
+		IContributor contributor = mock(IContributor.class);
+		when(contributor.getName()).thenReturn(BUNDLE_NAME);
+
+		IConfigurationElement[] elements = new IConfigurationElement[fragments.length];
+		for (int i = 0; i < fragments.length; i++) {
+			elements[i] = mock(IConfigurationElement.class);
+			when(elements[i].getName()).thenReturn("fragment");
+			when(elements[i].getAttribute("uri")).thenReturn(
+					"xmi/assembler/Fragment" + fragments[i] + ".e4xmi");
+			when(elements[i].getContributor()).thenReturn(contributor);
+		}
+
+		IExtension extension = mock(IExtension.class);
+		when(extension.getContributor()).thenReturn(contributor);
+		when(extension.getConfigurationElements()).thenReturn(elements);
+		IExtensionPoint extensionPoint = mock(IExtensionPoint.class);
+		when(extensionPoint.getExtensions()).thenReturn(new IExtension[] { extension });
+		IExtensionRegistry registry = mock(IExtensionRegistry.class);
+		when(registry.getExtensionPoint("org.eclipse.e4.workbench.model")).thenReturn(extensionPoint);
+		return registry;
+	}
+}
@@ -0,0 +1,262 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.workbench.renderers.swt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeNotNull;
+
+import java.util.HashSet;
+import javax.inject.Inject;
+import javax.inject.Named;
+import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.core.di.annotations.CanExecute;
+import org.eclipse.e4.core.di.annotations.Execute;
+import org.eclipse.e4.core.di.annotations.Optional;
+import org.eclipse.e4.core.services.events.IEventBroker;
+import org.eclipse.e4.ui.internal.workbench.E4Workbench;
+import org.eclipse.e4.ui.internal.workbench.swt.E4Application;
+import org.eclipse.e4.ui.internal.workbench.swt.PartRenderingEngine;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.impl.ApplicationFactoryImpl;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimBar;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimmedWindow;
+import org.eclipse.e4.ui.model.application.ui.basic.impl.BasicFactoryImpl;
+import org.eclipse.e4.ui.model.application.ui.menu.MDirectToolItem;
+import org.eclipse.e4.ui.model.application.ui.menu.MToolBar;
+import org.eclipse.e4.ui.model.application.ui.menu.impl.MenuFactoryImpl;
+import org.eclipse.e4.ui.services.IServiceConstants;
+import org.eclipse.e4.ui.workbench.UIEvents;
+import org.eclipse.swt.widgets.Display;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ToolItemUpdaterTest {
+
+	/**
+	 * Enablement that only depends on the active selection.
+	 */
+	public static class SelectionHandler {
+		int count;
+
+		@CanExecute
+		public boolean canExecute(@Optional @Named(IServiceConstants.ACTIVE_SELECTION) Object selection) {
+			count++;
+			return true;
+		}
+
+		@Execute
+		public void execute() {
+		}
+	}
+
+	/**
+	 * Enablement that only depends on a variable the tool bars don't track.
+	 */
+	public static class OtherHandler {
+		int count;
+
+		@CanExecute
+		public boolean canExecute(@Optional @Named("toolItemUpdaterTest.other") Object other) {
+			count++;
+			return true;
+		}
+
+		@Execute
+		public void execute() {
+		}
+	}
+
+	/**
+	 * Enablement that only names the selection, but may read anything through an injected field.
+	 */
+	public static class InjectedHandler {
+		int count;
+
+		@Inject
+		@Optional
+		IEclipseContext context;
+
+		@CanExecute
+		public boolean canExecute(@Optional @Named(IServiceConstants.ACTIVE_SELECTION) Object selection) {
+			count++;
+			return true;
+		}
+
+		@Execute
+		public void execute() {
+		}
+	}
+
+	/**
+	 * Enablement that may depend on anything in the context.
+	 */
+	public static class ContextHandler {
+		int count;
+
+		@CanExecute
+		public boolean canExecute(IEclipseContext context) {
+			count++;
+			return true;
+		}
+
+		@Execute
+		public void execute() {
+		}
+	}
+
+	private IEclipseContext appContext;
+	private E4Workbench wb;
+	private MTrimmedWindow window;
+	private MToolBar toolBar;
+	private SelectionHandler selectionHandler;
+	private OtherHandler otherHandler;
+	private ContextHandler contextHandler;
+	private InjectedHandler injectedHandler;
+	private IEventBroker eventBroker;
+
+	@Before
+	public void setUp() throws Exception {
+		Display.getDefault();
+		// the updates are only deferred to the next pass on the UI thread
+		assumeNotNull(Display.getCurrent());
+
+		appContext = E4Application.createDefaultContext();
+		appContext.set(E4Workbench.PRESENTATION_URI_ARG, PartRenderingEngine.engineURI);
+
+		window = BasicFactoryImpl.eINSTANCE.createTrimmedWindow();
+		MTrimBar trimBar = BasicFactoryImpl.eINSTANCE.createTrimBar();
+		toolBar = MenuFactoryImpl.eINSTANCE.createToolBar();
+		window.getTrimBars().add(trimBar);
+		trimBar.getChildren().add(toolBar);
+
+		selectionHandler = new SelectionHandler();
+		otherHandler = new OtherHandler();
+		contextHandler = new ContextHandler();
+		injectedHandler = new InjectedHandler();
+		addItem("selection", selectionHandler);
+		addItem("other", otherHandler);
+		addItem("context", contextHandler);
+		addItem("injected", injectedHandler);
+
+		MApplication application = ApplicationFactoryImpl.eINSTANCE.createApplication();
+		application.getChildren().add(window);
+		application.setContext(appContext);
+		appContext.set(MApplication.class, application);
+
+		wb = new E4Workbench(window, appContext);
+		wb.createAndRunUI(window);
+
+		eventBroker = appContext.get(IEventBroker.class);
+		// evaluate all items once, so that they are registered with their context keys
+		requestUpdate(UIEvents.ALL_ELEMENT_ID);
+		processEvents();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		if (wb != null) {
+			wb.close();
+		}
+		if (appContext != null) {
+			appContext.dispose();
+		}
+	}
+
+	@Test
+	public void testRequestsCoalesced() {
+		int selectionCount = selectionHandler.count;
+		int otherCount = otherHandler.count;
+
+		requestUpdate(UIEvents.ALL_ELEMENT_ID);
+		requestUpdate(UIEvents.ALL_ELEMENT_ID);
+		requestUpdate("selection");
+		assertEquals(selectionCount, selectionHandler.count);
+		assertEquals(otherCount, otherHandler.count);
+
+		processEvents();
+		assertEquals(selectionCount + 1, selectionHandler.count);
+		assertEquals(otherCount + 1, otherHandler.count);
+	}
+
+	@Test
+	public void testUnselectedItemsNotEvaluated() {
+		int selectionCount = selectionHandler.count;
+		int otherCount = otherHandler.count;
+		int contextCount = contextHandler.count;
+
+		requestUpdate("other");
+		processEvents();
+		assertEquals(selectionCount, selectionHandler.count);
+		assertEquals(otherCount + 1, otherHandler.count);
+		assertEquals(contextCount, contextHandler.count);
+	}
+
+	@Test
+	public void testContextChangeOnlyUpdatesRegisteredItems() {
+		int selectionCount = selectionHandler.count;
+		int otherCount = otherHandler.count;
+		int contextCount = contextHandler.count;
+		int injectedCount = injectedHandler.count;
+
+		appContext.set(IServiceConstants.ACTIVE_SELECTION, new Object());
+		processEvents();
+		assertEquals(selectionCount + 1, selectionHandler.count);
+		// only depends on a variable that did not change
+		assertEquals(otherCount, otherHandler.count);
+		// may read the selection through the context
+		assertEquals(contextCount + 1, contextHandler.count);
+		assertEquals(injectedCount + 1, injectedHandler.count);
+	}
+
+	@Test
+	public void testInjectedHandlerFollowsAllVariables() {
+		int selectionCount = selectionHandler.count;
+		int injectedCount = injectedHandler.count;
+
+		window.getContext().set(IServiceConstants.ACTIVE_CONTEXTS, new HashSet<String>());
+		processEvents();
+		// only names the selection
+		assertEquals(selectionCount, selectionHandler.count);
+		// may read anything through the injected context
+		assertEquals(injectedCount + 1, injectedHandler.count);
+	}
+
+	@Test
+	public void testOrphanedItemNotEvaluated() {
+		int selectionCount = selectionHandler.count;
+		int otherCount = otherHandler.count;
+
+		requestUpdate(UIEvents.ALL_ELEMENT_ID);
+		toolBar.getChildren().remove(0);
+		processEvents();
+		assertEquals(selectionCount, selectionHandler.count);
+		assertEquals(otherCount + 1, otherHandler.count);
+	}
+
+	private void addItem(String id, Object handler) {
+		MDirectToolItem item = MenuFactoryImpl.eINSTANCE.createDirectToolItem();
+		item.setElementId(id);
+		item.setObject(handler);
+		toolBar.getChildren().add(item);
+	}
+
+	private void requestUpdate(String id) {
+		eventBroker.send(UIEvents.REQUEST_ENABLEMENT_UPDATE_TOPIC, id);
+	}
+
+	private static void processEvents() {
+		Display display = Display.getDefault();
+		while (display.readAndDispatch()) {
+		}
+	}
+}
@@ -14,6 +14,7 @@ package org.eclipse.core.tests.databinding.observable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import junit.framework.TestCase;
@@ -253,6 +254,52 @@ public class Diffs_ListDiffTests extends TestCase {
 				Arrays.asList(new Object[] { "c", "a", "b" }));
 	}
 
+	public void testComputeListDiff_LargeListEdits() {
+		List<Object> oldList = new ArrayList<Object>();
+		for (int i = 0; i < 10000; i++) {
+			oldList.add(Integer.valueOf(i));
+		}
+		List<Object> newList = new ArrayList<Object>(oldList);
+		newList.remove(9000);
+		newList.add(5000, "inserted");
+		newList.add(0, newList.remove(7000));
+		newList.set(100, "replaced");
+
+		checkComputedListDiff(oldList, newList);
+		assertEquals(6, Diffs.computeListDiff(oldList, newList).getDifferences().length);
+	}
+
+	public void testComputeListDiff_LargeListReversed() {
+		List<Object> oldList = new ArrayList<Object>();
+		for (int i = 0; i < 1000; i++) {
+			oldList.add(Integer.valueOf(i % 100));
+		}
+		List<Object> newList = new ArrayList<Object>(oldList);
+		Collections.reverse(newList);
+
+		checkComputedListDiff(oldList, newList);
+	}
+
+	public void testComputeListDiff_LargeListWithNulls() {
+		List<Object> oldList = new ArrayList<Object>();
+		for (int i = 0; i < 200; i++) {
+			oldList.add(i % 3 == 0 ? null : Integer.valueOf(i));
+		}
+		List<Object> newList = new ArrayList<Object>(oldList.subList(50, 200));
+		newList.addAll(oldList.subList(0, 50));
+
+		checkComputedListDiff(oldList, newList);
+	}
+
+	public void testComputeListDiff_LargeListUnchanged() {
+		List<Object> oldList = new ArrayList<Object>();
+		for (int i = 0; i < 1000; i++) {
+			oldList.add(Integer.valueOf(i));
+		}
+
+		assertTrue(Diffs.computeListDiff(oldList, new ArrayList<Object>(oldList)).isEmpty());
+	}
+
 	private static void checkComputedListDiff(List<Object> oldList, List<Object> newList) {
 		ListDiff diff = Diffs.computeListDiff(oldList, newList);
 
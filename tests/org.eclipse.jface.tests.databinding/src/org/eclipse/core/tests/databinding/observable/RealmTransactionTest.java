@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.databinding.observable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.list.WritableList;
+import org.eclipse.core.databinding.observable.map.WritableMap;
+import org.eclipse.core.databinding.observable.set.WritableSet;
+import org.eclipse.core.databinding.observable.value.DoubleValueDiff;
+import org.eclipse.core.databinding.observable.value.IntValueDiff;
+import org.eclipse.core.databinding.observable.value.WritableDoubleValue;
+import org.eclipse.core.databinding.observable.value.WritableIntValue;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.jface.databinding.conformance.util.ChangeEventTracker;
+import org.eclipse.jface.databinding.conformance.util.CurrentRealm;
+import org.eclipse.jface.databinding.conformance.util.ListChangeEventTracker;
+import org.eclipse.jface.databinding.conformance.util.MapChangeEventTracker;
+import org.eclipse.jface.databinding.conformance.util.RealmTester;
+import org.eclipse.jface.databinding.conformance.util.SetChangeEventTracker;
+import org.eclipse.jface.databinding.conformance.util.ValueChangeEventTracker;
+
+/**
+ * Tests for {@link Realm#beginTransaction()} and
+ * {@link Realm#commitTransaction()}.
+ *
+ * @since 1.6
+ */
+public class RealmTransactionTest extends TestCase {
+	private Realm previousRealm;
+	private Realm realm;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		previousRealm = Realm.getDefault();
+		realm = new CurrentRealm(true);
+		RealmTester.setDefault(realm);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		RealmTester.setDefault(previousRealm);
+		super.tearDown();
+	}
+
+	public void testListChangesAreMergedOnCommit() {
+		WritableList<String> list = new WritableList<>();
+		list.add("a");
+		ListChangeEventTracker listTracker = ListChangeEventTracker.observe(list);
+		ChangeEventTracker changeTracker = ChangeEventTracker.observe(list);
+
+		realm.beginTransaction();
+		list.add("b");
+		list.add(0, "c");
+		list.remove("a");
+		assertTrue(realm.isInTransaction());
+		assertEquals(0, listTracker.count);
+		assertEquals(0, changeTracker.count);
+		realm.commitTransaction();
+
+		assertFalse(realm.isInTransaction());
+		assertEquals(1, listTracker.count);
+		assertEquals(1, changeTracker.count);
+		List<String> copy = new ArrayList<>(Collections.singletonList("a"));
+		listTracker.event.diff.applyTo(copy);
+		assertEquals(Arrays.asList("c", "b"), copy);
+	}
+
+	public void testSetChangesCancelOut() {
+		WritableSet<String> set = new WritableSet<>();
+		set.add("a");
+		SetChangeEventTracker tracker = SetChangeEventTracker.observe(set);
+
+		realm.beginTransaction();
+		set.remove("a");
+		set.add("b");
+		set.add("a");
+		realm.commitTransaction();
+
+		assertEquals(1, tracker.count);
+		assertEquals(Collections.singleton("b"), tracker.event.diff.getAdditions());
+		assertTrue(tracker.event.diff.getRemovals().isEmpty());
+	}
+
+	public void testValueChangesAreMerged() {
+		WritableValue<String> value = new WritableValue<>("a", String.class);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker.observe(value);
+
+		realm.beginTransaction();
+		value.setValue("b");
+		value.setValue("c");
+		realm.commitTransaction();
+
+		assertEquals(1, tracker.count);
+		assertEquals("a", tracker.event.diff.getOldValue());
+		assertEquals("c", tracker.event.diff.getNewValue());
+	}
+
+	public void testValueChangesSetBackAreDropped() {
+		WritableValue<String> value = new WritableValue<>("a", String.class);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker.observe(value);
+
+		realm.beginTransaction();
+		value.setValue("b");
+		value.setValue("a");
+		realm.commitTransaction();
+
+		assertEquals(0, tracker.count);
+	}
+
+	public void testPrimitiveValueChangesSetBackAreDropped() {
+		WritableIntValue intValue = new WritableIntValue(1);
+		WritableDoubleValue doubleValue = new WritableDoubleValue(1.5);
+		ValueChangeEventTracker intTracker = ValueChangeEventTracker.observe(intValue);
+		ValueChangeEventTracker doubleTracker = ValueChangeEventTracker.observe(doubleValue);
+
+		realm.beginTransaction();
+		intValue.setIntValue(2);
+		intValue.setIntValue(1);
+		doubleValue.setDoubleValue(2.5);
+		doubleValue.setDoubleValue(1.5);
+		realm.commitTransaction();
+
+		assertEquals(0, intTracker.count);
+		assertEquals(0, doubleTracker.count);
+	}
+
+	public void testIntValueChangesKeepIntValueDiff() {
+		WritableIntValue value = new WritableIntValue(1);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker.observe(value);
+
+		realm.beginTransaction();
+		value.setIntValue(2);
+		value.setIntValue(3);
+		realm.commitTransaction();
+
+		assertEquals(1, tracker.count);
+		IntValueDiff diff = (IntValueDiff) tracker.event.diff;
+		assertEquals(1, diff.getOldIntValue());
+		assertEquals(3, diff.getNewIntValue());
+	}
+
+	public void testDoubleValueChangesKeepDoubleValueDiff() {
+		WritableDoubleValue value = new WritableDoubleValue(1.5);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker.observe(value);
+
+		realm.beginTransaction();
+		value.setDoubleValue(2.5);
+		value.setDoubleValue(3.5);
+		realm.commitTransaction();
+
+		assertEquals(1, tracker.count);
+		DoubleValueDiff diff = (DoubleValueDiff) tracker.event.diff;
+		assertEquals(1.5, diff.getOldDoubleValue(), 0.0);
+		assertEquals(3.5, diff.getNewDoubleValue(), 0.0);
+	}
+
+	public void testMapChangesAreMerged() {
+		WritableMap<String, String> map = new WritableMap<>();
+		map.put("changed", "1");
+		map.put("removed", "1");
+		MapChangeEventTracker tracker = MapChangeEventTracker.observe(map);
+
+		realm.beginTransaction();
+		map.put("changed", "2");
+		map.put("changed", "3");
+		map.remove("removed");
+		map.put("added", "1");
+		map.put("transient", "1");
+		map.remove("transient");
+		realm.commitTransaction();
+
+		assertEquals(1, tracker.count);
+		assertEquals(Collections.singleton("added"), tracker.event.diff.getAddedKeys());
+		assertEquals(Collections.singleton("removed"), tracker.event.diff.getRemovedKeys());
+		assertEquals(Collections.singleton("changed"), tracker.event.diff.getChangedKeys());
+		assertEquals("1", tracker.event.diff.getOldValue("changed"));
+		assertEquals("3", tracker.event.diff.getNewValue("changed"));
+		assertEquals("1", tracker.event.diff.getOldValue("removed"));
+	}
+
+	public void testNestedTransactionsFireOnOutermostCommit() {
+		WritableValue<String> value = new WritableValue<>("a", String.class);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker.observe(value);
+
+		realm.beginTransaction();
+		realm.beginTransaction();
+		value.setValue("b");
+		realm.commitTransaction();
+		assertEquals(0, tracker.count);
+		realm.commitTransaction();
+		assertEquals(1, tracker.count);
+	}
+
+	public void testCommitWithoutBegin() {
+		try {
+			realm.commitTransaction();
+			fail("Expected IllegalStateException");
+		} catch (IllegalStateException e) {
+		}
+	}
+}
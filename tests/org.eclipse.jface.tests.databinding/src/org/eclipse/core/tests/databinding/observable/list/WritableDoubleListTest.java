@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.databinding.observable.list;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.databinding.observable.IObservable;
+import org.eclipse.core.databinding.observable.IObservableCollection;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.list.DoubleListDiffEntry;
+import org.eclipse.core.databinding.observable.list.ListDiffEntry;
+import org.eclipse.core.databinding.observable.list.WritableDoubleList;
+import org.eclipse.jface.databinding.conformance.ObservableListContractTest;
+import org.eclipse.jface.databinding.conformance.delegate.AbstractObservableCollectionContractDelegate;
+import org.eclipse.jface.databinding.conformance.util.CurrentRealm;
+import org.eclipse.jface.databinding.conformance.util.ListChangeEventTracker;
+import org.eclipse.jface.databinding.conformance.util.RealmTester;
+
+/**
+ * @since 1.6
+ */
+public class WritableDoubleListTest extends TestCase {
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		RealmTester.setDefault(new CurrentRealm(true));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		RealmTester.setDefault(null);
+		super.tearDown();
+	}
+
+	public void testPrimitiveAccess() throws Exception {
+		WritableDoubleList list = new WritableDoubleList();
+		list.addDouble(1.5);
+		list.addDouble(3.5);
+		list.addDouble(1, 2.5);
+
+		assertEquals(Double.TYPE, list.getElementType());
+		assertEquals(2.5, list.getDouble(1), 0.0);
+		assertEquals(1, list.indexOfDouble(2.5));
+		assertEquals(-1, list.indexOfDouble(4.5));
+		assertEquals(2.5, list.setDouble(1, 4.5), 0.0);
+		assertEquals(4.5, list.removeDoubleAt(1), 0.0);
+		assertTrue(Arrays.equals(new double[] { 1.5, 3.5 }, list.toDoubleArray()));
+		assertEquals(Arrays.asList(new Double[] { 1.5, 3.5 }), list);
+	}
+
+	public void testDiffEntriesAreDoubleListDiffEntries() throws Exception {
+		WritableDoubleList list = new WritableDoubleList(Realm.getDefault(), new double[] { 1.5, 2.5, 3.5 });
+		ListChangeEventTracker tracker = ListChangeEventTracker.observe(list);
+
+		list.setDouble(1, 5.5);
+
+		assertEquals(1, tracker.count);
+		ListDiffEntry[] entries = tracker.event.diff.getDifferences();
+		assertEquals(2, entries.length);
+		assertFalse(entries[0].isAddition());
+		assertEquals(2.5, ((DoubleListDiffEntry) entries[0]).getDoubleElement(), 0.0);
+		assertTrue(entries[1].isAddition());
+		assertEquals(5.5, ((DoubleListDiffEntry) entries[1]).getDoubleElement(), 0.0);
+	}
+
+	public void testBulkChangesFireOneEvent() throws Exception {
+		WritableDoubleList list = new WritableDoubleList(Realm.getDefault(), new double[] { 1, 2, 3, 2, 1 });
+		ListChangeEventTracker tracker = ListChangeEventTracker.observe(list);
+
+		List<Double> copy = new ArrayList<Double>(list);
+		list.removeAll(Arrays.asList(new Double[] { 2.0 }));
+		assertEquals(1, tracker.count);
+		tracker.event.diff.applyTo(copy);
+		assertEquals(copy, list);
+
+		list.addAll(1, Arrays.asList(new Double[] { 7.0, 8.0 }));
+		assertEquals(2, tracker.count);
+		tracker.event.diff.applyTo(copy);
+		assertEquals(copy, list);
+
+		list.retainAll(Arrays.asList(new Double[] { 1.0, 8.0 }));
+		assertEquals(3, tracker.count);
+		tracker.event.diff.applyTo(copy);
+		assertEquals(copy, list);
+		assertTrue(Arrays.equals(new double[] { 1, 8, 1 }, list.toDoubleArray()));
+	}
+
+	public void testMove() throws Exception {
+		WritableDoubleList list = new WritableDoubleList(Realm.getDefault(), new double[] { 1, 2, 3, 4 });
+
+		assertEquals(Double.valueOf(1), list.move(0, 2));
+		assertTrue(Arrays.equals(new double[] { 2, 3, 1, 4 }, list.toDoubleArray()));
+		assertEquals(Double.valueOf(4), list.move(3, 0));
+		assertTrue(Arrays.equals(new double[] { 4, 2, 3, 1 }, list.toDoubleArray()));
+	}
+
+	public void testAddDoubleRealmChecks() throws Exception {
+		RealmTester.exerciseCurrent(new Runnable() {
+			@Override
+			public void run() {
+				new WritableDoubleList().addDouble(1.5);
+			}
+		});
+	}
+
+	public static Test suite() {
+		TestSuite suite = new TestSuite(WritableDoubleListTest.class.getName());
+		suite.addTestSuite(WritableDoubleListTest.class);
+		// the mutable contract expects the same element instances back, but
+		// doubles are boxed on every access
+		suite.addTest(ObservableListContractTest.suite(new Delegate()));
+		return suite;
+	}
+
+	/* package */static class Delegate extends AbstractObservableCollectionContractDelegate {
+		@Override
+		public Object createElement(IObservableCollection collection) {
+			return Double.valueOf(collection.size() + 1);
+		}
+
+		@Override
+		public Object getElementType(IObservableCollection collection) {
+			return Double.TYPE;
+		}
+
+		@Override
+		public IObservableCollection createObservableCollection(Realm realm, final int itemCount) {
+			WritableDoubleList observable = new WritableDoubleList(realm);
+
+			for (int i = 0; i < itemCount; i++) {
+				observable.addDouble(i);
+			}
+
+			return observable;
+		}
+
+		@Override
+		public void change(IObservable observable) {
+			((WritableDoubleList) observable).addDouble(0);
+		}
+	}
+}
@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.databinding.observable.list;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.databinding.observable.IObservable;
+import org.eclipse.core.databinding.observable.IObservableCollection;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.list.IntListDiffEntry;
+import org.eclipse.core.databinding.observable.list.ListDiffEntry;
+import org.eclipse.core.databinding.observable.list.WritableDoubleList;
+import org.eclipse.core.databinding.observable.list.WritableIntList;
+import org.eclipse.core.runtime.AssertionFailedException;
+import org.eclipse.jface.databinding.conformance.MutableObservableListContractTest;
+import org.eclipse.jface.databinding.conformance.delegate.AbstractObservableCollectionContractDelegate;
+import org.eclipse.jface.databinding.conformance.util.CurrentRealm;
+import org.eclipse.jface.databinding.conformance.util.ListChangeEventTracker;
+import org.eclipse.jface.databinding.conformance.util.RealmTester;
+
+/**
+ * @since 1.6
+ */
+public class WritableIntListTest extends TestCase {
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		RealmTester.setDefault(new CurrentRealm(true));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		RealmTester.setDefault(null);
+		super.tearDown();
+	}
+
+	public void testPrimitiveAccess() throws Exception {
+		WritableIntList list = new WritableIntList();
+		list.addInt(1);
+		list.addInt(3);
+		list.addInt(1, 2);
+
+		assertEquals(Integer.TYPE, list.getElementType());
+		assertEquals(2, list.getInt(1));
+		assertEquals(1, list.indexOfInt(2));
+		assertEquals(-1, list.indexOfInt(4));
+		assertEquals(2, list.setInt(1, 4));
+		assertEquals(4, list.removeIntAt(1));
+		assertTrue(Arrays.equals(new int[] { 1, 3 }, list.toIntArray()));
+		assertEquals(Arrays.asList(new Integer[] { 1, 3 }), list);
+	}
+
+	public void testDiffEntriesAreIntListDiffEntries() throws Exception {
+		WritableIntList list = new WritableIntList(Realm.getDefault(), new int[] { 1, 2, 3 });
+		ListChangeEventTracker tracker = ListChangeEventTracker.observe(list);
+
+		list.setInt(1, 5);
+
+		assertEquals(1, tracker.count);
+		ListDiffEntry[] entries = tracker.event.diff.getDifferences();
+		assertEquals(2, entries.length);
+		assertFalse(entries[0].isAddition());
+		assertEquals(2, ((IntListDiffEntry) entries[0]).getIntElement());
+		assertTrue(entries[1].isAddition());
+		assertEquals(5, ((IntListDiffEntry) entries[1]).getIntElement());
+	}
+
+	public void testBulkChangesFireOneEvent() throws Exception {
+		WritableIntList list = new WritableIntList(Realm.getDefault(), new int[] { 1, 2, 3, 2, 1 });
+		ListChangeEventTracker tracker = ListChangeEventTracker.observe(list);
+
+		List<Integer> copy = new ArrayList<Integer>(list);
+		list.removeAll(Arrays.asList(new Integer[] { 2 }));
+		assertEquals(1, tracker.count);
+		tracker.event.diff.applyTo(copy);
+		assertEquals(copy, list);
+
+		list.addAll(1, Arrays.asList(new Integer[] { 7, 8 }));
+		assertEquals(2, tracker.count);
+		tracker.event.diff.applyTo(copy);
+		assertEquals(copy, list);
+
+		list.retainAll(Arrays.asList(new Integer[] { 1, 8 }));
+		assertEquals(3, tracker.count);
+		tracker.event.diff.applyTo(copy);
+		assertEquals(copy, list);
+		assertTrue(Arrays.equals(new int[] { 1, 8, 1 }, list.toIntArray()));
+	}
+
+	public void testMove() throws Exception {
+		WritableIntList list = new WritableIntList(Realm.getDefault(), new int[] { 1, 2, 3, 4 });
+
+		assertEquals(Integer.valueOf(1), list.move(0, 2));
+		assertTrue(Arrays.equals(new int[] { 2, 3, 1, 4 }, list.toIntArray()));
+		assertEquals(Integer.valueOf(4), list.move(3, 0));
+		assertTrue(Arrays.equals(new int[] { 4, 2, 3, 1 }, list.toIntArray()));
+	}
+
+	public void testMoveAndClearDiffs() throws Exception {
+		WritableIntList list = new WritableIntList(Realm.getDefault(), new int[] { 1, 2, 3, 4 });
+		ListChangeEventTracker tracker = ListChangeEventTracker.observe(list);
+
+		List<Integer> copy = new ArrayList<Integer>(list);
+		list.move(3, 1);
+		tracker.event.diff.applyTo(copy);
+		assertEquals(copy, list);
+
+		list.clear();
+		tracker.event.diff.applyTo(copy);
+		assertTrue(copy.isEmpty());
+		assertEquals(2, tracker.count);
+	}
+
+	public void testAddAllWithNullLeavesListUnchanged() throws Exception {
+		WritableIntList list = new WritableIntList(Realm.getDefault(), new int[] { 1, 2 });
+
+		try {
+			list.addAll(Arrays.asList(new Integer[] { 3, null }));
+			fail("Expected AssertionFailedException");
+		} catch (AssertionFailedException e) {
+		}
+		assertTrue(Arrays.equals(new int[] { 1, 2 }, list.toIntArray()));
+	}
+
+	public void testDoubleListComparesLikeDoubleEquals() throws Exception {
+		WritableDoubleList list = new WritableDoubleList(Realm.getDefault(), new double[] { 0.0, Double.NaN });
+
+		assertEquals(1, list.indexOfDouble(Double.NaN));
+		assertEquals(-1, list.indexOfDouble(-0.0));
+		assertEquals(Double.valueOf(Double.NaN), list.get(1));
+	}
+
+	public void testAddIntRealmChecks() throws Exception {
+		RealmTester.exerciseCurrent(new Runnable() {
+			@Override
+			public void run() {
+				new WritableIntList().addInt(1);
+			}
+		});
+	}
+
+	public static Test suite() {
+		TestSuite suite = new TestSuite(WritableIntListTest.class.getName());
+		suite.addTestSuite(WritableIntListTest.class);
+		suite.addTest(MutableObservableListContractTest.suite(new Delegate()));
+		return suite;
+	}
+
+	/* package */static class Delegate extends AbstractObservableCollectionContractDelegate {
+		@Override
+		public Object createElement(IObservableCollection collection) {
+			return Integer.valueOf(collection.size() + 1);
+		}
+
+		@Override
+		public Object getElementType(IObservableCollection collection) {
+			return Integer.TYPE;
+		}
+
+		@Override
+		public IObservableCollection createObservableCollection(Realm realm, final int itemCount) {
+			WritableIntList observable = new WritableIntList(realm);
+
+			for (int i = 0; i < itemCount; i++) {
+				observable.addInt(i);
+			}
+
+			return observable;
+		}
+
+		@Override
+		public void change(IObservable observable) {
+			((WritableIntList) observable).addInt(0);
+		}
+	}
+}
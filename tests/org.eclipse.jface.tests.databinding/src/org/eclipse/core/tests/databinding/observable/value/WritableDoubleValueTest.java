@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.databinding.observable.value;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.databinding.observable.IObservable;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.DoubleValueDiff;
+import org.eclipse.core.databinding.observable.value.WritableDoubleValue;
+import org.eclipse.jface.databinding.conformance.MutableObservableValueContractTest;
+import org.eclipse.jface.databinding.conformance.delegate.AbstractObservableValueContractDelegate;
+import org.eclipse.jface.databinding.conformance.util.CurrentRealm;
+import org.eclipse.jface.databinding.conformance.util.RealmTester;
+import org.eclipse.jface.databinding.conformance.util.ValueChangeEventTracker;
+
+/**
+ * @since 1.6
+ */
+public class WritableDoubleValueTest extends TestCase {
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		RealmTester.setDefault(new CurrentRealm(true));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		RealmTester.setDefault(null);
+		super.tearDown();
+	}
+
+	public void testConstructor() throws Exception {
+		WritableDoubleValue value = new WritableDoubleValue();
+		assertEquals(0.0, value.getDoubleValue(), 0.0);
+		assertEquals(Double.valueOf(0.0), value.getValue());
+		assertEquals(Double.TYPE, value.getValueType());
+	}
+
+	public void testSetDoubleValueFiresDoubleValueDiff() throws Exception {
+		WritableDoubleValue value = new WritableDoubleValue(1.5);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker.observe(value);
+
+		value.setDoubleValue(2.5);
+
+		assertEquals(2.5, value.getDoubleValue(), 0.0);
+		assertEquals(1, tracker.count);
+		DoubleValueDiff diff = (DoubleValueDiff) tracker.event.diff;
+		assertEquals(1.5, diff.getOldDoubleValue(), 0.0);
+		assertEquals(2.5, diff.getNewDoubleValue(), 0.0);
+	}
+
+	public void testSetSameDoubleValueDoesNotFire() throws Exception {
+		WritableDoubleValue value = new WritableDoubleValue(1.5);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker.observe(value);
+
+		value.setDoubleValue(1.5);
+		value.setValue(Double.valueOf(1.5));
+
+		assertEquals(0, tracker.count);
+	}
+
+	public void testValuesAreComparedLikeDoubleEquals() throws Exception {
+		WritableDoubleValue value = new WritableDoubleValue(Double.NaN);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker.observe(value);
+
+		value.setDoubleValue(Double.NaN);
+		assertEquals(0, tracker.count);
+
+		value.setDoubleValue(0.0);
+		value.setDoubleValue(-0.0);
+		assertEquals(2, tracker.count);
+	}
+
+	public void testSetValueWithoutListeners() throws Exception {
+		WritableDoubleValue value = new WritableDoubleValue(1.5);
+
+		value.setValue(Double.valueOf(3.5));
+
+		assertEquals(3.5, value.getDoubleValue(), 0.0);
+	}
+
+	public void testSetDoubleValueRealmChecks() throws Exception {
+		RealmTester.exerciseCurrent(new Runnable() {
+			@Override
+			public void run() {
+				new WritableDoubleValue().setDoubleValue(1.5);
+			}
+		});
+	}
+
+	public static Test suite() {
+		TestSuite suite = new TestSuite(WritableDoubleValueTest.class.getName());
+		suite.addTestSuite(WritableDoubleValueTest.class);
+		suite.addTest(MutableObservableValueContractTest.suite(new Delegate()));
+		return suite;
+	}
+
+	/* package */static class Delegate extends AbstractObservableValueContractDelegate {
+		@Override
+		public IObservableValue createObservableValue(Realm realm) {
+			return new WritableDoubleValue(realm, 0.0);
+		}
+
+		@Override
+		public void change(IObservable observable) {
+			IObservableValue observableValue = (IObservableValue) observable;
+			observableValue.setValue(createValue(observableValue));
+		}
+
+		@Override
+		public Object getValueType(IObservableValue observable) {
+			return Double.TYPE;
+		}
+
+		@Override
+		public Object createValue(IObservableValue observable) {
+			return Double.valueOf(((WritableDoubleValue) observable).getDoubleValue() + 1.0);
+		}
+	}
+}
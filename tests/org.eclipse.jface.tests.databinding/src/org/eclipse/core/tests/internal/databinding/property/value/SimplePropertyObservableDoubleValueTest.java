@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.internal.databinding.property.value;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.databinding.observable.value.IObservableDoubleValue;
+import org.eclipse.core.databinding.observable.value.DoubleValueDiff;
+import org.eclipse.core.databinding.observable.value.ValueDiff;
+import org.eclipse.core.databinding.property.INativePropertyListener;
+import org.eclipse.core.databinding.property.ISimplePropertyListener;
+import org.eclipse.core.databinding.property.NativePropertyListener;
+import org.eclipse.core.databinding.property.value.SimpleDoubleValueProperty;
+import org.eclipse.jface.databinding.conformance.util.CurrentRealm;
+import org.eclipse.jface.databinding.conformance.util.RealmTester;
+import org.eclipse.jface.databinding.conformance.util.StaleEventTracker;
+import org.eclipse.jface.databinding.conformance.util.ValueChangeEventTracker;
+
+/**
+ * Tests for {@link SimpleDoubleValueProperty} and its observables.
+ *
+ * @since 1.6
+ */
+public class SimplePropertyObservableDoubleValueTest extends TestCase {
+	private Bean bean;
+	private DoubleProperty property;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		RealmTester.setDefault(new CurrentRealm(true));
+		bean = new Bean();
+		property = new DoubleProperty();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		RealmTester.setDefault(null);
+		super.tearDown();
+	}
+
+	public void testGetAndSetDoubleValue() throws Exception {
+		IObservableDoubleValue observable = property.observe(bean);
+
+		assertEquals(Double.TYPE, observable.getValueType());
+		observable.setDoubleValue(1.5);
+		assertEquals(1.5, bean.value, 0.0);
+		assertEquals(1.5, observable.getDoubleValue(), 0.0);
+		assertEquals(Double.valueOf(1.5), observable.getValue());
+	}
+
+	public void testNullSource() throws Exception {
+		assertEquals(0.0, property.getDoubleValue(null), 0.0);
+		property.setDoubleValue(null, 1.5);
+	}
+
+	public void testSetDoubleValueFiresDoubleValueDiff() throws Exception {
+		IObservableDoubleValue observable = property.observe(bean);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker.observe(observable);
+
+		observable.setDoubleValue(1.5);
+
+		// the change notification of the bean itself is ignored
+		assertEquals(1, tracker.count);
+		DoubleValueDiff diff = (DoubleValueDiff) tracker.event.diff;
+		assertEquals(0.0, diff.getOldDoubleValue(), 0.0);
+		assertEquals(1.5, diff.getNewDoubleValue(), 0.0);
+	}
+
+	public void testSourceChangeFiresDoubleValueDiff() throws Exception {
+		bean.setValue(1.5);
+		IObservableDoubleValue observable = property.observe(bean);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker.observe(observable);
+
+		bean.setValue(2.5);
+		bean.setValue(3.5);
+
+		assertEquals(2, tracker.count);
+		DoubleValueDiff diff = (DoubleValueDiff) tracker.event.diff;
+		assertEquals(2.5, diff.getOldDoubleValue(), 0.0);
+		assertEquals(3.5, diff.getNewDoubleValue(), 0.0);
+	}
+
+	public void testUnchangedSourceDoesNotFire() throws Exception {
+		bean.setValue(1.5);
+		IObservableDoubleValue observable = property.observe(bean);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker.observe(observable);
+
+		bean.setValue(1.5);
+
+		assertEquals(0, tracker.count);
+	}
+
+	public void testStale() throws Exception {
+		IObservableDoubleValue observable = property.observe(bean);
+		ValueChangeEventTracker changeTracker = ValueChangeEventTracker.observe(observable);
+		StaleEventTracker staleTracker = StaleEventTracker.observe(observable);
+
+		bean.fireStale();
+		assertTrue(observable.isStale());
+		assertEquals(1, staleTracker.count);
+
+		// the first change after a stale event is always fired
+		bean.setValue(bean.value);
+		assertFalse(observable.isStale());
+		assertEquals(1, changeTracker.count);
+	}
+
+	public void testDispose() throws Exception {
+		IObservableDoubleValue observable = property.observe(bean);
+		ValueChangeEventTracker.observe(observable);
+		assertEquals(1, bean.listeners.size());
+
+		observable.dispose();
+
+		assertEquals(0, bean.listeners.size());
+	}
+
+	private static class Bean {
+		double value;
+		final List<Listener> listeners = new ArrayList<>();
+
+		void setValue(double value) {
+			this.value = value;
+			for (Listener listener : new ArrayList<>(listeners)) {
+				listener.changed(this);
+			}
+		}
+
+		void fireStale() {
+			for (Listener listener : new ArrayList<>(listeners)) {
+				listener.stale(this);
+			}
+		}
+	}
+
+	private static class Listener extends NativePropertyListener<Bean, ValueDiff<? extends Double>> {
+		Listener(DoubleProperty property, ISimplePropertyListener<Bean, ValueDiff<? extends Double>> listener) {
+			super(property, listener);
+		}
+
+		@Override
+		protected void doAddTo(Bean source) {
+			source.listeners.add(this);
+		}
+
+		@Override
+		protected void doRemoveFrom(Bean source) {
+			source.listeners.remove(this);
+		}
+
+		void changed(Bean source) {
+			fireChange(source, null);
+		}
+
+		void stale(Bean source) {
+			fireStale(source);
+		}
+	}
+
+	private static class DoubleProperty extends SimpleDoubleValueProperty<Bean> {
+		@Override
+		protected double doGetDoubleValue(Bean source) {
+			return source.value;
+		}
+
+		@Override
+		protected void doSetDoubleValue(Bean source, double value) {
+			source.setValue(value);
+		}
+
+		@Override
+		public INativePropertyListener<Bean> adaptListener(
+				ISimplePropertyListener<Bean, ValueDiff<? extends Double>> listener) {
+			return new Listener(this, listener);
+		}
+	}
+}
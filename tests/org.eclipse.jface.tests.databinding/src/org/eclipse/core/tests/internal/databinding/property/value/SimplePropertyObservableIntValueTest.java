@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.internal.databinding.property.value;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.databinding.observable.value.IObservableIntValue;
+import org.eclipse.core.databinding.observable.value.IntValueDiff;
+import org.eclipse.core.databinding.observable.value.ValueDiff;
+import org.eclipse.core.databinding.property.INativePropertyListener;
+import org.eclipse.core.databinding.property.ISimplePropertyListener;
+import org.eclipse.core.databinding.property.NativePropertyListener;
+import org.eclipse.core.databinding.property.value.SimpleIntValueProperty;
+import org.eclipse.jface.databinding.conformance.util.CurrentRealm;
+import org.eclipse.jface.databinding.conformance.util.RealmTester;
+import org.eclipse.jface.databinding.conformance.util.StaleEventTracker;
+import org.eclipse.jface.databinding.conformance.util.ValueChangeEventTracker;
+
+/**
+ * Tests for {@link SimpleIntValueProperty} and its observables.
+ *
+ * @since 1.6
+ */
+public class SimplePropertyObservableIntValueTest extends TestCase {
+	private Bean bean;
+	private IntProperty property;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		RealmTester.setDefault(new CurrentRealm(true));
+		bean = new Bean();
+		property = new IntProperty();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		RealmTester.setDefault(null);
+		super.tearDown();
+	}
+
+	public void testGetAndSetIntValue() throws Exception {
+		IObservableIntValue observable = property.observe(bean);
+
+		assertEquals(Integer.TYPE, observable.getValueType());
+		observable.setIntValue(1);
+		assertEquals(1, bean.value);
+		assertEquals(1, observable.getIntValue());
+		assertEquals(Integer.valueOf(1), observable.getValue());
+	}
+
+	public void testNullSource() throws Exception {
+		assertEquals(0, property.getIntValue(null));
+		property.setIntValue(null, 1);
+	}
+
+	public void testSetIntValueFiresIntValueDiff() throws Exception {
+		IObservableIntValue observable = property.observe(bean);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker.observe(observable);
+
+		observable.setIntValue(1);
+
+		// the change notification of the bean itself is ignored
+		assertEquals(1, tracker.count);
+		IntValueDiff diff = (IntValueDiff) tracker.event.diff;
+		assertEquals(0, diff.getOldIntValue());
+		assertEquals(1, diff.getNewIntValue());
+	}
+
+	public void testSourceChangeFiresIntValueDiff() throws Exception {
+		bean.setValue(1);
+		IObservableIntValue observable = property.observe(bean);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker.observe(observable);
+
+		bean.setValue(2);
+		bean.setValue(3);
+
+		assertEquals(2, tracker.count);
+		IntValueDiff diff = (IntValueDiff) tracker.event.diff;
+		assertEquals(2, diff.getOldIntValue());
+		assertEquals(3, diff.getNewIntValue());
+	}
+
+	public void testUnchangedSourceDoesNotFire() throws Exception {
+		bean.setValue(1);
+		IObservableIntValue observable = property.observe(bean);
+		ValueChangeEventTracker tracker = ValueChangeEventTracker.observe(observable);
+
+		bean.setValue(1);
+
+		assertEquals(0, tracker.count);
+	}
+
+	public void testStale() throws Exception {
+		IObservableIntValue observable = property.observe(bean);
+		ValueChangeEventTracker changeTracker = ValueChangeEventTracker.observe(observable);
+		StaleEventTracker staleTracker = StaleEventTracker.observe(observable);
+
+		bean.fireStale();
+		assertTrue(observable.isStale());
+		assertEquals(1, staleTracker.count);
+
+		// the first change after a stale event is always fired
+		bean.setValue(bean.value);
+		assertFalse(observable.isStale());
+		assertEquals(1, changeTracker.count);
+	}
+
+	public void testDispose() throws Exception {
+		IObservableIntValue observable = property.observe(bean);
+		ValueChangeEventTracker.observe(observable);
+		assertEquals(1, bean.listeners.size());
+
+		observable.dispose();
+
+		assertEquals(0, bean.listeners.size());
+	}
+
+	private static class Bean {
+		int value;
+		final List<Listener> listeners = new ArrayList<>();
+
+		void setValue(int value) {
+			this.value = value;
+			for (Listener listener : new ArrayList<>(listeners)) {
+				listener.changed(this);
+			}
+		}
+
+		void fireStale() {
+			for (Listener listener : new ArrayList<>(listeners)) {
+				listener.stale(this);
+			}
+		}
+	}
+
+	private static class Listener extends NativePropertyListener<Bean, ValueDiff<? extends Integer>> {
+		Listener(IntProperty property, ISimplePropertyListener<Bean, ValueDiff<? extends Integer>> listener) {
+			super(property, listener);
+		}
+
+		@Override
+		protected void doAddTo(Bean source) {
+			source.listeners.add(this);
+		}
+
+		@Override
+		protected void doRemoveFrom(Bean source) {
+			source.listeners.remove(this);
+		}
+
+		void changed(Bean source) {
+			fireChange(source, null);
+		}
+
+		void stale(Bean source) {
+			fireStale(source);
+		}
+	}
+
+	private static class IntProperty extends SimpleIntValueProperty<Bean> {
+		@Override
+		protected int doGetIntValue(Bean source) {
+			return source.value;
+		}
+
+		@Override
+		protected void doSetIntValue(Bean source, int value) {
+			source.setValue(value);
+		}
+
+		@Override
+		public INativePropertyListener<Bean> adaptListener(
+				ISimplePropertyListener<Bean, ValueDiff<? extends Integer>> listener) {
+			return new Listener(this, listener);
+		}
+	}
+}
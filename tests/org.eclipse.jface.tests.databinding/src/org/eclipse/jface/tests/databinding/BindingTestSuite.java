@@ -50,6 +50,7 @@ import org.eclipse.core.tests.databinding.observable.Diffs_ListDiffTests;
 import org.eclipse.core.tests.databinding.observable.ObservableTrackerTest;
 import org.eclipse.core.tests.databinding.observable.ObservablesTest;
 import org.eclipse.core.tests.databinding.observable.RealmTest;
+import org.eclipse.core.tests.databinding.observable.RealmTransactionTest;
 import org.eclipse.core.tests.databinding.observable.list.AbstractObservableListTest;
 import org.eclipse.core.tests.databinding.observable.list.ComputedListTest;
 import org.eclipse.core.tests.databinding.observable.list.DecoratingObservableListTest;
@@ -57,6 +58,8 @@ import org.eclipse.core.tests.databinding.observable.list.ListDiffTest;
 import org.eclipse.core.tests.databinding.observable.list.ListDiffVisitorTest;
 import org.eclipse.core.tests.databinding.observable.list.MultiListTest;
 import org.eclipse.core.tests.databinding.observable.list.ObservableListTest;
+import org.eclipse.core.tests.databinding.observable.list.WritableDoubleListTest;
+import org.eclipse.core.tests.databinding.observable.list.WritableIntListTest;
 import org.eclipse.core.tests.databinding.observable.list.WritableListTest;
 import org.eclipse.core.tests.databinding.observable.map.AbstractObservableMapTest;
 import org.eclipse.core.tests.databinding.observable.map.BidiObservableMapTest;
@@ -77,6 +80,8 @@ import org.eclipse.core.tests.databinding.observable.value.DateAndTimeObservable
 import org.eclipse.core.tests.databinding.observable.value.DecoratingObservableValueTest;
 import org.eclipse.core.tests.databinding.observable.value.DuplexingObservableValueTest;
 import org.eclipse.core.tests.databinding.observable.value.SelectObservableValueTest;
+import org.eclipse.core.tests.databinding.observable.value.WritableDoubleValueTest;
+import org.eclipse.core.tests.databinding.observable.value.WritableIntValueTest;
 import org.eclipse.core.tests.databinding.observable.value.WritableValueTest;
 import org.eclipse.core.tests.databinding.util.PolicyTest;
 import org.eclipse.core.tests.databinding.validation.MultiValidatorTest;
@@ -149,6 +154,8 @@ import org.eclipse.core.tests.internal.databinding.observable.masterdetail.SetDe
 import org.eclipse.core.tests.internal.databinding.property.value.ListSimpleValueObservableListTest;
 import org.eclipse.core.tests.internal.databinding.property.value.MapSimpleValueObservableMapTest;
 import org.eclipse.core.tests.internal.databinding.property.value.SetSimpleValueObservableMapTest;
+import org.eclipse.core.tests.internal.databinding.property.value.SimplePropertyObservableDoubleValueTest;
+import org.eclipse.core.tests.internal.databinding.property.value.SimplePropertyObservableIntValueTest;
 import org.eclipse.core.tests.internal.databinding.validation.AbstractStringToNumberValidatorTest;
 import org.eclipse.core.tests.internal.databinding.validation.NumberToByteValidatorTest;
 import org.eclipse.core.tests.internal.databinding.validation.NumberToDoubleValidatorTest;
@@ -283,6 +290,7 @@ public class BindingTestSuite extends TestSuite {
 		addTestSuite(ObservablesTest.class);
 		addTestSuite(ObservableTrackerTest.class);
 		addTestSuite(RealmTest.class);
+		addTestSuite(RealmTransactionTest.class);
 
 		// org.eclipse.core.tests.databinding.observable.list
 		addTest(AbstractObservableListTest.suite());
@@ -293,6 +301,8 @@ public class BindingTestSuite extends TestSuite {
 		addTest(MultiListTest.suite());
 		addTest(ObservableListTest.suite());
 		addTest(WritableListTest.suite());
+		addTest(WritableIntListTest.suite());
+		addTest(WritableDoubleListTest.suite());
 
 		// org.eclipse.core.tests.databinding.observable.map
 		addTestSuite(AbstractObservableMapTest.class);
@@ -319,6 +329,8 @@ public class BindingTestSuite extends TestSuite {
 		addTestSuite(DuplexingObservableValueTest.class);
 		addTest(SelectObservableValueTest.suite());
 		addTest(WritableValueTest.suite());
+		addTest(WritableIntValueTest.suite());
+		addTest(WritableDoubleValueTest.suite());
 
 		// org.eclipse.core.tests.databinding.validation
 		addTestSuite(MultiValidatorTest.class);
@@ -405,6 +417,8 @@ public class BindingTestSuite extends TestSuite {
 		addTestSuite(MapSimpleValueObservableMapTest.class);
 		addTestSuite(SetSimpleValueObservableMapTest.class);
 		addTestSuite(ListSimpleValueObservableListTest.class);
+		addTestSuite(SimplePropertyObservableIntValueTest.class);
+		addTestSuite(SimplePropertyObservableDoubleValueTest.class);
 
 		// org.eclipse.core.tests.internal.databinding.validation
 		addTestSuite(AbstractStringToNumberValidatorTest.class);
@@ -16,6 +16,7 @@ import java.util.Arrays;
 import java.util.Comparator;
 
 import org.eclipse.jface.util.Policy;
+import org.eclipse.jface.viewers.ViewerSorter;
 import org.eclipse.ui.tests.performance.BasicPerformanceTest;
 
 /**
@@ -50,6 +51,33 @@ public class CollatorPerformanceTest extends BasicPerformanceTest {
         assertPerformance();
 	}
 
+	/**
+	 * test a collating viewer sorter that compares labels for every comparison
+	 */
+	public void testViewerSorter() {
+		sortWithViewerSorter(false);
+	}
+
+	/**
+	 * test a collating viewer sorter that computes the collation keys once
+	 */
+	public void testViewerSorterSortKeys() {
+		sortWithViewerSorter(true);
+	}
+
+	private void sortWithViewerSorter(boolean sortKeysEnabled) {
+		ViewerSorter sorter = new ViewerSorter();
+		sorter.setSortKeysEnabled(sortKeysEnabled);
+		for (int i = 0; i < 15; i++) {
+			Object[] array = fArray.clone();
+			startMeasuring();
+			sorter.sort(null, array);
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
 	/**
 	 * Generate a large sized array for sorting
 	 */
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jface.tests.performance;
+
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.StructuredViewer;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.ui.tests.performance.TestRunnable;
+
+/**
+ * ElementMapPerformanceTest measures the element map of a structured viewer
+ * (mapping, looking up and unmapping elements) without the cost of creating
+ * items, so that large element counts can be measured.
+ *
+ * @since 3.12
+ */
+public class ElementMapPerformanceTest extends ViewerTest {
+
+	private ElementMapTableViewer viewer;
+
+	private static class ElementMapTableViewer extends TableViewer {
+
+		ElementMapTableViewer(Composite parent) {
+			super(parent);
+		}
+
+		void map(Object[] elements) {
+			for (int i = 0; i < elements.length; i++) {
+				mapElement(elements[i], getControl());
+			}
+		}
+
+		void unmap(Object[] elements) {
+			for (int i = 0; i < elements.length; i++) {
+				unmapElement(elements[i], getControl());
+			}
+		}
+	}
+
+	public ElementMapPerformanceTest(String testName, int tagging) {
+		super(testName, tagging);
+	}
+
+	public ElementMapPerformanceTest(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected StructuredViewer createViewer(Shell shell) {
+		viewer = new ElementMapTableViewer(shell);
+		viewer.setContentProvider(ArrayContentProvider.getInstance());
+		return viewer;
+	}
+
+	@Override
+	protected Object getInitialInput() {
+		return new Object[0];
+	}
+
+	public void testElementMap10000() throws Throwable {
+		elementMapBench(10000);
+	}
+
+	public void testElementMap100000() throws Throwable {
+		elementMapBench(100000);
+	}
+
+	public void testElementMap1000000() throws Throwable {
+		elementMapBench(1000000);
+	}
+
+	/**
+	 * Test the time for mapping, finding and unmapping count elements.
+	 *
+	 * @param count
+	 * @throws Throwable
+	 */
+	public void elementMapBench(int count) throws Throwable {
+		openBrowser();
+		final Object[] elements = new Object[count];
+		for (int i = 0; i < count; i++) {
+			elements[i] = new TestElement(i);
+		}
+		exercise(new TestRunnable() {
+			@Override
+			public void run() {
+				startMeasuring();
+				viewer.map(elements);
+				for (int i = 0; i < elements.length; i++) {
+					viewer.testFindItem(elements[i]);
+				}
+				viewer.unmap(elements);
+				stopMeasuring();
+			}
+		}, MIN_ITERATIONS, ITERATIONS, JFacePerformanceSuite.MAX_TIME);
+
+		commitMeasurements();
+		assertPerformance();
+	}
+}
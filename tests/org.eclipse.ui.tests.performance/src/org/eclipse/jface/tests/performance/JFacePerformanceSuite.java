@@ -48,6 +48,11 @@ public class JFacePerformanceSuite extends FilteredTestSuite {
 		addTest(new ProgressMonitorDialogPerformanceTest("testLongNames"));
 		addTest(new ShrinkingTreeTest("testTreeViewerRefresh"));
 		addTest(new CollatorPerformanceTest("testCollator"));
+		addTest(new CollatorPerformanceTest("testViewerSorter"));
+		addTest(new CollatorPerformanceTest("testViewerSorterSortKeys"));
+		addTest(new ElementMapPerformanceTest("testElementMap10000"));
+		addTest(new ElementMapPerformanceTest("testElementMap100000"));
+		addTest(new ElementMapPerformanceTest("testElementMap1000000"));
 
 	}
 }
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.tests.performance;
+
+import org.eclipse.e4.ui.css.swt.theme.ITheme;
+import org.eclipse.e4.ui.css.swt.theme.IThemeEngine;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Combo;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Text;
+
+/**
+ * Measures how long it takes to apply a theme to a shell with a large number
+ * of widgets.
+ *
+ * @since 3.12
+ */
+public class ApplyThemeTest extends BasicPerformanceTest {
+
+	private static final String DARK_THEME_ID = "org.eclipse.e4.ui.css.theme.e4_dark";
+
+	private final String themeId;
+
+	private final int widgetCount;
+
+	public ApplyThemeTest(String themeId, int widgetCount, int tagging) {
+		super("Apply theme " + themeId + " to " + widgetCount + " widgets", tagging);
+		this.themeId = themeId;
+		this.widgetCount = widgetCount;
+	}
+
+	public ApplyThemeTest(int widgetCount) {
+		this(DARK_THEME_ID, widgetCount, NONE);
+	}
+
+	@Override
+	protected void runTest() throws Throwable {
+		final IThemeEngine themeEngine = fWorkbench.getService(IThemeEngine.class);
+		assertNotNull("No theme engine available", themeEngine);
+		ITheme previousTheme = themeEngine.getActiveTheme();
+		themeEngine.setTheme(themeId, false);
+
+		final Shell shell = new Shell(fWorkbench.getDisplay());
+		try {
+			createWidgets(shell);
+
+			exercise(new TestRunnable() {
+				@Override
+				public void run() throws Exception {
+					startMeasuring();
+					themeEngine.applyStyles(shell, true);
+					stopMeasuring();
+					processEvents();
+				}
+			});
+			commitMeasurements();
+			assertPerformance();
+		} finally {
+			shell.dispose();
+			if (previousTheme != null) {
+				themeEngine.setTheme(previousTheme, false);
+			}
+		}
+	}
+
+	/**
+	 * Fills the shell with rows of commonly themed widgets until it contains
+	 * the requested number of widgets.
+	 */
+	private void createWidgets(Shell shell) {
+		shell.setLayout(new FillLayout());
+		Composite parent = new Composite(shell, SWT.NONE);
+		parent.setLayout(new GridLayout(1, false));
+		int count = 1;
+		while (count < widgetCount) {
+			Composite row = new Composite(parent, SWT.NONE);
+			row.setLayout(new GridLayout(4, false));
+			count++;
+			for (int i = 0; i < 12 && count < widgetCount; i++) {
+				switch (count % 4) {
+				case 0:
+					new Label(row, SWT.NONE).setText("Label " + count);
+					break;
+				case 1:
+					new Text(row, SWT.BORDER).setText("Text " + count);
+					break;
+				case 2:
+					new Button(row, SWT.CHECK).setText("Check " + count);
+					break;
+				default:
+					new Combo(row, SWT.READ_ONLY).add("Item " + count);
+					break;
+				}
+				count++;
+			}
+		}
+	}
+}
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.tests.performance;
+
+import java.io.File;
+import org.eclipse.e4.ui.internal.workbench.E4BinaryResourceFactory;
+import org.eclipse.e4.ui.internal.workbench.E4XMIResourceFactory;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.MApplicationFactory;
+import org.eclipse.e4.ui.model.application.ui.advanced.MAdvancedFactory;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspective;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspectiveStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MBasicFactory;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimmedWindow;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+
+/**
+ * Measures how long it takes to load a large workbench model saved either as
+ * XMI or in the binary format.
+ *
+ * @since 3.12
+ */
+public class ModelPersistenceTest extends BasicPerformanceTest {
+
+	private static final String BINARY_EXTENSION = "e4bin";
+
+	private static final String XMI_EXTENSION = "xmi";
+
+	private final boolean binary;
+
+	private final int elementCount;
+
+	public ModelPersistenceTest(boolean binary, int elementCount) {
+		super("Load " + (binary ? "binary" : "XMI") + " workbench model with " + elementCount
+				+ " elements");
+		this.binary = binary;
+		this.elementCount = elementCount;
+	}
+
+	@Override
+	protected void runTest() throws Throwable {
+		String extension = binary ? BINARY_EXTENSION : XMI_EXTENSION;
+		File file = File.createTempFile("workbench", "." + extension);
+		try {
+			final URI uri = URI.createFileURI(file.getAbsolutePath());
+			Resource resource = createResourceSet().createResource(uri);
+			resource.getContents().add((EObject) createApplication());
+			resource.save(null);
+			final int savedCount = countElements(resource);
+
+			exercise(new TestRunnable() {
+				@Override
+				public void run() throws Exception {
+					Resource loaded = createResourceSet().createResource(uri);
+					startMeasuring();
+					loaded.load(null);
+					stopMeasuring();
+					assertEquals(savedCount, countElements(loaded));
+					loaded.unload();
+				}
+			});
+			commitMeasurements();
+			assertPerformance();
+		} finally {
+			file.delete();
+		}
+	}
+
+	private ResourceSetImpl createResourceSet() {
+		ResourceSetImpl resourceSet = new ResourceSetImpl();
+		resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap()
+				.put(XMI_EXTENSION, new E4XMIResourceFactory());
+		resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap()
+				.put(BINARY_EXTENSION, new E4BinaryResourceFactory());
+		return resourceSet;
+	}
+
+	/**
+	 * Creates a window with perspectives full of part stacks until the model
+	 * contains the requested number of elements.
+	 */
+	private MApplication createApplication() {
+		MApplication application = MApplicationFactory.INSTANCE.createApplication();
+		MTrimmedWindow window = MBasicFactory.INSTANCE.createTrimmedWindow();
+		window.setElementId("window");
+		application.getChildren().add(window);
+		MPerspectiveStack perspectiveStack = MAdvancedFactory.INSTANCE.createPerspectiveStack();
+		window.getChildren().add(perspectiveStack);
+		int count = 3;
+		while (count < elementCount) {
+			MPerspective perspective = MAdvancedFactory.INSTANCE.createPerspective();
+			perspective.setElementId("perspective" + count);
+			perspectiveStack.getChildren().add(perspective);
+			count++;
+			for (int i = 0; i < 20 && count < elementCount; i++) {
+				MPartStack stack = MBasicFactory.INSTANCE.createPartStack();
+				stack.setElementId("stack" + count);
+				perspective.getChildren().add(stack);
+				count++;
+				for (int j = 0; j < 50 && count < elementCount; j++) {
+					MPart part = MBasicFactory.INSTANCE.createPart();
+					part.setElementId("part" + count);
+					part.setLabel("Part " + count);
+					part.setContributionURI("bundleclass://org.eclipse.ui.tests.performance/Part");
+					part.getTags().add("View");
+					part.getPersistedState().put("memento", "<memento id=\"" + count + "\"/>");
+					stack.getChildren().add(part);
+					count++;
+				}
+			}
+		}
+		return application;
+	}
+
+	private static int countElements(Resource resource) {
+		int count = 0;
+		TreeIterator<EObject> it = resource.getAllContents();
+		while (it.hasNext()) {
+			it.next();
+			count++;
+		}
+		return count;
+	}
+}
@@ -84,8 +84,19 @@ class WorkbenchPerformanceSuite extends TestSuite {
         addPerspectiveOpenCloseScenarios();
         addWindowOpenCloseScenarios();
         addContributionScenarios();
+        addThemeScenarios();
+        addModelPersistenceScenarios();
     }
 
+	private void addModelPersistenceScenarios() {
+		addTest(new ModelPersistenceTest(false, 20000));
+		addTest(new ModelPersistenceTest(true, 20000));
+	}
+
+	private void addThemeScenarios() {
+		addTest(new ApplyThemeTest(5000));
+	}
+
     /**
 	 *
 	 */
@@ -67,5 +67,7 @@ public class AllTests extends TestSuite {
 		addTestSuite(Bug242231Test.class);
 		addTestSuite(StyledStringBuilderTest.class);
 		addTestSuite(TreeManagerTest.class);
+		addTestSuite(BackgroundRefreshTableViewerTest.class);
+		addTestSuite(LabelCacheTableViewerTest.class);
 	}
 }
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.viewers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jface.viewers.StructuredViewer;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerFilter;
+import org.eclipse.swt.widgets.Composite;
+
+/**
+ * Tests refreshing a table viewer with a background refresh executor.
+ *
+ * @since 3.12
+ */
+public class BackgroundRefreshTableViewerTest extends ViewerTestCase {
+
+	private TableViewer tableViewer;
+
+	private List<Runnable> scheduled = new ArrayList<>();
+
+	/**
+	 * @param name
+	 */
+	public BackgroundRefreshTableViewerTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected StructuredViewer createViewer(Composite parent) {
+		tableViewer = new TableViewer(parent);
+		tableViewer.setContentProvider(new TestModelContentProvider());
+		tableViewer.setLabelProvider(new TestLabelProvider());
+		tableViewer.setBackgroundRefreshExecutor(scheduled::add);
+		return tableViewer;
+	}
+
+	private void runScheduled(int index) throws InterruptedException {
+		Thread worker = new Thread(scheduled.get(index));
+		worker.start();
+		worker.join();
+		processEvents();
+	}
+
+	public void testRefreshAppliedAfterComputation() throws InterruptedException {
+		int count = tableViewer.getTable().getItemCount();
+		fRootElement.basicAddChild();
+		tableViewer.refresh();
+		assertEquals(1, scheduled.size());
+		assertEquals(count, tableViewer.getTable().getItemCount());
+
+		runScheduled(0);
+		assertEquals(count + 1, tableViewer.getTable().getItemCount());
+	}
+
+	public void testSupersededRefreshIsDiscarded() throws InterruptedException {
+		int count = tableViewer.getTable().getItemCount();
+		fRootElement.basicAddChild();
+		tableViewer.refresh();
+		fRootElement.basicAddChild();
+		tableViewer.refresh();
+		assertEquals(2, scheduled.size());
+
+		runScheduled(0);
+		assertEquals(count, tableViewer.getTable().getItemCount());
+		runScheduled(1);
+		assertEquals(count + 2, tableViewer.getTable().getItemCount());
+	}
+
+	public void testFilterRunsInBackground() throws InterruptedException {
+		final List<Thread> filterThreads = new ArrayList<>();
+		tableViewer.addFilter(new ViewerFilter() {
+			@Override
+			public boolean select(Viewer viewer, Object parentElement, Object element) {
+				filterThreads.add(Thread.currentThread());
+				return !"added".equals(((TestElement) element).getLabel());
+			}
+		});
+		assertEquals(1, scheduled.size());
+		runScheduled(0);
+		assertFalse(filterThreads.isEmpty());
+		assertFalse(filterThreads.contains(Thread.currentThread()));
+
+		int count = tableViewer.getTable().getItemCount();
+		fRootElement.basicAddChild();
+		tableViewer.refresh();
+		runScheduled(1);
+		assertEquals(count, tableViewer.getTable().getItemCount());
+	}
+
+	public void testSynchronousWithoutExecutor() {
+		tableViewer.setBackgroundRefreshExecutor(null);
+		int count = tableViewer.getTable().getItemCount();
+		fRootElement.basicAddChild();
+		tableViewer.refresh();
+		assertTrue(scheduled.isEmpty());
+		assertEquals(count + 1, tableViewer.getTable().getItemCount());
+	}
+
+	public void testSetInputCancelsPendingRefresh() throws InterruptedException {
+		fRootElement.basicAddChild();
+		tableViewer.refresh();
+		tableViewer.setInput(null);
+		runScheduled(0);
+		assertEquals(0, tableViewer.getTable().getItemCount());
+	}
+}
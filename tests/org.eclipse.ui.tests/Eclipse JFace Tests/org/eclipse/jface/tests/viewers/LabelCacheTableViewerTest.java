@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.viewers;
+
+import org.eclipse.jface.viewers.ColumnLabelProvider;
+import org.eclipse.jface.viewers.LabelProviderChangedEvent;
+import org.eclipse.jface.viewers.StructuredViewer;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.swt.widgets.Composite;
+
+/**
+ * Tests the cell label cache of a table viewer.
+ *
+ * @since 3.12
+ */
+public class LabelCacheTableViewerTest extends ViewerTestCase {
+
+	private TableViewer tableViewer;
+
+	private CountingLabelProvider labelProvider;
+
+	private static class CountingLabelProvider extends ColumnLabelProvider {
+		int count;
+
+		String suffix = "";
+
+		@Override
+		public String getText(Object element) {
+			count++;
+			return ((TestElement) element).getLabel() + suffix;
+		}
+
+		void fireChanged(Object[] elements) {
+			fireLabelProviderChanged(new LabelProviderChangedEvent(this, elements));
+		}
+	}
+
+	/**
+	 * @param name
+	 */
+	public LabelCacheTableViewerTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected StructuredViewer createViewer(Composite parent) {
+		tableViewer = new TableViewer(parent);
+		tableViewer.setContentProvider(new TestModelContentProvider());
+		labelProvider = new CountingLabelProvider();
+		tableViewer.setLabelProvider(labelProvider);
+		tableViewer.setLabelCacheSize(100);
+		return tableViewer;
+	}
+
+	public void testRefreshUsesCachedLabels() {
+		int count = labelProvider.count;
+		long hits = tableViewer.getLabelCacheHits();
+		tableViewer.refresh();
+		assertEquals(count, labelProvider.count);
+		assertEquals(hits + fRootElement.getChildCount(), tableViewer.getLabelCacheHits());
+		assertEquals(fRootElement.getFirstChild().getLabel(), tableViewer.getTable().getItem(0).getText());
+	}
+
+	public void testUpdateDiscardsCachedLabel() {
+		TestElement first = fRootElement.getFirstChild();
+		labelProvider.suffix = "*";
+		tableViewer.update(first, null);
+		assertEquals(first.getLabel() + "*", tableViewer.getTable().getItem(0).getText());
+
+		tableViewer.refresh();
+		assertEquals(first.getLabel() + "*", tableViewer.getTable().getItem(0).getText());
+		assertEquals(fRootElement.getChildAt(1).getLabel(), tableViewer.getTable().getItem(1).getText());
+	}
+
+	public void testLabelProviderChangedDiscardsCachedLabels() {
+		labelProvider.suffix = "*";
+		labelProvider.fireChanged(new Object[] { fRootElement.getChildAt(1) });
+		assertEquals(fRootElement.getFirstChild().getLabel(), tableViewer.getTable().getItem(0).getText());
+		assertEquals(fRootElement.getChildAt(1).getLabel() + "*", tableViewer.getTable().getItem(1).getText());
+
+		labelProvider.fireChanged(null);
+		assertEquals(fRootElement.getFirstChild().getLabel() + "*", tableViewer.getTable().getItem(0).getText());
+	}
+
+	public void testCacheSizeIsBounded() {
+		tableViewer.setLabelCacheSize(1);
+		int count = labelProvider.count;
+		tableViewer.refresh();
+		assertEquals(count + fRootElement.getChildCount(), labelProvider.count);
+		assertEquals(0, tableViewer.getLabelCacheHits());
+		assertEquals(fRootElement.getChildCount(), tableViewer.getLabelCacheMisses());
+	}
+
+	public void testSettingSizeResetsStatistics() {
+		tableViewer.refresh();
+		assertTrue(tableViewer.getLabelCacheHits() > 0);
+
+		tableViewer.setLabelCacheSize(100);
+		assertEquals(0, tableViewer.getLabelCacheHits());
+		assertEquals(0, tableViewer.getLabelCacheMisses());
+
+		// the labels are kept
+		int count = labelProvider.count;
+		tableViewer.refresh();
+		assertEquals(count, labelProvider.count);
+		assertEquals(fRootElement.getChildCount(), tableViewer.getLabelCacheHits());
+	}
+
+	public void testDisabledCache() {
+		tableViewer.setLabelCacheSize(0);
+		int count = labelProvider.count;
+		tableViewer.refresh();
+		assertEquals(count + fRootElement.getChildCount(), labelProvider.count);
+		assertEquals(0, tableViewer.getLabelCacheSize());
+		assertEquals(0, tableViewer.getLabelCacheMisses());
+	}
+}
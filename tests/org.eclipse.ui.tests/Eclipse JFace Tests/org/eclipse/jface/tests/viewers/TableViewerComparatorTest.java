@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006 IBM Corporation and others.
+ * Copyright (c) 2006, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,6 +11,11 @@
 
 package org.eclipse.jface.tests.viewers;
 
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jface.util.ISortKeyComparator;
 import org.eclipse.jface.viewers.ColumnLayoutData;
 import org.eclipse.jface.viewers.ColumnWeightData;
 import org.eclipse.jface.viewers.StructuredViewer;
@@ -86,6 +91,72 @@ public class TableViewerComparatorTest extends ViewerComparatorTest {
 		assertSortedResult(TEAM1_SORTED_WITH_INSERT);
 	}
 
+	public void testViewerComparatorSortKeys(){
+		ViewerComparator comparator = new ViewerComparator();
+		comparator.setSortKeysEnabled(true);
+		fViewer.setComparator(comparator);
+		team1.addMember("Duong");
+		assertSortedResult(TEAM1_SORTED_WITH_INSERT);
+	}
+
+	public void testViewerSorterSortKeys(){
+		ViewerSorter sorter = new ViewerSorter();
+		sorter.setSortKeysEnabled(true);
+		fViewer.setSorter(sorter);
+		team1.addMember("Duong");
+		assertSortedResult(TEAM1_SORTED_WITH_INSERT);
+	}
+
+	public void testViewerComparatorSortKeyComparator(){
+		CountingSortKeyComparator keyComparator = new CountingSortKeyComparator();
+		ViewerComparator comparator = new ViewerComparator(keyComparator);
+		comparator.setSortKeysEnabled(true);
+		fViewer.setComparator(comparator);
+		assertSortedResult(TEAM1_SORTED);
+		assertEquals("Each label is keyed once", TEAM1_SORTED.length, keyComparator.keyCount.get());
+		assertEquals("Labels are not compared", 0, keyComparator.compareCount.get());
+	}
+
+	public void testSortKeyComparatorLargeArray(){
+		Random random = new Random(1);
+		String[] elements = new String[50000];
+		for (int i = 0; i < elements.length; i++) {
+			elements[i] = Integer.toString(random.nextInt(1000000), 36);
+		}
+		String[] expected = elements.clone();
+		Arrays.sort(expected);
+
+		CountingSortKeyComparator keyComparator = new CountingSortKeyComparator();
+		ViewerComparator comparator = new ViewerComparator(keyComparator);
+		comparator.setSortKeysEnabled(true);
+		comparator.sort(null, elements);
+		assertTrue(Arrays.equals(expected, elements));
+		assertEquals("Each label is keyed once", elements.length, keyComparator.keyCount.get());
+		assertEquals("Labels are not compared", 0, keyComparator.compareCount.get());
+	}
+
+	private static class CountingSortKeyComparator implements ISortKeyComparator {
+		final AtomicInteger keyCount = new AtomicInteger();
+		final AtomicInteger compareCount = new AtomicInteger();
+
+		@Override
+		public int compare(Object o1, Object o2) {
+			compareCount.incrementAndGet();
+			return ((String) o1).compareTo((String) o2);
+		}
+
+		@Override
+		public Object getSortKey(String string) {
+			keyCount.incrementAndGet();
+			return string;
+		}
+
+		@Override
+		public int compareSortKeys(Object key1, Object key2) {
+			return ((String) key1).compareTo((String) key2);
+		}
+	}
+
 	private void assertSortedResult(String[] expected){
 		TableItem[] items = getTableViewer().getTable().getItems();
 		for (int i = 0; i < items.length; i++){
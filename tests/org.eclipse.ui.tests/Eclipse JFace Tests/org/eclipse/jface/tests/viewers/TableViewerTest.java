@@ -193,6 +193,40 @@ public class TableViewerTest extends StructuredItemViewerTest {
 
 	}
 
+	public void testRefreshKeepsItemsOfRemainingElements() {
+		Table table = ((TableViewer) fViewer).getTable();
+		TestElement first = fRootElement.getFirstChild();
+		TableItem second = table.getItem(1);
+		fRootElement.basicDeleteChild(first);
+		TestElement added = fRootElement.basicAddChild();
+		fViewer.refresh(false);
+
+		assertEquals(fRootElement.getChildCount(), table.getItemCount());
+		assertSame("Item of remaining element was recreated", second, table.getItem(0));
+		assertNull(fViewer.testFindItem(first));
+		assertSame(table.getItem(table.getItemCount() - 1), fViewer.testFindItem(added));
+		for (int i = 0; i < table.getItemCount(); i++) {
+			assertSame(fRootElement.getChildAt(i), table.getItem(i).getData());
+			assertSame(table.getItem(i), fViewer.testFindItem(fRootElement.getChildAt(i)));
+		}
+	}
+
+	public void testRefreshMovedElement() {
+		Table table = ((TableViewer) fViewer).getTable();
+		TestElement first = fRootElement.getFirstChild();
+		fRootElement.fChildren.remove(first);
+		fRootElement.fChildren.add(first);
+		fViewer.refresh();
+
+		assertEquals(fRootElement.getChildCount(), table.getItemCount());
+		for (int i = 0; i < table.getItemCount(); i++) {
+			TestElement child = fRootElement.getChildAt(i);
+			assertSame(child, table.getItem(i).getData());
+			assertEquals(child.toString(), table.getItem(i).getText());
+			assertSame(table.getItem(i), fViewer.testFindItem(child));
+		}
+	}
+
 
 
 }
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.decorators;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jface.viewers.IDecoration;
+import org.eclipse.jface.viewers.ILabelProviderListener;
+import org.eclipse.jface.viewers.ILightweightLabelDecorator;
+
+/**
+ * The ConcurrencyCheckDecorator is contributed twice by the test plug-in and
+ * records whether the two contributions ever decorated at the same time.
+ */
+public class ConcurrencyCheckDecorator implements ILightweightLabelDecorator {
+
+	public static final String ID = "org.eclipse.ui.tests.decorators.concurrencyCheck";
+
+	public static final String OTHER_ID = "org.eclipse.ui.tests.decorators.concurrencyCheck2";
+
+	public static final String SUFFIX = " checked";
+
+	private static final AtomicInteger running = new AtomicInteger();
+
+	private static final AtomicInteger calls = new AtomicInteger();
+
+	private static volatile boolean overlapped;
+
+	@Override
+	public void decorate(Object element, IDecoration decoration) {
+		if (running.incrementAndGet() > 1) {
+			overlapped = true;
+		}
+		try {
+			calls.incrementAndGet();
+			// Leave the other decoration jobs time to get in
+			Thread.sleep(1);
+			decoration.addSuffix(SUFFIX);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			running.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Forget the calls recorded so far.
+	 */
+	public static void reset() {
+		calls.set(0);
+		overlapped = false;
+	}
+
+	/**
+	 * @return the number of elements decorated since the last reset
+	 */
+	public static int getCalls() {
+		return calls.get();
+	}
+
+	/**
+	 * @return whether two decorations ran at the same time since the last
+	 *         reset
+	 */
+	public static boolean hasOverlapped() {
+		return overlapped;
+	}
+
+	@Override
+	public void addListener(ILabelProviderListener listener) {
+	}
+
+	@Override
+	public void dispose() {
+	}
+
+	@Override
+	public boolean isLabelProperty(Object element, String property) {
+		return false;
+	}
+
+	@Override
+	public void removeListener(ILabelProviderListener listener) {
+	}
+}
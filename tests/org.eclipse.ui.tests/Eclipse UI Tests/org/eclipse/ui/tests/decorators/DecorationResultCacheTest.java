@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.decorators;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.viewers.DecorationContext;
+import org.eclipse.jface.viewers.IDecorationContext;
+import org.eclipse.ui.internal.decorators.DecorationResultCache;
+
+/**
+ * Tests that the results of elements awaiting their label update are not
+ * evicted from the decoration result cache.
+ */
+public class DecorationResultCacheTest extends TestCase {
+
+	private static final IDecorationContext CONTEXT = DecorationContext.DEFAULT_CONTEXT;
+
+	public DecorationResultCacheTest(String name) {
+		super(name);
+	}
+
+	public void testPinnedResultsNotEvicted() {
+		DecorationResultCache<String> cache = new DecorationResultCache<>(2);
+		for (int i = 0; i < 5; i++) {
+			cache.put("element" + i, CONTEXT, "result" + i);
+		}
+		assertEquals(5, cache.size());
+		for (int i = 0; i < 5; i++) {
+			assertEquals("result" + i, cache.get("element" + i, CONTEXT));
+		}
+	}
+
+	public void testUnpinnedResultsEvicted() {
+		DecorationResultCache<String> cache = new DecorationResultCache<>(2);
+		for (int i = 0; i < 5; i++) {
+			cache.put("element" + i, CONTEXT, "result" + i);
+		}
+		cache.unpin(new Object[] { "element0", "element1", "element2" });
+		assertEquals(4, cache.size());
+		assertNull(cache.get("element0", CONTEXT));
+		assertEquals("result1", cache.get("element1", CONTEXT));
+		assertEquals("result2", cache.get("element2", CONTEXT));
+		assertEquals("result3", cache.get("element3", CONTEXT));
+		assertEquals("result4", cache.get("element4", CONTEXT));
+
+		// the least recently used result is evicted first
+		cache.get("element1", CONTEXT);
+		cache.unpin(new Object[] { "element3" });
+		assertNull(cache.get("element2", CONTEXT));
+		assertEquals("result1", cache.get("element1", CONTEXT));
+		assertEquals("result3", cache.get("element3", CONTEXT));
+	}
+
+	public void testPin() {
+		DecorationResultCache<String> cache = new DecorationResultCache<>(1);
+		assertFalse(cache.pin("element0", CONTEXT));
+		cache.put("element0", CONTEXT, "result0");
+		cache.unpin(new Object[] { "element0" });
+		assertTrue(cache.pin("element0", CONTEXT));
+
+		// a pinned result survives other results being unpinned
+		cache.put("element1", CONTEXT, "result1");
+		cache.unpin(new Object[] { "element1" });
+		cache.put("element2", CONTEXT, "result2");
+		cache.unpin(new Object[] { "element2" });
+		assertEquals("result0", cache.get("element0", CONTEXT));
+		assertNull(cache.get("element1", CONTEXT));
+	}
+
+	public void testContexts() {
+		DecorationResultCache<String> cache = new DecorationResultCache<>(10);
+		DecorationContext other = new DecorationContext();
+		cache.put("element", CONTEXT, "default");
+		cache.put("element", other, "other");
+		assertEquals("default", cache.get("element", CONTEXT));
+		assertEquals("other", cache.get("element", other));
+		cache.unpin(new Object[] { "element" });
+		assertEquals("default", cache.get("element", CONTEXT));
+		assertEquals("other", cache.get("element", other));
+	}
+
+	public void testClear() {
+		DecorationResultCache<String> cache = new DecorationResultCache<>(10);
+		cache.put("element0", CONTEXT, "result0");
+		cache.put("element1", CONTEXT, "result1");
+		cache.unpin(new Object[] { "element0" });
+		cache.clearUnpinned();
+		assertNull(cache.get("element0", CONTEXT));
+		assertEquals("result1", cache.get("element1", CONTEXT));
+		cache.clear();
+		assertEquals(0, cache.size());
+	}
+}
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.decorators;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.viewers.DecorationContext;
+import org.eclipse.jface.viewers.IDecorationContext;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.internal.WorkbenchPlugin;
+import org.eclipse.ui.internal.decorators.DecorationScheduler;
+import org.eclipse.ui.internal.decorators.DecoratorManager;
+
+/**
+ * Tests that a decoration scheduler with several workers decorates all the
+ * queued elements, and never runs the decorators of a plug-in at the same
+ * time.
+ */
+public class DecorationSchedulerTest extends TestCase {
+
+	private static final IDecorationContext CONTEXT = DecorationContext.DEFAULT_CONTEXT;
+
+	private static final int WORKERS = 4;
+
+	private static final int ELEMENTS = 200;
+
+	private static final long TIMEOUT = 30000;
+
+	private DecoratorManager manager;
+
+	public DecorationSchedulerTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		manager = WorkbenchPlugin.getDefault().getDecoratorManager();
+		manager.setEnabled(ConcurrencyCheckDecorator.ID, true);
+		manager.setEnabled(ConcurrencyCheckDecorator.OTHER_ID, true);
+		ConcurrencyCheckDecorator.reset();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		manager.setEnabled(ConcurrencyCheckDecorator.ID, false);
+		manager.setEnabled(ConcurrencyCheckDecorator.OTHER_ID, false);
+		super.tearDown();
+	}
+
+	public void testSeveralWorkers() throws Exception {
+		DecorationScheduler scheduler = new DecorationScheduler(manager, WORKERS);
+		assertEquals(WORKERS, scheduler.getWorkerCount());
+
+		TableElement[] elements = new TableElement[ELEMENTS];
+		for (int i = 0; i < elements.length; i++) {
+			elements[i] = new TableElement(i);
+			// Not decorated yet, this queues the element
+			assertEquals(elements[i].name, scheduler.decorateWithText(elements[i].name, elements[i], null, CONTEXT));
+		}
+
+		waitForDecorations(scheduler, elements);
+
+		String suffixes = ConcurrencyCheckDecorator.SUFFIX + ConcurrencyCheckDecorator.SUFFIX;
+		for (int i = 0; i < elements.length; i++) {
+			assertEquals(elements[i].name + suffixes,
+					scheduler.decorateWithText(elements[i].name, elements[i], null, CONTEXT));
+		}
+		assertEquals(2 * ELEMENTS, ConcurrencyCheckDecorator.getCalls());
+		assertFalse("The decorators of a plug-in ran at the same time", ConcurrencyCheckDecorator.hasOverlapped());
+	}
+
+	private void waitForDecorations(DecorationScheduler scheduler, Object[] elements) throws InterruptedException {
+		Display display = Display.getCurrent();
+		long end = System.currentTimeMillis() + TIMEOUT;
+		for (int i = 0; i < elements.length; i++) {
+			while (!scheduler.isDecorationReady(elements[i], CONTEXT)) {
+				assertTrue("Decoration timed out", System.currentTimeMillis() < end);
+				// The label updates are sent on the UI thread
+				if (display != null) {
+					while (display.readAndDispatch()) {
+					}
+				}
+				Thread.sleep(10);
+			}
+		}
+	}
+}
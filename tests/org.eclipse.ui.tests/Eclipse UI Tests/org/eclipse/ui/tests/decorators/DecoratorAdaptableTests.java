@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,6 +17,9 @@ import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IAdapterFactory;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.PlatformObject;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.internal.WorkbenchPlugin;
 import org.eclipse.ui.internal.decorators.DecorationResult;
@@ -32,6 +35,9 @@ public class DecoratorAdaptableTests extends UITestCase {
 		ts.addTest(new DecoratorAdaptableTests("testAdaptables"));
 		ts.addTest(new DecoratorAdaptableTests("testNonAdaptableContributions"));
 		ts.addTest(new DecoratorAdaptableTests("testContributorResourceAdapter"));
+		ts.addTest(new DecoratorAdaptableTests("testSameClassDecorated"));
+		ts.addTest(new DecoratorAdaptableTests("testAdapterFactoryRegisteredLater"));
+		ts.addTest(new DecoratorAdaptableTests("testDecoratorDisabled"));
 		return ts;
 	}
 
@@ -132,6 +138,76 @@ public class DecoratorAdaptableTests extends UITestCase {
             );
     }
 
+	/**
+	 * Elements that adapt to a type only by a registered adapter factory, see
+	 * {@link #testAdapterFactoryRegisteredLater()}.
+	 */
+	public static class LateAdaptable extends PlatformObject {
+	}
+
+	/**
+	 * Tests that the decorators looked up for a class apply to all of its
+	 * instances.
+	 */
+	public final void testSameClassDecorated() {
+		assertDecorated("1", new String[] { TestAdaptableDecoratorContributor.SUFFIX },
+				new Object[] { new ObjectContributionClasses.A(), new ObjectContributionClasses.A(),
+						new ObjectContributionClasses.Common(), new ObjectContributionClasses.Common() },
+				true);
+		assertDecorated("2", new String[] { TestAdaptableDecoratorContributor.SUFFIX },
+				new Object[] { new Object(), new Object() }, false);
+	}
+
+	/**
+	 * Tests that the decorators of an adapter type apply to the elements of a
+	 * class once an adapter factory for the class is registered, although the
+	 * class was decorated before.
+	 */
+	public final void testAdapterFactoryRegisteredLater() {
+		assertDecorated("1", new String[] { TestAdaptableDecoratorContributor.SUFFIX },
+				new Object[] { new LateAdaptable() }, false);
+
+		IAdapterFactory factory = new IAdapterFactory() {
+			@Override
+			public Object getAdapter(Object adaptableObject, Class adapterType) {
+				if (adapterType == ObjectContributionClasses.ICommon.class) {
+					return new ObjectContributionClasses.Common();
+				}
+				return null;
+			}
+
+			@Override
+			public Class[] getAdapterList() {
+				return new Class[] { ObjectContributionClasses.ICommon.class };
+			}
+		};
+		Platform.getAdapterManager().registerAdapters(factory, LateAdaptable.class);
+		try {
+			assertDecorated("2", new String[] { TestAdaptableDecoratorContributor.SUFFIX },
+					new Object[] { new LateAdaptable() }, true);
+		} finally {
+			Platform.getAdapterManager().unregisterAdapters(factory, LateAdaptable.class);
+		}
+
+		assertDecorated("3", new String[] { TestAdaptableDecoratorContributor.SUFFIX },
+				new Object[] { new LateAdaptable() }, false);
+	}
+
+	/**
+	 * Tests that a disabled decorator is not applied to a class it decorated
+	 * before.
+	 */
+	public final void testDecoratorDisabled() {
+		Object[] elements = new Object[] { new ObjectContributionClasses.A() };
+		assertDecorated("1", new String[] { TestAdaptableDecoratorContributor.SUFFIX }, elements, true);
+
+		PlatformUI.getWorkbench().getDecoratorManager().setEnabled(TestAdaptableDecoratorContributor.ID, false);
+		assertDecorated("2", new String[] { TestAdaptableDecoratorContributor.SUFFIX }, elements, false);
+
+		PlatformUI.getWorkbench().getDecoratorManager().setEnabled(TestAdaptableDecoratorContributor.ID, true);
+		assertDecorated("3", new String[] { TestAdaptableDecoratorContributor.SUFFIX }, elements, true);
+	}
+
     /**
      * This tests backwards compatibility support for adaptable IResource objectContributions. This
      * allows IResource adaptable contributions without an adapter factory and using
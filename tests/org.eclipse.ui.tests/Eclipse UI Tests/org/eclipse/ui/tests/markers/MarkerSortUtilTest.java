@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2009 IBM Corporation and others.
+ * Copyright (c) 2008, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -44,6 +44,29 @@ public class MarkerSortUtilTest extends UITestCase {
 	public void testCompleteSort() {
 		sortToLimit(ARRAYSIZE,ARRAYSIZE);
 	}
+	public void testMergeSorted() {
+		MockMarkerEntry[] entries = generateArray(ARRAYSIZE);
+		int split = ARRAYSIZE - ARRAYSIZE / 10;
+		MockMarkerEntry[] sorted = Arrays.copyOfRange(entries, 0, split);
+		MockMarkerEntry[] additions = Arrays.copyOfRange(entries, split, ARRAYSIZE);
+		Comparator comparator = new Comparator() {
+			@Override
+			public int compare(Object o1, Object o2) {
+				return ((MockMarkerEntry) o1).name.compareTo(((MockMarkerEntry) o2).name);
+			}
+		};
+		Arrays.sort(sorted, comparator);
+		Object[] merged = MarkerSortUtil.mergeSorted(sorted, additions, comparator);
+		Arrays.sort(entries, comparator);
+
+		assertEquals(entries.length, merged.length);
+		for (int i = 0; i < entries.length; i++) {
+			if (!entries[i].equals(merged[i])) {
+				fail("Incorrect merge by MarkerSortUtil.mergeSorted(...)");
+			}
+		}
+	}
+
 	/**
 	 *
 	 */
@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.tests.markers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.ui.internal.views.markers.MarkersUpdateTester;
+import org.eclipse.ui.tests.harness.util.UITestCase;
+
+/**
+ * Tests that applying marker changes to the sorted markers gives the same
+ * markers and categories as collecting all the markers again.
+ */
+public class MarkersIncrementalUpdateTest extends UITestCase {
+
+	private static final IMarker[] NONE = new IMarker[0];
+
+	// less than the markers of each severity, so that they are partially sorted
+	private static final int LIMIT = 2;
+
+	private IProject project;
+
+	private IMarker[] errors;
+
+	private IMarker[] warnings;
+
+	private List<MarkersUpdateTester> testers = new ArrayList<MarkersUpdateTester>();
+
+	public MarkersIncrementalUpdateTest(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject("markersIncrementalUpdate");
+		if (!project.exists()) {
+			project.create(null);
+		}
+		if (!project.isOpen()) {
+			project.open(null);
+		}
+		errors = new IMarker[5];
+		warnings = new IMarker[5];
+		for (int i = 0; i < errors.length; i++) {
+			// interleaved messages, so that additions land in between
+			errors[i] = createMarker(IMarker.SEVERITY_ERROR, "Problem " + (i * 2));
+			warnings[i] = createMarker(IMarker.SEVERITY_WARNING, "Problem " + (i * 2 + 1));
+		}
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		for (MarkersUpdateTester tester : testers) {
+			tester.dispose();
+		}
+		testers.clear();
+		if (project.exists()) {
+			project.delete(true, null);
+		}
+		super.doTearDown();
+	}
+
+	public void testAddedGrouped() throws CoreException {
+		checkAdded(true, 0);
+	}
+
+	public void testAddedFlat() throws CoreException {
+		checkAdded(false, 0);
+	}
+
+	public void testRemovedGrouped() throws CoreException {
+		checkRemoved(true, 0);
+	}
+
+	public void testRemovedFlat() throws CoreException {
+		checkRemoved(false, 0);
+	}
+
+	public void testChangedGrouped() throws CoreException {
+		checkChanged(true, 0);
+	}
+
+	public void testChangedFlat() throws CoreException {
+		checkChanged(false, 0);
+	}
+
+	public void testAllChangesGrouped() throws CoreException {
+		checkAllChanges(true, 0);
+	}
+
+	public void testAllChangesFlat() throws CoreException {
+		checkAllChanges(false, 0);
+	}
+
+	public void testAddedGroupedWithLimits() throws CoreException {
+		checkAdded(true, LIMIT);
+	}
+
+	public void testAddedFlatWithLimits() throws CoreException {
+		checkAdded(false, LIMIT);
+	}
+
+	public void testRemovedGroupedWithLimits() throws CoreException {
+		checkRemoved(true, LIMIT);
+	}
+
+	public void testRemovedFlatWithLimits() throws CoreException {
+		checkRemoved(false, LIMIT);
+	}
+
+	public void testChangedGroupedWithLimits() throws CoreException {
+		checkChanged(true, LIMIT);
+	}
+
+	public void testChangedFlatWithLimits() throws CoreException {
+		checkChanged(false, LIMIT);
+	}
+
+	public void testAllChangesGroupedWithLimits() throws CoreException {
+		checkAllChanges(true, LIMIT);
+	}
+
+	public void testAllChangesFlatWithLimits() throws CoreException {
+		checkAllChanges(false, LIMIT);
+	}
+
+	private void checkAdded(boolean grouped, int limit) throws CoreException {
+		MarkersUpdateTester tester = collect(grouped, limit);
+		IMarker[] added = new IMarker[] {
+				createMarker(IMarker.SEVERITY_ERROR, "Problem 3a"),
+				createMarker(IMarker.SEVERITY_WARNING, "Problem 0a"),
+				// a new category
+				createMarker(IMarker.SEVERITY_INFO, "Problem 5a"),
+				createMarker(IMarker.SEVERITY_INFO, "Problem 9a") };
+
+		assertTrue(tester.applyUpdate(added, NONE, NONE));
+		assertCollected(tester, grouped, limit);
+	}
+
+	private void checkRemoved(boolean grouped, int limit) throws CoreException {
+		MarkersUpdateTester tester = collect(grouped, limit);
+		// all the warnings, their category is removed
+		List<IMarker> removed = new ArrayList<IMarker>(Arrays.asList(warnings));
+		removed.add(errors[0]);
+		removed.add(errors[3]);
+		for (IMarker marker : removed) {
+			marker.delete();
+		}
+
+		assertTrue(tester.applyUpdate(NONE, removed.toArray(new IMarker[removed.size()]), NONE));
+		assertCollected(tester, grouped, limit);
+	}
+
+	private void checkChanged(boolean grouped, int limit) throws CoreException {
+		MarkersUpdateTester tester = collect(grouped, limit);
+		// sorted elsewhere in the same category
+		errors[0].setAttribute(IMarker.MESSAGE, "Problem 9z");
+		// moved to another category
+		warnings[2].setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
+		// moved to a new category
+		errors[4].setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_INFO);
+
+		assertTrue(tester.applyUpdate(NONE, NONE, new IMarker[] { errors[0], warnings[2], errors[4] }));
+		assertCollected(tester, grouped, limit);
+	}
+
+	private void checkAllChanges(boolean grouped, int limit) throws CoreException {
+		MarkersUpdateTester tester = collect(grouped, limit);
+		IMarker[] added = new IMarker[] { createMarker(IMarker.SEVERITY_WARNING, "Problem 4a") };
+		warnings[1].delete();
+		errors[2].setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_WARNING);
+
+		assertTrue(tester.applyUpdate(added, new IMarker[] { warnings[1] }, new IMarker[] { errors[2] }));
+		assertCollected(tester, grouped, limit);
+	}
+
+	private IMarker createMarker(int severity, String message) throws CoreException {
+		IMarker marker = project.createMarker(IMarker.PROBLEM);
+		marker.setAttribute(IMarker.SEVERITY, severity);
+		marker.setAttribute(IMarker.MESSAGE, message);
+		return marker;
+	}
+
+	private MarkersUpdateTester collect(boolean grouped, int limit) {
+		MarkersUpdateTester tester = new MarkersUpdateTester(grouped, limit);
+		testers.add(tester);
+		assertTrue(tester.updateWithNewMarkers());
+		// none of the tests changes the second error
+		assertTrue("The markers of the project were not collected",
+				Arrays.asList(tester.getMarkers()).contains(errors[1]));
+		if (grouped) {
+			assertFalse(tester.getCategories().isEmpty());
+		}
+		return tester;
+	}
+
+	/*
+	 * Assert that the tester shows the markers the way they are shown once
+	 * they are collected again. With marker limits only the shown markers are
+	 * sorted, the others only have to be there.
+	 */
+	private void assertCollected(MarkersUpdateTester tester, boolean grouped, int limit) {
+		MarkersUpdateTester expected = collect(grouped, limit);
+		if (limit > 0) {
+			assertTrue("The markers are not partially sorted",
+					tester.getShownMarkers().size() < tester.getMarkers().length);
+			assertEquals(expected.getShownMarkers(), tester.getShownMarkers());
+			assertEquals(new HashSet<IMarker>(Arrays.asList(expected.getMarkers())),
+					new HashSet<IMarker>(Arrays.asList(tester.getMarkers())));
+		} else {
+			assertEquals(Arrays.asList(expected.getMarkers()), Arrays.asList(tester.getMarkers()));
+		}
+		assertEquals(expected.getCategories(), tester.getCategories());
+	}
+}
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.progress;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitorWithBlocking;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.ui.internal.progress.ProgressManager;
+import org.eclipse.ui.tests.harness.util.UITestCase;
+
+/**
+ * Tests that the work reported to the monitors of the jobs is throttled
+ * without being lost.
+ */
+public class JobMonitorTest extends UITestCase {
+
+	private static final int WORK_COUNT = 1000;
+
+	/**
+	 * Records the calls forwarded by a job monitor.
+	 */
+	static class RecordingMonitor extends NullProgressMonitor implements IProgressMonitorWithBlocking {
+		private int workedCount;
+
+		private double totalWork;
+
+		private final List<String> names = new ArrayList<String>();
+
+		@Override
+		public synchronized void internalWorked(double work) {
+			workedCount++;
+			totalWork += work;
+		}
+
+		@Override
+		public synchronized void setTaskName(String name) {
+			names.add(name);
+		}
+
+		@Override
+		public synchronized void subTask(String name) {
+			names.add(name);
+		}
+
+		@Override
+		public void setBlocked(IStatus reason) {
+		}
+
+		@Override
+		public void clearBlocked() {
+		}
+
+		synchronized int getWorkedCount() {
+			return workedCount;
+		}
+
+		synchronized double getTotalWork() {
+			return totalWork;
+		}
+
+		synchronized List<String> getNames() {
+			return new ArrayList<String>(names);
+		}
+	}
+
+	private DummyJob job;
+
+	private ProgressManager.JobMonitor monitor;
+
+	private RecordingMonitor recorder;
+
+	public JobMonitorTest(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		job = new DummyJob("Monitored job", Status.OK_STATUS);
+		monitor = ProgressManager.getInstance().progressFor(job);
+		recorder = new RecordingMonitor();
+		monitor.addProgressListener(recorder);
+		monitor.beginTask("Monitored task", WORK_COUNT);
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		monitor.done();
+		super.doTearDown();
+	}
+
+	public void testWorkThrottled() {
+		for (int i = 0; i < WORK_COUNT; i++) {
+			monitor.worked(1);
+		}
+		assertTrue("Every call was forwarded", recorder.getWorkedCount() < WORK_COUNT);
+	}
+
+	public void testHeldBackWorkApplied() {
+		for (int i = 0; i < WORK_COUNT; i++) {
+			monitor.worked(1);
+		}
+		// nothing else is reported, the held back work is applied later
+		assertTrue("The held back work was not applied", processEventsUntil(new Condition() {
+			@Override
+			public boolean compute() {
+				return recorder.getTotalWork() == WORK_COUNT;
+			}
+		}, 10000));
+	}
+
+	public void testTotalWorkAfterDone() {
+		for (int i = 0; i < WORK_COUNT; i++) {
+			monitor.worked(1);
+		}
+		monitor.done();
+		assertEquals(WORK_COUNT, recorder.getTotalWork(), 0);
+	}
+
+	public void testRepeatedNamesForwarded() {
+		monitor.setTaskName("Task");
+		monitor.setTaskName("Task");
+		monitor.subTask("Subtask");
+		monitor.subTask("Subtask");
+		List<String> expected = new ArrayList<String>();
+		expected.add("Task");
+		expected.add("Task");
+		expected.add("Subtask");
+		expected.add("Subtask");
+		assertEquals(expected, recorder.getNames());
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 IBM Corporation and others.
+ * Copyright (c) 2009, 2016 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -28,7 +28,9 @@ import org.junit.runners.Suite;
 	ProgressViewTests.class,
 	JobInfoTest.class,
 	JobInfoTestOrdering.class,
-	ProgressAnimationItemTest.class
+	ProgressAnimationItemTest.class,
+	ProgressViewUpdaterTest.class,
+	JobMonitorTest.class
 })
 public class ProgressTestSuite {
 
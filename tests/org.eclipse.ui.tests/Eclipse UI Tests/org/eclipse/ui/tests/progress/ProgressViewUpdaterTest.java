@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2016 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.progress;
+
+import org.eclipse.core.runtime.Status;
+import org.eclipse.ui.internal.progress.JobInfo;
+import org.eclipse.ui.internal.progress.ProgressContentProvider;
+import org.eclipse.ui.internal.progress.ProgressViewUpdater;
+import org.eclipse.ui.tests.harness.util.UITestCase;
+
+/**
+ * Tests that the events of the job listeners are merged before they reach the
+ * progress viewers, and that the merged and dropped events are counted.
+ */
+public class ProgressViewUpdaterTest extends UITestCase {
+
+	/**
+	 * Counts the updates of the viewers. Registered with the updater on
+	 * creation, unregistered on dispose.
+	 */
+	static class UpdateCollector extends ProgressContentProvider {
+		int refreshAllCount;
+
+		int updateCount;
+
+		Object element;
+
+		int elementCount;
+
+		UpdateCollector(Object element) {
+			this.element = element;
+		}
+
+		@Override
+		public void refresh() {
+			refreshAllCount++;
+		}
+
+		@Override
+		public void refresh(Object[] elements) {
+			count(elements);
+		}
+
+		@Override
+		public void add(Object[] elements) {
+			count(elements);
+		}
+
+		@Override
+		public void remove(Object[] elements) {
+			count(elements);
+		}
+
+		private void count(Object[] elements) {
+			updateCount++;
+			for (Object updated : elements) {
+				if (updated == element) {
+					elementCount++;
+				}
+			}
+		}
+	}
+
+	private ProgressViewUpdater updater;
+
+	private JobInfo info;
+
+	private UpdateCollector collector;
+
+	public ProgressViewUpdaterTest(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		info = new ExtendedJobInfo(new DummyJob("Updated job", Status.OK_STATUS));
+		updater = ProgressViewUpdater.getSingleton();
+		collector = new UpdateCollector(info);
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		collector.dispose();
+		super.doTearDown();
+	}
+
+	public void testRepeatedRefreshesMerged() {
+		int coalesced = updater.getCoalescedCount();
+		// the update job runs in the UI thread, it cannot run in between
+		for (int i = 0; i < 100; i++) {
+			updater.refreshJobInfo(info);
+		}
+		assertTrue("The viewers were not updated", processEventsUntil(new Condition() {
+			@Override
+			public boolean compute() {
+				return collector.elementCount > 0 || collector.refreshAllCount > 0;
+			}
+		}, 10000));
+		processEvents();
+
+		// other jobs may have updates merged as well
+		assertTrue(updater.getCoalescedCount() >= coalesced + 99);
+		if (collector.refreshAllCount == 0) {
+			assertEquals(1, collector.elementCount);
+		}
+	}
+
+	public void testTooManyEventsRefreshAll() {
+		int dropped = updater.getDroppedCount();
+		// the update job runs in the UI thread, the queue fills up
+		while (updater.getDroppedCount() == dropped) {
+			updater.refreshJobInfo(info);
+		}
+		for (int i = 0; i < 10; i++) {
+			updater.refreshJobInfo(info);
+		}
+		// job listeners in other threads may have events dropped as well
+		assertTrue(updater.getDroppedCount() >= dropped + 11);
+
+		assertTrue("The viewers were not refreshed", processEventsUntil(new Condition() {
+			@Override
+			public boolean compute() {
+				return collector.refreshAllCount > 0;
+			}
+		}, 10000));
+		processEvents();
+
+		// the pending events are dropped in favor of the full refresh
+		assertEquals(1, collector.refreshAllCount);
+		assertEquals(0, collector.elementCount);
+	}
+}